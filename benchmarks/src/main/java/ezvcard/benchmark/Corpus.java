@@ -0,0 +1,249 @@
+package ezvcard.benchmark;
+
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.UUID;
+
+import ezvcard.Ezvcard;
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.parameter.AddressType;
+import ezvcard.parameter.EmailType;
+import ezvcard.parameter.ImageType;
+import ezvcard.parameter.TelephoneType;
+import ezvcard.property.Address;
+import ezvcard.property.Birthday;
+import ezvcard.property.Photo;
+import ezvcard.property.StructuredName;
+import ezvcard.property.Uid;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Generates the synthetic vCards that the benchmarks run against. The data is
+ * generated with a fixed random seed, so the same corpus is produced on every
+ * run.
+ * @author Michael Angstadt
+ */
+public final class Corpus {
+	/**
+	 * The kinds of vCards the corpus can contain.
+	 */
+	public enum Size {
+		/**
+		 * FN and N only.
+		 */
+		TINY,
+
+		/**
+		 * A typical address book entry.
+		 */
+		TYPICAL,
+
+		/**
+		 * A typical address book entry with many more phone numbers, email
+		 * addresses, URLs, and notes.
+		 */
+		LARGE,
+
+		/**
+		 * A typical address book entry with a 128KB embedded photo.
+		 */
+		PHOTO
+	}
+
+	private static final String[] GIVEN_NAMES = { "John", "Jane", "Zoë", "Björn", "Akira", "María", "Chloé", "Søren", "Kwame", "Olga" };
+	private static final String[] FAMILY_NAMES = { "Doe", "Smith", "Müller", "Tanaka", "García", "O'Brien", "Nguyễn", "Kowalski", "Dubois", "Ivanova" };
+	private static final String[] CITIES = { "Boston", "München", "Tōkyō", "São Paulo", "Kraków", "Montréal" };
+	private static final String[] WORDS = { "lorem", "ipsum", "dolor", "sit", "amet", "café", "naïve", "résumé", "façade", "über", "smörgåsbord", "piñata" };
+
+	private Corpus() {
+		//hide
+	}
+
+	/**
+	 * Generates a list of vCards.
+	 * @param size the kind of vCards to generate
+	 * @param count the number of vCards to generate
+	 * @return the vCards
+	 */
+	public static List<VCard> generate(Size size, int count) {
+		Random random = new Random(size.ordinal());
+		List<VCard> vcards = new ArrayList<VCard>(count);
+		for (int i = 0; i < count; i++) {
+			vcards.add(generate(size, random));
+		}
+		return vcards;
+	}
+
+	private static VCard generate(Size size, Random random) {
+		VCard vcard = new VCard();
+
+		String given = pick(GIVEN_NAMES, random);
+		String family = pick(FAMILY_NAMES, random);
+		StructuredName n = new StructuredName();
+		n.setFamily(family);
+		n.setGiven(given);
+		vcard.setStructuredName(n);
+		vcard.setFormattedName(given + " " + family);
+
+		if (size == Size.TINY) {
+			return vcard;
+		}
+
+		vcard.setOrganization("Acme, Inc.", "Research & Development");
+		vcard.addTitle("Senior " + pick(WORDS, random) + " engineer");
+		vcard.addTelephoneNumber(phone(random), TelephoneType.WORK, TelephoneType.VOICE);
+		vcard.addTelephoneNumber(phone(random), TelephoneType.HOME);
+		vcard.addTelephoneNumber(phone(random), TelephoneType.CELL);
+		vcard.addEmail(email(given, family, "example.com"), EmailType.WORK);
+		vcard.addEmail(email(given, family, "mail.example.org"), EmailType.HOME);
+		vcard.addAddress(address(AddressType.WORK, random));
+		vcard.addAddress(address(AddressType.HOME, random));
+		vcard.addUrl("http://www.example.com/~" + family.toLowerCase());
+		vcard.setBirthday(new Birthday(date(1950 + random.nextInt(50), random.nextInt(12), 1 + random.nextInt(28))));
+		vcard.addNote(note(random));
+		vcard.setCategories("friends", "work", pick(WORDS, random));
+		vcard.setGeo(random.nextInt(180) - 90 + random.nextDouble(), random.nextInt(360) - 180 + random.nextDouble());
+		vcard.setUid(new Uid("urn:uuid:" + new UUID(random.nextLong(), random.nextLong())));
+		vcard.setRevision(date(2016, random.nextInt(12), 1 + random.nextInt(28)));
+
+		switch (size) {
+		case LARGE:
+			for (int i = 0; i < 20; i++) {
+				vcard.addTelephoneNumber(phone(random), TelephoneType.WORK);
+				vcard.addEmail(email(given + i, family, "example.net"), EmailType.INTERNET);
+				vcard.addUrl("http://www.example.com/" + pick(WORDS, random) + "/" + i);
+				vcard.addNote(note(random));
+			}
+			break;
+		case PHOTO:
+			byte photo[] = new byte[128 * 1024];
+			random.nextBytes(photo);
+			vcard.addPhoto(new Photo(photo, ImageType.JPEG));
+			break;
+		default:
+			break;
+		}
+
+		return vcard;
+	}
+
+	/**
+	 * Writes vCards to a plain-text string.
+	 * @param vcards the vCards
+	 * @param version the version to write
+	 * @return the plain-text vCards
+	 */
+	public static String toText(List<VCard> vcards, VCardVersion version) {
+		return Ezvcard.write(vcards).version(version).prodId(false).go();
+	}
+
+	/**
+	 * Writes vCards to an xCard string.
+	 * @param vcards the vCards
+	 * @return the xCard document
+	 */
+	public static String toXml(List<VCard> vcards) {
+		return Ezvcard.writeXml(vcards).prodId(false).go();
+	}
+
+	/**
+	 * Writes vCards to a jCard string.
+	 * @param vcards the vCards
+	 * @return the jCard
+	 */
+	public static String toJson(List<VCard> vcards) {
+		return Ezvcard.writeJson(vcards).prodId(false).go();
+	}
+
+	/**
+	 * Writes vCards to an hCard page.
+	 * @param vcards the vCards
+	 * @return the HTML page
+	 */
+	public static String toHtml(List<VCard> vcards) {
+		return Ezvcard.writeHtml(vcards).go();
+	}
+
+	private static Address address(AddressType type, Random random) {
+		Address address = new Address();
+		address.setStreetAddress((1 + random.nextInt(999)) + " " + pick(WORDS, random) + " St.");
+		address.setLocality(pick(CITIES, random));
+		address.setRegion("XY");
+		address.setPostalCode(String.valueOf(10000 + random.nextInt(90000)));
+		address.setCountry("Country");
+		address.getTypes().add(type);
+		return address;
+	}
+
+	private static String note(Random random) {
+		StringBuilder sb = new StringBuilder();
+		int lines = 1 + random.nextInt(4);
+		for (int i = 0; i < lines; i++) {
+			if (i > 0) {
+				sb.append("\r\n");
+			}
+			int words = 5 + random.nextInt(15);
+			for (int j = 0; j < words; j++) {
+				if (j > 0) {
+					sb.append(j % 7 == 0 ? ", " : " ");
+				}
+				sb.append(pick(WORDS, random));
+			}
+			sb.append(';');
+		}
+		return sb.toString();
+	}
+
+	private static String phone(Random random) {
+		return "+1 " + (200 + random.nextInt(800)) + "-555-" + (1000 + random.nextInt(9000));
+	}
+
+	private static String email(String given, String family, String domain) {
+		return (given + "." + family).toLowerCase().replaceAll("[^a-z0-9.]", "") + "@" + domain;
+	}
+
+	private static Date date(int year, int month, int day) {
+		Calendar c = new GregorianCalendar(TimeZone.getTimeZone("UTC"));
+		c.clear();
+		c.set(year, month, day);
+		return c.getTime();
+	}
+
+	private static String pick(String[] values, Random random) {
+		return values[random.nextInt(values.length)];
+	}
+}
@@ -0,0 +1,141 @@
+package ezvcard.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.StreamReader;
+import ezvcard.io.text.ParallelVCardReader;
+import ezvcard.io.text.VCardReader;
+import ezvcard.io.text.VCardWriter;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Benchmarks the plain-text reader and writer. Each operation reads or writes
+ * the entire corpus. vCard 2.1 output uses quoted-printable encoding for the
+ * multi-line notes.
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TextBenchmark {
+	@Param({ "TINY", "TYPICAL", "LARGE", "PHOTO" })
+	public Corpus.Size size;
+
+	@Param({ "V2_1", "V3_0", "V4_0" })
+	public VCardVersion version;
+
+	@Param("100")
+	public int count;
+
+	private List<VCard> vcards;
+	private String text;
+
+	@Setup
+	public void setup() {
+		vcards = Corpus.generate(size, count);
+		text = Corpus.toText(vcards, version);
+	}
+
+	@Benchmark
+	public void read(Blackhole bh) throws IOException {
+		consume(new VCardReader(text), bh);
+	}
+
+	@Benchmark
+	public void readLazy(Blackhole bh) throws IOException {
+		VCardReader reader = new VCardReader(text);
+		reader.setLazyParsing(true);
+		consume(reader, bh);
+	}
+
+	@Benchmark
+	public void readParallel(Blackhole bh) throws IOException {
+		consume(new ParallelVCardReader(new StringReader(text)), bh);
+	}
+
+	@Benchmark
+	public String write() throws IOException {
+		StringWriter sw = new StringWriter();
+		VCardWriter writer = new VCardWriter(sw, version);
+		writer.setAddProdId(false);
+		for (VCard vcard : vcards) {
+			writer.write(vcard);
+		}
+		writer.close();
+		return sw.toString();
+	}
+
+	@Benchmark
+	public byte[] writeBytes() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		VCardWriter writer = new VCardWriter(out, version);
+		writer.setAddProdId(false);
+		for (VCard vcard : vcards) {
+			writer.write(vcard);
+		}
+		writer.close();
+		return out.toByteArray();
+	}
+
+	static void consume(StreamReader reader, Blackhole bh) throws IOException {
+		try {
+			VCard vcard;
+			while ((vcard = reader.readNext()) != null) {
+				bh.consume(vcard);
+			}
+		} finally {
+			reader.close();
+		}
+	}
+}
@@ -0,0 +1,134 @@
+package ezvcard.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.text.VCardWriter;
+import ezvcard.util.Utf8ByteWriter;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Compares {@link Utf8ByteWriter} with the {@link OutputStreamWriter} it
+ * replaced as the sink under {@link VCardWriter} for vCard 4.0 output.
+ * </p>
+ * <p>
+ * The "encode" benchmarks write the serialized corpus one line at a time, the
+ * way the vCard writer hands its output to the sink, so they measure the sink
+ * alone. The "write" benchmarks write the corpus with a {@link VCardWriter}
+ * on top of each sink.
+ * </p>
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class Utf8ByteWriterBenchmark {
+	@Param({ "TINY", "TYPICAL", "LARGE", "PHOTO" })
+	public Corpus.Size size;
+
+	@Param("100")
+	public int count;
+
+	private List<VCard> vcards;
+	private String lines[];
+
+	@Setup
+	public void setup() {
+		vcards = Corpus.generate(size, count);
+		lines = Corpus.toText(vcards, VCardVersion.V4_0).split("\r\n");
+	}
+
+	@Benchmark
+	public byte[] encodeOutputStreamWriter() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		encode(new OutputStreamWriter(out, "UTF-8"));
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] encodeUtf8ByteWriter() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		encode(new Utf8ByteWriter(out));
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] writeOutputStreamWriter() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		write(new VCardWriter(new OutputStreamWriter(out, "UTF-8"), VCardVersion.V4_0));
+		return out.toByteArray();
+	}
+
+	@Benchmark
+	public byte[] writeUtf8ByteWriter() throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		write(new VCardWriter(out, VCardVersion.V4_0));
+		return out.toByteArray();
+	}
+
+	private void encode(Writer writer) throws IOException {
+		for (String line : lines) {
+			writer.write(line);
+			writer.write("\r\n");
+		}
+		writer.close();
+	}
+
+	private void write(VCardWriter writer) throws IOException {
+		writer.setAddProdId(false);
+		for (VCard vcard : vcards) {
+			writer.write(vcard);
+		}
+		writer.close();
+	}
+}
@@ -0,0 +1,240 @@
+package ezvcard.benchmark;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.scribe.ImppScribe;
+import ezvcard.io.scribe.ScribeIndex;
+import ezvcard.property.VCardProperty;
+import ezvcard.util.DataUri;
+import ezvcard.util.GeoUri;
+import ezvcard.util.PartialDate;
+import ezvcard.util.TelUri;
+import ezvcard.util.TimezoneCache;
+import ezvcard.util.UtcOffset;
+import ezvcard.util.VCardDateFormat;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Benchmarks the low-level operations that the readers and writers perform for
+ * every property: date parsing and formatting, partial date parsing, timezone
+ * resolution, IM link parsing, supported-version checks, and scribe lookups.
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UtilBenchmark {
+	//@formatter:off
+	private static final String[] DATES = {
+		"19960415",
+		"1996-04-15",
+		"19960415T231000",
+		"1996-04-15T23:10:00",
+		"19960415T231000Z",
+		"1996-04-15T23:10:00Z",
+		"19960415T231000-0500",
+		"1996-04-15T23:10:00-05:00"
+	};
+
+	//partial dates, as they may appear in BDAY, ANNIVERSARY, and DEATHDATE
+	private static final String[] PARTIAL_DATES = {
+		"1996", "1996-04", "--0415", "--04-15", "---15",
+		"T1022", "T10:22", "T-22", "T--30", "--0415T10-0500"
+	};
+
+	//TZ property values
+	private static final String[] TIMEZONES = {
+		"-0500", "-05:00", "+0100", "America/New_York", "Europe/Berlin", "UTC"
+	};
+
+	//IM links, as they appear in hCards
+	private static final String[] IMPP_LINKS = {
+		"aim:goim?screenname=theuser&message=hello", "ymsgr:sendim?theuser",
+		"skype:theuser?call", "msnim:chat?contact=theuser", "xmpp:theuser",
+		"icq:message?uin=123456789", "sip:theuser@example.com", "irc://irc.example.com/theuser"
+	};
+
+	//TEL and GEO URIs
+	private static final String[] URIS = {
+		"tel:+1-212-555-0101", "tel:+1-212-555-0101;ext=101", "tel:7042;phone-context=example.com",
+		"tel:+1-212-555-0101;param=with%20%3d%20special%20&%20chars",
+		"geo:12.34,56.78", "geo:12.34,56.78,-21.43;crs=wgs84;u=12", "geo:-1.5,2.25;x-param=a%20b"
+	};
+
+	//property names, as they may appear in a vCard file
+	private static final String[] PROPERTY_NAMES = {
+		"BEGIN", "VERSION", "FN", "N", "TEL", "tel", "EMAIL", "Email", "ADR",
+		"LABEL", "ORG", "TITLE", "NOTE", "PHOTO", "BDAY", "REV", "UID", "URL",
+		"CATEGORIES", "GEO", "X-CUSTOM", "X-ABLABEL", "END"
+	};
+	//@formatter:on
+
+	private ScribeIndex index;
+	private final ImppScribe imppScribe = new ImppScribe();
+	private List<VCardProperty> properties;
+	private Date date;
+	private byte[] photo;
+	private String photoUri;
+
+	@Setup
+	public void setup() {
+		index = ScribeIndex.standard();
+		date = new Date(829609800000L);
+
+		photo = new byte[128 * 1024];
+		new Random(1).nextBytes(photo);
+		photoUri = new DataUri("image/jpeg", photo).toString();
+
+		properties = new ArrayList<VCardProperty>();
+		for (VCard vcard : Corpus.generate(Corpus.Size.LARGE, 1)) {
+			properties.addAll(vcard.getProperties());
+		}
+	}
+
+	@Benchmark
+	public void parseDate(Blackhole bh) {
+		for (String date : DATES) {
+			bh.consume(VCardDateFormat.parse(date));
+		}
+	}
+
+	@Benchmark
+	public void parsePartialDate(Blackhole bh) {
+		for (String date : PARTIAL_DATES) {
+			bh.consume(PartialDate.parse(date));
+		}
+	}
+
+	@Benchmark
+	public void resolveTimezone(Blackhole bh) {
+		for (String text : TIMEZONES) {
+			UtcOffset offset = TimezoneCache.getUtcOffset(text);
+			bh.consume((offset == null) ? TimezoneCache.getTimeZone(text) : offset);
+		}
+	}
+
+	@Benchmark
+	public void resolveTimezoneUncached(Blackhole bh) {
+		for (String text : TIMEZONES) {
+			try {
+				bh.consume(UtcOffset.parse(text));
+			} catch (IllegalArgumentException e) {
+				bh.consume(TimeZone.getTimeZone(text));
+			}
+		}
+	}
+
+	@Benchmark
+	public void parseImppLink(Blackhole bh) {
+		for (String link : IMPP_LINKS) {
+			bh.consume(imppScribe.parseHtmlLink(link));
+		}
+	}
+
+	@Benchmark
+	public void parseAndWriteUri(Blackhole bh) {
+		for (String uri : URIS) {
+			Object parsed = (uri.charAt(0) == 't') ? TelUri.parse(uri) : GeoUri.parse(uri);
+			bh.consume(parsed.toString());
+		}
+	}
+
+	@Benchmark
+	public void parseDataUri(Blackhole bh) {
+		bh.consume(DataUri.parse(photoUri));
+	}
+
+	@Benchmark
+	public void parseDataUriToStream(Blackhole bh) throws IOException {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(photo.length);
+		bh.consume(DataUri.parse((CharSequence) photoUri, out));
+		bh.consume(out);
+	}
+
+	@Benchmark
+	public void writeDataUri(Blackhole bh) {
+		bh.consume(new DataUri("image/jpeg", photo).toString());
+	}
+
+	@Benchmark
+	public void formatDate(Blackhole bh) {
+		for (VCardDateFormat format : VCardDateFormat.values()) {
+			bh.consume(format.format(date));
+		}
+	}
+
+	@Benchmark
+	public void isSupportedBy(Blackhole bh) {
+		for (VCardProperty property : properties) {
+			for (VCardVersion version : VCardVersion.values()) {
+				bh.consume(property.isSupportedBy(version));
+			}
+		}
+	}
+
+	@Benchmark
+	public void scribeLookupByName(Blackhole bh) {
+		for (String name : PROPERTY_NAMES) {
+			bh.consume(index.getPropertyScribe(name));
+		}
+	}
+
+	@Benchmark
+	public void scribeLookupByProperty(Blackhole bh) {
+		for (VCardProperty property : properties) {
+			bh.consume(index.getPropertyScribe(property));
+		}
+	}
+}
@@ -0,0 +1,114 @@
+package ezvcard.benchmark;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Benchmarks operations on the {@link VCard} data model. Each operation
+ * processes the entire corpus.
+ * @author Michael Angstadt
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class VCardBenchmark {
+	@Param({ "TINY", "TYPICAL", "LARGE", "PHOTO" })
+	public Corpus.Size size;
+
+	@Param("100")
+	public int count;
+
+	private List<VCard> vcards;
+	private List<VCard> copies;
+
+	@Setup
+	public void setup() {
+		vcards = Corpus.generate(size, count);
+
+		//a separately generated corpus, so equals() can't short-circuit on identity
+		copies = Corpus.generate(size, count);
+	}
+
+	@Benchmark
+	public void validate(Blackhole bh) {
+		for (VCard vcard : vcards) {
+			bh.consume(vcard.validate(VCardVersion.V4_0));
+		}
+	}
+
+	@Benchmark
+	public List<VCard> copy() {
+		List<VCard> result = new ArrayList<VCard>(vcards.size());
+		for (VCard vcard : vcards) {
+			result.add(new VCard(vcard));
+		}
+		return result;
+	}
+
+	@Benchmark
+	public boolean equals() {
+		boolean equal = true;
+		for (int i = 0; i < vcards.size(); i++) {
+			equal &= vcards.get(i).equals(copies.get(i));
+		}
+		return equal;
+	}
+
+	@Benchmark
+	public int hashCode_() {
+		int hash = 0;
+		for (VCard vcard : vcards) {
+			hash += vcard.hashCode();
+		}
+		return hash;
+	}
+}
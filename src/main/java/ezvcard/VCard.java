@@ -11,7 +11,9 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.HashSet;
+import java.util.IdentityHashMap;
 import java.util.Iterator;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -51,6 +53,7 @@ import ezvcard.property.Key;
 import ezvcard.property.Kind;
 import ezvcard.property.Label;
 import ezvcard.property.Language;
+import ezvcard.property.LazilyParsed;
 import ezvcard.property.Logo;
 import ezvcard.property.Mailer;
 import ezvcard.property.Member;
@@ -116,6 +119,13 @@ import ezvcard.util.StringUtils;
 public class VCard implements Iterable<VCardProperty> {
 	private VCardVersion version;
 	private final ListMultimap<Class<? extends VCardProperty>, VCardProperty> properties = new ListMultimap<Class<? extends VCardProperty>, VCardProperty>();
+	private int unparsed = 0;
+
+	/*
+	 * The order in which the properties were added. Only kept while the vCard
+	 * contains properties that have not been parsed yet.
+	 */
+	private List<VCardProperty> addOrder;
 
 	/**
 	 * Creates a new vCard set to version 3.0.
@@ -138,7 +148,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 */
 	public VCard(VCard original) {
 		version = original.version;
-		for (VCardProperty property : original.getProperties()) {
+		for (VCardProperty property : original.getPropertiesView()) {
 			addProperty(property.copy());
 		}
 	}
@@ -4135,7 +4145,29 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the iterator
 	 */
 	public Iterator<VCardProperty> iterator() {
-		return properties.values().iterator();
+		return getProperties().iterator();
+	}
+
+	/**
+	 * <p>
+	 * Iterates through each of the vCard's properties, like {@link #iterator},
+	 * except that properties which were read lazily and have not been accessed
+	 * yet are returned as {@link LazilyParsed} objects instead of being parsed.
+	 * This method is used by the vCard writers so they can write such
+	 * properties back out verbatim.
+	 * </p>
+	 * <p>
+	 * A vCard that contains lazily-read properties is not thread-safe, even if
+	 * it is only read from: the getter methods, {@link #equals},
+	 * {@link #hashCode}, and {@link #toString} all parse properties and modify
+	 * the vCard as they do so. Such a vCard must not be shared between threads
+	 * until all of its properties have been parsed (for example, by calling
+	 * {@link #getProperties()} once).
+	 * </p>
+	 * @return the iterator
+	 */
+	public Iterator<VCardProperty> lazyIterator() {
+		return properties.valuesView().iterator();
 	}
 
 	/**
@@ -4145,6 +4177,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the property or null if not found
 	 */
 	public <T extends VCardProperty> T getProperty(Class<T> clazz) {
+		parse(clazz);
 		return clazz.cast(properties.first(clazz));
 	}
 
@@ -4156,6 +4189,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * {@link VCard} object and vice versa)
 	 */
 	public <T extends VCardProperty> List<T> getProperties(Class<T> clazz) {
+		parse(clazz);
 		return new VCardPropertyList<T>(clazz);
 	}
 
@@ -4200,14 +4234,50 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the properties (this list is immutable)
 	 */
 	public Collection<VCardProperty> getProperties() {
+		parseAll();
 		return properties.values();
 	}
 
+	/**
+	 * <p>
+	 * Gets a live view of all the properties in this vCard. Unlike
+	 * {@link #getProperties}, the properties are not copied into a new list,
+	 * so this method is suitable for iterating over the properties in
+	 * performance-critical code.
+	 * </p>
+	 * <p>
+	 * The view reflects any changes that are made to the vCard and cannot be
+	 * used to modify it. If properties are added to or removed from the vCard
+	 * while the view is being iterated over, the iterator will throw a
+	 * {@link java.util.ConcurrentModificationException}. Use
+	 * {@link #getProperties} if the vCard needs to be modified during
+	 * iteration.
+	 * </p>
+	 * @return the properties (this collection is immutable)
+	 */
+	public Collection<VCardProperty> getPropertiesView() {
+		parseAll();
+		return properties.valuesView();
+	}
+
 	/**
 	 * Adds a property.
 	 * @param property the property to add
 	 */
 	public void addProperty(VCardProperty property) {
+		if (property instanceof LazilyParsed) {
+			if (addOrder == null) {
+				addOrder = new ArrayList<VCardProperty>(properties.valuesView());
+			}
+			addOrder.add(property);
+			properties.put(((LazilyParsed) property).getPropertyClass(), property);
+			unparsed++;
+			return;
+		}
+
+		if (addOrder != null) {
+			addOrder.add(property);
+		}
 		properties.put(property.getClass(), property);
 	}
 
@@ -4218,6 +4288,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the properties that were replaced (this list is immutable)
 	 */
 	public List<VCardProperty> setProperty(VCardProperty property) {
+		parse(property.getClass());
 		return properties.replace(property.getClass(), property);
 	}
 
@@ -4231,6 +4302,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the properties that were replaced (this list is immutable)
 	 */
 	public <T extends VCardProperty> List<T> setProperty(Class<T> clazz, T property) {
+		parse(clazz);
 		List<VCardProperty> replaced = properties.replace(clazz, property);
 		return castList(replaced, clazz);
 	}
@@ -4241,6 +4313,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return true if it was removed, false if it wasn't found
 	 */
 	public boolean removeProperty(VCardProperty property) {
+		parse(property.getClass());
 		return properties.remove(property.getClass(), property);
 	}
 
@@ -4251,6 +4324,7 @@ public class VCard implements Iterable<VCardProperty> {
 	 * @return the properties that were removed (this list is immutable)
 	 */
 	public <T extends VCardProperty> List<T> removeProperties(Class<T> clazz) {
+		parse(clazz);
 		List<VCardProperty> removed = properties.removeAll(clazz);
 		return castList(removed, clazz);
 	}
@@ -4466,7 +4540,7 @@ public class VCard implements Iterable<VCardProperty> {
 		}
 
 		//validate properties
-		for (VCardProperty property : this) {
+		for (VCardProperty property : getPropertiesView()) {
 			List<Warning> propWarnings = property.validate(version, this);
 			if (!propWarnings.isEmpty()) {
 				warnings.add(property, propWarnings);
@@ -4476,11 +4550,146 @@ public class VCard implements Iterable<VCardProperty> {
 		return warnings;
 	}
 
+	/**
+	 * Parses all of the lazily-read properties of the given class.
+	 * @param clazz the property class
+	 */
+	private void parse(Class<? extends VCardProperty> clazz) {
+		if (unparsed == 0) {
+			return;
+		}
+
+		if (clazz == RawProperty.class) {
+			//properties that cannot be parsed are converted to raw properties
+			parseAll();
+			return;
+		}
+
+		parseClass(clazz);
+	}
+
+	/**
+	 * Parses all of the lazily-read properties.
+	 */
+	private void parseAll() {
+		if (unparsed == 0) {
+			return;
+		}
+
+		for (Class<? extends VCardProperty> clazz : new ArrayList<Class<? extends VCardProperty>>(properties.keySet())) {
+			parseClass(clazz);
+		}
+	}
+
+	private void parseClass(Class<? extends VCardProperty> clazz) {
+		List<VCardProperty> list = properties.get(clazz);
+		for (int i = 0; i < list.size(); i++) {
+			VCardProperty property = list.get(i);
+			if (!(property instanceof LazilyParsed)) {
+				continue;
+			}
+
+			unparsed--;
+			VCardProperty parsed = ((LazilyParsed) property).parse();
+			if (parsed != null && parsed.getClass() == clazz) {
+				list.set(i, parsed);
+				continue;
+			}
+
+			list.remove(i--);
+			if (parsed != null) {
+				rekey(property, parsed);
+			}
+		}
+
+		if (unparsed == 0) {
+			addOrder = null;
+		}
+	}
+
+	/**
+	 * Adds a lazily-read property whose class changed when it was parsed (for
+	 * example, because its value could not be parsed, so it was converted to a
+	 * {@link RawProperty}). The property is put in the same place that it
+	 * would have been put in if the vCard had not been read lazily.
+	 * @param lazy the lazily-read property
+	 * @param parsed the parsed property
+	 */
+	private void rekey(VCardProperty lazy, VCardProperty parsed) {
+		List<VCardProperty> list = properties.get(parsed.getClass());
+
+		int position = 0;
+		while (addOrder.get(position) != lazy) {
+			position++;
+		}
+
+		//put it after the last property of the same class that was added before it
+		Map<VCardProperty, Integer> indexes = new IdentityHashMap<VCardProperty, Integer>();
+		for (int i = 0; i < list.size(); i++) {
+			indexes.put(list.get(i), i);
+		}
+		int index = 0;
+		for (int i = position - 1; i >= 0; i--) {
+			VCardProperty added = addOrder.get(i);
+			Integer found = indexes.get(added);
+			if (found == null && added instanceof LazilyParsed && ((LazilyParsed) added).isParsed()) {
+				found = indexes.get(((LazilyParsed) added).parse());
+			}
+			if (found != null) {
+				index = found + 1;
+				break;
+			}
+		}
+		list.add(index, parsed);
+
+		/*
+		 * Put the classes in the order in which they were first added. Classes
+		 * that were added by other means go at the end. The lists are moved
+		 * as-is, so that any lists returned by getProperties(Class) stay valid.
+		 */
+		Set<Class<? extends VCardProperty>> classes = new LinkedHashSet<Class<? extends VCardProperty>>();
+		for (VCardProperty added : addOrder) {
+			Class<? extends VCardProperty> clazz = addedClass(added);
+			if (clazz != null) {
+				classes.add(clazz);
+			}
+		}
+		Map<Class<? extends VCardProperty>, List<VCardProperty>> map = properties.getMap();
+		classes.addAll(map.keySet());
+		for (Class<? extends VCardProperty> clazz : classes) {
+			List<VCardProperty> values = map.remove(clazz);
+			if (values != null) {
+				map.put(clazz, values);
+			}
+		}
+	}
+
+	/**
+	 * Gets the class that a property added to the vCard is stored under.
+	 * @param property the property, as it was added to the vCard
+	 * @return the class or null if the property was discarded when it was
+	 * parsed
+	 */
+	private static Class<? extends VCardProperty> addedClass(VCardProperty property) {
+		if (!(property instanceof LazilyParsed)) {
+			return property.getClass();
+		}
+
+		LazilyParsed lazy = (LazilyParsed) property;
+		if (!lazy.isParsed()) {
+			return lazy.getPropertyClass();
+		}
+
+		VCardProperty parsed = lazy.parse();
+		return (parsed == null) ? null : parsed.getClass();
+	}
+
 	@Override
 	public String toString() {
+		parseAll();
 		StringBuilder sb = new StringBuilder();
 		sb.append("version=").append(version);
-		for (VCardProperty property : properties.values()) {
+		for (VCardProperty property : properties.valuesView()) {
 			sb.append(StringUtils.NEWLINE).append(property);
 		}
 		return sb.toString();
@@ -4488,13 +4697,14 @@ public class VCard implements Iterable<VCardProperty> {
 
 	@Override
 	public int hashCode() {
+		parseAll();
 		final int prime = 31;
 		int result = 1;
 
 		result = prime * result + ((version == null) ? 0 : version.hashCode());
 
 		int propertiesHash = 1;
-		for (VCardProperty property : properties.values()) {
+		for (VCardProperty property : properties.valuesView()) {
 			propertiesHash += property.hashCode();
 		}
 		result = prime * result + propertiesHash;
@@ -4509,17 +4719,27 @@ public class VCard implements Iterable<VCardProperty> {
 		if (getClass() != obj.getClass()) return false;
 		VCard other = (VCard) obj;
 		if (version != other.version) return false;
+		parseAll();
+		other.parseAll();
 		if (properties.size() != other.properties.size()) return false;
 
-		for (Map.Entry<Class<? extends VCardProperty>, List<VCardProperty>> entry : properties) {
+		Map<Class<? extends VCardProperty>, List<VCardProperty>> otherMap = other.properties.getMap();
+		for (Map.Entry<Class<? extends VCardProperty>, List<VCardProperty>> entry : properties.getMap().entrySet()) {
 			Class<? extends VCardProperty> key = entry.getKey();
 			List<VCardProperty> value = entry.getValue();
-			List<VCardProperty> otherValue = other.properties.get(key);
+			List<VCardProperty> otherValue = otherMap.get(key);
 
-			if (value.size() != otherValue.size()) {
+			if (otherValue == null || value.size() != otherValue.size()) {
 				return false;
 			}
 
+			if (value.size() == 1) {
+				if (!value.get(0).equals(otherValue.get(0))) {
+					return false;
+				}
+				continue;
+			}
+
 			List<VCardProperty> otherValueCopy = new ArrayList<VCardProperty>(otherValue);
 			for (VCardProperty property : value) {
 				if (!otherValueCopy.remove(property)) {
@@ -4,11 +4,10 @@ import static ezvcard.VCardVersion.V2_1;
 import static ezvcard.VCardVersion.V3_0;
 import static ezvcard.VCardVersion.V4_0;
 
-import java.lang.reflect.Field;
-import java.lang.reflect.Modifier;
 import java.util.Collection;
 
 import ezvcard.util.CaseClasses;
+import ezvcard.util.SupportedVersionsIndex;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -54,6 +53,16 @@ public class VCardDataType {
 		protected boolean matches(VCardDataType dataType, String value) {
 			return dataType.name.equalsIgnoreCase(value);
 		}
+
+		@Override
+		protected Object objectKey(VCardDataType dataType) {
+			return caseInsensitiveKey(dataType.name);
+		}
+
+		@Override
+		protected Object valueKey(String value) {
+			return caseInsensitiveKey(value);
+		}
 	};
 
 	/**
@@ -183,28 +192,7 @@ public class VCardDataType {
 	 * @return the vCard versions that support this data type
 	 */
 	public VCardVersion[] getSupportedVersions() {
-		for (Field field : getClass().getFields()) {
-			if (!Modifier.isStatic(field.getModifiers())) {
-				continue;
-			}
-
-			Object fieldValue;
-			try {
-				fieldValue = field.get(null);
-			} catch (IllegalArgumentException e) {
-				//should never be thrown because we check for the static modified
-				continue;
-			} catch (IllegalAccessException e) {
-				continue;
-			}
-
-			if (fieldValue == this) {
-				SupportedVersions supportedVersionsAnnotation = field.getAnnotation(SupportedVersions.class);
-				return (supportedVersionsAnnotation == null) ? VCardVersion.values() : supportedVersionsAnnotation.value();
-			}
-		}
-
-		return VCardVersion.values();
+		return SupportedVersionsIndex.getConstantVersions(this);
 	}
 
 	/**
@@ -222,12 +210,7 @@ public class VCardDataType {
 	 * @return true if it is supported, false if not
 	 */
 	public boolean isSupportedBy(VCardVersion version) {
-		for (VCardVersion supportedVersion : getSupportedVersions()) {
-			if (supportedVersion == version) {
-				return true;
-			}
-		}
-		return false;
+		return SupportedVersionsIndex.supports(SupportedVersionsIndex.getConstantMask(this), version);
 	}
 
 	@Override
@@ -39,7 +39,22 @@ import ezvcard.Messages;
  * @author Michael Angstadt
  */
 public class ParseWarnings {
-	private final List<String> warnings = new ArrayList<String>();
+	private final List<String> warnings;
+
+	/**
+	 * Creates an empty warnings list.
+	 */
+	public ParseWarnings() {
+		this(new ArrayList<String>());
+	}
+
+	/**
+	 * Creates a warnings list that adds its warnings to the given list.
+	 * @param warnings the list to add the warnings to
+	 */
+	public ParseWarnings(List<String> warnings) {
+		this.warnings = warnings;
+	}
 
 	/**
 	 * Adds a parse warning.
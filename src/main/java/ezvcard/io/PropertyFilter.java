@@ -0,0 +1,124 @@
+package ezvcard.io;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import ezvcard.io.scribe.VCardPropertyScribe;
+import ezvcard.property.RawProperty;
+import ezvcard.property.VCardProperty;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Defines which properties a {@link StreamReader} should parse. Properties that
+ * are not kept by the filter are skipped over entirely: they are not passed to
+ * a property scribe, their parameters are not parsed, and they do not generate
+ * any parse warnings.
+ * </p>
+ * <p>
+ * Properties can be kept by class or by name. Property names are
+ * case-insensitive. To keep all extended properties that do not have a scribe
+ * registered to them, keep the {@link RawProperty} class.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ * 
+ * <pre class="brush:java">
+ * PropertyFilter filter = new PropertyFilter()
+ *   .keep(FormattedName.class)
+ *   .keep(Email.class)
+ *   .keep("X-SPOUSE");
+ * 
+ * VCardReader reader = new VCardReader(file);
+ * reader.setPropertyFilter(filter);
+ * </pre>
+ * @author Michael Angstadt
+ */
+public class PropertyFilter {
+	private final Set<Class<? extends VCardProperty>> classes = new HashSet<Class<? extends VCardProperty>>();
+	private final Set<String> names = new HashSet<String>();
+
+	/**
+	 * Keeps all properties of the given class.
+	 * @param clazz the property class
+	 * @return this
+	 */
+	public PropertyFilter keep(Class<? extends VCardProperty> clazz) {
+		classes.add(clazz);
+		return this;
+	}
+
+	/**
+	 * Keeps all properties with the given name.
+	 * @param propertyName the property name (case-insensitive, e.g. "FN")
+	 * @return this
+	 */
+	public PropertyFilter keep(String propertyName) {
+		names.add(propertyName.toUpperCase());
+		return this;
+	}
+
+	/**
+	 * Determines whether a property should be parsed.
+	 * @param propertyName the property name as it appears in the data stream
+	 * (case-insensitive)
+	 * @param scribe the scribe that would be used to parse the property or
+	 * null if no scribe is registered for it
+	 * @return true if the property should be parsed, false if it should be
+	 * skipped
+	 */
+	public boolean keeps(String propertyName, VCardPropertyScribe<? extends VCardProperty> scribe) {
+		if (propertyName != null && !names.isEmpty() && names.contains(propertyName.toUpperCase())) {
+			return true;
+		}
+
+		Class<? extends VCardProperty> clazz = (scribe == null) ? RawProperty.class : scribe.getPropertyClass();
+		return classes.contains(clazz);
+	}
+
+	/**
+	 * Gets the property classes that the filter keeps.
+	 * @return the property classes (this set is immutable)
+	 */
+	public Set<Class<? extends VCardProperty>> getClasses() {
+		return Collections.unmodifiableSet(classes);
+	}
+
+	/**
+	 * Gets the property names that the filter keeps.
+	 * @return the property names, in uppercase (this set is immutable)
+	 */
+	public Set<String> getNames() {
+		return Collections.unmodifiableSet(names);
+	}
+}
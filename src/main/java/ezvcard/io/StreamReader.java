@@ -50,7 +50,8 @@ import ezvcard.property.VCardProperty;
  */
 public abstract class StreamReader implements Closeable {
 	protected final ParseWarnings warnings = new ParseWarnings();
-	protected ScribeIndex index = new ScribeIndex();
+	protected ScribeIndex index = ScribeIndex.standard();
+	protected PropertyFilter propertyFilter;
 
 	/**
 	 * Reads all vCards from the data stream.
@@ -66,6 +67,21 @@ public abstract class StreamReader implements Closeable {
 		return vcards;
 	}
 
+	/**
+	 * <p>
+	 * Creates an iterator that reads the vCards from the data stream one at a
+	 * time, as they are requested. Only one vCard is held in memory at a time.
+	 * </p>
+	 * <p>
+	 * Closing the iterator (or reaching the end of the data stream) closes
+	 * this reader.
+	 * </p>
+	 * @return the iterator
+	 */
+	public VCardIterator iterator() {
+		return new VCardIterator(this);
+	}
+
 	/**
 	 * Reads the next vCard from the data stream.
 	 * @return the next vCard or null if there are no more
@@ -91,6 +107,10 @@ public abstract class StreamReader implements Closeable {
 	 * @param labels the LABEL properties
 	 */
 	protected void assignLabels(VCard vcard, List<Label> labels) {
+		if (labels.isEmpty()) {
+			return;
+		}
+
 		List<Address> adrs = vcard.getAddresses();
 		for (Label label : labels) {
 			boolean orphaned = true;
@@ -116,19 +136,33 @@ public abstract class StreamReader implements Closeable {
 
 	/**
 	 * <p>
-	 * Registers a property scribe. This is the same as calling:
+	 * Registers a property scribe.
 	 * </p>
 	 * <p>
-	 * {@code getScribeIndex().register(scribe)}
+	 * If the current scribe index is immutable (such as the shared
+	 * {@link ScribeIndex#standard standard} index, which is used by default),
+	 * it is replaced with a mutable copy before the scribe is registered. The
+	 * immutable index itself is never modified.
 	 * </p>
 	 * @param scribe the scribe to register
 	 */
 	public void registerScribe(VCardPropertyScribe<? extends VCardProperty> scribe) {
+		if (index.isImmutable()) {
+			index = new ScribeIndex(index);
+		}
 		index.register(scribe);
 	}
 
 	/**
+	 * <p>
 	 * Gets the scribe index.
+	 * </p>
+	 * <p>
+	 * Unless a scribe index has been assigned, this is the shared, immutable
+	 * {@link ScribeIndex#standard standard} index. Immutable indexes throw an
+	 * {@link UnsupportedOperationException} if they are modified, so use
+	 * {@link #registerScribe registerScribe} to add scribes.
+	 * </p>
 	 * @return the scribe index
 	 */
 	public ScribeIndex getScribeIndex() {
@@ -143,6 +177,36 @@ public abstract class StreamReader implements Closeable {
 		this.index = index;
 	}
 
+	/**
+	 * Gets the filter that determines which properties are parsed.
+	 * @return the filter or null if all properties are parsed
+	 */
+	public PropertyFilter getPropertyFilter() {
+		return propertyFilter;
+	}
+
+	/**
+	 * Sets a filter that determines which properties are parsed. Properties
+	 * that are not kept by the filter are skipped over without being passed to
+	 * a scribe.
+	 * @param propertyFilter the filter or null to parse all properties (default)
+	 */
+	public void setPropertyFilter(PropertyFilter propertyFilter) {
+		this.propertyFilter = propertyFilter;
+	}
+
+	/**
+	 * Determines whether a property should be parsed, according to the
+	 * property filter.
+	 * @param propertyName the property name
+	 * @param scribe the scribe that would be used to parse the property or
+	 * null if there is no scribe registered for it
+	 * @return true to parse the property, false to skip it
+	 */
+	protected boolean isPropertyKept(String propertyName, VCardPropertyScribe<? extends VCardProperty> scribe) {
+		return propertyFilter == null || propertyFilter.keeps(propertyName, scribe);
+	}
+
 	/**
 	 * Gets the warnings from the last vCard that was unmarshalled. This list is
 	 * reset every time a new vCard is read.
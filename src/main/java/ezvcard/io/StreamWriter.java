@@ -4,6 +4,7 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.util.ArrayList;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Set;
 
@@ -15,9 +16,11 @@ import ezvcard.io.scribe.ScribeIndex;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.property.Address;
 import ezvcard.property.Label;
+import ezvcard.property.LazilyParsed;
 import ezvcard.property.ProductId;
 import ezvcard.property.RawProperty;
 import ezvcard.property.VCardProperty;
+import ezvcard.util.SupportedVersionsIndex;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -53,20 +56,25 @@ import ezvcard.property.VCardProperty;
  * @author Michael Angstadt
  */
 public abstract class StreamWriter implements Closeable {
-	protected ScribeIndex index = new ScribeIndex();
+	protected ScribeIndex index = ScribeIndex.standard();
 	protected boolean addProdId = true;
 	protected boolean versionStrict = true;
 
 	/**
 	 * Writes a vCard to the stream.
 	 * @param vcard the vCard that is being written
-	 * @throws IOException if there's a problem writing to the output stream
+	 * @throws IOException if there's a problem writing to the output stream or
+	 * reading a property's binary data
 	 * @throws IllegalArgumentException if a scribe hasn't been registered for a
 	 * custom property class (see: {@link #registerScribe registerScribe})
 	 */
 	public void write(VCard vcard) throws IOException {
 		List<VCardProperty> properties = prepare(vcard);
-		_write(vcard, properties);
+		try {
+			_write(vcard, properties);
+		} catch (BlobReadException e) {
+			throw e.getCause();
+		}
 	}
 
 	/**
@@ -77,6 +85,19 @@ public abstract class StreamWriter implements Closeable {
 	 */
 	protected abstract void _write(VCard vcard, List<VCardProperty> properties) throws IOException;
 
+	/**
+	 * Determines if a property that was read lazily and has not been accessed
+	 * can be written without being parsed first. If this method returns true,
+	 * the {@link LazilyParsed} object is passed to {@link #_write} as-is. The
+	 * default implementation returns false.
+	 * @param property the property
+	 * @return true if the property can be written verbatim, false if it must
+	 * be parsed
+	 */
+	protected boolean canWriteVerbatim(LazilyParsed property) {
+		return false;
+	}
+
 	/**
 	 * Gets the version that the next vCard will be written as.
 	 * @return the version
@@ -129,19 +150,33 @@ public abstract class StreamWriter implements Closeable {
 
 	/**
 	 * <p>
-	 * Registers a property scribe. This is the same as calling:
+	 * Registers a property scribe.
 	 * </p>
 	 * <p>
-	 * {@code getScribeIndex().register(scribe)}
+	 * If the current scribe index is immutable (such as the shared
+	 * {@link ScribeIndex#standard standard} index, which is used by default),
+	 * it is replaced with a mutable copy before the scribe is registered. The
+	 * immutable index itself is never modified.
 	 * </p>
 	 * @param scribe the scribe to register
 	 */
 	public void registerScribe(VCardPropertyScribe<? extends VCardProperty> scribe) {
+		if (index.isImmutable()) {
+			index = new ScribeIndex(index);
+		}
 		index.register(scribe);
 	}
 
 	/**
+	 * <p>
 	 * Gets the scribe index.
+	 * </p>
+	 * <p>
+	 * Unless a scribe index has been assigned, this is the shared, immutable
+	 * {@link ScribeIndex#standard standard} index. Immutable indexes throw an
+	 * {@link UnsupportedOperationException} if they are modified, so use
+	 * {@link #registerScribe registerScribe} to add scribes.
+	 * </p>
 	 * @return the scribe index
 	 */
 	public ScribeIndex getScribeIndex() {
@@ -169,28 +204,46 @@ public abstract class StreamWriter implements Closeable {
 		List<VCardProperty> propertiesToAdd = new ArrayList<VCardProperty>();
 		Set<Class<? extends VCardProperty>> unregistered = new HashSet<Class<? extends VCardProperty>>();
 		VCardProperty prodIdProperty = null;
-		for (VCardProperty property : vcard) {
-			if (versionStrict && !property.isSupportedBy(targetVersion)) {
+		boolean addLabels = (targetVersion == VCardVersion.V2_1 || targetVersion == VCardVersion.V3_0);
+		Iterator<VCardProperty> it = vcard.lazyIterator();
+		while (it.hasNext()) {
+			VCardProperty property = it.next();
+			Class<? extends VCardProperty> propertyClass;
+			if (property instanceof LazilyParsed) {
+				LazilyParsed lazy = (LazilyParsed) property;
+				propertyClass = lazy.getPropertyClass();
+				if ((addLabels && propertyClass == Address.class) || !canWriteVerbatim(lazy)) {
+					property = lazy.parse();
+					if (property == null) {
+						continue;
+					}
+					propertyClass = property.getClass();
+				}
+			} else {
+				propertyClass = property.getClass();
+			}
+
+			if (versionStrict && !SupportedVersionsIndex.supports(SupportedVersionsIndex.getMask(propertyClass), targetVersion)) {
 				//do not add the property to the vCard if it is not supported by the target version
 				continue;
 			}
 
 			//do not add PRODID to the property list yet
-			if (property instanceof ProductId) {
+			if (ProductId.class.isAssignableFrom(propertyClass)) {
 				prodIdProperty = property;
 				continue;
 			}
 
 			//check for scribe
-			if (!index.hasPropertyScribe(property)) {
-				unregistered.add(property.getClass());
+			if (propertyClass != RawProperty.class && index.getPropertyScribe(propertyClass) == null) {
+				unregistered.add(propertyClass);
 				continue;
 			}
 
 			propertiesToAdd.add(property);
 
 			//add LABEL properties for each ADR property if the target version is 2.1 or 3.0
-			if ((targetVersion == VCardVersion.V2_1 || targetVersion == VCardVersion.V3_0) && property instanceof Address) {
+			if (addLabels && property instanceof Address) {
 				Address adr = (Address) property;
 				String labelStr = adr.getLabel();
 				if (labelStr == null) {
@@ -0,0 +1,177 @@
+package ezvcard.io;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import ezvcard.VCard;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Iterates over the vCards in a data stream, reading them one at a time. Only
+ * the vCard that is returned by {@link #next} is held in memory, so this class
+ * can be used to process very large files.
+ * </p>
+ * <p>
+ * The parse warnings of each vCard can be retrieved by calling
+ * {@link #getWarnings} after calling {@link #next}.
+ * </p>
+ * <p>
+ * Because the {@link Iterator} interface does not allow checked exceptions to
+ * be thrown, any {@link IOException} that is thrown by the underlying
+ * {@link StreamReader} is wrapped in a {@link RuntimeException}.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ * 
+ * <pre class="brush:java">
+ * VCardIterator it = Ezvcard.parse(file).iterator();
+ * try {
+ *   while (it.hasNext()) {
+ *     VCard vcard = it.next();
+ *     List&lt;String&gt; warnings = it.getWarnings();
+ *     //...
+ *   }
+ * } finally {
+ *   it.close();
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ */
+public class VCardIterator implements Iterator<VCard>, Closeable {
+	private final StreamReader reader;
+	private final boolean closeReader;
+
+	private VCard next;
+	private List<String> nextWarnings;
+	private List<String> warnings = Collections.emptyList();
+	private boolean done = false;
+
+	/**
+	 * Creates an iterator that closes the given reader when the iterator is
+	 * closed or when the end of the data stream is reached.
+	 * @param reader the reader
+	 */
+	public VCardIterator(StreamReader reader) {
+		this(reader, true);
+	}
+
+	/**
+	 * @param reader the reader
+	 * @param closeReader true to close the reader when the iterator is closed
+	 * or when the end of the data stream is reached, false to leave it open
+	 */
+	public VCardIterator(StreamReader reader, boolean closeReader) {
+		this.reader = reader;
+		this.closeReader = closeReader;
+	}
+
+	/**
+	 * Determines if there are any more vCards in the data stream. This may
+	 * cause the next vCard to be read from the stream.
+	 * @return true if there are more vCards, false if not
+	 * @throws RuntimeException if there's a problem reading from the stream
+	 * (wraps an {@link IOException})
+	 */
+	public boolean hasNext() {
+		if (next == null && !done) {
+			readAhead();
+		}
+		return next != null;
+	}
+
+	/**
+	 * Gets the next vCard in the data stream.
+	 * @return the vCard
+	 * @throws NoSuchElementException if there are no more vCards
+	 * @throws RuntimeException if there's a problem reading from the stream
+	 * (wraps an {@link IOException})
+	 */
+	public VCard next() {
+		if (!hasNext()) {
+			throw new NoSuchElementException();
+		}
+
+		VCard vcard = next;
+		warnings = nextWarnings;
+		next = null;
+		nextWarnings = null;
+		return vcard;
+	}
+
+	/**
+	 * Gets the warnings of the vCard that was last returned by {@link #next}.
+	 * @return the warnings or empty list if there were no warnings
+	 */
+	public List<String> getWarnings() {
+		return warnings;
+	}
+
+	/**
+	 * Not supported.
+	 * @throws UnsupportedOperationException always
+	 */
+	public void remove() {
+		throw new UnsupportedOperationException();
+	}
+
+	/**
+	 * Stops the iteration and closes the underlying reader (if the iterator
+	 * was configured to do so).
+	 * @throws IOException if there's a problem closing the reader
+	 */
+	public void close() throws IOException {
+		done = true;
+		next = null;
+		nextWarnings = null;
+		if (closeReader) {
+			reader.close();
+		}
+	}
+
+	private void readAhead() {
+		try {
+			next = reader.readNext();
+			if (next == null) {
+				close();
+				return;
+			}
+			nextWarnings = reader.getWarnings();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
+	}
+}
@@ -5,6 +5,7 @@ import java.util.List;
 
 import ezvcard.Ezvcard;
 import ezvcard.VCard;
+import ezvcard.io.VCardIterator;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -60,4 +61,14 @@ public class ChainingHtmlStringParser extends ChainingHtmlParser<ChainingHtmlStr
 			throw new RuntimeException(e);
 		}
 	}
+
+	@Override
+	public VCardIterator iterator() {
+		try {
+			return super.iterator();
+		} catch (IOException e) {
+			//should never be thrown because we're reading from a string
+			throw new RuntimeException(e);
+		}
+	}
 }
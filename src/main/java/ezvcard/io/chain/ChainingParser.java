@@ -8,7 +8,9 @@ import java.util.ArrayList;
 import java.util.List;
 
 import ezvcard.VCard;
+import ezvcard.io.PropertyFilter;
 import ezvcard.io.StreamReader;
+import ezvcard.io.VCardIterator;
 import ezvcard.io.scribe.ScribeIndex;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.property.VCardProperty;
@@ -51,6 +53,7 @@ abstract class ChainingParser<T extends ChainingParser<?>> {
 	final File file;
 
 	ScribeIndex index;
+	PropertyFilter propertyFilter;
 	List<List<String>> warnings;
 
 	@SuppressWarnings("unchecked")
@@ -96,6 +99,48 @@ abstract class ChainingParser<T extends ChainingParser<?>> {
 		return this_;
 	}
 
+	/**
+	 * <p>
+	 * Parses the properties of the given class, and skips over all properties
+	 * that have not been kept by a call to one of the {@code keep} methods.
+	 * </p>
+	 * <p>
+	 * If neither {@code keep} method is called, all properties are parsed.
+	 * </p>
+	 * @param clazz the property class
+	 * @return this
+	 * @see PropertyFilter
+	 */
+	public T keep(Class<? extends VCardProperty> clazz) {
+		propertyFilter().keep(clazz);
+		return this_;
+	}
+
+	/**
+	 * <p>
+	 * Parses the properties that have the given name, and skips over all
+	 * properties that have not been kept by a call to one of the {@code keep}
+	 * methods.
+	 * </p>
+	 * <p>
+	 * If neither {@code keep} method is called, all properties are parsed.
+	 * </p>
+	 * @param propertyName the property name (case-insensitive, e.g. "X-SPOUSE")
+	 * @return this
+	 * @see PropertyFilter
+	 */
+	public T keep(String propertyName) {
+		propertyFilter().keep(propertyName);
+		return this_;
+	}
+
+	private PropertyFilter propertyFilter() {
+		if (propertyFilter == null) {
+			propertyFilter = new PropertyFilter();
+		}
+		return propertyFilter;
+	}
+
 	/**
 	 * Provides a list object that any parser warnings will be put into.
 	 * @param warnings the list object that will be populated with the warnings
@@ -116,11 +161,7 @@ abstract class ChainingParser<T extends ChainingParser<?>> {
 	 * @throws IOException if there's an I/O problem
 	 */
 	public VCard first() throws IOException {
-		StreamReader reader = constructReader();
-		if (index != null) {
-			reader.setScribeIndex(index);
-		}
-
+		StreamReader reader = prepareReader();
 		try {
 			VCard vcard = reader.readNext();
 			if (warnings != null) {
@@ -140,7 +181,7 @@ abstract class ChainingParser<T extends ChainingParser<?>> {
 	 * @throws IOException if there's an I/O problem
 	 */
 	public List<VCard> all() throws IOException {
-		StreamReader reader = constructReader();
+		StreamReader reader = prepareReader();
 		try {
 			List<VCard> vcards = new ArrayList<VCard>();
 			VCard vcard;
@@ -158,6 +199,45 @@ abstract class ChainingParser<T extends ChainingParser<?>> {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Creates an iterator that reads the vCards from the stream one at a time,
+	 * as they are requested. Use this method instead of {@link #all} when
+	 * parsing large files, since only one vCard is held in memory at a time.
+	 * </p>
+	 * <p>
+	 * If a warnings list was provided, the warnings of each vCard are added to
+	 * it as the vCard is returned by the iterator. If the stream was opened by
+	 * this parser (i.e. a {@link File} was passed in), then it is closed when
+	 * the iterator is closed or when the end of the stream is reached.
+	 * </p>
+	 * @return the iterator
+	 * @throws IOException if there's an I/O problem
+	 */
+	public VCardIterator iterator() throws IOException {
+		StreamReader reader = prepareReader();
+		final List<List<String>> warningsList = warnings;
+		return new VCardIterator(reader, closeWhenDone()) {
+			@Override
+			public VCard next() {
+				VCard vcard = super.next();
+				if (warningsList != null) {
+					warningsList.add(getWarnings());
+				}
+				return vcard;
+			}
+		};
+	}
+
+	private StreamReader prepareReader() throws IOException {
+		StreamReader reader = constructReader();
+		if (index != null) {
+			reader.setScribeIndex(index);
+		}
+		reader.setPropertyFilter(propertyFilter);
+		return reader;
+	}
+
 	abstract StreamReader constructReader() throws IOException;
 
 	private boolean closeWhenDone() {
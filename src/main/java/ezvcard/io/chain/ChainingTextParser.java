@@ -8,6 +8,7 @@ import java.io.Reader;
 import ezvcard.Ezvcard;
 import ezvcard.io.StreamReader;
 import ezvcard.io.text.VCardReader;
+import ezvcard.util.BlobSink;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -43,6 +44,9 @@ import ezvcard.io.text.VCardReader;
  */
 public class ChainingTextParser<T extends ChainingTextParser<?>> extends ChainingParser<T> {
 	private boolean caretDecoding = true;
+	private boolean lazyParsing = false;
+	private BlobSink blobSink;
+	private Integer blobThreshold;
 
 	public ChainingTextParser(String string) {
 		super(string);
@@ -74,10 +78,52 @@ public class ChainingTextParser<T extends ChainingTextParser<?>> extends Chainin
 		return this_;
 	}
 
+	/**
+	 * Sets whether property values will be parsed lazily, the first time they
+	 * are accessed (disabled by default).
+	 * @param enable true to parse property values lazily, false not to
+	 * @return this
+	 * @see VCardReader#setLazyParsing(boolean)
+	 */
+	public T lazyParsing(boolean enable) {
+		lazyParsing = enable;
+		return this_;
+	}
+
+	/**
+	 * Sets the blob sink that large binary property values (such as photos)
+	 * will be decoded into.
+	 * @param blobSink the blob sink or null to always decode binary values into
+	 * memory
+	 * @return this
+	 * @see VCardReader#setBlobSink(BlobSink)
+	 */
+	public T blobSink(BlobSink blobSink) {
+		this.blobSink = blobSink;
+		return this_;
+	}
+
+	/**
+	 * Sets the size that a decoded binary property value must exceed in order
+	 * to be decoded into the blob sink.
+	 * @param blobThreshold the threshold (in bytes)
+	 * @return this
+	 * @see VCardReader#setBlobThreshold(int)
+	 */
+	public T blobThreshold(int blobThreshold) {
+		this.blobThreshold = blobThreshold;
+		return this_;
+	}
+
 	@Override
 	StreamReader constructReader() throws IOException {
 		VCardReader reader = newReader();
 		reader.setCaretDecodingEnabled(caretDecoding);
+		reader.setLazyParsing(lazyParsing);
+		reader.setBlobSink(blobSink);
+		if (blobThreshold != null) {
+			reader.setBlobThreshold(blobThreshold);
+		}
 		return reader;
 	}
 
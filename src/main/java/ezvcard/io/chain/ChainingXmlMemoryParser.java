@@ -7,6 +7,7 @@ import org.w3c.dom.Document;
 
 import ezvcard.Ezvcard;
 import ezvcard.VCard;
+import ezvcard.io.VCardIterator;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -67,4 +68,14 @@ public class ChainingXmlMemoryParser extends ChainingXmlParser<ChainingXmlMemory
 			throw new RuntimeException(e);
 		}
 	}
+
+	@Override
+	public VCardIterator iterator() {
+		try {
+			return super.iterator();
+		} catch (IOException e) {
+			//should never be thrown because we're reading from a string
+			throw new RuntimeException(e);
+		}
+	}
 }
@@ -45,6 +45,7 @@ import ezvcard.io.xml.XCardReader;
  */
 public class ChainingXmlParser<T extends ChainingXmlParser<?>> extends ChainingParser<T> {
 	private Document dom;
+	private boolean pullParsing = false;
 
 	public ChainingXmlParser(String string) {
 		super(string);
@@ -66,8 +67,27 @@ public class ChainingXmlParser<T extends ChainingXmlParser<?>> extends ChainingP
 		this.dom = dom;
 	}
 
+	/**
+	 * Sets whether the xCards will be read with a StAX pull parser on the
+	 * calling thread instead of a SAX parser running in a separate thread
+	 * (disabled by default).
+	 * @param enable true to use pull parsing, false not to
+	 * @return this
+	 * @see XCardReader#setPullParsing(boolean)
+	 */
+	public T pullParsing(boolean enable) {
+		pullParsing = enable;
+		return this_;
+	}
+
 	@Override
 	StreamReader constructReader() throws IOException {
+		XCardReader reader = newReader();
+		reader.setPullParsing(pullParsing);
+		return reader;
+	}
+
+	private XCardReader newReader() throws IOException {
 		if (string != null) {
 			return new XCardReader(string);
 		}
@@ -3,22 +3,32 @@ package ezvcard.io.html;
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.OutputStream;
 import java.io.OutputStreamWriter;
+import java.io.Reader;
 import java.io.StringWriter;
 import java.io.Writer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.regex.Pattern;
 
 import ezvcard.Ezvcard;
+import ezvcard.Messages;
 import ezvcard.VCard;
 import ezvcard.io.scribe.ScribeIndex;
 import ezvcard.parameter.ImageType;
+import ezvcard.parameter.MediaTypeParameter;
+import ezvcard.property.BinaryProperty;
 import ezvcard.property.Photo;
+import ezvcard.util.Blob;
 import ezvcard.util.DataUri;
+import ezvcard.util.IOUtils;
 import freemarker.template.Configuration;
 import freemarker.template.Template;
 import freemarker.template.TemplateException;
@@ -71,11 +81,41 @@ import freemarker.template.TemplateException;
  * File file = new File("hcard.html");
  * page.write(file);
  * </pre>
+ * <p>
+ * <b>Templates:</b>
+ * </p>
+ * <p>
+ * Templates are compiled once and shared by all {@link HCardPage} instances,
+ * so creating a page is cheap. Custom templates can be compiled and registered
+ * under a name by calling {@link #registerTemplate(String, Template)}, and
+ * then used by passing that name into {@link #HCardPage(String)}.
+ * </p>
+ * <p>
+ * <b>Streaming:</b>
+ * </p>
+ * <p>
+ * To write a large number of vCards without holding them all in memory, pass
+ * an iterator into {@link #write(Iterator, Writer)}. Each vCard is written as
+ * soon as the iterator returns it.
+ * </p>
+ * 
+ * <pre class="brush:java">
+ * VCardReader reader = new VCardReader(new File("contacts.vcf"));
+ * Writer writer = ...
+ * new HCardPage().write(reader.iterator(), writer);
+ * </pre>
  * @author Michael Angstadt
  * @see <a
  * href="http://microformats.org/wiki/hcard">http://microformats.org/wiki/hcard</a>
  */
 public class HCardPage {
+	/**
+	 * The name of the default template.
+	 */
+	public static final String DEFAULT_TEMPLATE = "hcard-template.html";
+
+	private static final ConcurrentMap<String, Template> templates = new ConcurrentHashMap<String, Template>();
+
 	private final Template template;
 	private final List<VCard> vcards = new ArrayList<VCard>();
 
@@ -83,15 +123,26 @@ public class HCardPage {
 	 * Creates a new hCard page that uses the default template.
 	 */
 	public HCardPage() {
-		Configuration cfg = new Configuration(Configuration.VERSION_2_3_23);
-		cfg.setClassForTemplateLoading(HCardPage.class, "");
-		cfg.setWhitespaceStripping(true);
-		try {
-			template = cfg.getTemplate("hcard-template.html");
-		} catch (IOException e) {
-			//should never be thrown because it's always on the classpath
-			throw new RuntimeException(e);
+		this(Shared.defaultTemplate);
+	}
+
+	/**
+	 * Creates a new hCard page that uses a template that was registered with
+	 * {@link #registerTemplate(String, Template)}.
+	 * @param templateName the name of the template
+	 * @throws IllegalArgumentException if no template is registered with the
+	 * given name
+	 */
+	public HCardPage(String templateName) {
+		this(template(templateName));
+	}
+
+	private static Template template(String templateName) {
+		Template template = getTemplate(templateName);
+		if (template == null) {
+			throw Messages.INSTANCE.getIllegalArgumentException(45, templateName);
 		}
+		return template;
 	}
 
 	/**
@@ -104,6 +155,61 @@ public class HCardPage {
 		this.template = template;
 	}
 
+	/**
+	 * Gets a template from the shared template cache.
+	 * @param name the template name
+	 * @return the template or null if no template is registered with the given
+	 * name
+	 * @see #DEFAULT_TEMPLATE
+	 */
+	public static Template getTemplate(String name) {
+		if (DEFAULT_TEMPLATE.equals(name)) {
+			return Shared.defaultTemplate;
+		}
+		return templates.get(name);
+	}
+
+	/**
+	 * Adds a compiled template to the shared template cache. Templates are
+	 * thread-safe, so a single template can be used by many {@link HCardPage}
+	 * objects at once.
+	 * @param name the template name
+	 * @param template the template
+	 * @throws IllegalArgumentException if the name is the name of the default
+	 * template
+	 */
+	public static void registerTemplate(String name, Template template) {
+		if (DEFAULT_TEMPLATE.equals(name)) {
+			throw Messages.INSTANCE.getIllegalArgumentException(46, name);
+		}
+		templates.put(name, template);
+	}
+
+	/**
+	 * Compiles a template and adds it to the shared template cache. The
+	 * template is compiled with the same settings as the default template.
+	 * @param name the template name
+	 * @param source the template source (will not be closed)
+	 * @return the compiled template
+	 * @throws IOException if there's a problem reading or compiling the
+	 * template
+	 * @throws IllegalArgumentException if the name is the name of the default
+	 * template
+	 */
+	public static Template registerTemplate(String name, Reader source) throws IOException {
+		Template template = new Template(name, source, Shared.configuration);
+		registerTemplate(name, template);
+		return template;
+	}
+
+	/**
+	 * Removes a template from the shared template cache.
+	 * @param name the template name
+	 */
+	public static void unregisterTemplate(String name) {
+		templates.remove(name);
+	}
+
 	/**
 	 * Adds a vCard to the HTML page.
 	 * @param vcard the vCard to add
@@ -156,14 +262,31 @@ public class HCardPage {
 	 * @throws IOException if there's a problem writing to the writer
 	 */
 	public void write(Writer writer) throws IOException {
+		process(vcards, writer);
+	}
+
+	/**
+	 * Writes an HTML document to a writer, streaming the vCards from the given
+	 * iterator. Each vCard is written as soon as the iterator returns it, so
+	 * the vCards never have to be held in memory all at once. The vCards that
+	 * were passed into {@link #add} are ignored.
+	 * @param vcards the vCards to write
+	 * @param writer the writer
+	 * @throws IOException if there's a problem writing to the writer
+	 */
+	public void write(Iterator<VCard> vcards, Writer writer) throws IOException {
+		process(vcards, writer);
+	}
+
+	private void process(Object vcards, Writer writer) throws IOException {
 		Map<String, Object> map = new HashMap<String, Object>();
 		map.put("vcards", vcards);
 		map.put("utils", new TemplateUtils());
-		map.put("translucentBg", readImage("translucent-bg.png", ImageType.PNG));
-		map.put("noProfile", readImage("no-profile.png", ImageType.PNG));
+		map.put("translucentBg", Shared.translucentBg);
+		map.put("noProfile", Shared.noProfile);
 		map.put("ezVCardVersion", Ezvcard.VERSION);
 		map.put("ezVCardUrl", Ezvcard.URL);
-		map.put("scribeIndex", new ScribeIndex());
+		map.put("scribeIndex", ScribeIndex.standard());
 		try {
 			template.process(map, writer);
 		} catch (TemplateException e) {
@@ -173,14 +296,38 @@ public class HCardPage {
 	}
 
 	/**
-	 * Reads an image from the classpath.
-	 * @param name the file name, relative to this class
-	 * @param mediaType the media type of the image
-	 * @return the image
-	 * @throws IOException
+	 * Holds the objects that are shared by all {@link HCardPage} instances.
+	 * They are loaded the first time they are needed.
 	 */
-	private Photo readImage(String name, ImageType mediaType) throws IOException {
-		return new Photo(getClass().getResourceAsStream(name), mediaType);
+	private static class Shared {
+		private static final Configuration configuration;
+		private static final Template defaultTemplate;
+		private static final Photo translucentBg, noProfile;
+		static {
+			configuration = new Configuration(Configuration.VERSION_2_3_23);
+			configuration.setClassForTemplateLoading(HCardPage.class, "");
+			configuration.setWhitespaceStripping(true);
+
+			try {
+				defaultTemplate = configuration.getTemplate(DEFAULT_TEMPLATE);
+				translucentBg = readImage("translucent-bg.png", ImageType.PNG);
+				noProfile = readImage("no-profile.png", ImageType.PNG);
+			} catch (IOException e) {
+				//should never be thrown because they're always on the classpath
+				throw new RuntimeException(e);
+			}
+		}
+
+		/**
+		 * Reads an image from the classpath.
+		 * @param name the file name, relative to this class
+		 * @param mediaType the media type of the image
+		 * @return the image
+		 * @throws IOException if there's a problem reading the image
+		 */
+		private static Photo readImage(String name, ImageType mediaType) throws IOException {
+			return new Photo(HCardPage.class.getResourceAsStream(name), mediaType);
+		}
 	}
 
 	/**
@@ -193,6 +340,28 @@ public class HCardPage {
 			return new DataUri(contentType, data).toString();
 		}
 
+		/**
+		 * Creates a data URI from a property's binary data. The data is
+		 * base64-encoded as it is read from the property, so data that is
+		 * stored in a {@link Blob} is never held in memory all at once.
+		 * @param property the property
+		 * @return the data URI
+		 * @throws IOException if there's a problem reading the binary data
+		 */
+		public String base64(BinaryProperty<?> property) throws IOException {
+			MediaTypeParameter contentType = property.getContentType();
+			long size = property.getDataSize();
+			StringBuilder sb = new StringBuilder((int) Math.min(Integer.MAX_VALUE, (size + 2) / 3 * 4 + 64));
+
+			InputStream in = property.openDataStream();
+			try {
+				DataUri.write((contentType == null) ? null : contentType.getMediaType(), in, sb);
+			} finally {
+				IOUtils.closeQuietly(in);
+			}
+			return sb.toString();
+		}
+
 		public String lineBreaks(String value) {
 			return newlineRegex.matcher(value).replaceAll("<br />");
 		}
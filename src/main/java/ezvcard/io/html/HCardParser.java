@@ -27,12 +27,14 @@ import ezvcard.io.StreamReader;
 import ezvcard.io.scribe.RawPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe.Result;
+import ezvcard.property.Agent;
 import ezvcard.property.Categories;
 import ezvcard.property.Email;
 import ezvcard.property.Impp;
 import ezvcard.property.Label;
 import ezvcard.property.Nickname;
 import ezvcard.property.RawProperty;
+import ezvcard.property.Source;
 import ezvcard.property.Telephone;
 import ezvcard.property.Url;
 import ezvcard.property.VCardProperty;
@@ -276,7 +278,10 @@ public class HCardParser extends StreamReader {
 		vcard = new VCard();
 		vcard.setVersion(VCardVersion.V3_0);
 		if (pageUrl != null) {
-			vcard.addSource(pageUrl);
+			VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(Source.class);
+			if (isPropertyKept(scribe.getPropertyName(), scribe)) {
+				vcard.addSource(pageUrl);
+			}
 		}
 
 		//visit all descendant nodes, depth-first
@@ -305,11 +310,18 @@ public class HCardParser extends StreamReader {
 					} else {
 						//try parsing as IMPP
 						VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(Impp.class);
+						boolean keepImpp = isPropertyKept(scribe.getPropertyName(), scribe);
+						if (!keepImpp && !isPropertyKept(className, index.getPropertyScribe(className))) {
+							continue;
+						}
+
 						try {
 							Result<? extends VCardProperty> result = scribe.parseHtml(new HCardElement(element));
-							vcard.addProperty(result.getProperty());
-							for (String warning : result.getWarnings()) {
-								warnings.add(null, scribe.getPropertyName(), warning);
+							if (keepImpp) {
+								vcard.addProperty(result.getProperty());
+								for (String warning : result.getWarnings()) {
+									warnings.add(null, scribe.getPropertyName(), warning);
+								}
 							}
 							continue;
 						} catch (SkipMeException e) {
@@ -332,6 +344,17 @@ public class HCardParser extends StreamReader {
 				if (!className.startsWith("x-")) {
 					continue;
 				}
+			}
+
+			if (!isPropertyKept(className, scribe)) {
+				if (scribe != null && scribe.getPropertyClass() == Agent.class) {
+					//don't let the properties of an embedded vCard get added to this vCard
+					visitChildren = false;
+				}
+				continue;
+			}
+
+			if (scribe == null) {
 				scribe = new RawPropertyScribe(className);
 			}
 
@@ -46,7 +46,7 @@ import ezvcard.property.VCardProperty;
  * @author Buddy Gorven
  */
 public class JCardDeserializer extends JsonDeserializer<VCard> {
-	private ScribeIndex index = new ScribeIndex();
+	private ScribeIndex index = ScribeIndex.standard();
 
 	@Override
 	public VCard deserialize(JsonParser parser, DeserializationContext context) throws IOException, JsonProcessingException {
@@ -58,19 +58,33 @@ public class JCardDeserializer extends JsonDeserializer<VCard> {
 
 	/**
 	 * <p>
-	 * Registers a property scribe. This is the same as calling:
+	 * Registers a property scribe.
 	 * </p>
 	 * <p>
-	 * {@code getScribeIndex().register(scribe)}
+	 * If the current scribe index is immutable (such as the shared
+	 * {@link ScribeIndex#standard standard} index, which is used by default),
+	 * it is replaced with a mutable copy before the scribe is registered. The
+	 * immutable index itself is never modified.
 	 * </p>
 	 * @param scribe the scribe to register
 	 */
 	public void registerScribe(VCardPropertyScribe<? extends VCardProperty> scribe) {
+		if (index.isImmutable()) {
+			index = new ScribeIndex(index);
+		}
 		index.register(scribe);
 	}
 
 	/**
+	 * <p>
 	 * Gets the scribe index.
+	 * </p>
+	 * <p>
+	 * Unless a scribe index has been assigned, this is the shared, immutable
+	 * {@link ScribeIndex#standard standard} index. Immutable indexes throw an
+	 * {@link UnsupportedOperationException} if they are modified, so use
+	 * {@link #registerScribe registerScribe} to add scribes.
+	 * </p>
 	 * @return the scribe index
 	 */
 	public ScribeIndex getScribeIndex() {
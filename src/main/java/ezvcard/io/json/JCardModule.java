@@ -70,7 +70,7 @@ public class JCardModule extends SimpleModule {
 	public JCardModule() {
 		super(MODULE_NAME, MODULE_VERSION);
 
-		setScribeIndex(new ScribeIndex());
+		setScribeIndex(ScribeIndex.standard());
 		addSerializer(serializer);
 		addDeserializer(VCard.class, deserializer);
 	}
@@ -137,19 +137,33 @@ public class JCardModule extends SimpleModule {
 
 	/**
 	 * <p>
-	 * Registers a property scribe. This is the same as calling:
+	 * Registers a property scribe.
 	 * </p>
 	 * <p>
-	 * {@code getScribeIndex().register(scribe)}
+	 * If the current scribe index is immutable (such as the shared
+	 * {@link ScribeIndex#standard standard} index, which is used by default),
+	 * it is replaced with a mutable copy before the scribe is registered. The
+	 * immutable index itself is never modified.
 	 * </p>
 	 * @param scribe the scribe to register
 	 */
 	public void registerScribe(VCardPropertyScribe<? extends VCardProperty> scribe) {
+		if (index.isImmutable()) {
+			setScribeIndex(new ScribeIndex(index));
+		}
 		index.register(scribe);
 	}
 
 	/**
+	 * <p>
 	 * Gets the scribe index used by the serializer and deserializer.
+	 * </p>
+	 * <p>
+	 * Unless a scribe index has been assigned, this is the shared, immutable
+	 * {@link ScribeIndex#standard standard} index. Immutable indexes throw an
+	 * {@link UnsupportedOperationException} if they are modified, so use
+	 * {@link #registerScribe registerScribe} to add scribes.
+	 * </p>
 	 * @return the scribe index
 	 */
 	public ScribeIndex getScribeIndex() {
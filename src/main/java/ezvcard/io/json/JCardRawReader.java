@@ -2,13 +2,10 @@ package ezvcard.io.json;
 
 import java.io.Closeable;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.Reader;
-import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
-import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonParseException;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonToken;
@@ -48,16 +45,36 @@ import ezvcard.parameter.VCardParameters;
  */
 public class JCardRawReader implements Closeable {
 	private final Reader reader;
+	private final InputStream in;
 	private JsonParser parser;
 	private boolean eof = false;
 	private JCardDataStreamListener listener;
+	private PropertyNameFilter filter;
 	private boolean strict = false;
 
+	/**
+	 * Holds the tokens of the property value that is currently being read.
+	 * Re-used for each property.
+	 */
+	private Object[] tokens = new Object[16];
+	private int tokenCount;
+
 	/**
 	 * @param reader the reader to wrap
 	 */
 	public JCardRawReader(Reader reader) {
 		this.reader = reader;
+		this.in = null;
+	}
+
+	/**
+	 * Creates a reader that decodes the JSON directly from UTF-8 bytes,
+	 * without going through a character-level {@link Reader}.
+	 * @param in the input stream to read from
+	 */
+	public JCardRawReader(InputStream in) {
+		this.reader = null;
+		this.in = in;
 	}
 
 	/**
@@ -70,6 +87,7 @@ public class JCardRawReader implements Closeable {
 	 */
 	public JCardRawReader(JsonParser parser, boolean strict) {
 		reader = null;
+		in = null;
 		this.parser = parser;
 		this.strict = strict;
 	}
@@ -82,6 +100,16 @@ public class JCardRawReader implements Closeable {
 		return (parser == null) ? 0 : parser.getCurrentLocation().getLineNr();
 	}
 
+	/**
+	 * Sets a filter that decides which properties are passed to the
+	 * {@link JCardDataStreamListener}. Properties that are rejected by the
+	 * filter are read past without being parsed.
+	 * @param filter the filter or null to pass along all properties (default)
+	 */
+	public void setPropertyNameFilter(PropertyNameFilter filter) {
+		this.filter = filter;
+	}
+
 	/**
 	 * Reads the next vCard from the jCard data stream.
 	 * @param listener handles the vCard data as it is read off the wire
@@ -92,8 +120,7 @@ public class JCardRawReader implements Closeable {
 	 */
 	public void readNext(JCardDataStreamListener listener) throws IOException {
 		if (parser == null) {
-			JsonFactory factory = new JsonFactory();
-			parser = factory.createParser(reader);
+			parser = (in == null) ? JCardJsonFactory.INSTANCE.createParser(reader) : JCardJsonFactory.INSTANCE.createParser(in);
 		} else if (parser.isClosed()) {
 			return;
 		}
@@ -154,6 +181,11 @@ public class JCardRawReader implements Closeable {
 		checkCurrent(JsonToken.VALUE_STRING);
 		String propertyName = parser.getValueAsString().toLowerCase();
 
+		if (filter != null && !filter.keep(propertyName)) {
+			skipProperty();
+			return;
+		}
+
 		//get parameters
 		VCardParameters parameters = parseParameters();
 
@@ -167,12 +199,17 @@ public class JCardRawReader implements Closeable {
 		VCardDataType dataType = "unknown".equals(dataTypeStr) ? null : VCardDataType.get(dataTypeStr);
 
 		//get property value(s)
-		List<JsonValue> values = parseValues();
+		JCardValue value = parseValue();
 
-		JCardValue value = new JCardValue(values);
 		listener.readProperty(group, propertyName, parameters, dataType, value);
 	}
 
+	private void skipProperty() throws IOException {
+		while (parser.nextToken() != JsonToken.END_ARRAY) { //until we reach the end of the property array
+			parser.skipChildren();
+		}
+	}
+
 	private VCardParameters parseParameters() throws IOException {
 		checkNext(JsonToken.START_OBJECT);
 
@@ -193,66 +230,72 @@ public class JCardRawReader implements Closeable {
 		return parameters;
 	}
 
-	private List<JsonValue> parseValues() throws IOException {
-		List<JsonValue> values = new ArrayList<JsonValue>();
-		while (parser.nextToken() != JsonToken.END_ARRAY) { //until we reach the end of the property array
-			JsonValue value = parseValue();
-			values.add(value);
-		}
-		return values;
-	}
-
-	private Object parseValueElement() throws IOException {
-		switch (parser.getCurrentToken()) {
-		case VALUE_FALSE:
-		case VALUE_TRUE:
-			return parser.getBooleanValue();
-		case VALUE_NUMBER_FLOAT:
-			return parser.getDoubleValue();
-		case VALUE_NUMBER_INT:
-			return parser.getLongValue();
-		case VALUE_NULL:
-			return null;
-		default:
-			return parser.getText();
-		}
-	}
-
-	private List<JsonValue> parseValueArray() throws IOException {
-		List<JsonValue> array = new ArrayList<JsonValue>();
-
-		while (parser.nextToken() != JsonToken.END_ARRAY) {
-			JsonValue value = parseValue();
-			array.add(value);
-		}
-
-		return array;
-	}
-
-	private Map<String, JsonValue> parseValueObject() throws IOException {
-		Map<String, JsonValue> object = new HashMap<String, JsonValue>();
-
-		while (parser.nextToken() != JsonToken.END_OBJECT) {
-			checkCurrent(JsonToken.FIELD_NAME);
+	/**
+	 * Reads the property value tokens straight off the JSON parser, without
+	 * building an object tree.
+	 * @return the property value
+	 * @throws IOException if there's a problem reading from the input stream
+	 */
+	private JCardValue parseValue() throws IOException {
+		tokenCount = 0;
+		int depth = 0;
+		while (true) {
+			JsonToken token = parser.nextToken();
+			if (token == null) {
+				throw new JCardParseException(JsonToken.END_ARRAY, null);
+			}
 
-			String key = parser.getText();
-			parser.nextToken();
-			JsonValue value = parseValue();
-			object.put(key, value);
+			switch (token) {
+			case START_ARRAY:
+				depth++;
+				addToken(JCardValue.START_ARRAY);
+				break;
+			case END_ARRAY:
+				if (depth == 0) {
+					//end of the property array
+					Object[] copy = new Object[tokenCount];
+					System.arraycopy(tokens, 0, copy, 0, tokenCount);
+					return new JCardValue(copy);
+				}
+				depth--;
+				addToken(JCardValue.END_ARRAY);
+				break;
+			case START_OBJECT:
+				depth++;
+				addToken(JCardValue.START_OBJECT);
+				break;
+			case END_OBJECT:
+				depth--;
+				addToken(JCardValue.END_OBJECT);
+				break;
+			case VALUE_FALSE:
+			case VALUE_TRUE:
+				addToken(parser.getBooleanValue());
+				break;
+			case VALUE_NUMBER_FLOAT:
+				addToken(parser.getDoubleValue());
+				break;
+			case VALUE_NUMBER_INT:
+				addToken(parser.getLongValue());
+				break;
+			case VALUE_NULL:
+				addToken(null);
+				break;
+			default:
+				//strings and field names
+				addToken(parser.getText());
+				break;
+			}
 		}
-
-		return object;
 	}
 
-	private JsonValue parseValue() throws IOException {
-		switch (parser.getCurrentToken()) {
-		case START_ARRAY:
-			return new JsonValue(parseValueArray());
-		case START_OBJECT:
-			return new JsonValue(parseValueObject());
-		default:
-			return new JsonValue(parseValueElement());
+	private void addToken(Object token) {
+		if (tokenCount == tokens.length) {
+			Object[] bigger = new Object[tokens.length * 2];
+			System.arraycopy(tokens, 0, bigger, 0, tokenCount);
+			tokens = bigger;
 		}
+		tokens[tokenCount++] = token;
 	}
 
 	private void checkNext(JsonToken expected) throws IOException {
@@ -301,7 +344,21 @@ public class JCardRawReader implements Closeable {
 	}
 
 	/**
-	 * Closes the underlying {@link Reader} object.
+	 * Decides which properties are read.
+	 * @author Michael Angstadt
+	 * @see JCardRawReader#setPropertyNameFilter
+	 */
+	public interface PropertyNameFilter {
+		/**
+		 * Determines whether a property should be read.
+		 * @param propertyName the property name (e.g. "summary")
+		 * @return true to read the property, false to skip it
+		 */
+		boolean keep(String propertyName);
+	}
+
+	/**
+	 * Closes the underlying {@link Reader} or {@link InputStream} object.
 	 */
 	public void close() throws IOException {
 		if (parser != null) {
@@ -310,5 +367,8 @@ public class JCardRawReader implements Closeable {
 		if (reader != null) {
 			reader.close();
 		}
+		if (in != null) {
+			in.close();
+		}
 	}
 }
@@ -3,13 +3,13 @@ package ezvcard.io.json;
 import java.io.Closeable;
 import java.io.Flushable;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.io.Writer;
 import java.util.List;
 import java.util.Map;
 
-import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonEncoding;
 import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.JsonGenerator.Feature;
 import com.fasterxml.jackson.core.PrettyPrinter;
 
 import ezvcard.Messages;
@@ -50,9 +50,11 @@ import ezvcard.parameter.VCardParameters;
  */
 public class JCardRawWriter implements Closeable, Flushable {
 	private final Writer writer;
+	private final OutputStream out;
 	private final boolean wrapInArray;
 	private JsonGenerator generator;
 	private boolean prettyPrint = false;
+	private boolean started = false;
 	private boolean open = false;
 	private boolean closeGenerator = true;
 	private PrettyPrinter prettyPrinter;
@@ -64,6 +66,20 @@ public class JCardRawWriter implements Closeable, Flushable {
 	 */
 	public JCardRawWriter(Writer writer, boolean wrapInArray) {
 		this.writer = writer;
+		this.out = null;
+		this.wrapInArray = wrapInArray;
+	}
+
+	/**
+	 * Creates a writer that encodes the JSON directly to UTF-8 bytes, without
+	 * going through a character-level {@link Writer}.
+	 * @param out the output stream to write to
+	 * @param wrapInArray true to wrap everything in an array, false not to
+	 * (useful when writing more than one vCard)
+	 */
+	public JCardRawWriter(OutputStream out, boolean wrapInArray) {
+		this.writer = null;
+		this.out = out;
 		this.wrapInArray = wrapInArray;
 	}
 
@@ -71,10 +87,26 @@ public class JCardRawWriter implements Closeable, Flushable {
 	 * @param generator the generator to write to
 	 */
 	public JCardRawWriter(JsonGenerator generator) {
+		this(generator, false);
+	}
+
+	/**
+	 * <p>
+	 * Creates a writer that writes to an existing generator. The generator's
+	 * settings (such as its pretty printer) are left untouched, and the
+	 * generator is not closed when this writer is closed. This allows
+	 * generators to be pooled and reused by the caller.
+	 * </p>
+	 * @param generator the generator to write to
+	 * @param wrapInArray true to wrap everything in an array, false not to
+	 * (useful when writing more than one vCard)
+	 */
+	public JCardRawWriter(JsonGenerator generator, boolean wrapInArray) {
 		this.writer = null;
+		this.out = null;
 		this.generator = generator;
 		this.closeGenerator = false;
-		this.wrapInArray = false;
+		this.wrapInArray = wrapInArray;
 	}
 
 	/**
@@ -113,7 +145,7 @@ public class JCardRawWriter implements Closeable, Flushable {
 	 * @throws IOException if there's a problem writing to the output stream
 	 */
 	public void writeStartVCard() throws IOException {
-		if (generator == null) {
+		if (!started) {
 			init();
 		}
 
@@ -302,7 +334,7 @@ public class JCardRawWriter implements Closeable, Flushable {
 			writeEndVCard();
 		}
 
-		if (wrapInArray) {
+		if (wrapInArray && started) {
 			generator.writeEndArray();
 		}
 
@@ -313,7 +345,7 @@ public class JCardRawWriter implements Closeable, Flushable {
 
 	/**
 	 * Finishes writing the JSON document and closes the underlying
-	 * {@link Writer}.
+	 * {@link Writer} or {@link OutputStream}.
 	 * @throws IOException if there's a problem closing the output stream
 	 */
 	public void close() throws IOException {
@@ -325,22 +357,26 @@ public class JCardRawWriter implements Closeable, Flushable {
 		if (writer != null) {
 			writer.close();
 		}
+		if (out != null) {
+			out.close();
+		}
 	}
 
 	private void init() throws IOException {
-		JsonFactory factory = new JsonFactory();
-		factory.configure(Feature.AUTO_CLOSE_TARGET, false);
-		generator = factory.createGenerator(writer);
+		if (generator == null) {
+			generator = (out == null) ? JCardJsonFactory.INSTANCE.createGenerator(writer) : JCardJsonFactory.INSTANCE.createGenerator(out, JsonEncoding.UTF8);
 
-		if (prettyPrint) {
-			if (prettyPrinter == null) {
-				prettyPrinter = new JCardPrettyPrinter();
+			if (prettyPrint) {
+				if (prettyPrinter == null) {
+					prettyPrinter = new JCardPrettyPrinter();
+				}
+				generator.setPrettyPrinter(prettyPrinter);
 			}
-			generator.setPrettyPrinter(prettyPrinter);
 		}
 
 		if (wrapInArray) {
 			generator.writeStartArray();
 		}
+		started = true;
 	}
 }
\ No newline at end of file
@@ -1,7 +1,7 @@
 package ezvcard.io.json;
 
-import java.io.BufferedReader;
 import java.io.File;
+import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -18,13 +18,13 @@ import ezvcard.io.EmbeddedVCardException;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.StreamReader;
 import ezvcard.io.json.JCardRawReader.JCardDataStreamListener;
+import ezvcard.io.json.JCardRawReader.PropertyNameFilter;
 import ezvcard.io.scribe.RawPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe.Result;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.RawProperty;
 import ezvcard.property.VCardProperty;
-import ezvcard.util.Utf8Reader;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -93,7 +93,7 @@ public class JCardReader extends StreamReader {
 	 * @param in the input stream to read from
 	 */
 	public JCardReader(InputStream in) {
-		this(new Utf8Reader(in));
+		this.reader = new JCardRawReader(in);
 	}
 
 	/**
@@ -101,7 +101,7 @@ public class JCardReader extends StreamReader {
 	 * @throws FileNotFoundException if the file doesn't exist
 	 */
 	public JCardReader(File file) throws FileNotFoundException {
-		this(new BufferedReader(new Utf8Reader(file)));
+		this(new FileInputStream(file));
 	}
 
 	/**
@@ -127,6 +127,7 @@ public class JCardReader extends StreamReader {
 		warnings.clear();
 
 		JCardDataStreamListenerImpl listener = new JCardDataStreamListenerImpl();
+		reader.setPropertyNameFilter((propertyFilter == null) ? null : listener);
 		reader.readNext(listener);
 		VCard vcard = listener.vcard;
 		if (vcard != null && !listener.versionFound) {
@@ -139,10 +140,15 @@ public class JCardReader extends StreamReader {
 		reader.close();
 	}
 
-	private class JCardDataStreamListenerImpl implements JCardDataStreamListener {
+	private class JCardDataStreamListenerImpl implements JCardDataStreamListener, PropertyNameFilter {
 		private VCard vcard = null;
 		private boolean versionFound = false;
 
+		public boolean keep(String propertyName) {
+			//"version" is always read because it is not treated as a property
+			return "version".equals(propertyName) || isPropertyKept(propertyName, index.getPropertyScribe(propertyName));
+		}
+
 		public void beginVCard() {
 			vcard = new VCard();
 			vcard.setVersion(VCardVersion.V4_0);
@@ -54,7 +54,7 @@ import ezvcard.property.VCardProperty;
 public class JCardSerializer extends StdSerializer<VCard> implements ContextualSerializer {
 	private static final long serialVersionUID = -856795690626261178L;
 
-	private ScribeIndex index = new ScribeIndex();
+	private ScribeIndex index = ScribeIndex.standard();
 	private boolean addProdId = true;
 	private boolean versionStrict = true;
 
@@ -68,7 +68,7 @@ public class JCardSerializer extends StdSerializer<VCard> implements ContextualS
 		JCardWriter writer = new JCardWriter(gen);
 		writer.setAddProdId(isAddProdId());
 		writer.setVersionStrict(isVersionStrict());
-		writer.setScribeIndex(getScribeIndex());
+		writer.setScribeIndex(index);
 
 		writer.write(value);
 	}
@@ -86,7 +86,7 @@ public class JCardSerializer extends StdSerializer<VCard> implements ContextualS
 		JCardSerializer result = new JCardSerializer();
 		result.setAddProdId(annotation.addProdId());
 		result.setVersionStrict(annotation.versionStrict());
-		result.setScribeIndex(getScribeIndex());
+		result.setScribeIndex(index);
 		return result;
 	}
 
@@ -134,19 +134,33 @@ public class JCardSerializer extends StdSerializer<VCard> implements ContextualS
 
 	/**
 	 * <p>
-	 * Registers a property scribe. This is the same as calling:
+	 * Registers a property scribe.
 	 * </p>
 	 * <p>
-	 * {@code getScribeIndex().register(scribe)}
+	 * If the current scribe index is immutable (such as the shared
+	 * {@link ScribeIndex#standard standard} index, which is used by default),
+	 * it is replaced with a mutable copy before the scribe is registered. The
+	 * immutable index itself is never modified.
 	 * </p>
 	 * @param scribe the scribe to register
 	 */
 	public void registerScribe(VCardPropertyScribe<? extends VCardProperty> scribe) {
+		if (index.isImmutable()) {
+			index = new ScribeIndex(index);
+		}
 		index.register(scribe);
 	}
 
 	/**
+	 * <p>
 	 * Gets the scribe index.
+	 * </p>
+	 * <p>
+	 * Unless a scribe index has been assigned, this is the shared, immutable
+	 * {@link ScribeIndex#standard standard} index. Immutable indexes throw an
+	 * {@link UnsupportedOperationException} if they are modified, so use
+	 * {@link #registerScribe registerScribe} to add scribes.
+	 * </p>
 	 * @return the scribe index
 	 */
 	public ScribeIndex getScribeIndex() {
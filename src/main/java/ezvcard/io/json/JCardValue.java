@@ -3,7 +3,9 @@ package ezvcard.io.json;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 import ezvcard.property.Categories;
 import ezvcard.property.Note;
@@ -43,7 +45,26 @@ import ezvcard.property.StructuredName;
  * @author Michael Angstadt
  */
 public class JCardValue {
-	private final List<JsonValue> values;
+	/*
+	 * Values that are read from a jCard data stream are stored as the flat list
+	 * of tokens that the JSON parser produced, which is much cheaper than
+	 * building a tree of JsonValue objects. Scalar values are stored as-is
+	 * (null for JSON null), and the following objects mark where arrays and
+	 * objects begin and end. The field names of JSON objects are stored as
+	 * strings, each one followed by its value.
+	 */
+	static final Object START_ARRAY = new Object();
+	static final Object END_ARRAY = new Object();
+	static final Object START_OBJECT = new Object();
+	static final Object END_OBJECT = new Object();
+
+	private final Object[] tokens;
+
+	/**
+	 * The JSON values. If this object was created from a list of tokens, this
+	 * list is not created until it is asked for.
+	 */
+	private List<JsonValue> values;
 
 	/**
 	 * Creates a new jCard value.
@@ -51,6 +72,7 @@ public class JCardValue {
 	 */
 	public JCardValue(List<JsonValue> values) {
 		this.values = Collections.unmodifiableList(values);
+		tokens = null;
 	}
 
 	/**
@@ -59,6 +81,15 @@ public class JCardValue {
 	 */
 	public JCardValue(JsonValue... values) {
 		this.values = Arrays.asList(values); //unmodifiable
+		tokens = null;
+	}
+
+	/**
+	 * Creates a new jCard value from a list of JSON tokens.
+	 * @param tokens the tokens (see the comment at the top of this class)
+	 */
+	JCardValue(Object[] tokens) {
+		this.tokens = tokens;
 	}
 
 	/**
@@ -154,14 +185,87 @@ public class JCardValue {
 	 * @return the JSON values
 	 */
 	public List<JsonValue> getValues() {
+		if (values == null) {
+			List<JsonValue> values = new ArrayList<JsonValue>();
+			int[] index = { 0 };
+			while (index[0] < tokens.length) {
+				values.add(toJsonValue(index));
+			}
+			this.values = Collections.unmodifiableList(values);
+		}
 		return values;
 	}
 
+	private JsonValue toJsonValue(int[] index) {
+		Object token = tokens[index[0]++];
+
+		if (token == START_ARRAY) {
+			List<JsonValue> array = new ArrayList<JsonValue>();
+			while (tokens[index[0]] != END_ARRAY) {
+				array.add(toJsonValue(index));
+			}
+			index[0]++;
+			return new JsonValue(array);
+		}
+
+		if (token == START_OBJECT) {
+			Map<String, JsonValue> object = new HashMap<String, JsonValue>();
+			while (tokens[index[0]] != END_OBJECT) {
+				String key = (String) tokens[index[0]++];
+				object.put(key, toJsonValue(index));
+			}
+			index[0]++;
+			return new JsonValue(object);
+		}
+
+		return new JsonValue(token);
+	}
+
+	/**
+	 * Gets the number of JSON values.
+	 * @return the number of values
+	 */
+	public int getValueCount() {
+		if (tokens == null) {
+			return values.size();
+		}
+
+		int count = 0;
+		for (int i = 0; i < tokens.length; i = next(i)) {
+			count++;
+		}
+		return count;
+	}
+
+	/**
+	 * Determines if the first JSON value is an array.
+	 * @return true if the first value is an array, false if not
+	 */
+	public boolean isFirstValueArray() {
+		if (tokens == null) {
+			return !values.isEmpty() && values.get(0).getArray() != null;
+		}
+		return tokens.length > 0 && tokens[0] == START_ARRAY;
+	}
+
 	/**
 	 * Gets the value of a single-valued property (such as {@link Note}).
 	 * @return the value or empty string if not found
 	 */
 	public String asSingle() {
+		if (tokens != null) {
+			if (tokens.length == 0) {
+				return "";
+			}
+
+			Object first = tokens[0];
+			if (first == START_ARRAY) {
+				//get the first element of the array
+				first = tokens[1];
+			}
+			return (first == null || isMarker(first)) ? "" : first.toString();
+		}
+
 		if (values.isEmpty()) {
 			return "";
 		}
@@ -193,6 +297,10 @@ public class JCardValue {
 	 * @return the values or empty list if not found
 	 */
 	public List<List<String>> asStructured() {
+		if (tokens != null) {
+			return asStructuredFromTokens();
+		}
+
 		if (values.isEmpty()) {
 			return Collections.emptyList();
 		}
@@ -268,6 +376,23 @@ public class JCardValue {
 	 * @return the values or empty list if not found
 	 */
 	public List<String> asMulti() {
+		if (tokens != null) {
+			if (tokens.length == 0) {
+				return Collections.emptyList();
+			}
+
+			List<String> multi = new ArrayList<String>();
+			for (int i = 0; i < tokens.length; i = next(i)) {
+				Object token = tokens[i];
+				if (token == null) {
+					multi.add("");
+				} else if (!isMarker(token)) {
+					multi.add(token.toString());
+				}
+			}
+			return multi;
+		}
+
 		if (values.isEmpty()) {
 			return Collections.emptyList();
 		}
@@ -288,6 +413,109 @@ public class JCardValue {
 		return multi;
 	}
 
+	private List<List<String>> asStructuredFromTokens() {
+		if (tokens.length == 0) {
+			return Collections.emptyList();
+		}
+
+		Object first = tokens[0];
+
+		//["gender", {}, "text", ["M", "text"] ]
+		if (first == START_ARRAY) {
+			List<List<String>> components = new ArrayList<List<String>>();
+			int i = 1;
+			while (tokens[i] != END_ARRAY) {
+				Object token = tokens[i];
+
+				if (token == null) {
+					components.add(Arrays.<String> asList());
+					i++;
+					continue;
+				}
+
+				if (!isMarker(token)) {
+					String s = token.toString();
+					List<String> component = (s.length() == 0) ? Arrays.<String> asList() : Arrays.asList(s);
+					components.add(component);
+					i++;
+					continue;
+				}
+
+				if (token == START_ARRAY) {
+					List<String> component = new ArrayList<String>();
+					i++;
+					while (tokens[i] != END_ARRAY) {
+						Object subToken = tokens[i];
+						if (subToken == null) {
+							component.add("");
+						} else if (!isMarker(subToken)) {
+							component.add(subToken.toString());
+						}
+						i = next(i);
+					}
+					i++;
+
+					if (component.size() == 1 && component.get(0).length() == 0) {
+						component.clear();
+					}
+					components.add(component);
+					continue;
+				}
+
+				//JSON objects are ignored
+				i = next(i);
+			}
+			return components;
+		}
+
+		//["gender", {}, "text", null]
+		if (first == null) {
+			List<List<String>> components = new ArrayList<List<String>>(1);
+			components.add(Arrays.<String> asList());
+			return components;
+		}
+
+		if (first == START_OBJECT) {
+			return Collections.emptyList();
+		}
+
+		//get the first value if it's not enclosed in an array
+		//["gender", {}, "text", "M"]
+		List<List<String>> components = new ArrayList<List<String>>(1);
+		String s = first.toString();
+		List<String> component = (s.length() == 0) ? Arrays.<String> asList() : Arrays.asList(s);
+		components.add(component);
+		return components;
+	}
+
+	/**
+	 * Gets the index of the token that comes after the value that starts at the
+	 * given index.
+	 * @param index the index of the first token of a value
+	 * @return the index of the token after the value
+	 */
+	private int next(int index) {
+		Object token = tokens[index++];
+		if (token != START_ARRAY && token != START_OBJECT) {
+			return index;
+		}
+
+		int depth = 1;
+		while (depth > 0) {
+			token = tokens[index++];
+			if (token == START_ARRAY || token == START_OBJECT) {
+				depth++;
+			} else if (token == END_ARRAY || token == END_OBJECT) {
+				depth--;
+			}
+		}
+		return index;
+	}
+
+	private static boolean isMarker(Object token) {
+		return token == START_ARRAY || token == END_ARRAY || token == START_OBJECT || token == END_OBJECT;
+	}
+
 	@Override
 	public boolean equals(Object o) {
 		if (this == o) {
@@ -298,16 +526,11 @@ public class JCardValue {
 		}
 
 		JCardValue that = (JCardValue) o;
-
-		if (values != null ? !values.equals(that.values) : that.values != null) {
-			return false;
-		}
-
-		return true;
+		return getValues().equals(that.getValues());
 	}
 
 	@Override
 	public int hashCode() {
-		return values != null ? values.hashCode() : 0;
+		return getValues().hashCode();
 	}
 }
@@ -1,6 +1,7 @@
 package ezvcard.io.json;
 
 import java.io.File;
+import java.io.FileOutputStream;
 import java.io.Flushable;
 import java.io.IOException;
 import java.io.OutputStream;
@@ -19,7 +20,6 @@ import ezvcard.io.StreamWriter;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.VCardProperty;
-import ezvcard.util.Utf8Writer;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -84,7 +84,7 @@ public class JCardWriter extends StreamWriter implements Flushable {
 	 * @param out the output stream to write to (UTF-8 encoding will be used)
 	 */
 	public JCardWriter(OutputStream out) {
-		this(new Utf8Writer(out));
+		this(out, false);
 	}
 
 	/**
@@ -93,7 +93,7 @@ public class JCardWriter extends StreamWriter implements Flushable {
 	 * false not to
 	 */
 	public JCardWriter(OutputStream out, boolean wrapInArray) {
-		this(new Utf8Writer(out), wrapInArray);
+		this.writer = new JCardRawWriter(out, wrapInArray);
 	}
 
 	/**
@@ -101,7 +101,7 @@ public class JCardWriter extends StreamWriter implements Flushable {
 	 * @throws IOException if there's a problem opening the file
 	 */
 	public JCardWriter(File file) throws IOException {
-		this(new Utf8Writer(file));
+		this(file, false);
 	}
 
 	/**
@@ -111,7 +111,7 @@ public class JCardWriter extends StreamWriter implements Flushable {
 	 * @throws IOException if there's a problem opening the file
 	 */
 	public JCardWriter(File file, boolean wrapInArray) throws IOException {
-		this(new Utf8Writer(file), wrapInArray);
+		this(new FileOutputStream(file), wrapInArray);
 	}
 
 	/**
@@ -134,8 +134,23 @@ public class JCardWriter extends StreamWriter implements Flushable {
 	 * @param generator the generator to write to
 	 */
 	public JCardWriter(JsonGenerator generator) {
+		this(generator, false);
+	}
+
+	/**
+	 * <p>
+	 * Writes to an existing generator. The generator is not closed when this
+	 * writer is closed, so it can be returned to a pool and reused once
+	 * writing is finished. Its settings (such as its pretty printer) are not
+	 * modified.
+	 * </p>
+	 * @param generator the generator to write to
+	 * @param wrapInArray true to enclose all written vCards in a JSON array,
+	 * false not to
+	 */
+	public JCardWriter(JsonGenerator generator, boolean wrapInArray) {
 		this.generator = generator;
-		this.writer = new JCardRawWriter(generator);
+		this.writer = new JCardRawWriter(generator, wrapInArray);
 	}
 
 	/**
@@ -1,5 +1,9 @@
 package ezvcard.io.scribe;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.util.ArrayList;
 import java.util.List;
 
 import com.github.mangstadt.vinnie.io.VObjectPropertyValues;
@@ -7,6 +11,8 @@ import com.github.mangstadt.vinnie.io.VObjectPropertyValues;
 import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
+import ezvcard.Messages;
+import ezvcard.io.BlobReadException;
 import ezvcard.io.CannotParseException;
 import ezvcard.io.html.HCardElement;
 import ezvcard.io.json.JCardValue;
@@ -16,7 +22,11 @@ import ezvcard.parameter.Encoding;
 import ezvcard.parameter.MediaTypeParameter;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.BinaryProperty;
+import ezvcard.util.Base64InputStream;
+import ezvcard.util.Blob;
+import ezvcard.util.BlobSink;
 import ezvcard.util.DataUri;
+import ezvcard.util.IOUtils;
 import ezvcard.util.org.apache.commons.codec.binary.Base64;
 
 /*
@@ -79,7 +89,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 			}
 		}
 
-		if (property.getData() != null) {
+		if (property.hasData()) {
 			switch (version) {
 			case V2_1:
 			case V3_0:
@@ -119,7 +129,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 			return;
 		}
 
-		if (property.getData() != null) {
+		if (property.hasData()) {
 			copy.setMediaType(null);
 
 			switch (version) {
@@ -149,7 +159,124 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 	@Override
 	protected T _parseText(String value, VCardDataType dataType, VCardVersion version, VCardParameters parameters, List<String> warnings) {
 		value = VObjectPropertyValues.unescape(value);
-		return parse(value, dataType, parameters, version, warnings);
+		return parse(value, dataType, parameters, version, warnings, null, 0);
+	}
+
+	/**
+	 * <p>
+	 * Unmarshals a property from a plain-text vCard (2.1, 3.0, 4.0). Inline
+	 * binary data that is larger than the given threshold is decoded directly
+	 * into the given blob sink, instead of into a byte array.
+	 * </p>
+	 * <p>
+	 * If the blob sink throws an exception, the data is held in memory and a
+	 * warning is added.
+	 * </p>
+	 * @param value the value as read off the wire
+	 * @param dataType the data type of the property value. The property's VALUE
+	 * parameter is used to determine the data type. If the property has no
+	 * VALUE parameter, then this parameter will be set to the property's
+	 * default datatype. Note that the VALUE parameter is removed from the
+	 * property's parameter list after it has been read.
+	 * @param version the version of the vCard that is being read
+	 * @param parameters the parsed parameters
+	 * @param sink the blob sink
+	 * @param threshold the size (in bytes) that the decoded data must exceed in
+	 * order to be stored in the blob sink
+	 * @return the unmarshalled property and its warnings
+	 * @throws CannotParseException if the scribe could not parse the
+	 * property's value
+	 */
+	public Result<T> parseText(String value, VCardDataType dataType, VCardVersion version, VCardParameters parameters, BlobSink sink, int threshold) {
+		List<String> warnings = new ArrayList<String>(0);
+		value = VObjectPropertyValues.unescape(value);
+		T property = parse(value, dataType, parameters, version, warnings, sink, threshold);
+		property.setParameters(parameters);
+		return new Result<T>(property, warnings);
+	}
+
+	/**
+	 * Writes a property's plain-text value to a stream. Binary data is
+	 * base64-encoded as it is read from the property, so data that is stored
+	 * in a {@link Blob} is never held in memory all at once.
+	 * @param property the property
+	 * @param version the version of the vCard that is being written
+	 * @param writer the stream to write to
+	 * @throws IOException if there's a problem reading the binary data or
+	 * writing to the stream
+	 */
+	public void writeText(T property, VCardVersion version, Writer writer) throws IOException {
+		if (property.getUrl() != null || !property.hasData()) {
+			writer.write(write(property, version));
+			return;
+		}
+
+		writeData(property, version, writer);
+	}
+
+	/**
+	 * Base64-encodes a property's binary data as it is read from the property.
+	 * @param property the property
+	 * @param version the version of the vCard that is being written
+	 * @param out the destination of the encoded data
+	 * @throws IOException if there's a problem reading the binary data or
+	 * writing to the destination
+	 */
+	private void writeData(T property, VCardVersion version, Appendable out) throws IOException {
+		InputStream in = property.openDataStream();
+		try {
+			if (version == VCardVersion.V4_0) {
+				DataUri.write(getMediaType(property), in, out);
+			} else {
+				writeBase64(in, out);
+			}
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+	}
+
+	/**
+	 * Base64-encodes the contents of a stream as it is read. The output is not
+	 * broken up into lines, since the writer folds the line. The input stream
+	 * is not closed.
+	 * @param in the binary data
+	 * @param out the destination of the base64 text
+	 * @throws IOException if there's a problem reading from the input stream or
+	 * writing to the destination
+	 */
+	private static void writeBase64(InputStream in, Appendable out) throws IOException {
+		//a multiple of 3, so that every chunk (except the last) is encoded without padding
+		byte buffer[] = new byte[3 * 1024];
+		int length;
+		while ((length = fill(in, buffer)) > 0) {
+			byte chunk[] = buffer;
+			if (length < buffer.length) {
+				chunk = new byte[length];
+				System.arraycopy(buffer, 0, chunk, 0, length);
+			}
+			out.append(Base64.encodeBase64String(chunk));
+		}
+	}
+
+	/**
+	 * Reads from a stream until the buffer is full or the end of the stream is
+	 * reached, so that a short read never adds padding in the middle of the
+	 * base64 value.
+	 * @param in the stream
+	 * @param buffer the buffer
+	 * @return the number of bytes read
+	 * @throws IOException if there's a problem reading from the stream
+	 */
+	private static int fill(InputStream in, byte buffer[]) throws IOException {
+		int length = 0;
+		while (length < buffer.length) {
+			int read = in.read(buffer, length, buffer.length - length);
+			if (read < 0) {
+				break;
+			}
+			length += read;
+		}
+		return length;
 	}
 
 	@Override
@@ -161,7 +288,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 	protected T _parseXml(XCardElement element, VCardParameters parameters, List<String> warnings) {
 		String value = element.first(VCardDataType.URI);
 		if (value != null) {
-			return parse(value, VCardDataType.URI, parameters, element.version(), warnings);
+			return parse(value, VCardDataType.URI, parameters, element.version(), warnings, null, 0);
 		}
 
 		throw missingXmlElements(VCardDataType.URI);
@@ -207,7 +334,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 	@Override
 	protected T _parseJson(JCardValue value, VCardDataType dataType, VCardParameters parameters, List<String> warnings) {
 		String valueStr = value.asSingle();
-		return parse(valueStr, dataType, parameters, VCardVersion.V4_0, warnings);
+		return parse(valueStr, dataType, parameters, VCardVersion.V4_0, warnings, null, 0);
 	}
 
 	/**
@@ -285,7 +412,7 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 		return (extension == null) ? null : _mediaTypeFromFileExtension(extension);
 	}
 
-	private T parse(String value, VCardDataType dataType, VCardParameters parameters, VCardVersion version, List<String> warnings) {
+	private T parse(String value, VCardDataType dataType, VCardParameters parameters, VCardVersion version, List<String> warnings, BlobSink sink, int threshold) {
 		U contentType = parseContentType(value, parameters, version);
 
 		switch (version) {
@@ -299,11 +426,28 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 			//parse as binary
 			Encoding encodingSubType = parameters.getEncoding();
 			if (encodingSubType == Encoding.BASE64 || encodingSubType == Encoding.B) {
-				return _newInstance(Base64.decodeBase64(value), contentType);
+				return decode(value, 0, contentType, warnings, sink, threshold);
 			}
 
 			break;
 		case V4_0:
+			if (sink != null) {
+				int comma = value.indexOf(',');
+				if (comma >= 0 && isLarge(value, comma + 1, threshold)) {
+					try {
+						//parse the data URI's header
+						DataUri header = DataUri.parse(value.substring(0, comma + 1));
+						if (header.getData() != null) {
+							//the data URI contains base64-encoded binary data
+							contentType = _mediaTypeFromMediaTypeParameter(header.getContentType());
+							return decode(value, comma + 1, contentType, warnings, sink, threshold);
+						}
+					} catch (IllegalArgumentException e) {
+						//not a data URI
+					}
+				}
+			}
+
 			try {
 				//parse as data URI
 				DataUri uri = DataUri.parse(value);
@@ -318,12 +462,64 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 		return cannotUnmarshalValue(value, version, warnings, contentType);
 	}
 
+	/**
+	 * Decodes a base64-encoded value. If the decoded value will exceed the
+	 * given threshold, it is decoded directly into the given blob sink.
+	 * @param value the text containing the base64 value
+	 * @param start the index where the base64 value starts
+	 * @param contentType the content type
+	 * @param warnings the warnings
+	 * @param sink the blob sink or null to decode into memory
+	 * @param threshold the blob sink threshold
+	 * @return the property
+	 */
+	private T decode(String value, int start, U contentType, List<String> warnings, BlobSink sink, int threshold) {
+		if (sink != null && isLarge(value, start, threshold)) {
+			try {
+				Blob blob = sink.store(new Base64InputStream(value, start, value.length()));
+				T property = _newInstance((byte[]) null, contentType);
+				property.setBlob(blob, contentType);
+				return property;
+			} catch (IOException e) {
+				warnings.add(Messages.INSTANCE.getParseMessage(39, e.getMessage()));
+			}
+		}
+
+		String base64 = (start == 0) ? value : value.substring(start);
+		return _newInstance(Base64.decodeBase64(base64), contentType);
+	}
+
+	/**
+	 * Determines if the decoded size of a base64 value will exceed the given
+	 * threshold.
+	 * @param value the text containing the base64 value
+	 * @param start the index where the base64 value starts
+	 * @param threshold the threshold (in bytes)
+	 * @return true if it will exceed the threshold, false if not
+	 */
+	private static boolean isLarge(String value, int start, int threshold) {
+		long decodedSize = (value.length() - start) / 4L * 3L;
+		return decodedSize > threshold;
+	}
+
 	private String write(T property, VCardVersion version) {
 		String url = property.getUrl();
 		if (url != null) {
 			return url;
 		}
 
+		if (property.getBlob() != null) {
+			//encode the blob as it is read, instead of reading it into memory first
+			long size = property.getDataSize();
+			StringBuilder sb = new StringBuilder((int) Math.min(Integer.MAX_VALUE, (size + 2) / 3 * 4 + 64));
+			try {
+				writeData(property, version, sb);
+			} catch (IOException e) {
+				throw new BlobReadException(e);
+			}
+			return sb.toString();
+		}
+
 		byte data[] = property.getData();
 		if (data != null) {
 			switch (version) {
@@ -331,15 +527,18 @@ public abstract class BinaryPropertyScribe<T extends BinaryProperty<U>, U extend
 			case V3_0:
 				return Base64.encodeBase64String(data);
 			case V4_0:
-				U contentType = property.getContentType();
-				String mediaType = (contentType == null || contentType.getMediaType() == null) ? "application/octet-stream" : contentType.getMediaType();
-				return new DataUri(mediaType, data).toString();
+				return new DataUri(getMediaType(property), data).toString();
 			}
 		}
 
 		return "";
 	}
 
+	private String getMediaType(T property) {
+		U contentType = property.getContentType();
+		return (contentType == null || contentType.getMediaType() == null) ? "application/octet-stream" : contentType.getMediaType();
+	}
+
 	/**
 	 * Gets the file extension from a URL.
 	 * @param url the URL
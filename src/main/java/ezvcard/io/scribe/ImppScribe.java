@@ -2,9 +2,10 @@ package ezvcard.io.scribe;
 
 import java.net.URI;
 import java.net.URISyntaxException;
-import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -146,40 +147,45 @@ public class ImppScribe extends VCardPropertyScribe<Impp> {
 	}
 
 	/**
-	 * List of recognized IM protocols that can be parsed from an HTML link
-	 * (hCard).
+	 * The IM protocols that can be parsed from an HTML link (hCard), keyed by
+	 * protocol. Links are routed to their format by their scheme, so only one
+	 * regular expression is ever run per link.
 	 */
-	private static final List<HtmlLinkFormat> htmlLinkFormats;
+	private static final Map<String, HtmlLinkFormat> htmlLinkFormats;
 	static {
-		List<HtmlLinkFormat> list = new ArrayList<HtmlLinkFormat>();
+		Map<String, HtmlLinkFormat> formats = new HashMap<String, HtmlLinkFormat>();
 
 		//http://en.wikipedia.org/wiki/AOL_Instant_Messenger#URI_scheme
-		list.add(new HtmlLinkFormat(AIM, "(goim|addbuddy)\\?.*?\\bscreenname=(.*?)(&|$)", 2, "goim?screenname=%s"));
+		put(formats, new HtmlLinkFormat(AIM, "(goim|addbuddy)\\?.*?\\bscreenname=(.*?)(&|$)", 2, "goim?screenname=", ""));
 
 		//http://en.wikipedia.org/wiki/Yahoo!_Messenger#URI_scheme
-		list.add(new HtmlLinkFormat(YAHOO, "(sendim|addfriend|sendfile|call)\\?(.*)", 2, "sendim?%s"));
+		put(formats, new HtmlLinkFormat(YAHOO, "(sendim|addfriend|sendfile|call)\\?(.*)", 2, "sendim?", ""));
 
 		//http://developer.skype.com/skype-uri/skype-uri-ref-api
-		list.add(new HtmlLinkFormat(SKYPE, "(.*?)(\\?|$)", 1, "%s"));
+		put(formats, new HtmlLinkFormat(SKYPE, "(.*?)(\\?|$)", 1, "", ""));
 
 		//http://www.tech-recipes.com/rx/1157/msn-messenger-msnim-hyperlink-command-codes/
-		list.add(new HtmlLinkFormat(MSN, "(chat|add|voice|video)\\?contact=(.*?)(&|$)", 2, "chat?contact=%s"));
+		put(formats, new HtmlLinkFormat(MSN, "(chat|add|voice|video)\\?contact=(.*?)(&|$)", 2, "chat?contact=", ""));
 
 		//http://www.tech-recipes.com/rx/1157/msn-messenger-msnim-hyperlink-command-codes/
-		list.add(new HtmlLinkFormat(XMPP, "(.*?)(\\?|$)", 1, "%s?message"));
+		put(formats, new HtmlLinkFormat(XMPP, "(.*?)(\\?|$)", 1, "", "?message"));
 
 		//http://forums.miranda-im.org/showthread.php?26589-Add-support-to-quot-icq-message-uin-12345-quot-web-links
-		list.add(new HtmlLinkFormat(ICQ, "message\\?uin=(\\d+)", 1, "message?uin=%s"));
+		put(formats, new HtmlLinkFormat(ICQ, "message\\?uin=(\\d+)", 1, "message?uin=", ""));
 
 		//SIP: http://en.wikipedia.org/wiki/Session_Initiation_Protocol
 		//leave as-is
-		list.add(new HtmlLinkFormat(SIP));
+		put(formats, new HtmlLinkFormat(SIP));
 
 		//IRC: http://stackoverflow.com/questions/11970897/how-do-i-open-a-query-window-using-the-irc-uri-scheme
 		//IRC handles are not globally unique, so leave as-is
-		list.add(new HtmlLinkFormat(IRC));
+		put(formats, new HtmlLinkFormat(IRC));
 
-		htmlLinkFormats = Collections.unmodifiableList(list);
+		htmlLinkFormats = Collections.unmodifiableMap(formats);
+	}
+
+	private static void put(Map<String, HtmlLinkFormat> formats, HtmlLinkFormat format) {
+		formats.put(format.getProtocol(), format);
 	}
 
 	/**
@@ -188,19 +194,28 @@ public class ImppScribe extends VCardPropertyScribe<Impp> {
 	 * @return the IM URI or null if not recognized
 	 */
 	public URI parseHtmlLink(String linkUri) {
-		for (HtmlLinkFormat format : htmlLinkFormats) {
-			String handle = format.parseHandle(linkUri);
-			if (handle == null) {
-				continue;
-			}
+		int colon = linkUri.indexOf(':');
+		if (colon < 0) {
+			return null;
+		}
 
-			try {
-				return new URI(format.getProtocol(), handle, null);
-			} catch (URISyntaxException e) {
-				throw new IllegalArgumentException(e);
-			}
+		//schemes are case-insensitive
+		String protocol = toLowerCaseAscii(linkUri.substring(0, colon));
+		HtmlLinkFormat format = htmlLinkFormats.get(protocol);
+		if (format == null) {
+			return null;
+		}
+
+		String handle = format.parseHandle(linkUri);
+		if (handle == null) {
+			return null;
+		}
+
+		try {
+			return new URI(format.getProtocol(), handle, null);
+		} catch (URISyntaxException e) {
+			throw new IllegalArgumentException(e);
 		}
-		return null;
 	}
 
 	/**
@@ -215,28 +230,41 @@ public class ImppScribe extends VCardPropertyScribe<Impp> {
 			return null;
 		}
 
-		String protocol = uri.getScheme();
+		HtmlLinkFormat format = htmlLinkFormats.get(uri.getScheme());
+		if (format == null) {
+			return uri.toASCIIString();
+		}
+
 		String handle = uri.getSchemeSpecificPart();
+		return format.buildLink(handle);
+	}
 
-		for (HtmlLinkFormat format : htmlLinkFormats) {
-			if (protocol.equals(format.getProtocol())) {
-				return format.buildLink(handle);
+	private static String toLowerCaseAscii(String string) {
+		char[] chars = null;
+		for (int i = 0; i < string.length(); i++) {
+			char c = string.charAt(i);
+			if (c >= 'A' && c <= 'Z') {
+				if (chars == null) {
+					chars = string.toCharArray();
+				}
+				chars[i] = (char) (c + ('a' - 'A'));
 			}
 		}
-		return uri.toASCIIString();
+		return (chars == null) ? string : new String(chars);
 	}
 
 	private static class HtmlLinkFormat {
 		private final Pattern parseRegex;
 		private final String protocol;
 		private final int handleGroup;
-		private final String linkFormat;
+		private final String linkPrefix;
+		private final String linkSuffix;
 
 		/**
 		 * @param protocol the IM protocol (e.g. "aim")
 		 */
 		public HtmlLinkFormat(String protocol) {
-			this(protocol, "(.*)", 1, "%s");
+			this(protocol, "(.*)", 1, "", "");
 		}
 
 		/**
@@ -244,13 +272,17 @@ public class ImppScribe extends VCardPropertyScribe<Impp> {
 		 * @param linkRegex the regular expression used to parse a link
 		 * @param handleGroup the group number from the regular expression that
 		 * contains the IM handle
-		 * @param linkFormat the format string for building a link
+		 * @param linkPrefix the text that goes between the protocol and the
+		 * handle when building a link (e.g. "goim?screenname=")
+		 * @param linkSuffix the text that goes after the handle when building a
+		 * link
 		 */
-		public HtmlLinkFormat(String protocol, String linkRegex, int handleGroup, String linkFormat) {
+		public HtmlLinkFormat(String protocol, String linkRegex, int handleGroup, String linkPrefix, String linkSuffix) {
 			this.parseRegex = Pattern.compile('^' + protocol + ':' + linkRegex, Pattern.CASE_INSENSITIVE);
 			this.protocol = protocol;
 			this.handleGroup = handleGroup;
-			this.linkFormat = protocol + ':' + linkFormat;
+			this.linkPrefix = protocol + ':' + linkPrefix;
+			this.linkSuffix = linkSuffix;
 		}
 
 		/**
@@ -269,7 +301,7 @@ public class ImppScribe extends VCardPropertyScribe<Impp> {
 		 * @return the link
 		 */
 		public String buildLink(String handle) {
-			return String.format(linkFormat, handle);
+			return linkPrefix + handle + linkSuffix;
 		}
 
 		/**
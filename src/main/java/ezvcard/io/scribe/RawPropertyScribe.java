@@ -8,7 +8,6 @@ import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.html.HCardElement;
 import ezvcard.io.json.JCardValue;
-import ezvcard.io.json.JsonValue;
 import ezvcard.io.text.WriteContext;
 import ezvcard.io.xml.XCardElement;
 import ezvcard.io.xml.XCardElement.XCardValue;
@@ -115,15 +114,14 @@ public class RawPropertyScribe extends VCardPropertyScribe<RawProperty> {
 		 * VCardPropertyScribe.jcardValueToString() cannot be used because it
 		 * escapes single values.
 		 */
-		List<JsonValue> values = value.getValues();
-		if (values.size() > 1) {
+		if (value.getValueCount() > 1) {
 			List<String> multi = value.asMulti();
 			if (!multi.isEmpty()) {
 				return VObjectPropertyValues.writeList(multi);
 			}
 		}
 
-		if (!values.isEmpty() && values.get(0).getArray() != null) {
+		if (value.isFirstValueArray()) {
 			List<List<String>> structured = value.asStructured();
 			if (!structured.isEmpty()) {
 				return VObjectPropertyValues.writeStructured(structured, true);
@@ -1,6 +1,9 @@
 package ezvcard.io.scribe;
 
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 import javax.xml.namespace.QName;
@@ -71,6 +74,18 @@ import ezvcard.property.Xml;
  * }
  * jcardWriter.close();
  * </pre>
+ * <p>
+ * An immutable index can be created with a {@link Builder}. Immutable indexes
+ * are thread-safe, so a single instance can be shared by any number of
+ * reader/writer objects, including ones that run concurrently.
+ * </p>
+ * 
+ * <pre class="brush:java">
+ * ScribeIndex index = new ScribeIndex.Builder()
+ *   .register(new CustomPropertyScribe())
+ *   .register(new AnotherCustomPropertyScribe())
+ * .build();
+ * </pre>
  * @author Michael Angstadt
  */
 public class ScribeIndex {
@@ -78,6 +93,7 @@ public class ScribeIndex {
 	private static final Map<String, VCardPropertyScribe<? extends VCardProperty>> standardByName = new HashMap<String, VCardPropertyScribe<? extends VCardProperty>>();
 	private static final Map<Class<? extends VCardProperty>, VCardPropertyScribe<? extends VCardProperty>> standardByClass = new HashMap<Class<? extends VCardProperty>, VCardPropertyScribe<? extends VCardProperty>>();
 	private static final Map<QName, VCardPropertyScribe<? extends VCardProperty>> standardByQName = new HashMap<QName, VCardPropertyScribe<? extends VCardProperty>>();
+	private static final NameTable standardNameTable;
 	static {
 		//2.1, RFC 2426, RFC 6350
 		registerStandard(new AddressScribe());
@@ -135,11 +151,76 @@ public class ScribeIndex {
 		registerStandard(new OrgDirectoryScribe());
 		registerStandard(new InterestScribe());
 		registerStandard(new HobbyScribe());
+
+		standardNameTable = new NameTable(standardByName);
 	}
 
+	private static final ScribeIndex standard = new Builder().build();
+
 	private final Map<String, VCardPropertyScribe<? extends VCardProperty>> extendedByName = new HashMap<String, VCardPropertyScribe<? extends VCardProperty>>(0);
 	private final Map<Class<? extends VCardProperty>, VCardPropertyScribe<? extends VCardProperty>> extendedByClass = new HashMap<Class<? extends VCardProperty>, VCardPropertyScribe<? extends VCardProperty>>(0);
 	private final Map<QName, VCardPropertyScribe<? extends VCardProperty>> extendedByQName = new HashMap<QName, VCardPropertyScribe<? extends VCardProperty>>(0);
+	private final boolean immutable;
+
+	/*
+	 * Rebuilt whenever a mutable index is modified. Volatile so that the new
+	 * table is visible to other threads once it is assigned.
+	 */
+	private volatile NameTable extendedNameTable;
+
+	/**
+	 * Creates a new, mutable scribe index that contains the standard property
+	 * scribes.
+	 */
+	public ScribeIndex() {
+		immutable = false;
+		extendedNameTable = NameTable.EMPTY;
+	}
+
+	/**
+	 * Creates a new, mutable scribe index that contains the standard property
+	 * scribes, plus all the scribes registered with the given index. The
+	 * given index may be mutable or immutable.
+	 * @param original the index to copy
+	 */
+	public ScribeIndex(ScribeIndex original) {
+		immutable = false;
+		for (VCardPropertyScribe<? extends VCardProperty> scribe : original.extendedByName.values()) {
+			put(scribe);
+		}
+		extendedNameTable = new NameTable(extendedByName);
+	}
+
+	/**
+	 * Creates an immutable scribe index.
+	 * @param scribes the scribes to add to the standard property scribes
+	 */
+	private ScribeIndex(Collection<VCardPropertyScribe<? extends VCardProperty>> scribes) {
+		immutable = true;
+		for (VCardPropertyScribe<? extends VCardProperty> scribe : scribes) {
+			put(scribe);
+		}
+		extendedNameTable = new NameTable(extendedByName);
+	}
+
+	/**
+	 * Gets a shared, immutable index that only contains the standard property
+	 * scribes. Calling {@link #register} or {@link #unregister} on it throws
+	 * an {@link UnsupportedOperationException}.
+	 * @return the index
+	 */
+	public static ScribeIndex standard() {
+		return standard;
+	}
+
+	/**
+	 * Determines if this index can be modified.
+	 * @return true if the index is immutable, false if not
+	 * @see Builder
+	 */
+	public boolean isImmutable() {
+		return immutable;
+	}
 
 	/**
 	 * Gets a property scribe by name.
@@ -147,14 +228,12 @@ public class ScribeIndex {
 	 * @return the property scribe or null if not found
 	 */
 	public VCardPropertyScribe<? extends VCardProperty> getPropertyScribe(String propertyName) {
-		propertyName = propertyName.toUpperCase();
-
-		VCardPropertyScribe<? extends VCardProperty> scribe = extendedByName.get(propertyName);
+		VCardPropertyScribe<? extends VCardProperty> scribe = extendedNameTable.get(propertyName);
 		if (scribe != null) {
 			return scribe;
 		}
 
-		return standardByName.get(propertyName);
+		return standardNameTable.get(propertyName);
 	}
 
 	/**
@@ -224,21 +303,37 @@ public class ScribeIndex {
 	/**
 	 * Registers a property scribe.
 	 * @param scribe the scribe to register
+	 * @throws UnsupportedOperationException if this index is immutable
 	 */
 	public void register(VCardPropertyScribe<? extends VCardProperty> scribe) {
-		extendedByName.put(scribe.getPropertyName().toUpperCase(), scribe);
-		extendedByClass.put(scribe.getPropertyClass(), scribe);
-		extendedByQName.put(scribe.getQName(), scribe);
+		checkMutable();
+		put(scribe);
+		extendedNameTable = new NameTable(extendedByName);
 	}
 
 	/**
 	 * Unregisters a property scribe.
 	 * @param scribe the scribe to unregister
+	 * @throws UnsupportedOperationException if this index is immutable
 	 */
 	public void unregister(VCardPropertyScribe<? extends VCardProperty> scribe) {
+		checkMutable();
 		extendedByName.remove(scribe.getPropertyName().toUpperCase());
 		extendedByClass.remove(scribe.getPropertyClass());
 		extendedByQName.remove(scribe.getQName());
+		extendedNameTable = new NameTable(extendedByName);
+	}
+
+	private void put(VCardPropertyScribe<? extends VCardProperty> scribe) {
+		extendedByName.put(scribe.getPropertyName().toUpperCase(), scribe);
+		extendedByClass.put(scribe.getPropertyClass(), scribe);
+		extendedByQName.put(scribe.getQName(), scribe);
+	}
+
+	private void checkMutable() {
+		if (immutable) {
+			throw new UnsupportedOperationException("This scribe index is immutable.");
+		}
 	}
 
 	private static void registerStandard(VCardPropertyScribe<? extends VCardProperty> scribe) {
@@ -246,4 +341,130 @@ public class ScribeIndex {
 		standardByClass.put(scribe.getPropertyClass(), scribe);
 		standardByQName.put(scribe.getQName(), scribe);
 	}
+
+	/**
+	 * Builds immutable {@link ScribeIndex} instances.
+	 * @author Michael Angstadt
+	 */
+	public static class Builder {
+		private final Map<String, VCardPropertyScribe<? extends VCardProperty>> scribes = new LinkedHashMap<String, VCardPropertyScribe<? extends VCardProperty>>();
+
+		/**
+		 * Creates a builder whose index will contain the standard property
+		 * scribes.
+		 */
+		public Builder() {
+			//empty
+		}
+
+		/**
+		 * Creates a builder whose index will contain the standard property
+		 * scribes, plus all the scribes registered with the given index.
+		 * @param index the index to copy
+		 */
+		public Builder(ScribeIndex index) {
+			scribes.putAll(index.extendedByName);
+		}
+
+		/**
+		 * Registers a property scribe.
+		 * @param scribe the scribe
+		 * @return this
+		 */
+		public Builder register(VCardPropertyScribe<? extends VCardProperty> scribe) {
+			scribes.put(scribe.getPropertyName().toUpperCase(), scribe);
+			return this;
+		}
+
+		/**
+		 * Creates the immutable index. Calling {@link ScribeIndex#register} or
+		 * {@link ScribeIndex#unregister} on it throws an
+		 * {@link UnsupportedOperationException}. Use
+		 * {@link ScribeIndex#ScribeIndex(ScribeIndex)} to create a mutable copy.
+		 * @return the index
+		 */
+		public ScribeIndex build() {
+			return new ScribeIndex(scribes.values());
+		}
+	}
+
+	/**
+	 * An open-addressing hash table that maps property names to scribes. The
+	 * property names are hashed and compared case-insensitively, so lookups do
+	 * not have to create an upper-cased copy of the name. The table is never
+	 * modified after it is created.
+	 */
+	private static class NameTable {
+		private static final NameTable EMPTY = new NameTable(Collections.<String, VCardPropertyScribe<? extends VCardProperty>> emptyMap());
+
+		private final String names[];
+		private final VCardPropertyScribe<?> scribes[];
+		private final int mask;
+
+		/**
+		 * @param map the scribes, keyed by upper-cased property name
+		 */
+		public NameTable(Map<String, VCardPropertyScribe<? extends VCardProperty>> map) {
+			if (map.isEmpty()) {
+				names = null;
+				scribes = null;
+				mask = 0;
+				return;
+			}
+
+			//keep the table at most 1/4 full so that probe sequences are short
+			int size = Integer.highestOneBit(map.size() * 4 - 1) << 1;
+			names = new String[size];
+			scribes = new VCardPropertyScribe<?>[size];
+			mask = size - 1;
+
+			for (Map.Entry<String, VCardPropertyScribe<? extends VCardProperty>> entry : map.entrySet()) {
+				String name = entry.getKey();
+				int i = hash(name) & mask;
+				while (names[i] != null) {
+					i = (i + 1) & mask;
+				}
+				names[i] = name;
+				scribes[i] = entry.getValue();
+			}
+		}
+
+		public VCardPropertyScribe<? extends VCardProperty> get(String name) {
+			if (names == null) {
+				return null;
+			}
+
+			int i = hash(name) & mask;
+			String cur;
+			while ((cur = names[i]) != null) {
+				if (cur.equalsIgnoreCase(name)) {
+					return scribes[i];
+				}
+				i = (i + 1) & mask;
+			}
+			return null;
+		}
+
+		/**
+		 * Computes a case-insensitive hash code that is consistent with
+		 * {@link String#equalsIgnoreCase}.
+		 * @param name the property name
+		 * @return the hash code
+		 */
+		private static int hash(String name) {
+			int h = 0;
+			for (int i = 0; i < name.length(); i++) {
+				char c = name.charAt(i);
+				if (c < 128) {
+					if (c >= 'A' && c <= 'Z') {
+						c += 'a' - 'A';
+					}
+				} else {
+					c = Character.toLowerCase(Character.toUpperCase(c));
+				}
+				h = 31 * h + c;
+			}
+			return h ^ (h >>> 16);
+		}
+	}
 }
@@ -15,6 +15,7 @@ import ezvcard.io.text.WriteContext;
 import ezvcard.io.xml.XCardElement;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Timezone;
+import ezvcard.util.TimezoneCache;
 import ezvcard.util.UtcOffset;
 
 /*
@@ -155,7 +156,7 @@ public class TimezoneScribe extends VCardPropertyScribe<Timezone> {
 
 			if (text != null) {
 				//attempt to find the offset by treating the text as a timezone ID, like "America/New_York"
-				TimeZone timezone = timezoneFromId(text);
+				TimeZone timezone = TimezoneCache.getTimeZone(text);
 				if (timezone != null) {
 					UtcOffset tzOffset = offsetFromTimezone(timezone);
 					return tzOffset.toString(false);
@@ -217,11 +218,11 @@ public class TimezoneScribe extends VCardPropertyScribe<Timezone> {
 
 		String utcOffset = element.first(VCardDataType.UTC_OFFSET);
 		if (utcOffset != null) {
-			try {
-				return new Timezone(UtcOffset.parse(utcOffset));
-			} catch (IllegalArgumentException e) {
+			UtcOffset offset = TimezoneCache.getUtcOffset(utcOffset);
+			if (offset == null) {
 				throw new CannotParseException(19);
 			}
+			return new Timezone(offset);
 		}
 
 		throw missingXmlElements(VCardDataType.TEXT, VCardDataType.UTC_OFFSET);
@@ -258,24 +259,23 @@ public class TimezoneScribe extends VCardPropertyScribe<Timezone> {
 			return new Timezone((String) null);
 		}
 
+		UtcOffset offset = TimezoneCache.getUtcOffset(value);
 		switch (version) {
 		case V2_1:
 			//e.g. "-05:00"
-			try {
-				return new Timezone(UtcOffset.parse(value));
-			} catch (IllegalArgumentException e) {
+			if (offset == null) {
 				throw new CannotParseException(19);
 			}
+			return new Timezone(offset);
 		case V3_0:
 		case V4_0:
-			try {
-				return new Timezone(UtcOffset.parse(value));
-			} catch (IllegalArgumentException e) {
+			if (offset == null) {
 				if (dataType == VCardDataType.UTC_OFFSET) {
 					warnings.add(Messages.INSTANCE.getParseMessage(20));
 				}
 				return new Timezone(value);
 			}
+			return new Timezone(offset);
 		}
 
 		return new Timezone((String) null);
@@ -285,9 +285,4 @@ public class TimezoneScribe extends VCardPropertyScribe<Timezone> {
 		long offsetMs = timezone.getOffset(System.currentTimeMillis());
 		return new UtcOffset(offsetMs);
 	}
-
-	private TimeZone timezoneFromId(String id) {
-		TimeZone timezone = TimeZone.getTimeZone(id);
-		return "GMT".equals(timezone.getID()) ? null : timezone;
-	}
 }
@@ -19,7 +19,6 @@ import ezvcard.io.EmbeddedVCardException;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.html.HCardElement;
 import ezvcard.io.json.JCardValue;
-import ezvcard.io.json.JsonValue;
 import ezvcard.io.text.WriteContext;
 import ezvcard.io.xml.XCardElement;
 import ezvcard.io.xml.XCardElement.XCardValue;
@@ -547,15 +546,14 @@ public abstract class VCardPropertyScribe<T extends VCardProperty> {
 	 * list of values)
 	 */
 	private static String jcardValueToString(JCardValue value) {
-		List<JsonValue> values = value.getValues();
-		if (values.size() > 1) {
+		if (value.getValueCount() > 1) {
 			List<String> multi = value.asMulti();
 			if (!multi.isEmpty()) {
 				return VObjectPropertyValues.writeList(multi);
 			}
 		}
 
-		if (!values.isEmpty() && values.get(0).getArray() != null) {
+		if (value.isFirstValueArray()) {
 			List<List<String>> structured = value.asStructured();
 			if (!structured.isEmpty()) {
 				return VObjectPropertyValues.writeStructured(structured, true);
@@ -0,0 +1,167 @@
+package ezvcard.io.text;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Finds the boundaries of top-level vCards in a plain-text data stream, line
+ * by line, without parsing any properties. Folded lines, quoted-printable soft
+ * line breaks, and nested vCards (2.1-style AGENT properties) are taken into
+ * account.
+ * @author Michael Angstadt
+ */
+class ComponentBoundaryTracker {
+	/**
+	 * The line is a continuation of the previous line (or is blank).
+	 */
+	static final int CONTINUATION = 0;
+
+	/**
+	 * The line is a property or part of a nested component.
+	 */
+	static final int PROPERTY = 1;
+
+	/**
+	 * The line begins a top-level vCard.
+	 */
+	static final int BEGIN = 2;
+
+	/**
+	 * The line ends a top-level vCard.
+	 */
+	static final int END = 3;
+
+	private int depth = 0;
+	private boolean quotedPrintableContinuation = false;
+
+	/**
+	 * Processes the next line in the data stream.
+	 * @param line the buffer the line is in
+	 * @param start the index of the first character of the line
+	 * @param end the index after the last character of the line (not including
+	 * the newline)
+	 * @return the line type ({@link #CONTINUATION}, {@link #PROPERTY},
+	 * {@link #BEGIN}, or {@link #END})
+	 */
+	int line(CharSequence line, int start, int end) {
+		boolean continuation = quotedPrintableContinuation;
+		quotedPrintableContinuation = isQuotedPrintableSoftBreak(line, continuation, start, end);
+		if (continuation || start == end || isWhitespace(line.charAt(start))) {
+			return CONTINUATION;
+		}
+
+		if (is("BEGIN:VCARD", line, start, end)) {
+			depth++;
+			return (depth == 1) ? BEGIN : PROPERTY;
+		}
+
+		if (depth > 0 && is("END:VCARD", line, start, end)) {
+			depth--;
+			return (depth == 0) ? END : PROPERTY;
+		}
+
+		return PROPERTY;
+	}
+
+	/**
+	 * Gets the nesting level of the line that was last processed.
+	 * @return the nesting level (0 if the line is outside of any vCard, 1 if
+	 * the line is directly inside of a top-level vCard)
+	 */
+	int getDepth() {
+		return depth;
+	}
+
+	/**
+	 * Determines if the next line is a continuation of the given line because
+	 * of a quoted-printable soft line break.
+	 * @param line the buffer the line is in
+	 * @param continuation true if the given line is itself a continuation of a
+	 * quoted-printable value, false if not
+	 * @param start the start index of the line
+	 * @param end the end index of the line
+	 * @return true if the next line is a continuation, false if not
+	 */
+	private static boolean isQuotedPrintableSoftBreak(CharSequence line, boolean continuation, int start, int end) {
+		if (start == end || line.charAt(end - 1) != '=') {
+			return false;
+		}
+		if (continuation) {
+			return true;
+		}
+
+		//look for the encoding in the property name and parameters
+		int colon = indexOf(':', line, start, end);
+		if (colon < 0) {
+			return false;
+		}
+		return indexOfIgnoreCase("QUOTED-PRINTABLE", line, start, colon) >= 0;
+	}
+
+	private static boolean is(String expected, CharSequence line, int start, int end) {
+		while (end > start && isWhitespace(line.charAt(end - 1))) {
+			end--;
+		}
+		if (end - start != expected.length()) {
+			return false;
+		}
+		for (int i = 0; i < expected.length(); i++) {
+			if (Character.toUpperCase(line.charAt(start + i)) != expected.charAt(i)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	static int indexOf(char c, CharSequence line, int start, int end) {
+		for (int i = start; i < end; i++) {
+			if (line.charAt(i) == c) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	private static int indexOfIgnoreCase(String search, CharSequence line, int start, int end) {
+		int last = end - search.length();
+		outer: for (int i = start; i <= last; i++) {
+			for (int j = 0; j < search.length(); j++) {
+				if (Character.toUpperCase(line.charAt(i + j)) != search.charAt(j)) {
+					continue outer;
+				}
+			}
+			return i;
+		}
+		return -1;
+	}
+
+	static boolean isWhitespace(char c) {
+		return c == ' ' || c == '\t';
+	}
+}
@@ -0,0 +1,228 @@
+package ezvcard.io.text;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.Collections;
+import java.util.List;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.PropertyFilter;
+import ezvcard.io.scribe.ScribeIndex;
+import ezvcard.util.BlobSink;
+import ezvcard.util.IOUtils;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Reads individual vCards from a plain-text vCard file using a
+ * {@link VCardIndex}. Only the bytes that belong to the requested vCard are
+ * read from the file.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ * 
+ * <pre class="brush:java">
+ * File file = new File("vcards.vcf");
+ * VCardIndex index = VCardIndex.read(new File("vcards.vcf.idx"));
+ * IndexedVCardReader reader = new IndexedVCardReader(file, index);
+ * try {
+ *   VCard vcard = reader.read("urn:uuid:03a0e51f-d1aa-4385-8a53-e29025acd8af");
+ * } finally {
+ *   reader.close();
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ * @see VCardIndex
+ */
+public class IndexedVCardReader implements Closeable {
+	private final RandomAccessFile file;
+	private final VCardIndex index;
+	private VCardVersion defaultVersion = VCardVersion.V2_1;
+	private boolean caretDecodingEnabled = true;
+	private ScribeIndex scribeIndex;
+	private PropertyFilter propertyFilter;
+	private BlobSink blobSink;
+	private Integer blobThreshold;
+	private List<String> warnings = Collections.emptyList();
+
+	/**
+	 * Creates a new indexed vCard reader. If the vCard file has changed since
+	 * the index was last updated (see {@link VCardIndex#isStale}), the index
+	 * is brought up to date first.
+	 * @param file the vCard file
+	 * @param index the index of the vCard file
+	 * @throws IOException if the file doesn't exist or there's a problem
+	 * updating the index
+	 */
+	public IndexedVCardReader(File file, VCardIndex index) throws IOException {
+		this.file = new RandomAccessFile(file, "r");
+		this.index = index;
+		try {
+			index.update(file);
+		} catch (IOException e) {
+			IOUtils.closeQuietly(this.file);
+			throw e;
+		}
+	}
+
+	/**
+	 * Sets the version to assume a vCard is in until a VERSION property is
+	 * encountered (defaults to 2.1).
+	 * @param defaultVersion the default version
+	 */
+	public void setDefaultVersion(VCardVersion defaultVersion) {
+		this.defaultVersion = defaultVersion;
+	}
+
+	/**
+	 * Gets whether the reader will decode parameter values that use circumflex
+	 * accent encoding (enabled by default).
+	 * @return true if circumflex accent decoding is enabled, false if not
+	 * @see VCardReader#isCaretDecodingEnabled()
+	 */
+	public boolean isCaretDecodingEnabled() {
+		return caretDecodingEnabled;
+	}
+
+	/**
+	 * Sets whether the reader will decode parameter values that use circumflex
+	 * accent encoding (enabled by default).
+	 * @param enable true to use circumflex accent decoding, false not to
+	 * @see VCardReader#setCaretDecodingEnabled(boolean)
+	 */
+	public void setCaretDecodingEnabled(boolean enable) {
+		caretDecodingEnabled = enable;
+	}
+
+	/**
+	 * Sets the scribe index to parse the vCards with.
+	 * @param scribeIndex the scribe index or null to use the default one
+	 * @see ezvcard.io.StreamReader#setScribeIndex
+	 */
+	public void setScribeIndex(ScribeIndex scribeIndex) {
+		this.scribeIndex = scribeIndex;
+	}
+
+	/**
+	 * Sets the filter that determines which properties are parsed.
+	 * @param propertyFilter the filter or null to parse all properties
+	 * @see ezvcard.io.StreamReader#setPropertyFilter
+	 */
+	public void setPropertyFilter(PropertyFilter propertyFilter) {
+		this.propertyFilter = propertyFilter;
+	}
+
+	/**
+	 * Sets the blob sink that large binary property values are decoded into.
+	 * @param blobSink the blob sink or null to always decode binary values into
+	 * memory
+	 * @see VCardReader#setBlobSink(BlobSink)
+	 */
+	public void setBlobSink(BlobSink blobSink) {
+		this.blobSink = blobSink;
+	}
+
+	/**
+	 * Sets the size that a decoded binary property value must exceed in order
+	 * to be decoded into the blob sink.
+	 * @param blobThreshold the threshold (in bytes) or null to use the
+	 * {@link VCardReader} default
+	 * @see VCardReader#setBlobThreshold(int)
+	 */
+	public void setBlobThreshold(Integer blobThreshold) {
+		this.blobThreshold = blobThreshold;
+	}
+
+	/**
+	 * Reads the vCard with the given UID.
+	 * @param uid the UID (the raw property value, as it appears in the file)
+	 * @return the vCard or null if the index does not contain a vCard with
+	 * the given UID
+	 * @throws IOException if there's a problem reading from the file
+	 */
+	public VCard read(String uid) throws IOException {
+		VCardIndex.Entry entry = index.getEntry(uid);
+		return (entry == null) ? null : read(entry);
+	}
+
+	/**
+	 * Reads the vCard at the given index entry.
+	 * @param entry the index entry
+	 * @return the vCard or null if there is no vCard at the entry's location
+	 * (for example, if the file was modified after it was indexed)
+	 * @throws IOException if there's a problem reading from the file
+	 */
+	public VCard read(VCardIndex.Entry entry) throws IOException {
+		byte bytes[] = new byte[entry.getLength()];
+		file.seek(entry.getOffset());
+		file.readFully(bytes);
+		String str = new String(bytes, index.getCharset().name());
+
+		VCardReader reader = new VCardReader(str, defaultVersion);
+		reader.setLineOffset(entry.getLine() - 1);
+		reader.setCaretDecodingEnabled(caretDecodingEnabled);
+		if (scribeIndex != null) {
+			reader.setScribeIndex(scribeIndex);
+		}
+		reader.setPropertyFilter(propertyFilter);
+		reader.setBlobSink(blobSink);
+		if (blobThreshold != null) {
+			reader.setBlobThreshold(blobThreshold);
+		}
+		try {
+			VCard vcard = reader.readNext();
+			warnings = reader.getWarnings();
+			return vcard;
+		} finally {
+			IOUtils.closeQuietly(reader);
+		}
+	}
+
+	/**
+	 * Gets the warnings from the last vCard that was read.
+	 * @return the warnings or empty list if there were no warnings
+	 */
+	public List<String> getWarnings() {
+		return warnings;
+	}
+
+	/**
+	 * Closes the file.
+	 * @throws IOException if there's a problem closing the file
+	 */
+	public void close() throws IOException {
+		file.close();
+	}
+}
@@ -0,0 +1,254 @@
+package ezvcard.io.text;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import ezvcard.VCard;
+import ezvcard.VCardDataType;
+import ezvcard.VCardVersion;
+import ezvcard.io.CannotParseException;
+import ezvcard.io.EmbeddedVCardException;
+import ezvcard.io.ParseWarnings;
+import ezvcard.io.SkipMeException;
+import ezvcard.io.scribe.RawPropertyScribe;
+import ezvcard.io.scribe.VCardPropertyScribe;
+import ezvcard.io.scribe.VCardPropertyScribe.Result;
+import ezvcard.parameter.VCardParameters;
+import ezvcard.property.LazilyParsed;
+import ezvcard.property.VCardProperty;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Holds the unparsed name, parameters, and value of a property until the
+ * property is accessed. Used when a reader is configured to parse properties
+ * lazily (see {@link VCardReader#setLazyParsing}). Instances can only be
+ * created by {@link VCardReader}.
+ * </p>
+ * <p>
+ * {@link VCard} objects parse these properties automatically the first time
+ * their class is accessed through one of the {@link VCard} getter methods, so
+ * these objects are normally only seen by the vCard writers (see
+ * {@link VCard#lazyIterator}). Properties that have not been accessed can be
+ * written back out verbatim.
+ * </p>
+ * @author Michael Angstadt
+ */
+public final class LazyProperty extends VCardProperty implements LazilyParsed {
+	private final VCardPropertyScribe<? extends VCardProperty> scribe;
+	private final String name;
+	private final String value;
+	private final VCardDataType dataType;
+	private final VCardVersion version;
+	private final Integer lineNumber;
+	private final ParseWarnings warnings;
+
+	private boolean parsed = false;
+	private VCardProperty property;
+
+	/**
+	 * Creates a new lazy property.
+	 * @param scribe the scribe that will parse the property
+	 * @param name the property name, as it appeared in the data stream
+	 * @param parameters the property parameters (not including the VALUE
+	 * parameter)
+	 * @param value the unparsed property value
+	 * @param dataType the value of the VALUE parameter or null if the property
+	 * did not have one
+	 * @param version the version of the vCard the property belongs to
+	 * @param lineNumber the line number the property is on or null if unknown
+	 * @param warnings the object to add the parse warnings to when the
+	 * property is parsed
+	 */
+	LazyProperty(VCardPropertyScribe<? extends VCardProperty> scribe, String name, VCardParameters parameters, String value, VCardDataType dataType, VCardVersion version, Integer lineNumber, ParseWarnings warnings) {
+		this.scribe = scribe;
+		this.name = name;
+		this.parameters = parameters;
+		this.value = value;
+		this.dataType = dataType;
+		this.version = version;
+		this.lineNumber = lineNumber;
+		this.warnings = warnings;
+	}
+
+	/**
+	 * Copy constructor.
+	 * @param original the property to make a copy of
+	 */
+	private LazyProperty(LazyProperty original) {
+		super(original);
+		scribe = original.scribe;
+		name = original.name;
+		value = original.value;
+		dataType = original.dataType;
+		version = original.version;
+		lineNumber = original.lineNumber;
+		warnings = original.warnings;
+	}
+
+	/**
+	 * Gets the scribe that will parse the property.
+	 * @return the scribe
+	 */
+	public VCardPropertyScribe<? extends VCardProperty> getScribe() {
+		return scribe;
+	}
+
+	/**
+	 * Gets the class of the property once it is parsed.
+	 * @return the property class
+	 */
+	public Class<? extends VCardProperty> getPropertyClass() {
+		return scribe.getPropertyClass();
+	}
+
+	/**
+	 * Gets the property name, as it appeared in the data stream.
+	 * @return the property name
+	 */
+	public String getPropertyName() {
+		return name;
+	}
+
+	/**
+	 * Gets the unparsed property value.
+	 * @return the property value
+	 */
+	public String getValue() {
+		return value;
+	}
+
+	/**
+	 * Gets the value of the property's VALUE parameter.
+	 * @return the data type or null if the property did not have a VALUE
+	 * parameter
+	 */
+	public VCardDataType getDataType() {
+		return dataType;
+	}
+
+	/**
+	 * Gets the version of the vCard that the property belongs to.
+	 * @return the version
+	 */
+	public VCardVersion getVersion() {
+		return version;
+	}
+
+	/**
+	 * Determines if {@link #parse} has been called.
+	 * @return true if the property has been parsed, false if not
+	 */
+	public boolean isParsed() {
+		return parsed;
+	}
+
+	/**
+	 * Parses the property. The result is cached, so the property is only
+	 * parsed once. Any parse warnings are added to the warnings object that
+	 * was passed into the constructor.
+	 * @return the parsed property or null if the scribe decided to skip the
+	 * property. If the property value could not be parsed, a
+	 * {@link ezvcard.property.RawProperty} is returned.
+	 */
+	public VCardProperty parse() {
+		if (parsed) {
+			return property;
+		}
+		parsed = true;
+
+		VCardParameters parameters = new VCardParameters(this.parameters);
+		VCardDataType dataType = (this.dataType == null) ? scribe.defaultDataType(version) : this.dataType;
+		try {
+			Result<? extends VCardProperty> result = scribe.parseText(value, dataType, version, parameters);
+			for (String warning : result.getWarnings()) {
+				warnings.add(lineNumber, name, warning);
+			}
+			property = result.getProperty();
+		} catch (SkipMeException e) {
+			warnings.add(lineNumber, name, 22, e.getMessage());
+			return null;
+		} catch (CannotParseException e) {
+			warnings.add(lineNumber, name, 25, value, e.getMessage());
+			RawPropertyScribe rawScribe = new RawPropertyScribe(name);
+			property = rawScribe.parseText(value, dataType, version, parameters).getProperty();
+		} catch (EmbeddedVCardException e) {
+			//readers should not parse properties that contain embedded vCards lazily
+			property = e.getProperty();
+		}
+
+		property.setGroup(group);
+		VCardReader.handleLabelParameter(property);
+		return property;
+	}
+
+	@Override
+	protected Map<String, Object> toStringValues() {
+		Map<String, Object> values = new LinkedHashMap<String, Object>();
+		values.put("name", name);
+		values.put("value", value);
+		values.put("dataType", dataType);
+		values.put("version", version);
+		return values;
+	}
+
+	@Override
+	public LazyProperty copy() {
+		return new LazyProperty(this);
+	}
+
+	@Override
+	public int hashCode() {
+		final int prime = 31;
+		int result = super.hashCode();
+		result = prime * result + ((dataType == null) ? 0 : dataType.hashCode());
+		result = prime * result + ((name == null) ? 0 : name.toUpperCase().hashCode());
+		result = prime * result + ((value == null) ? 0 : value.hashCode());
+		result = prime * result + ((version == null) ? 0 : version.hashCode());
+		return result;
+	}
+
+	@Override
+	public boolean equals(Object obj) {
+		if (this == obj) return true;
+		if (!super.equals(obj)) return false;
+		LazyProperty other = (LazyProperty) obj;
+		if (dataType != other.dataType) return false;
+		if (name == null) {
+			if (other.name != null) return false;
+		} else if (!name.equalsIgnoreCase(other.name)) return false;
+		if (value == null) {
+			if (other.value != null) return false;
+		} else if (!value.equals(other.value)) return false;
+		if (version != other.version) return false;
+		return true;
+	}
+}
@@ -0,0 +1,605 @@
+package ezvcard.io.text;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.PropertyFilter;
+import ezvcard.io.StreamReader;
+import ezvcard.io.scribe.ScribeIndex;
+import ezvcard.util.BlobSink;
+import ezvcard.util.IOUtils;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Parses {@link VCard} objects from a plain-text vCard data stream using
+ * multiple threads. Use this class instead of {@link VCardReader} when parsing
+ * very large files on a multi-core machine.
+ * </p>
+ * <p>
+ * The data stream is read on the calling thread and split into chunks at the
+ * boundaries of top-level vCards (folded lines, quoted-printable soft line
+ * breaks, and nested 2.1-style AGENT vCards are taken into account). Each
+ * chunk is then parsed by a {@link VCardReader} on a worker thread. The vCards
+ * are returned in the order in which they appear in the data stream, and the
+ * line numbers in the parse warnings refer to the lines of the original data
+ * stream.
+ * </p>
+ * <p>
+ * Only a limited number of chunks are read ahead of the vCard that was last
+ * returned (see {@link #setReadAhead}), so memory usage stays bounded no
+ * matter how large the data stream is.
+ * </p>
+ * <p>
+ * All settings must be configured before the first vCard is read.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ * 
+ * <pre class="brush:java">
+ * File file = new File("vcards.vcf");
+ * ParallelVCardReader reader = null;
+ * try {
+ *   reader = new ParallelVCardReader(file);
+ *   VCard vcard;
+ *   while ((vcard = reader.readNext()) != null) {
+ *     //...
+ *   }
+ * } finally {
+ *   if (reader != null) reader.close();
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ */
+public class ParallelVCardReader extends StreamReader {
+	private final Reader reader;
+	private final VCardVersion defaultVersion;
+	private final char buffer[] = new char[8192];
+	private int bufferPos = 0, bufferLen = 0;
+	private boolean eos = false;
+
+	private boolean caretDecodingEnabled = true;
+	private Charset defaultQuotedPrintableCharset;
+	private BlobSink blobSink;
+	private Integer blobThreshold;
+	private int threads = Runtime.getRuntime().availableProcessors();
+	private int chunkSize = 64 * 1024;
+	private Integer readAhead;
+	private ExecutorService executor;
+	private boolean shutdownExecutor;
+
+	private final LinkedList<Future<ParsedChunk>> pending = new LinkedList<Future<ParsedChunk>>();
+	private ParsedChunk current;
+	private int currentIndex;
+
+	/*
+	 * Splitter state.
+	 */
+	private StringBuilder chunk = new StringBuilder();
+	private int chunkStartLine = 1;
+	private int lineNumber = 1;
+	private int lineStart = 0;
+	private boolean prevCR = false;
+	private final ComponentBoundaryTracker tracker = new ComponentBoundaryTracker();
+
+	/**
+	 * Creates a new vCard reader.
+	 * @param in the input stream to read from
+	 */
+	public ParallelVCardReader(InputStream in) {
+		this(in, VCardVersion.V2_1);
+	}
+
+	/**
+	 * Creates a new vCard reader.
+	 * @param in the input stream to read from
+	 * @param defaultVersion the version to assume the vCard is in until a
+	 * VERSION property is encountered (defaults to 2.1)
+	 */
+	public ParallelVCardReader(InputStream in, VCardVersion defaultVersion) {
+		this(new InputStreamReader(in), defaultVersion);
+	}
+
+	/**
+	 * Creates a new vCard reader.
+	 * @param file the file to read from
+	 * @throws FileNotFoundException if the file doesn't exist
+	 */
+	public ParallelVCardReader(File file) throws FileNotFoundException {
+		this(file, VCardVersion.V2_1);
+	}
+
+	/**
+	 * Creates a new vCard reader.
+	 * @param file the file to read from
+	 * @param defaultVersion the version to assume the vCard is in until a
+	 * VERSION property is encountered (defaults to 2.1)
+	 * @throws FileNotFoundException if the file doesn't exist
+	 */
+	public ParallelVCardReader(File file, VCardVersion defaultVersion) throws FileNotFoundException {
+		this(new BufferedReader(new FileReader(file)), defaultVersion);
+	}
+
+	/**
+	 * Creates a new vCard reader.
+	 * @param reader the reader to read from
+	 */
+	public ParallelVCardReader(Reader reader) {
+		this(reader, VCardVersion.V2_1);
+	}
+
+	/**
+	 * Creates a new vCard reader.
+	 * @param reader the reader to read from
+	 * @param defaultVersion the version to assume the vCard is in until a
+	 * VERSION property is encountered (defaults to 2.1)
+	 */
+	public ParallelVCardReader(Reader reader, VCardVersion defaultVersion) {
+		this.reader = reader;
+		this.defaultVersion = defaultVersion;
+	}
+
+	/**
+	 * Gets whether the reader will decode parameter values that use circumflex
+	 * accent encoding (enabled by default).
+	 * @return true if circumflex accent decoding is enabled, false if not
+	 * @see VCardReader#isCaretDecodingEnabled()
+	 */
+	public boolean isCaretDecodingEnabled() {
+		return caretDecodingEnabled;
+	}
+
+	/**
+	 * Sets whether the reader will decode parameter values that use circumflex
+	 * accent encoding (enabled by default).
+	 * @param enable true to use circumflex accent decoding, false not to
+	 * @see VCardReader#setCaretDecodingEnabled(boolean)
+	 */
+	public void setCaretDecodingEnabled(boolean enable) {
+		caretDecodingEnabled = enable;
+	}
+
+	/**
+	 * Gets the character set to use when the parser cannot determine what
+	 * character set to use to decode a quoted-printable property value.
+	 * @return the character set or null to use the {@link VCardReader}
+	 * default
+	 * @see VCardReader#getDefaultQuotedPrintableCharset()
+	 */
+	public Charset getDefaultQuotedPrintableCharset() {
+		return defaultQuotedPrintableCharset;
+	}
+
+	/**
+	 * Sets the character set to use when the parser cannot determine what
+	 * character set to use to decode a quoted-printable property value.
+	 * @param charset the character set or null to use the {@link VCardReader}
+	 * default
+	 * @see VCardReader#setDefaultQuotedPrintableCharset(Charset)
+	 */
+	public void setDefaultQuotedPrintableCharset(Charset charset) {
+		defaultQuotedPrintableCharset = charset;
+	}
+
+	/**
+	 * Sets the blob sink that large binary property values are decoded into.
+	 * The sink is used by all worker threads, so it must be thread-safe.
+	 * @param blobSink the blob sink or null to always decode binary values into
+	 * memory
+	 * @see VCardReader#setBlobSink(BlobSink)
+	 */
+	public void setBlobSink(BlobSink blobSink) {
+		this.blobSink = blobSink;
+	}
+
+	/**
+	 * Sets the size that a decoded binary property value must exceed in order
+	 * to be decoded into the blob sink.
+	 * @param blobThreshold the threshold (in bytes) or null to use the
+	 * {@link VCardReader} default
+	 * @see VCardReader#setBlobThreshold(int)
+	 */
+	public void setBlobThreshold(Integer blobThreshold) {
+		this.blobThreshold = blobThreshold;
+	}
+
+	/**
+	 * Gets the number of worker threads to parse the vCards with (defaults to
+	 * the number of available processors). This setting is ignored if an
+	 * executor was passed into {@link #setExecutorService}.
+	 * @return the number of threads
+	 */
+	public int getThreads() {
+		return threads;
+	}
+
+	/**
+	 * Sets the number of worker threads to parse the vCards with (defaults to
+	 * the number of available processors). This setting is ignored if an
+	 * executor was passed into {@link #setExecutorService}.
+	 * @param threads the number of threads
+	 * @throws IllegalArgumentException if the number is less than 1
+	 */
+	public void setThreads(int threads) {
+		if (threads < 1) {
+			throw new IllegalArgumentException("Thread count must be greater than zero.");
+		}
+		this.threads = threads;
+	}
+
+	/**
+	 * Gets the minimum number of characters each chunk that is handed off to a
+	 * worker thread contains (defaults to 64K). A chunk always consists of
+	 * whole vCards, so chunks may be larger than this.
+	 * @return the chunk size
+	 */
+	public int getChunkSize() {
+		return chunkSize;
+	}
+
+	/**
+	 * Sets the minimum number of characters each chunk that is handed off to a
+	 * worker thread contains (defaults to 64K). A chunk always consists of
+	 * whole vCards, so chunks may be larger than this.
+	 * @param chunkSize the chunk size
+	 */
+	public void setChunkSize(int chunkSize) {
+		this.chunkSize = chunkSize;
+	}
+
+	/**
+	 * Gets the maximum number of chunks that are read from the data stream and
+	 * submitted to the executor ahead of the chunk that is currently being
+	 * returned.
+	 * @return the number of chunks or null to derive it from the executor (see
+	 * {@link #setReadAhead})
+	 */
+	public Integer getReadAhead() {
+		return readAhead;
+	}
+
+	/**
+	 * <p>
+	 * Sets the maximum number of chunks that are read from the data stream and
+	 * submitted to the executor ahead of the chunk that is currently being
+	 * returned. Larger values keep the worker threads busier at the cost of
+	 * holding more parsed vCards in memory.
+	 * </p>
+	 * <p>
+	 * If this is not set, twice the number of worker threads is used. When an
+	 * executor is passed into {@link #setExecutorService}, the number of
+	 * worker threads is taken from its core pool size if it is a
+	 * {@link ThreadPoolExecutor}, and from the number of available processors
+	 * otherwise.
+	 * </p>
+	 * @param readAhead the number of chunks or null to derive it from the
+	 * executor
+	 * @throws IllegalArgumentException if the number is less than 1
+	 */
+	public void setReadAhead(Integer readAhead) {
+		if (readAhead != null && readAhead < 1) {
+			throw new IllegalArgumentException("Read-ahead must be greater than zero.");
+		}
+		this.readAhead = readAhead;
+	}
+
+	/**
+	 * Sets the executor to parse the vCards with. By default, a thread pool is
+	 * created when the first vCard is read, and shut down when this reader is
+	 * closed. An executor that is passed into this method is not shut down
+	 * when this reader is closed.
+	 * @param executor the executor or null to use the default thread pool
+	 */
+	public void setExecutorService(ExecutorService executor) {
+		this.executor = executor;
+		shutdownExecutor = false;
+	}
+
+	@Override
+	protected VCard _readNext() throws IOException {
+		while (current == null || currentIndex >= current.vcards.size()) {
+			current = null;
+			fillPipeline();
+			if (pending.isEmpty()) {
+				return null;
+			}
+
+			current = await(pending.removeFirst());
+			currentIndex = 0;
+		}
+
+		for (String warning : current.warnings.get(currentIndex)) {
+			warnings.add(null, null, warning);
+		}
+		return current.vcards.get(currentIndex++);
+	}
+
+	/**
+	 * Splits the data stream into chunks and submits them to the executor
+	 * until enough chunks are being parsed to keep every worker thread busy.
+	 * @throws IOException if there's a problem reading from the data stream
+	 */
+	private void fillPipeline() throws IOException {
+		if (executor == null) {
+			executor = Executors.newFixedThreadPool(threads, new DaemonThreadFactory());
+			shutdownExecutor = true;
+		}
+
+		int maxPending = (readAhead == null) ? defaultReadAhead() : readAhead;
+		while (pending.size() < maxPending) {
+			Chunk next = nextChunk();
+			if (next == null) {
+				break;
+			}
+			pending.add(executor.submit(new ChunkParser(next, index, propertyFilter)));
+		}
+	}
+
+	/**
+	 * Determines how many chunks to read ahead if the read-ahead setting is not
+	 * set.
+	 * @return the number of chunks
+	 */
+	private int defaultReadAhead() {
+		int workers;
+		if (shutdownExecutor) {
+			workers = threads;
+		} else if (executor instanceof ThreadPoolExecutor) {
+			workers = ((ThreadPoolExecutor) executor).getCorePoolSize();
+		} else {
+			workers = Runtime.getRuntime().availableProcessors();
+		}
+		return Math.max(workers, 1) * 2;
+	}
+
+	private ParsedChunk await(Future<ParsedChunk> future) throws IOException {
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			InterruptedIOException ioe = new InterruptedIOException();
+			ioe.initCause(e);
+			throw ioe;
+		} catch (ExecutionException e) {
+			Throwable cause = e.getCause();
+			if (cause instanceof IOException) {
+				throw (IOException) cause;
+			}
+			if (cause instanceof RuntimeException) {
+				throw (RuntimeException) cause;
+			}
+			if (cause instanceof Error) {
+				throw (Error) cause;
+			}
+			throw new RuntimeException(cause);
+		}
+	}
+
+	/**
+	 * Reads the next chunk from the data stream.
+	 * @return the chunk or null if the end of the stream has been reached
+	 * @throws IOException if there's a problem reading from the data stream
+	 */
+	private Chunk nextChunk() throws IOException {
+		while (true) {
+			if (bufferPos == bufferLen) {
+				if (eos) {
+					return finishChunk(chunk.length());
+				}
+
+				bufferLen = reader.read(buffer);
+				bufferPos = 0;
+				if (bufferLen < 0) {
+					eos = true;
+					bufferLen = 0;
+					if (lineStart < chunk.length()) {
+						//the last line does not end with a newline
+						Chunk finished = endLine();
+						if (finished != null) {
+							return finished;
+						}
+					}
+				}
+				continue;
+			}
+
+			char c = buffer[bufferPos++];
+			if (prevCR && c == '\n') {
+				//"\r\n" is a single newline
+				prevCR = false;
+				chunk.append(c);
+				lineStart = chunk.length();
+				continue;
+			}
+			prevCR = false;
+
+			if (c == '\r' || c == '\n') {
+				Chunk finished = endLine();
+				chunk.append(c);
+				lineStart = chunk.length();
+				lineNumber++;
+				prevCR = (c == '\r');
+				if (finished != null) {
+					return finished;
+				}
+				continue;
+			}
+
+			chunk.append(c);
+		}
+	}
+
+	/**
+	 * Called when the end of a line is reached. Determines if the line is the
+	 * start of a new top-level vCard and, if so, whether the chunk that is
+	 * being built is large enough to be handed off.
+	 * @return the finished chunk or null if the chunk is not finished
+	 */
+	private Chunk endLine() {
+		int start = lineStart;
+		int type = tracker.line(chunk, start, chunk.length());
+		if (type != ComponentBoundaryTracker.BEGIN || start < chunkSize) {
+			return null;
+		}
+
+		Chunk finished = finishChunk(start);
+		chunkStartLine = lineNumber;
+		return finished;
+	}
+
+	private Chunk finishChunk(int end) {
+		if (end == 0) {
+			return null;
+		}
+
+		Chunk finished = new Chunk(chunk.substring(0, end), chunkStartLine);
+		chunk.delete(0, end);
+		lineStart -= end;
+		return finished;
+	}
+
+	/**
+	 * Stops parsing and closes the input stream. The default thread pool is
+	 * shut down.
+	 * @throws IOException if there's a problem closing the input stream
+	 */
+	public void close() throws IOException {
+		for (Future<ParsedChunk> future : pending) {
+			future.cancel(true);
+		}
+		pending.clear();
+		current = null;
+
+		if (executor != null && shutdownExecutor) {
+			executor.shutdownNow();
+		}
+
+		reader.close();
+	}
+
+	/**
+	 * A piece of the data stream that contains one or more whole vCards.
+	 */
+	private static class Chunk {
+		private final String text;
+		private final int startLine;
+
+		public Chunk(String text, int startLine) {
+			this.text = text;
+			this.startLine = startLine;
+		}
+	}
+
+	/**
+	 * The vCards parsed from a chunk and the warnings of each vCard.
+	 */
+	private static class ParsedChunk {
+		private final List<VCard> vcards = new ArrayList<VCard>();
+		private final List<List<String>> warnings = new ArrayList<List<String>>();
+	}
+
+	/**
+	 * Parses a chunk on a worker thread.
+	 */
+	private class ChunkParser implements Callable<ParsedChunk> {
+		private final Chunk chunk;
+		private final ScribeIndex index;
+		private final PropertyFilter propertyFilter;
+
+		public ChunkParser(Chunk chunk, ScribeIndex index, PropertyFilter propertyFilter) {
+			this.chunk = chunk;
+			this.index = index;
+			this.propertyFilter = propertyFilter;
+		}
+
+		public ParsedChunk call() throws IOException {
+			VCardReader reader = new VCardReader(chunk.text, defaultVersion);
+			reader.setLineOffset(chunk.startLine - 1);
+			reader.setCaretDecodingEnabled(caretDecodingEnabled);
+			if (defaultQuotedPrintableCharset != null) {
+				reader.setDefaultQuotedPrintableCharset(defaultQuotedPrintableCharset);
+			}
+			reader.setScribeIndex(index);
+			reader.setPropertyFilter(propertyFilter);
+			reader.setBlobSink(blobSink);
+			if (blobThreshold != null) {
+				reader.setBlobThreshold(blobThreshold);
+			}
+
+			ParsedChunk parsed = new ParsedChunk();
+			try {
+				VCard vcard;
+				while ((vcard = reader.readNext()) != null) {
+					parsed.vcards.add(vcard);
+					parsed.warnings.add(reader.getWarnings());
+				}
+			} finally {
+				IOUtils.closeQuietly(reader);
+			}
+			return parsed;
+		}
+	}
+
+	/**
+	 * Creates daemon threads, so that the default thread pool does not
+	 * prevent the JVM from exiting if the reader is never closed.
+	 */
+	private static class DaemonThreadFactory implements ThreadFactory {
+		private final ThreadFactory delegate = Executors.defaultThreadFactory();
+
+		public Thread newThread(Runnable r) {
+			Thread thread = delegate.newThread(r);
+			thread.setDaemon(true);
+			return thread;
+		}
+	}
+}
@@ -0,0 +1,582 @@
+package ezvcard.io.text;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UnsupportedEncodingException;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import ezvcard.util.IOUtils;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Records the location of each top-level vCard in a plain-text vCard file, so
+ * that individual vCards can be read without parsing the entire file. For each
+ * vCard, the index stores its byte offset and length, the line it starts on,
+ * and the values of its UID and REV properties.
+ * </p>
+ * <p>
+ * The index can be saved to a small "sidecar" file and loaded again later. If
+ * more vCards are appended to the vCard file (for example, by creating a
+ * {@link VCardWriter} in append mode), calling {@link #update} indexes only the
+ * data that was added.
+ * </p>
+ * <p>
+ * The index records the size and last-modified time of the vCard file. An
+ * {@link IndexedVCardReader} compares these against the file when it is
+ * created, and brings the index up to date if the file has changed.
+ * </p>
+ * <p>
+ * The vCard file must use a character encoding in which CR and LF are always
+ * encoded as single bytes, such as UTF-8 or ISO-8859-1.
+ * </p>
+ * <p>
+ * <b>Example:</b>
+ * </p>
+ * 
+ * <pre class="brush:java">
+ * File file = new File("vcards.vcf");
+ * File indexFile = new File("vcards.vcf.idx");
+ * 
+ * VCardIndex index = VCardIndex.build(file);
+ * index.write(indexFile);
+ * 
+ * //later...
+ * VCardIndex index = VCardIndex.read(indexFile);
+ * index.update(file);
+ * IndexedVCardReader reader = new IndexedVCardReader(file, index);
+ * try {
+ *   VCard vcard = reader.read("urn:uuid:03a0e51f-d1aa-4385-8a53-e29025acd8af");
+ * } finally {
+ *   reader.close();
+ * }
+ * </pre>
+ * @author Michael Angstadt
+ * @see IndexedVCardReader
+ */
+public class VCardIndex {
+	private static final int MAGIC = 0x657a7669; //"ezvi"
+	private static final int FORMAT_VERSION = 2;
+
+	private final Charset charset;
+	private final List<Entry> entries = new ArrayList<Entry>();
+	private final Map<String, Entry> byUid = new HashMap<String, Entry>();
+
+	/*
+	 * Where the next scan should resume.
+	 */
+	private long indexedLength = 0;
+	private int nextLine = 1;
+	private boolean endsWithCR = false;
+
+	/*
+	 * The state of the file when it was last indexed.
+	 */
+	private long fileLength = -1;
+	private long fileModified = 0;
+
+	/**
+	 * Creates an empty index.
+	 * @param charset the character encoding of the vCard file (used to decode
+	 * the UID and REV values)
+	 */
+	public VCardIndex(Charset charset) {
+		this.charset = charset;
+	}
+
+	/**
+	 * Creates an index of a vCard file. The file is assumed to be encoded in
+	 * the local machine's default character encoding.
+	 * @param file the vCard file
+	 * @return the index
+	 * @throws IOException if there's a problem reading the file
+	 */
+	public static VCardIndex build(File file) throws IOException {
+		return build(file, Charset.defaultCharset());
+	}
+
+	/**
+	 * Creates an index of a vCard file.
+	 * @param file the vCard file
+	 * @param charset the character encoding of the file
+	 * @return the index
+	 * @throws IOException if there's a problem reading the file
+	 */
+	public static VCardIndex build(File file, Charset charset) throws IOException {
+		VCardIndex index = new VCardIndex(charset);
+		index.update(file);
+		return index;
+	}
+
+	/**
+	 * Determines whether the vCard file has changed since it was last indexed,
+	 * by comparing its size and last-modified time against the values that
+	 * were recorded when it was indexed.
+	 * @param file the vCard file
+	 * @return true if the file has changed, false if not
+	 */
+	public boolean isStale(File file) {
+		return file.length() != fileLength || file.lastModified() != fileModified;
+	}
+
+	/**
+	 * Brings the index up to date with the given vCard file. If the file has
+	 * grown since it was last indexed, only the new data is scanned (the file
+	 * is assumed to have been appended to). If the file has otherwise changed
+	 * in size or last-modified time, the entire file is indexed again.
+	 * @param file the vCard file
+	 * @throws IOException if there's a problem reading the file
+	 */
+	public void update(File file) throws IOException {
+		long length = file.length();
+		long modified = file.lastModified();
+		if (length == fileLength && modified == fileModified) {
+			return;
+		}
+		if (length <= fileLength || length < indexedLength) {
+			clear();
+		}
+
+		fileLength = length;
+		fileModified = modified;
+		if (length == indexedLength) {
+			return;
+		}
+
+		InputStream in = new BufferedInputStream(new FileInputStream(file));
+		try {
+			long skip = indexedLength;
+			while (skip > 0) {
+				long skipped = in.skip(skip);
+				if (skipped <= 0) {
+					throw new IOException("Unable to skip to the end of the indexed data.");
+				}
+				skip -= skipped;
+			}
+			scan(in);
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+	}
+
+	private void clear() {
+		entries.clear();
+		byUid.clear();
+		indexedLength = 0;
+		nextLine = 1;
+		endsWithCR = false;
+		fileLength = -1;
+		fileModified = 0;
+	}
+
+	/**
+	 * Scans the data that comes after the indexed data.
+	 * @param in the input stream, positioned at the end of the indexed data
+	 * @throws IOException if there's a problem reading from the stream
+	 */
+	private void scan(InputStream in) throws IOException {
+		ComponentBoundaryTracker tracker = new ComponentBoundaryTracker();
+
+		/*
+		 * Each byte is stored as a char so that the tracker can examine the
+		 * line. Bytes that are part of multi-byte characters are decoded later
+		 * on.
+		 */
+		StringBuilder line = new StringBuilder();
+		long position = indexedLength;
+		int lineNumber = nextLine;
+		boolean prevCR = endsWithCR;
+
+		long vcardStart = -1;
+		int vcardLine = 0;
+		String uid = null, rev = null;
+		StringBuilder value = null;
+		boolean valueIsUid = false;
+
+		int b;
+		boolean eof = false;
+		while (!eof) {
+			b = in.read();
+			eof = (b < 0);
+
+			if (!eof) {
+				position++;
+				if (prevCR && b == '\n') {
+					//"\r\n" is a single newline
+					prevCR = false;
+					if (vcardStart < 0) {
+						markIndexed(position, lineNumber, false);
+					}
+					continue;
+				}
+				prevCR = false;
+
+				if (b != '\r' && b != '\n') {
+					line.append((char) b);
+					continue;
+				}
+			} else if (line.length() == 0) {
+				break;
+			}
+
+			//end of line
+			long lineEnd = position; //the position after the newline
+			int type = tracker.line(line, 0, line.length());
+
+			if (value != null && !(type == ComponentBoundaryTracker.CONTINUATION && line.length() > 0)) {
+				//a UID or REV property has been read in its entirety
+				if (valueIsUid) {
+					uid = decode(value);
+				} else {
+					rev = decode(value);
+				}
+				value = null;
+			}
+
+			switch (type) {
+			case ComponentBoundaryTracker.BEGIN:
+				vcardStart = lineEnd - line.length() - (eof ? 0 : 1);
+				vcardLine = lineNumber;
+				uid = rev = null;
+				break;
+
+			case ComponentBoundaryTracker.END:
+				if (vcardStart >= 0) {
+					long end = lineEnd - (eof ? 0 : 1);
+					add(new Entry(vcardStart, (int) (end - vcardStart), vcardLine, uid, rev));
+					vcardStart = -1;
+				}
+				break;
+
+			case ComponentBoundaryTracker.CONTINUATION:
+				if (value != null) {
+					//unfold the line
+					value.append(line, 1, line.length());
+				}
+				break;
+
+			case ComponentBoundaryTracker.PROPERTY:
+				if (tracker.getDepth() == 1) {
+					String name = propertyName(line);
+					int colon = ComponentBoundaryTracker.indexOf(':', line, 0, line.length());
+					if (colon >= 0 && ("UID".equalsIgnoreCase(name) || "REV".equalsIgnoreCase(name))) {
+						value = new StringBuilder();
+						value.append(line, colon + 1, line.length());
+						valueIsUid = "UID".equalsIgnoreCase(name);
+					}
+				}
+				break;
+			}
+
+			if (!eof) {
+				lineNumber++;
+				prevCR = (b == '\r');
+			}
+			line.setLength(0);
+
+			if (vcardStart < 0) {
+				markIndexed(lineEnd, lineNumber, prevCR);
+			}
+		}
+	}
+
+	private void markIndexed(long position, int lineNumber, boolean endsWithCR) {
+		indexedLength = position;
+		nextLine = lineNumber;
+		this.endsWithCR = endsWithCR;
+	}
+
+	private void add(Entry entry) {
+		entries.add(entry);
+		if (entry.uid != null && !byUid.containsKey(entry.uid)) {
+			byUid.put(entry.uid, entry);
+		}
+	}
+
+	/**
+	 * Gets the name of the property on the given line.
+	 * @param line the line
+	 * @return the property name (without the group) or null if the line is
+	 * malformed
+	 */
+	private static String propertyName(CharSequence line) {
+		int end = -1, dot = -1;
+		for (int i = 0; i < line.length(); i++) {
+			char c = line.charAt(i);
+			if (c == ';' || c == ':') {
+				end = i;
+				break;
+			}
+			if (c == '.') {
+				dot = i;
+			}
+		}
+		if (end < 0) {
+			return null;
+		}
+		return line.subSequence(dot + 1, end).toString().trim();
+	}
+
+	/**
+	 * Decodes a property value that was read one byte per char.
+	 * @param value the value
+	 * @return the decoded value
+	 */
+	private String decode(CharSequence value) {
+		byte bytes[] = new byte[value.length()];
+		for (int i = 0; i < bytes.length; i++) {
+			bytes[i] = (byte) value.charAt(i);
+		}
+		try {
+			return new String(bytes, charset.name()).trim();
+		} catch (UnsupportedEncodingException e) {
+			//should never be thrown because the Charset object exists
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Gets the character encoding of the vCard file.
+	 * @return the character encoding
+	 */
+	public Charset getCharset() {
+		return charset;
+	}
+
+	/**
+	 * Gets the entries in the index, in the order in which they appear in the
+	 * vCard file.
+	 * @return the entries
+	 */
+	public List<Entry> getEntries() {
+		return Collections.unmodifiableList(entries);
+	}
+
+	/**
+	 * Gets the entry of the vCard with the given UID. If more than one vCard
+	 * has the UID, the first one is returned.
+	 * @param uid the UID (the raw property value, as it appears in the file)
+	 * @return the entry or null if not found
+	 */
+	public Entry getEntry(String uid) {
+		return byUid.get(uid);
+	}
+
+	/**
+	 * Gets the number of bytes of the vCard file that have been indexed. This
+	 * is the position that {@link #update} will resume scanning from.
+	 * @return the number of bytes
+	 */
+	public long getIndexedLength() {
+		return indexedLength;
+	}
+
+	/**
+	 * Writes the index to a file.
+	 * @param file the file to write to
+	 * @throws IOException if there's a problem writing to the file
+	 */
+	public void write(File file) throws IOException {
+		OutputStream out = new FileOutputStream(file);
+		try {
+			write(out);
+		} finally {
+			IOUtils.closeQuietly(out);
+		}
+	}
+
+	/**
+	 * Writes the index to an output stream.
+	 * @param out the output stream to write to
+	 * @throws IOException if there's a problem writing to the stream
+	 */
+	public void write(OutputStream out) throws IOException {
+		DataOutputStream data = new DataOutputStream(new BufferedOutputStream(out));
+		data.writeInt(MAGIC);
+		data.writeInt(FORMAT_VERSION);
+		data.writeUTF(charset.name());
+		data.writeLong(indexedLength);
+		data.writeInt(nextLine);
+		data.writeBoolean(endsWithCR);
+		data.writeLong(fileLength);
+		data.writeLong(fileModified);
+
+		data.writeInt(entries.size());
+		for (Entry entry : entries) {
+			data.writeLong(entry.offset);
+			data.writeInt(entry.length);
+			data.writeInt(entry.line);
+			writeNullable(data, entry.uid);
+			writeNullable(data, entry.rev);
+		}
+		data.flush();
+	}
+
+	/**
+	 * Reads an index from a file.
+	 * @param file the file to read from
+	 * @return the index
+	 * @throws IOException if there's a problem reading from the file or the
+	 * file is not an index file
+	 */
+	public static VCardIndex read(File file) throws IOException {
+		InputStream in = new FileInputStream(file);
+		try {
+			return read(in);
+		} finally {
+			IOUtils.closeQuietly(in);
+		}
+	}
+
+	/**
+	 * Reads an index from an input stream.
+	 * @param in the input stream to read from
+	 * @return the index
+	 * @throws IOException if there's a problem reading from the stream or the
+	 * data is not an index
+	 */
+	public static VCardIndex read(InputStream in) throws IOException {
+		DataInputStream data = new DataInputStream(new BufferedInputStream(in));
+		if (data.readInt() != MAGIC) {
+			throw new IOException("Data is not a vCard index.");
+		}
+		int version = data.readInt();
+		if (version != FORMAT_VERSION) {
+			throw new IOException("Unsupported vCard index version: " + version);
+		}
+
+		VCardIndex index = new VCardIndex(Charset.forName(data.readUTF()));
+		index.indexedLength = data.readLong();
+		index.nextLine = data.readInt();
+		index.endsWithCR = data.readBoolean();
+		index.fileLength = data.readLong();
+		index.fileModified = data.readLong();
+
+		int count = data.readInt();
+		for (int i = 0; i < count; i++) {
+			long offset = data.readLong();
+			int length = data.readInt();
+			int line = data.readInt();
+			String uid = readNullable(data);
+			String rev = readNullable(data);
+			index.add(new Entry(offset, length, line, uid, rev));
+		}
+		return index;
+	}
+
+	private static void writeNullable(DataOutputStream out, String value) throws IOException {
+		out.writeBoolean(value != null);
+		if (value != null) {
+			out.writeUTF(value);
+		}
+	}
+
+	private static String readNullable(DataInputStream in) throws IOException {
+		return in.readBoolean() ? in.readUTF() : null;
+	}
+
+	/**
+	 * The location of a vCard within a vCard file.
+	 */
+	public static class Entry {
+		private final long offset;
+		private final int length;
+		private final int line;
+		private final String uid, rev;
+
+		public Entry(long offset, int length, int line, String uid, String rev) {
+			this.offset = offset;
+			this.length = length;
+			this.line = line;
+			this.uid = uid;
+			this.rev = rev;
+		}
+
+		/**
+		 * Gets the byte offset of the vCard's BEGIN line.
+		 * @return the byte offset
+		 */
+		public long getOffset() {
+			return offset;
+		}
+
+		/**
+		 * Gets the length of the vCard in bytes, not including the newline
+		 * that follows the END line.
+		 * @return the length
+		 */
+		public int getLength() {
+			return length;
+		}
+
+		/**
+		 * Gets the line number of the vCard's BEGIN line.
+		 * @return the line number (starts at 1)
+		 */
+		public int getLine() {
+			return line;
+		}
+
+		/**
+		 * Gets the value of the vCard's UID property.
+		 * @return the raw property value or null if the vCard doesn't have one
+		 */
+		public String getUid() {
+			return uid;
+		}
+
+		/**
+		 * Gets the value of the vCard's REV property.
+		 * @return the raw property value or null if the vCard doesn't have one
+		 */
+		public String getRev() {
+			return rev;
+		}
+
+		@Override
+		public String toString() {
+			return "Entry [offset=" + offset + ", length=" + length + ", line=" + line + ", uid=" + uid + ", rev=" + rev + "]";
+		}
+	}
+}
@@ -26,8 +26,12 @@ import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.CannotParseException;
 import ezvcard.io.EmbeddedVCardException;
+import ezvcard.io.ParseWarnings;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.StreamReader;
+import ezvcard.io.scribe.AgentScribe;
+import ezvcard.io.scribe.BinaryPropertyScribe;
+import ezvcard.io.scribe.LabelScribe;
 import ezvcard.io.scribe.RawPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe.Result;
@@ -36,6 +40,8 @@ import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Address;
 import ezvcard.property.Label;
 import ezvcard.property.VCardProperty;
+import ezvcard.util.BlobSink;
+import ezvcard.util.CompactMap;
 import ezvcard.util.IOUtils;
 import ezvcard.util.StringUtils;
 
@@ -97,6 +103,12 @@ import ezvcard.util.StringUtils;
 public class VCardReader extends StreamReader {
 	private final VObjectReader reader;
 	private final VCardVersion defaultVersion;
+	private int lineOffset = 0;
+	private boolean lazyParsing = false;
+	private List<String> lazyWarnings;
+	private ParseWarnings deferredWarnings;
+	private BlobSink blobSink;
+	private int blobThreshold = 64 * 1024;
 
 	/**
 	 * Creates a new vCard reader.
@@ -217,13 +229,136 @@ public class VCardReader extends StreamReader {
 		reader.setDefaultQuotedPrintableCharset(charset);
 	}
 
+	/**
+	 * Gets whether property values are parsed lazily (disabled by default).
+	 * @return true if lazy parsing is enabled, false if not
+	 * @see #setLazyParsing
+	 */
+	public boolean isLazyParsing() {
+		return lazyParsing;
+	}
+
+	/**
+	 * <p>
+	 * Sets whether property values are parsed lazily (disabled by default).
+	 * </p>
+	 * <p>
+	 * When enabled, the reader does not parse property values right away.
+	 * Instead, each property is stored in the {@link VCard} as a
+	 * {@link LazyProperty} object. The properties of a given class are parsed
+	 * the first time that class is accessed through the {@link VCard} object
+	 * (for example, by calling {@link VCard#getAddresses}). Properties that
+	 * are never accessed are never parsed, and when written back out with a
+	 * {@link VCardWriter} of the same version, they are written verbatim.
+	 * </p>
+	 * <p>
+	 * The list returned by {@link #getWarnings} is live: the warnings of
+	 * properties that are parsed later on are added to it.
+	 * </p>
+	 * <p>
+	 * The {@link VCard} objects returned by this reader are not thread-safe
+	 * until all of their properties have been parsed. Even read-only methods
+	 * such as the getters, {@link VCard#equals}, and {@link VCard#toString}
+	 * parse properties and modify the vCard. To share a vCard between threads,
+	 * call {@link VCard#getProperties()} once before passing it to other
+	 * threads.
+	 * </p>
+	 * @param enable true to enable lazy parsing, false to disable it
+	 */
+	public void setLazyParsing(boolean enable) {
+		lazyParsing = enable;
+	}
+
+	/**
+	 * Gets the blob sink that large binary property values are decoded into.
+	 * @return the blob sink or null if binary values are always decoded into
+	 * memory (default)
+	 * @see #setBlobSink
+	 */
+	public BlobSink getBlobSink() {
+		return blobSink;
+	}
+
+	/**
+	 * <p>
+	 * Sets the blob sink that large binary property values are decoded into.
+	 * </p>
+	 * <p>
+	 * By default, the base64-encoded data of properties such as PHOTO and
+	 * LOGO is decoded into a byte array. When a blob sink is set, data that is
+	 * larger than the {@link #setBlobThreshold threshold} is decoded directly
+	 * into the sink instead, and can be retrieved by calling
+	 * {@link ezvcard.property.BinaryProperty#openDataStream}. This keeps
+	 * vCards with large photos from taking up large amounts of memory.
+	 * </p>
+	 * @param blobSink the blob sink (e.g.
+	 * {@link ezvcard.util.TempFileBlobSink}) or null to always decode binary
+	 * values into memory
+	 */
+	public void setBlobSink(BlobSink blobSink) {
+		this.blobSink = blobSink;
+	}
+
+	/**
+	 * Gets the size that a decoded binary property value must exceed in order
+	 * to be decoded into the blob sink (defaults to 64KB).
+	 * @return the threshold (in bytes)
+	 * @see #setBlobSink
+	 */
+	public int getBlobThreshold() {
+		return blobThreshold;
+	}
+
+	/**
+	 * Sets the size that a decoded binary property value must exceed in order
+	 * to be decoded into the blob sink (defaults to 64KB).
+	 * @param blobThreshold the threshold (in bytes)
+	 * @see #setBlobSink
+	 */
+	public void setBlobThreshold(int blobThreshold) {
+		this.blobThreshold = blobThreshold;
+	}
+
+	/**
+	 * Sets the number that is added to the line numbers in the parse warnings.
+	 * This is used when the reader is given a fragment of a larger data stream.
+	 * @param lineOffset the number of lines that come before the fragment
+	 */
+	void setLineOffset(int lineOffset) {
+		this.lineOffset = lineOffset;
+	}
+
 	@Override
 	protected VCard _readNext() throws IOException {
+		if (lazyParsing) {
+			lazyWarnings = new ArrayList<String>();
+			deferredWarnings = new ParseWarnings(lazyWarnings);
+		} else {
+			lazyWarnings = null;
+			deferredWarnings = null;
+		}
+
 		VObjectDataListenerImpl listener = new VObjectDataListenerImpl();
 		reader.parse(listener);
+
+		if (lazyWarnings != null) {
+			lazyWarnings.addAll(0, warnings.copy());
+		}
 		return listener.root;
 	}
 
+	/**
+	 * Gets the warnings from the last vCard that was unmarshalled. This list is
+	 * reset every time a new vCard is read. If lazy parsing is enabled, the
+	 * returned list is live, and also receives the warnings of properties that
+	 * are parsed later on.
+	 * @return the warnings or empty list if there were no warnings
+	 */
+	@Override
+	public List<String> getWarnings() {
+		return (lazyWarnings == null) ? super.getWarnings() : lazyWarnings;
+	}
+
 	private class VObjectDataListenerImpl implements VObjectDataListener {
 		private VCard root;
 		private final VCardStack stack = new VCardStack();
@@ -276,7 +411,7 @@ public class VCardReader extends StreamReader {
 			VCard curVCard = stack.peek().vcard;
 			VCardVersion version = curVCard.getVersion();
 
-			VCardProperty property = parseProperty(vobjectProperty, version, context.getLineNumber());
+			VCardProperty property = parseProperty(vobjectProperty, version, context.getLineNumber() + lineOffset);
 			if (property != null) {
 				curVCard.addProperty(property);
 			}
@@ -285,22 +420,33 @@ public class VCardReader extends StreamReader {
 		private VCardProperty parseProperty(VObjectProperty vobjectProperty, VCardVersion version, int lineNumber) {
 			String group = vobjectProperty.getGroup();
 			String name = vobjectProperty.getName();
-			VCardParameters parameters = new VCardParameters(vobjectProperty.getParameters().getMap());
-			String value = vobjectProperty.getValue();
-
-			//sanitize the parameters
-			processNamelessParameters(parameters);
-			processQuotedMultivaluedTypeParams(parameters, version);
 
 			//get the scribe
 			VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(name);
+			if (!isPropertyKept(name, scribe)) {
+				return null;
+			}
 			if (scribe == null) {
 				scribe = new RawPropertyScribe(name);
 			}
 
+			VCardParameters parameters = new VCardParameters(new CompactMap<String, List<String>>(vobjectProperty.getParameters().getMap()));
+			String value = vobjectProperty.getValue();
+
+			//sanitize the parameters
+			processNamelessParameters(parameters);
+			processQuotedMultivaluedTypeParams(parameters, version);
+
 			//get the data type (VALUE parameter)
 			VCardDataType dataType = parameters.getValue();
 			parameters.setValue(null);
+
+			if (deferredWarnings != null && isParsedLazily(scribe)) {
+				LazyProperty lazy = new LazyProperty(scribe, name, parameters, value, dataType, version, lineNumber, deferredWarnings);
+				lazy.setGroup(group);
+				return lazy;
+			}
+
 			if (dataType == null) {
 				//use the default data type if there is no VALUE parameter
 				dataType = scribe.defaultDataType(version);
@@ -308,7 +454,12 @@ public class VCardReader extends StreamReader {
 
 			VCardProperty property;
 			try {
-				Result<? extends VCardProperty> result = scribe.parseText(value, dataType, version, parameters);
+				Result<? extends VCardProperty> result;
+				if (blobSink != null && scribe instanceof BinaryPropertyScribe) {
+					result = ((BinaryPropertyScribe<?, ?>) scribe).parseText(value, dataType, version, parameters, blobSink, blobThreshold);
+				} else {
+					result = scribe.parseText(value, dataType, version, parameters);
+				}
 				for (String warning : result.getWarnings()) {
 					warnings.add(lineNumber, name, warning);
 				}
@@ -343,6 +494,22 @@ public class VCardReader extends StreamReader {
 			return property;
 		}
 
+		/**
+		 * Determines if a property can be parsed lazily. LABEL properties must
+		 * be matched up with ADR properties as soon as the vCard is read, and
+		 * AGENT properties may contain nested vCards. Binary properties are
+		 * parsed right away if there is a blob sink, so that their raw values
+		 * do not have to be kept in memory.
+		 * @param scribe the property's scribe
+		 * @return true if the property can be parsed lazily, false if not
+		 */
+		private boolean isParsedLazily(VCardPropertyScribe<? extends VCardProperty> scribe) {
+			if (blobSink != null && scribe instanceof BinaryPropertyScribe) {
+				return false;
+			}
+			return !(scribe instanceof RawPropertyScribe || scribe instanceof LabelScribe || scribe instanceof AgentScribe);
+		}
+
 		private void handleSkippedProperty(String propertyName, int lineNumber, SkipMeException e) {
 			warnings.add(lineNumber, propertyName, 22, e.getMessage());
 		}
@@ -389,32 +556,6 @@ public class VCardReader extends StreamReader {
 			}
 		}
 
-		/**
-		 * <p>
-		 * Unescapes newline sequences in the LABEL parameter of {@link Address}
-		 * properties. Newlines cannot normally be escaped in parameter values.
-		 * </p>
-		 * <p>
-		 * Only version 4.0 allows this (and only version 4.0 defines a LABEL
-		 * parameter), but do this for all versions for compatibility.
-		 * </p>
-		 * @param property the property
-		 */
-		private void handleLabelParameter(VCardProperty property) {
-			if (!(property instanceof Address)) {
-				return;
-			}
-
-			Address adr = (Address) property;
-			String label = adr.getLabel();
-			if (label == null) {
-				return;
-			}
-
-			label = label.replace("\\n", StringUtils.NEWLINE);
-			adr.setLabel(label);
-		}
-
 		public void onVersion(String value, Context context) {
 			VCardVersion version = VCardVersion.valueOfByStr(value);
 			stack.peek().vcard.setVersion(version);
@@ -427,7 +568,12 @@ public class VCardReader extends StreamReader {
 			}
 
 			String name = (property == null) ? null : property.getName();
-			warnings.add(context.getLineNumber(), name, 27, warning.getMessage(), context.getUnfoldedLine());
+			if (name != null && !isPropertyKept(name, index.getPropertyScribe(name))) {
+				//ignore warnings about properties that are being skipped
+				return;
+			}
+
+			warnings.add(context.getLineNumber() + lineOffset, name, 27, warning.getMessage(), context.getUnfoldedLine());
 		}
 
 		private boolean inVCardComponent(List<String> parentComponents) {
@@ -519,6 +665,32 @@ public class VCardReader extends StreamReader {
 		}
 	}
 
+	/**
+	 * <p>
+	 * Unescapes newline sequences in the LABEL parameter of {@link Address}
+	 * properties. Newlines cannot normally be escaped in parameter values.
+	 * </p>
+	 * <p>
+	 * Only version 4.0 allows this (and only version 4.0 defines a LABEL
+	 * parameter), but do this for all versions for compatibility.
+	 * </p>
+	 * @param property the property
+	 */
+	static void handleLabelParameter(VCardProperty property) {
+		if (!(property instanceof Address)) {
+			return;
+		}
+
+		Address adr = (Address) property;
+		String label = adr.getLabel();
+		if (label == null) {
+			return;
+		}
+
+		label = label.replace("\\n", StringUtils.NEWLINE);
+		adr.setLabel(label);
+	}
+
 	/**
 	 * Keeps track of the hierarchy of nested vCards.
 	 */
@@ -10,10 +10,14 @@ import java.io.OutputStream;
 import java.io.OutputStreamWriter;
 import java.io.StringWriter;
 import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.Charset;
 import java.util.ArrayList;
 import java.util.List;
 
 import com.github.mangstadt.vinnie.VObjectParameters;
+import com.github.mangstadt.vinnie.io.FoldedLineWriter;
 import com.github.mangstadt.vinnie.io.VObjectPropertyValues;
 import com.github.mangstadt.vinnie.io.VObjectWriter;
 
@@ -23,14 +27,17 @@ import ezvcard.VCardVersion;
 import ezvcard.io.EmbeddedVCardException;
 import ezvcard.io.SkipMeException;
 import ezvcard.io.StreamWriter;
+import ezvcard.io.scribe.BinaryPropertyScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Address;
 import ezvcard.property.BinaryProperty;
+import ezvcard.property.LazilyParsed;
 import ezvcard.property.StructuredName;
 import ezvcard.property.VCardProperty;
+import ezvcard.util.Blob;
 import ezvcard.util.IOUtils;
-import ezvcard.util.Utf8Writer;
+import ezvcard.util.Utf8ByteWriter;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -115,16 +122,28 @@ public class VCardWriter extends StreamWriter implements Flushable {
 	/**
 	 * @param out the output stream to write to
 	 * @param targetVersion the version that the vCards should conform to (if
-	 * set to "4.0", vCards will be written in UTF-8 encoding)
+	 * set to "4.0", vCards will be written in UTF-8 encoding, otherwise they
+	 * will be written in the platform's default encoding)
 	 */
 	public VCardWriter(OutputStream out, VCardVersion targetVersion) {
-		this((targetVersion == VCardVersion.V4_0) ? new Utf8Writer(out) : new OutputStreamWriter(out), targetVersion);
+		this(isUtf8(targetVersion) ? new Utf8ByteWriter(out) : new OutputStreamWriter(out), targetVersion);
+	}
+
+	/**
+	 * @param channel the channel to write to
+	 * @param targetVersion the version that the vCards should conform to (if
+	 * set to "4.0", vCards will be written in UTF-8 encoding, otherwise they
+	 * will be written in the platform's default encoding)
+	 */
+	public VCardWriter(WritableByteChannel channel, VCardVersion targetVersion) {
+		this(isUtf8(targetVersion) ? new Utf8ByteWriter(channel) : new OutputStreamWriter(Channels.newOutputStream(channel)), targetVersion);
 	}
 
 	/**
 	 * @param file the file to write to
 	 * @param targetVersion the version that the vCards should conform to (if
-	 * set to "4.0", vCards will be written in UTF-8 encoding)
+	 * set to "4.0", vCards will be written in UTF-8 encoding, otherwise they
+	 * will be written in the platform's default encoding)
 	 * @throws IOException if there's a problem opening the file
 	 */
 	public VCardWriter(File file, VCardVersion targetVersion) throws IOException {
@@ -136,11 +155,12 @@ public class VCardWriter extends StreamWriter implements Flushable {
 	 * @param append true to append to the end of the file, false to overwrite
 	 * it
 	 * @param targetVersion the version that the vCards should conform to (if
-	 * set to "4.0", vCards will be written in UTF-8 encoding)
+	 * set to "4.0", vCards will be written in UTF-8 encoding, otherwise they
+	 * will be written in the platform's default encoding)
 	 * @throws IOException if there's a problem opening the file
 	 */
 	public VCardWriter(File file, boolean append, VCardVersion targetVersion) throws IOException {
-		this((targetVersion == VCardVersion.V4_0) ? new Utf8Writer(file, append) : new FileWriter(file, append), targetVersion);
+		this(isUtf8(targetVersion) ? new Utf8ByteWriter(file, append) : new FileWriter(file, append), targetVersion);
 	}
 
 	/**
@@ -152,6 +172,19 @@ public class VCardWriter extends StreamWriter implements Flushable {
 		this.targetVersion = targetVersion;
 	}
 
+	/**
+	 * Determines whether the output of the stream, channel, and file
+	 * constructors is UTF-8 encoded. Version 4.0 vCards are always written in
+	 * UTF-8. Older versions are written in the platform's default character
+	 * encoding, so they are UTF-8 only if the platform's is. UTF-8 output is
+	 * encoded straight into a byte buffer by {@link Utf8ByteWriter}.
+	 * @param targetVersion the version that the vCards should conform to
+	 * @return true if the output is UTF-8, false if not
+	 */
+	private static boolean isUtf8(VCardVersion targetVersion) {
+		return targetVersion == VCardVersion.V4_0 || "UTF-8".equals(Charset.defaultCharset().name());
+	}
+
 	/**
 	 * Gets the writer that this object uses to write data to the output stream.
 	 * @return the writer
@@ -307,8 +340,21 @@ public class VCardWriter extends StreamWriter implements Flushable {
 		writer.writeVersion(targetVersion.getVersion());
 
 		for (VCardProperty property : propertiesToAdd) {
+			if (property instanceof LazyProperty) {
+				writeVerbatim((LazyProperty) property);
+				continue;
+			}
+
 			VCardPropertyScribe scribe = index.getPropertyScribe(property);
 
+			if (isBlob(property, scribe)) {
+				VCardParameters parameters = scribe.prepareParameters(property, targetVersion, vcard);
+				handleValueParameter(property, scribe, parameters);
+				writeBlob((BinaryProperty) property, (BinaryPropertyScribe) scribe, parameters);
+				fixBinaryPropertyForOutlook(property);
+				continue;
+			}
+
 			String value = null;
 			VCard nestedVCard = null;
 			try {
@@ -337,6 +383,80 @@ public class VCardWriter extends StreamWriter implements Flushable {
 		writer.writeEndComponent("VCARD");
 	}
 
+	/**
+	 * Determines if a property's binary data is stored in a {@link Blob}.
+	 * @param property the property
+	 * @param scribe the property's scribe
+	 * @return true if the property's data is stored in a blob, false if not
+	 */
+	private boolean isBlob(VCardProperty property, VCardPropertyScribe<?> scribe) {
+		return property instanceof BinaryProperty && ((BinaryProperty<?>) property).getBlob() != null && scribe instanceof BinaryPropertyScribe;
+	}
+
+	/**
+	 * Writes a property whose binary data is stored in a {@link Blob}. The data
+	 * is base64-encoded and folded as it is read from the blob, so it is never
+	 * held in memory all at once.
+	 * @param property the property
+	 * @param scribe the property's scribe
+	 * @param parameters the property's parameters
+	 * @throws IOException if there's a problem reading the blob or writing to
+	 * the data stream
+	 */
+	@SuppressWarnings({ "rawtypes", "unchecked" })
+	private void writeBlob(BinaryProperty property, BinaryPropertyScribe scribe, VCardParameters parameters) throws IOException {
+		/*
+		 * Let a throw-away writer build the property's name and parameters so
+		 * that they are written exactly as they would be for any other
+		 * property.
+		 */
+		StringWriter sw = new StringWriter();
+		VObjectWriter headerWriter = new VObjectWriter(sw, writer.getSyntaxStyle());
+		headerWriter.getFoldedLineWriter().setLineLength(null);
+		headerWriter.setCaretEncodingEnabled(isCaretEncodingEnabled());
+		headerWriter.writeProperty(property.getGroup(), scribe.getPropertyName(), new VObjectParameters(parameters.getMap()), "");
+
+		String header = sw.toString();
+		int newline = header.indexOf('\r');
+		if (newline < 0) {
+			newline = header.indexOf('\n');
+		}
+		if (newline >= 0) {
+			header = header.substring(0, newline);
+		}
+
+		FoldedLineWriter folder = writer.getFoldedLineWriter();
+		folder.write(header, false, null);
+		scribe.writeText(property, getTargetVersion(), folder);
+		folder.writeln();
+	}
+
+	/**
+	 * Writes a property that was read lazily and was never accessed. Its
+	 * parameters and value are written exactly as they were read.
+	 * @param property the property
+	 * @throws IOException if there's a problem writing to the data stream
+	 */
+	private void writeVerbatim(LazyProperty property) throws IOException {
+		VCardParameters parameters = new VCardParameters(property.getParameters());
+		if (property.getDataType() != null) {
+			parameters.setValue(property.getDataType());
+		}
+
+		String name = property.getScribe().getPropertyName();
+		writer.writeProperty(property.getGroup(), name, new VObjectParameters(parameters.getMap()), property.getValue());
+	}
+
+	/**
+	 * Properties that were read lazily are written verbatim if they were read
+	 * from a vCard of the same version as the target version, and no target
+	 * application is set.
+	 */
+	@Override
+	protected boolean canWriteVerbatim(LazilyParsed property) {
+		return property instanceof LazyProperty && property.getVersion() == getTargetVersion() && targetApplication == null;
+	}
+
 	@SuppressWarnings("rawtypes")
 	private void writeNestedVCard(VCard nestedVCard, VCardProperty property, VCardPropertyScribe scribe, VCardParameters parameters, String value) throws IOException {
 		if (targetVersion == VCardVersion.V2_1) {
@@ -450,7 +570,7 @@ public class VCardWriter extends StreamWriter implements Flushable {
 		}
 
 		BinaryProperty<?> binaryProperty = (BinaryProperty<?>) property;
-		if (binaryProperty.getData() == null) {
+		if (!binaryProperty.hasData()) {
 			//property value is not base64-encoded
 			return;
 		}
@@ -0,0 +1,407 @@
+package ezvcard.io.xml;
+
+import static ezvcard.util.StringUtils.NEWLINE;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetEncoder;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import javax.xml.transform.OutputKeys;
+
+import org.xml.sax.Attributes;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Writes XML directly to a {@link Writer}, without going through a JAXP
+ * transformer.
+ * </p>
+ * <p>
+ * The output is meant to be identical to what the identity
+ * {@link javax.xml.transform.sax.TransformerHandler} that is built into JDK 9
+ * and later produces for the same sequence of SAX events, including its
+ * character escaping rules. This lets {@link XCardWriter} switch between the
+ * two without changing its output. When indentation is enabled:
+ * </p>
+ * <ul>
+ * <li>Each element starts on a new line and is indented by "indent-amount"
+ * spaces per level (4 if the property is not set).</li>
+ * <li>Elements that only contain text are written on a single line.</li>
+ * <li>A newline follows the XML declaration only if the "standalone" property
+ * is set. Otherwise, the root element directly follows the declaration.</li>
+ * <li>The document ends with a newline.</li>
+ * </ul>
+ * <p>
+ * Other transformers, such as the one in JDK 8 (whose default indent-amount is
+ * 0) or Xalan, follow different indentation rules. The XML is equivalent, but
+ * the whitespace between elements can differ.
+ * </p>
+ * <p>
+ * The following output properties are supported:
+ * {@link OutputKeys#VERSION}, {@link OutputKeys#ENCODING},
+ * {@link OutputKeys#STANDALONE}, {@link OutputKeys#OMIT_XML_DECLARATION},
+ * {@link OutputKeys#INDENT}, and the Xalan "indent-amount" property. All
+ * other output properties are ignored.
+ * </p>
+ * <p>
+ * Elements are always written with a default namespace declaration (no
+ * prefixes). A namespace declaration is written whenever an element's
+ * namespace differs from the namespace of its closest ancestor that is in a
+ * namespace.
+ * </p>
+ * @author Michael Angstadt
+ */
+class StreamingXmlWriter {
+	private final Writer writer;
+	private final String version;
+	private final String encoding;
+	private final CharsetEncoder encoder;
+	private final String standalone;
+	private final boolean omitXmlDeclaration;
+	private final int indent;
+	private final boolean prettyPrint;
+
+	/**
+	 * The elements that are currently open. Frame objects are re-used as
+	 * elements are opened and closed.
+	 */
+	private final List<Frame> frames = new ArrayList<Frame>();
+	private int depth = 0;
+
+	private boolean startTagOpen = false;
+
+	/**
+	 * Text is held back until the next start or end tag, because how it is
+	 * indented depends on what comes after it.
+	 */
+	private String pendingText;
+
+	private char[] spaces = new char[0];
+
+	/**
+	 * @param writer the writer to write to
+	 * @param outputProperties the output properties
+	 */
+	public StreamingXmlWriter(Writer writer, Map<String, String> outputProperties) {
+		this.writer = writer;
+
+		String version = outputProperties.get(OutputKeys.VERSION);
+		this.version = "1.1".equals(version) ? version : "1.0";
+
+		String encoding = outputProperties.get(OutputKeys.ENCODING);
+		CharsetEncoder encoder = null;
+		if (encoding == null) {
+			encoding = "UTF-8";
+		} else {
+			try {
+				Charset charset = Charset.forName(encoding);
+				if (!charset.name().startsWith("UTF-")) {
+					encoder = charset.newEncoder();
+				}
+			} catch (IllegalArgumentException e) {
+				//character set not supported by the JVM, treat it as UTF-8
+				encoding = "UTF-8";
+			}
+		}
+		this.encoding = encoding;
+		this.encoder = encoder;
+
+		standalone = outputProperties.get(OutputKeys.STANDALONE);
+		omitXmlDeclaration = "yes".equals(outputProperties.get(OutputKeys.OMIT_XML_DECLARATION));
+
+		prettyPrint = "yes".equals(outputProperties.get(OutputKeys.INDENT));
+		int indent = 0;
+		if (prettyPrint) {
+			//the JDK 9+ transformer indents by 4 spaces if no amount is given
+			indent = 4;
+			String value = outputProperties.get(XCardOutputProperties.INDENT_AMT);
+			if (value != null) {
+				try {
+					indent = Integer.parseInt(value);
+				} catch (NumberFormatException e) {
+					//ignore
+				}
+			}
+		}
+		this.indent = indent;
+	}
+
+	/**
+	 * Writes the XML declaration.
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	public void startDocument() throws IOException {
+		if (omitXmlDeclaration) {
+			return;
+		}
+
+		writer.write("<?xml version=\"");
+		writer.write(version);
+		writer.write("\" encoding=\"");
+		writer.write(encoding);
+		writer.write('"');
+		if (standalone != null) {
+			writer.write(" standalone=\"");
+			writer.write(standalone);
+			writer.write('"');
+		}
+		writer.write("?>");
+
+		if (standalone != null && prettyPrint) {
+			writer.write(NEWLINE);
+		}
+	}
+
+	/**
+	 * Writes a start tag.
+	 * @param namespace the element's namespace or null/empty for no namespace
+	 * @param localName the element's local name
+	 * @param attributes the element's attributes (only their qualified names and
+	 * values are used)
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	public void startElement(String namespace, String localName, Attributes attributes) throws IOException {
+		closeStartTag();
+
+		Frame parent = (depth == 0) ? null : frames.get(depth - 1);
+		if (pendingText != null) {
+			newline(depth);
+			text(pendingText);
+			pendingText = null;
+		}
+
+		if (parent != null) {
+			parent.hasChildElements = true;
+			newline(depth);
+		}
+
+		String inScopeNamespace = (parent == null) ? null : parent.inScopeNamespace;
+		boolean declare = (namespace != null && namespace.length() > 0 && !namespace.equals(inScopeNamespace));
+
+		writer.write('<');
+		writer.write(localName);
+		if (declare) {
+			writer.write(" xmlns=\"");
+			attribute(namespace);
+			writer.write('"');
+		}
+		for (int i = 0; i < attributes.getLength(); i++) {
+			writer.write(' ');
+			writer.write(attributes.getQName(i));
+			writer.write("=\"");
+			attribute(attributes.getValue(i));
+			writer.write('"');
+		}
+		startTagOpen = true;
+
+		Frame frame;
+		if (depth < frames.size()) {
+			frame = frames.get(depth);
+		} else {
+			frame = new Frame();
+			frames.add(frame);
+		}
+		frame.localName = localName;
+		frame.inScopeNamespace = declare ? namespace : inScopeNamespace;
+		frame.hasChildElements = false;
+		depth++;
+	}
+
+	/**
+	 * Writes character data.
+	 * @param text the character data
+	 */
+	public void characters(String text) {
+		if (text.length() == 0) {
+			return;
+		}
+		pendingText = (pendingText == null) ? text : pendingText + text;
+	}
+
+	/**
+	 * Writes an end tag.
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	public void endElement() throws IOException {
+		depth--;
+		Frame frame = frames.get(depth);
+
+		if (pendingText != null) {
+			closeStartTag();
+			if (frame.hasChildElements) {
+				newline(depth + 1);
+			}
+			text(pendingText);
+			pendingText = null;
+		} else if (startTagOpen) {
+			writer.write("/>");
+			startTagOpen = false;
+			return;
+		}
+
+		if (frame.hasChildElements) {
+			newline(depth);
+		}
+		writer.write("</");
+		writer.write(frame.localName);
+		writer.write('>');
+	}
+
+	/**
+	 * Finishes the document and flushes the output stream.
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	public void endDocument() throws IOException {
+		if (prettyPrint) {
+			writer.write(NEWLINE);
+		}
+		writer.flush();
+	}
+
+	private void closeStartTag() throws IOException {
+		if (startTagOpen) {
+			writer.write('>');
+			startTagOpen = false;
+		}
+	}
+
+	private void newline(int level) throws IOException {
+		if (!prettyPrint) {
+			return;
+		}
+
+		writer.write(NEWLINE);
+
+		int length = level * indent;
+		if (spaces.length < length) {
+			spaces = new char[length * 2];
+			for (int i = 0; i < spaces.length; i++) {
+				spaces[i] = ' ';
+			}
+		}
+		writer.write(spaces, 0, length);
+	}
+
+	private void text(String text) throws IOException {
+		escape(text, false);
+	}
+
+	private void attribute(String value) throws IOException {
+		escape(value, true);
+	}
+
+	/**
+	 * Writes a string, escaping the characters that need escaping. Runs of
+	 * characters that do not need escaping are written all at once.
+	 * @param value the string to write
+	 * @param attribute true if the string is an attribute value, false if it's
+	 * character data
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	private void escape(String value, boolean attribute) throws IOException {
+		int length = value.length();
+		int start = 0;
+		for (int i = 0; i < length; i++) {
+			char c = value.charAt(i);
+
+			String entity = null;
+			int codePoint = -1;
+			boolean skip = false;
+			switch (c) {
+			case '&':
+				entity = "&amp;";
+				break;
+			case '<':
+				entity = "&lt;";
+				break;
+			case '>':
+				entity = "&gt;";
+				break;
+			case '"':
+				if (attribute) {
+					entity = "&quot;";
+				}
+				break;
+			default:
+				if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(value.charAt(i + 1))) {
+					codePoint = Character.toCodePoint(c, value.charAt(i + 1));
+				} else if (Character.isHighSurrogate(c) || Character.isLowSurrogate(c)) {
+					//unpaired surrogates are dropped
+					skip = true;
+				} else if (needsCharacterReference(c, attribute)) {
+					codePoint = c;
+				}
+				break;
+			}
+
+			if (entity == null && codePoint < 0 && !skip) {
+				continue;
+			}
+
+			writer.write(value, start, i - start);
+			if (entity != null) {
+				writer.write(entity);
+			} else if (codePoint >= 0) {
+				writer.write("&#");
+				writer.write(Integer.toString(codePoint));
+				writer.write(';');
+				if (codePoint > 0xFFFF) {
+					i++;
+				}
+			}
+			start = i + 1;
+		}
+		writer.write(value, start, length - start);
+	}
+
+	private boolean needsCharacterReference(char c, boolean attribute) {
+		if (c < 0x20) {
+			return attribute || (c != '\t' && c != '\n');
+		}
+		if (!attribute && c >= 0x7f && c <= 0x9f) {
+			return true;
+		}
+		if (c == 0x2028 && "1.1".equals(version)) {
+			return !attribute;
+		}
+		return encoder != null && !encoder.canEncode(c);
+	}
+
+	private static class Frame {
+		private String localName;
+		private String inScopeNamespace;
+		private boolean hasChildElements;
+	}
+}
@@ -41,7 +41,7 @@ import ezvcard.Messages;
  */
 public class XCardOutputProperties extends HashMap<String, String> {
 	private static final long serialVersionUID = -1038397031136827278L;
-	private static final String INDENT_AMT = "{http://xml.apache.org/xslt}indent-amount";
+	static final String INDENT_AMT = "{http://xml.apache.org/xslt}indent-amount";
 
 	public XCardOutputProperties() {
 		put(OutputKeys.METHOD, "xml");
@@ -20,21 +20,24 @@ import java.util.concurrent.ArrayBlockingQueue;
 import java.util.concurrent.BlockingQueue;
 
 import javax.xml.namespace.QName;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.ErrorListener;
 import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamSource;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
+import org.w3c.dom.NamedNodeMap;
 import org.w3c.dom.Node;
 import org.xml.sax.Attributes;
 import org.xml.sax.SAXException;
+import org.xml.sax.helpers.AttributesImpl;
 import org.xml.sax.helpers.DefaultHandler;
 
 import ezvcard.VCard;
@@ -102,6 +105,14 @@ import ezvcard.util.XmlUtils;
  * }
  * </pre>
  * 
+ * <p>
+ * By default, the XML document is parsed by a SAX parser running in a
+ * separate thread, which hands each vCard over to the calling thread as soon
+ * as it has been read. If {@link #setPullParsing pull parsing} is enabled, the
+ * XML document is instead read with a StAX pull parser on the calling thread
+ * (see {@link #setPullParsing} for details).
+ * </p>
+ * 
  * @author Michael Angstadt
  * @see <a href="http://tools.ietf.org/html/rfc6351">RFC 6351</a>
  */
@@ -114,8 +125,12 @@ public class XCardReader extends StreamReader {
 
 	private volatile VCard readVCard;
 	private volatile TransformerException thrown;
+	private boolean closed = false;
 
-	private final ReadThread thread = new ReadThread();
+	private boolean pullParsing = false;
+	private PullParser pullParser;
+
+	private ReadThread thread;
 	private final Object lock = new Object();
 	private final BlockingQueue<Object> readerBlock = new ArrayBlockingQueue<Object>(1);
 	private final BlockingQueue<Object> threadBlock = new ArrayBlockingQueue<Object>(1);
@@ -159,11 +174,54 @@ public class XCardReader extends StreamReader {
 		stream = null;
 	}
 
+	/**
+	 * Gets whether the xCards are read with a StAX pull parser on the calling
+	 * thread (disabled by default).
+	 * @return true if pull parsing is enabled, false if not
+	 * @see #setPullParsing(boolean)
+	 */
+	public boolean isPullParsing() {
+		return pullParsing;
+	}
+
+	/**
+	 * <p>
+	 * Sets whether to read the xCards with a StAX pull parser on the calling
+	 * thread (disabled by default). This must be set before the first call to
+	 * {@link #readNext}.
+	 * </p>
+	 * <p>
+	 * When disabled, a dedicated thread is started which parses the XML
+	 * document using a SAX parser and hands each vCard over to the calling
+	 * thread. When enabled, no extra thread is created: each call to
+	 * {@link #readNext} pulls XML events from the document until the next
+	 * {@code <vcard>} element has been read. DOM nodes are walked directly. The
+	 * vCards and parse warnings that are produced are the same in both modes.
+	 * </p>
+	 * <p>
+	 * Note that pull parsing requires the StAX API ({@code javax.xml.stream}),
+	 * which was added in Java 6 and is not available on Android.
+	 * </p>
+	 * @param enable true to use pull parsing, false to use a SAX parser in a
+	 * separate thread
+	 */
+	public void setPullParsing(boolean enable) {
+		pullParsing = enable;
+	}
+
 	@Override
 	protected VCard _readNext() throws IOException {
+		if (pullParsing) {
+			return readNextPull();
+		}
+
 		readVCard = null;
 		thrown = null;
 
+		if (thread == null) {
+			thread = new ReadThread();
+		}
+
 		if (!thread.started) {
 			thread.start();
 		} else {
@@ -192,6 +250,258 @@ public class XCardReader extends StreamReader {
 		return readVCard;
 	}
 
+	private VCard readNextPull() throws IOException {
+		readVCard = null;
+
+		if (pullParser == null) {
+			try {
+				pullParser = (source instanceof DOMSource) ? new DomPullParser(((DOMSource) source).getNode()) : new StaxPullParser();
+			} catch (XMLStreamException e) {
+				pullParser = new FinishedPullParser();
+				throw new IOException(e);
+			}
+		}
+
+		try {
+			return pullParser.readNext();
+		} catch (XMLStreamException e) {
+			throw new IOException(e);
+		} catch (SAXException e) {
+			throw new IOException(e);
+		}
+	}
+
+	/**
+	 * Called by the content handler when a {@code <vcard>} element has been
+	 * completely read.
+	 * @throws SAXException if the thread is interrupted
+	 */
+	private void vcardRead() throws SAXException {
+		if (pullParser != null) {
+			pullParser.vcardRead = true;
+			return;
+		}
+
+		//wait for readNext() to be called again
+		try {
+			readerBlock.put(lock);
+			threadBlock.take();
+		} catch (InterruptedException e) {
+			throw new SAXException(e);
+		}
+	}
+
+	/**
+	 * Feeds XML events into a {@link ContentHandlerImpl} on the calling
+	 * thread, one {@code <vcard>} element at a time.
+	 */
+	private abstract class PullParser {
+		protected final ContentHandlerImpl handler = new ContentHandlerImpl();
+		private boolean finished = false;
+		private boolean vcardRead;
+
+		/**
+		 * Pulls XML events from the document until the next vCard has been
+		 * read or the document ends.
+		 * @return the vCard or null if there are no more
+		 * @throws XMLStreamException if there's a problem reading the XML
+		 * @throws SAXException if there's a problem reading the XML
+		 */
+		public VCard readNext() throws XMLStreamException, SAXException {
+			if (finished || closed) {
+				return null;
+			}
+
+			vcardRead = false;
+			try {
+				while (!vcardRead) {
+					if (!next()) {
+						finished = true;
+						return null;
+					}
+				}
+			} catch (XMLStreamException e) {
+				finished = true;
+				throw e;
+			} catch (SAXException e) {
+				finished = true;
+				throw e;
+			}
+
+			return readVCard;
+		}
+
+		/**
+		 * Sends the next XML event to the content handler.
+		 * @return false if the end of the document has been reached, true if
+		 * not
+		 * @throws XMLStreamException if there's a problem reading the XML
+		 * @throws SAXException if there's a problem reading the XML
+		 */
+		protected abstract boolean next() throws XMLStreamException, SAXException;
+
+		/**
+		 * Releases any resources held by the parser.
+		 */
+		public void close() {
+			//empty
+		}
+	}
+
+	/**
+	 * Used when the pull parser could not be created.
+	 */
+	private class FinishedPullParser extends PullParser {
+		@Override
+		protected boolean next() {
+			return false;
+		}
+	}
+
+	/**
+	 * Pulls XML events from a {@link StreamSource} using a StAX parser.
+	 */
+	private class StaxPullParser extends PullParser {
+		private final XMLStreamReader reader;
+		private final AttributesImpl attributes = new AttributesImpl();
+
+		public StaxPullParser() throws XMLStreamException {
+			reader = XmlUtils.newXMLStreamReader(source);
+		}
+
+		@Override
+		protected boolean next() throws XMLStreamException, SAXException {
+			if (!reader.hasNext()) {
+				return false;
+			}
+
+			switch (reader.next()) {
+			case XMLStreamConstants.START_ELEMENT:
+				attributes.clear();
+				for (int i = 0; i < reader.getAttributeCount(); i++) {
+					String localName = reader.getAttributeLocalName(i);
+					String prefix = reader.getAttributePrefix(i);
+					String qname = (prefix == null || prefix.length() == 0) ? localName : prefix + ":" + localName;
+					attributes.addAttribute(nullToEmpty(reader.getAttributeNamespace(i)), localName, qname, "CDATA", reader.getAttributeValue(i));
+				}
+				handler.startElement(nullToEmpty(reader.getNamespaceURI()), reader.getLocalName(), null, attributes);
+				break;
+
+			case XMLStreamConstants.END_ELEMENT:
+				handler.endElement(nullToEmpty(reader.getNamespaceURI()), reader.getLocalName(), null);
+				break;
+
+			case XMLStreamConstants.CHARACTERS:
+			case XMLStreamConstants.CDATA:
+			case XMLStreamConstants.SPACE:
+				handler.characters(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+				break;
+			}
+
+			return true;
+		}
+
+		@Override
+		public void close() {
+			try {
+				reader.close();
+			} catch (XMLStreamException e) {
+				//ignore
+			}
+		}
+	}
+
+	/**
+	 * Walks a DOM tree, sending the nodes it encounters to the content handler
+	 * as XML events.
+	 */
+	private class DomPullParser extends PullParser {
+		private final Node root;
+		private final AttributesImpl attributes = new AttributesImpl();
+		private Node current;
+		private boolean entering = true;
+
+		public DomPullParser(Node root) {
+			this.root = root;
+			current = root;
+		}
+
+		@Override
+		protected boolean next() throws SAXException {
+			if (current == null) {
+				return false;
+			}
+
+			if (entering) {
+				enter(current);
+
+				Node child = current.getFirstChild();
+				if (child == null) {
+					entering = false;
+				} else {
+					current = child;
+				}
+				return true;
+			}
+
+			exit(current);
+
+			if (current == root) {
+				current = null;
+				return true;
+			}
+
+			Node sibling = current.getNextSibling();
+			if (sibling == null) {
+				current = current.getParentNode();
+			} else {
+				current = sibling;
+				entering = true;
+			}
+			return true;
+		}
+
+		private void enter(Node node) throws SAXException {
+			switch (node.getNodeType()) {
+			case Node.ELEMENT_NODE:
+				attributes.clear();
+				NamedNodeMap nodeAttributes = node.getAttributes();
+				for (int i = 0; i < nodeAttributes.getLength(); i++) {
+					Node attribute = nodeAttributes.item(i);
+					String qname = attribute.getNodeName();
+					if (qname.equals("xmlns") || qname.startsWith("xmlns:")) {
+						continue;
+					}
+
+					attributes.addAttribute(nullToEmpty(attribute.getNamespaceURI()), localName(attribute), qname, "CDATA", attribute.getNodeValue());
+				}
+				handler.startElement(nullToEmpty(node.getNamespaceURI()), localName(node), node.getNodeName(), attributes);
+				break;
+
+			case Node.TEXT_NODE:
+			case Node.CDATA_SECTION_NODE:
+				char[] text = node.getNodeValue().toCharArray();
+				handler.characters(text, 0, text.length);
+				break;
+			}
+		}
+
+		private void exit(Node node) throws SAXException {
+			if (node.getNodeType() == Node.ELEMENT_NODE) {
+				handler.endElement(nullToEmpty(node.getNamespaceURI()), localName(node), node.getNodeName());
+			}
+		}
+
+		private String localName(Node node) {
+			String localName = node.getLocalName();
+			return (localName == null) ? node.getNodeName() : localName;
+		}
+	}
+
+	private static String nullToEmpty(String string) {
+		return (string == null) ? "" : string;
+	}
+
 	private class ReadThread extends Thread {
 		private final SAXResult result;
 		private final Transformer transformer;
@@ -200,16 +510,7 @@ public class XCardReader extends StreamReader {
 		public ReadThread() {
 			setName(getClass().getSimpleName());
 
-			//create the transformer
-			try {
-				TransformerFactory factory = TransformerFactory.newInstance();
-				XmlUtils.applyXXEProtection(factory);
-
-				transformer = factory.newTransformer();
-			} catch (TransformerConfigurationException e) {
-				//shouldn't be thrown because it's a simple configuration
-				throw new RuntimeException(e);
-			}
+			transformer = XmlUtils.newTransformer();
 
 			//prevent error messages from being printed to stderr
 			transformer.setErrorListener(new NoOpErrorListener());
@@ -248,6 +549,12 @@ public class XCardReader extends StreamReader {
 		private QName paramName;
 		private VCardParameters parameters;
 
+		/**
+		 * The depth of the current element within a property that is being
+		 * skipped (zero if no property is being skipped).
+		 */
+		private int skipDepth = 0;
+
 		@Override
 		public void characters(char[] buffer, int start, int length) throws SAXException {
 			/*
@@ -264,6 +571,11 @@ public class XCardReader extends StreamReader {
 
 		@Override
 		public void startElement(String namespace, String localName, String qName, Attributes attributes) throws SAXException {
+			if (skipDepth > 0) {
+				skipDepth++;
+				return;
+			}
+
 			QName qname = new QName(namespace, localName);
 			String textContent = characterBuffer.getAndClear();
 
@@ -294,18 +606,19 @@ public class XCardReader extends StreamReader {
 					if (GROUP.equals(qname)) {
 						group = attributes.getValue("name");
 						typeToPush = ElementType.group;
-					} else {
-						propertyElement = createElement(namespace, localName, attributes);
-						parameters = new VCardParameters();
-						parent = propertyElement;
-						typeToPush = ElementType.property;
+						break;
+					}
+
+					if (!startProperty(namespace, localName, qname, attributes)) {
+						return;
 					}
+					typeToPush = ElementType.property;
 					break;
 
 				case group:
-					propertyElement = createElement(namespace, localName, attributes);
-					parameters = new VCardParameters();
-					parent = propertyElement;
+					if (!startProperty(namespace, localName, qname, attributes)) {
+						return;
+					}
 					typeToPush = ElementType.property;
 					break;
 
@@ -349,8 +662,34 @@ public class XCardReader extends StreamReader {
 			structure.push(typeToPush);
 		}
 
+		/**
+		 * Starts reading a property element.
+		 * @param namespace the element's namespace
+		 * @param localName the element's local name
+		 * @param qname the element's qualified name
+		 * @param attributes the element's attributes
+		 * @return true if the property will be read, false if it is skipped by
+		 * the property filter
+		 */
+		private boolean startProperty(String namespace, String localName, QName qname, Attributes attributes) {
+			if (!isPropertyKept(localName, index.getPropertyScribe(qname))) {
+				skipDepth = 1;
+				return false;
+			}
+
+			propertyElement = createElement(namespace, localName, attributes);
+			parameters = new VCardParameters();
+			parent = propertyElement;
+			return true;
+		}
+
 		@Override
 		public void endElement(String namespace, String localName, String qName) throws SAXException {
+			if (skipDepth > 0) {
+				skipDepth--;
+				return;
+			}
+
 			String textContent = characterBuffer.getAndClear();
 
 			if (structure.isEmpty()) {
@@ -416,13 +755,7 @@ public class XCardReader extends StreamReader {
 					break;
 
 				case vcard:
-					//wait for readNext() to be called again
-					try {
-						readerBlock.put(lock);
-						threadBlock.take();
-					} catch (InterruptedException e) {
-						throw new SAXException(e);
-					}
+					vcardRead();
 					break;
 
 				case vcards:
@@ -559,7 +892,12 @@ public class XCardReader extends StreamReader {
 	 * Closes the underlying input stream.
 	 */
 	public void close() throws IOException {
-		if (thread.isAlive()) {
+		closed = true;
+		if (pullParser != null) {
+			pullParser.close();
+		}
+
+		if (thread != null && thread.isAlive()) {
 			thread.closed = true;
 			thread.interrupt();
 		}
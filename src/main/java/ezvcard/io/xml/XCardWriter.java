@@ -10,16 +10,14 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.io.Writer;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
 import javax.xml.namespace.QName;
 import javax.xml.transform.Result;
 import javax.xml.transform.Transformer;
-import javax.xml.transform.TransformerConfigurationException;
-import javax.xml.transform.TransformerFactory;
 import javax.xml.transform.dom.DOMResult;
-import javax.xml.transform.sax.SAXTransformerFactory;
 import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
 
@@ -95,17 +93,34 @@ import ezvcard.util.XmlUtils;
  *   if (writer != null) writer.close();
  * }
  * </pre>
+ * <p>
+ * <b>Direct output:</b>
+ * </p>
+ * <p>
+ * By default, the XML is serialized by a JAXP transformer. When writing to an
+ * output stream, file, or writer, calling {@link #setDirectOutput} makes the
+ * writer serialize the XML itself, which is faster and creates less garbage.
+ * The output is the same as the output of the transformer that is built into
+ * JDK 9 and later. With other transformers, including the one in JDK 8, the
+ * XML is equivalent but its indentation may differ.
+ * </p>
  * @author Michael Angstadt
  * @see <a href="http://tools.ietf.org/html/rfc6351">RFC 6351</a>
  */
 public class XCardWriter extends XCardWriterBase {
 	//How to use SAX to write XML: http://stackoverflow.com/q/4898590
 
+	private static final Attributes NO_ATTRIBUTES = new AttributesImpl();
+
 	private final Document DOC = XmlUtils.createDocument();
 
 	private final Writer writer;
-	private final TransformerHandler handler;
+	private final Node parent;
+	private final Map<String, String> outputProperties;
 	private final boolean vcardsElementExists;
+	private boolean directOutput = false;
+	private TransformerHandler handler;
+	private StreamingXmlWriter xmlWriter;
 	private boolean started = false;
 
 	/**
@@ -245,29 +260,40 @@ public class XCardWriter extends XCardWriterBase {
 				parent = root;
 			}
 		}
+		this.parent = parent;
 		this.vcardsElementExists = isVCardsElement(parent);
+		this.outputProperties = new HashMap<String, String>(outputProperties);
+	}
 
-		try {
-			SAXTransformerFactory factory = (SAXTransformerFactory) TransformerFactory.newInstance();
-			handler = factory.newTransformerHandler();
-		} catch (TransformerConfigurationException e) {
-			throw new RuntimeException(e);
-		}
-
-		Transformer transformer = handler.getTransformer();
-
-		/*
-		 * Using Transformer#setOutputProperties(Properties) doesn't work for
-		 * some reason for setting the number of indentation spaces.
-		 */
-		for (Map.Entry<String, String> entry : outputProperties.entrySet()) {
-			String key = entry.getKey();
-			String value = entry.getValue();
-			transformer.setOutputProperty(key, value);
-		}
+	/**
+	 * Gets whether the XML is serialized by this class instead of by a JAXP
+	 * transformer.
+	 * @return true if direct output is enabled, false if not (defaults to
+	 * false)
+	 */
+	public boolean isDirectOutput() {
+		return directOutput;
+	}
 
-		Result result = (writer == null) ? new DOMResult(parent) : new StreamResult(writer);
-		handler.setResult(result);
+	/**
+	 * <p>
+	 * Sets whether the XML should be serialized by this class instead of by a
+	 * JAXP transformer. Serializing the XML directly avoids replaying each
+	 * property's XML through the transformer as SAX events. The output is the
+	 * same as the output of the transformer that is built into JDK 9 and later
+	 * (see the class description). Only the following output properties are
+	 * supported in this mode: version, encoding, standalone,
+	 * omit-xml-declaration, indent, and indent-amount.
+	 * </p>
+	 * <p>
+	 * This setting has no effect when writing to a DOM node. It must be set
+	 * before the first vCard is written.
+	 * </p>
+	 * @param directOutput true to enable direct output, false to disable it
+	 * (defaults to false)
+	 */
+	public void setDirectOutput(boolean directOutput) {
+		this.directOutput = directOutput;
 	}
 
 	private boolean isVCardsElement(Node node) {
@@ -286,7 +312,7 @@ public class XCardWriter extends XCardWriterBase {
 	protected void _write(VCard vcard, List<VCardProperty> properties) throws IOException {
 		try {
 			if (!started) {
-				handler.startDocument();
+				startDocument();
 
 				if (!vcardsElementExists) {
 					//don't output a <vcards> element if the parent is a <vcards> element
@@ -333,7 +359,7 @@ public class XCardWriter extends XCardWriterBase {
 	public void close() throws IOException {
 		try {
 			if (!started) {
-				handler.startDocument();
+				startDocument();
 
 				if (!vcardsElementExists) {
 					//don't output a <vcards> element if the parent is a <vcards> element
@@ -344,7 +370,7 @@ public class XCardWriter extends XCardWriterBase {
 			if (!vcardsElementExists) {
 				end(VCARDS);
 			}
-			handler.endDocument();
+			endDocument();
 		} catch (SAXException e) {
 			throw new IOException(e);
 		}
@@ -354,8 +380,42 @@ public class XCardWriter extends XCardWriterBase {
 		}
 	}
 
+	private void startDocument() throws SAXException, IOException {
+		if (writer != null && directOutput) {
+			xmlWriter = new StreamingXmlWriter(writer, outputProperties);
+			xmlWriter.startDocument();
+			return;
+		}
+
+		handler = XmlUtils.newTransformerHandler();
+
+		Transformer transformer = handler.getTransformer();
+
+		/*
+		 * Using Transformer#setOutputProperties(Properties) doesn't work for
+		 * some reason for setting the number of indentation spaces.
+		 */
+		for (Map.Entry<String, String> entry : outputProperties.entrySet()) {
+			String key = entry.getKey();
+			String value = entry.getValue();
+			transformer.setOutputProperty(key, value);
+		}
+
+		Result result = (writer == null) ? new DOMResult(parent) : new StreamResult(writer);
+		handler.setResult(result);
+		handler.startDocument();
+	}
+
+	private void endDocument() throws SAXException, IOException {
+		if (xmlWriter != null) {
+			xmlWriter.endDocument();
+		} else {
+			handler.endDocument();
+		}
+	}
+
 	@SuppressWarnings({ "rawtypes", "unchecked" })
-	private void write(VCardProperty property, VCard vcard) throws SAXException {
+	private void write(VCardProperty property, VCard vcard) throws SAXException, IOException {
 		VCardPropertyScribe scribe = index.getPropertyScribe(property);
 		VCardParameters parameters = scribe.prepareParameters(property, targetVersion, vcard);
 
@@ -388,7 +448,7 @@ public class XCardWriter extends XCardWriterBase {
 		end(propertyElement);
 	}
 
-	private void write(Element propertyElement) throws SAXException {
+	private void write(Element propertyElement) throws SAXException, IOException {
 		NodeList children = propertyElement.getChildNodes();
 		for (int i = 0; i < children.getLength(); i++) {
 			Node child = children.item(i);
@@ -415,7 +475,7 @@ public class XCardWriter extends XCardWriterBase {
 		}
 	}
 
-	private void write(VCardParameters parameters) throws SAXException {
+	private void write(VCardParameters parameters) throws SAXException, IOException {
 		if (parameters.isEmpty()) {
 			return;
 		}
@@ -447,55 +507,66 @@ public class XCardWriter extends XCardWriterBase {
 	 * @param element the element
 	 * @throws SAXException
 	 */
-	private void childless(Element element) throws SAXException {
-		Attributes attributes = getElementAttributes(element);
-		handler.startElement(element.getNamespaceURI(), "", element.getLocalName(), attributes);
-		handler.endElement(element.getNamespaceURI(), "", element.getLocalName());
+	private void childless(Element element) throws SAXException, IOException {
+		start(element);
+		end(element);
 	}
 
-	private void start(Element element) throws SAXException {
+	private void start(Element element) throws SAXException, IOException {
 		Attributes attributes = getElementAttributes(element);
 		start(element.getNamespaceURI(), element.getLocalName(), attributes);
 	}
 
-	private void start(String element) throws SAXException {
-		start(element, new AttributesImpl());
+	private void start(String element) throws SAXException, IOException {
+		start(element, NO_ATTRIBUTES);
 	}
 
-	private void start(QName qname) throws SAXException {
-		start(qname, new AttributesImpl());
+	private void start(QName qname) throws SAXException, IOException {
+		start(qname, NO_ATTRIBUTES);
 	}
 
-	private void start(QName qname, Attributes attributes) throws SAXException {
+	private void start(QName qname, Attributes attributes) throws SAXException, IOException {
 		start(qname.getNamespaceURI(), qname.getLocalPart(), attributes);
 	}
 
-	private void start(String element, Attributes attributes) throws SAXException {
+	private void start(String element, Attributes attributes) throws SAXException, IOException {
 		start(targetVersion.getXmlNamespace(), element, attributes);
 	}
 
-	private void start(String namespace, String element, Attributes attributes) throws SAXException {
-		handler.startElement(namespace, "", element, attributes);
+	private void start(String namespace, String element, Attributes attributes) throws SAXException, IOException {
+		if (xmlWriter != null) {
+			xmlWriter.startElement(namespace, element, attributes);
+		} else {
+			handler.startElement(namespace, "", element, attributes);
+		}
 	}
 
-	private void end(Element element) throws SAXException {
+	private void end(Element element) throws SAXException, IOException {
 		end(element.getNamespaceURI(), element.getLocalName());
 	}
 
-	private void end(String element) throws SAXException {
+	private void end(String element) throws SAXException, IOException {
 		end(targetVersion.getXmlNamespace(), element);
 	}
 
-	private void end(QName qname) throws SAXException {
+	private void end(QName qname) throws SAXException, IOException {
 		end(qname.getNamespaceURI(), qname.getLocalPart());
 	}
 
-	private void end(String namespace, String element) throws SAXException {
-		handler.endElement(namespace, "", element);
+	private void end(String namespace, String element) throws SAXException, IOException {
+		if (xmlWriter != null) {
+			xmlWriter.endElement();
+		} else {
+			handler.endElement(namespace, "", element);
+		}
 	}
 
-	private void text(String text) throws SAXException {
-		handler.characters(text.toCharArray(), 0, text.length());
+	private void text(String text) throws SAXException, IOException {
+		if (xmlWriter != null) {
+			xmlWriter.characters(text);
+		} else {
+			handler.characters(text.toCharArray(), 0, text.length());
+		}
 	}
 
 	private Attributes getElementAttributes(Element element) {
@@ -63,6 +63,17 @@ public class VCardParameterCaseClasses<T extends VCardParameter> extends CaseCla
 
 	@Override
 	protected boolean matches(T object, String value) {
-		return object.getValue().equalsIgnoreCase(value);
+		String objectValue = object.getValue();
+		return (objectValue == null) ? value == null : objectValue.equalsIgnoreCase(value);
+	}
+
+	@Override
+	protected Object objectKey(T object) {
+		return caseInsensitiveKey(object.getValue());
+	}
+
+	@Override
+	protected Object valueKey(String value) {
+		return caseInsensitiveKey(value);
 	}
 }
@@ -30,6 +30,7 @@ import ezvcard.property.Photo;
 import ezvcard.property.SortString;
 import ezvcard.property.Sound;
 import ezvcard.property.StructuredName;
+import ezvcard.util.CompactMap;
 import ezvcard.util.GeoUri;
 import ezvcard.util.ListMultimap;
 
@@ -369,10 +370,11 @@ public class VCardParameters extends ListMultimap<String, String> {
 	}
 
 	/**
-	 * Creates a list of parameters.
+	 * Creates a list of parameters. The list is backed by a {@link CompactMap},
+	 * since most properties only have a handful of parameters.
 	 */
 	public VCardParameters() {
-		//empty
+		super(new CompactMap<String, List<String>>());
 	}
 
 	/**
@@ -380,7 +382,10 @@ public class VCardParameters extends ListMultimap<String, String> {
 	 * @param orig the object to copy
 	 */
 	public VCardParameters(VCardParameters orig) {
-		super(orig);
+		this();
+		for (Map.Entry<String, List<String>> entry : orig.getMap().entrySet()) {
+			getMap().put(entry.getKey(), new ArrayList<String>(entry.getValue()));
+		}
 	}
 
 	/**
@@ -1,6 +1,7 @@
 package ezvcard.property;
 
 import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.FileInputStream;
 import java.io.IOException;
@@ -15,7 +16,9 @@ import ezvcard.VCardVersion;
 import ezvcard.Warning;
 import ezvcard.parameter.MediaTypeParameter;
 import ezvcard.parameter.Pid;
+import ezvcard.util.Blob;
 import ezvcard.util.Gobble;
+import ezvcard.util.IOUtils;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -57,6 +60,11 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	 */
 	protected byte[] data;
 
+	/**
+	 * The binary data, if it is stored outside of the Java heap.
+	 */
+	protected Blob blob;
+
 	/**
 	 * The URL to the resource.
 	 */
@@ -116,16 +124,33 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	public BinaryProperty(BinaryProperty<T> original) {
 		super(original);
 		data = (original.data == null) ? null : original.data.clone();
+		blob = original.blob;
 		url = original.url;
 		contentType = original.contentType;
 	}
 
 	/**
+	 * <p>
 	 * Gets the binary data of the resource.
+	 * </p>
+	 * <p>
+	 * If the data is stored in a {@link Blob}, it is read into memory each time
+	 * this method is called. Use {@link #openDataStream} to avoid this.
+	 * </p>
 	 * @return the binary data or null if there is none
+	 * @throws RuntimeException if the data is stored in a blob and there is a
+	 * problem reading it
 	 */
 	public byte[] getData() {
-		return data;
+		if (blob == null) {
+			return data;
+		}
+
+		try {
+			return new Gobble(blob.openStream()).asByteArray();
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		}
 	}
 
 	/**
@@ -136,9 +161,71 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	public void setData(byte[] data, T type) {
 		this.url = null;
 		this.data = data;
+		this.blob = null;
 		setContentType(type);
 	}
 
+	/**
+	 * Gets the blob that the binary data is stored in.
+	 * @return the blob or null if the data is not stored in a blob
+	 */
+	public Blob getBlob() {
+		return blob;
+	}
+
+	/**
+	 * <p>
+	 * Sets the binary data of the resource to data that is stored outside of
+	 * the Java heap. The property does not take ownership of the blob, so it
+	 * will not call {@link Blob#delete} (see {@link Blob}).
+	 * </p>
+	 * <p>
+	 * For {@link #equals}, blobs are compared by content, but a property whose
+	 * data is stored in a blob is never equal to a property whose data is
+	 * stored in a byte array.
+	 * </p>
+	 * @param blob the binary data
+	 * @param type the content type (e.g. "JPEG image")
+	 */
+	public void setBlob(Blob blob, T type) {
+		this.url = null;
+		this.data = null;
+		this.blob = blob;
+		setContentType(type);
+	}
+
+	/**
+	 * Determines if the property contains binary data (as opposed to a URL).
+	 * @return true if it contains binary data, false if not
+	 */
+	public boolean hasData() {
+		return data != null || blob != null;
+	}
+
+	/**
+	 * Gets the size of the binary data.
+	 * @return the size in bytes or -1 if there is no binary data
+	 */
+	public long getDataSize() {
+		if (blob != null) {
+			return blob.getSize();
+		}
+		return (data == null) ? -1 : data.length;
+	}
+
+	/**
+	 * Opens a stream for reading the binary data. The caller is responsible
+	 * for closing the stream.
+	 * @return the input stream or null if there is no binary data
+	 * @throws IOException if there is a problem opening the stream
+	 */
+	public InputStream openDataStream() throws IOException {
+		if (blob != null) {
+			return blob.openStream();
+		}
+		return (data == null) ? null : new ByteArrayInputStream(data);
+	}
+
 	/**
 	 * Gets the URL to the resource
 	 * @return the URL or null if there is none
@@ -155,6 +242,7 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	public void setUrl(String url, T type) {
 		this.url = url;
 		this.data = null;
+		this.blob = null;
 		setContentType(type);
 	}
 
@@ -227,7 +315,7 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 
 	@Override
 	protected void _validate(List<Warning> warnings, VCardVersion version, VCard vcard) {
-		if (url == null && data == null) {
+		if (url == null && !hasData()) {
 			warnings.add(new Warning(8));
 		}
 	}
@@ -236,6 +324,7 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 	protected Map<String, Object> toStringValues() {
 		Map<String, Object> values = new LinkedHashMap<String, Object>();
 		values.put("data", (data == null) ? "null" : "length: " + data.length);
+		values.put("blob", (blob == null) ? "null" : "length: " + blob.getSize());
 		values.put("url", url);
 		values.put("contentType", contentType);
 		return values;
@@ -246,7 +335,13 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 		final int prime = 31;
 		int result = super.hashCode();
 		result = prime * result + ((contentType == null) ? 0 : contentType.hashCode());
-		result = prime * result + Arrays.hashCode(data);
+		if (blob == null) {
+			result = prime * result + Arrays.hashCode(data);
+		} else {
+			//hashing the content of a blob would mean reading all of it
+			long size = blob.getSize();
+			result = prime * result + (int) (size ^ (size >>> 32));
+		}
 		result = prime * result + ((url == null) ? 0 : url.hashCode());
 		return result;
 	}
@@ -259,10 +354,56 @@ public abstract class BinaryProperty<T extends MediaTypeParameter> extends VCard
 		if (contentType == null) {
 			if (other.contentType != null) return false;
 		} else if (!contentType.equals(other.contentType)) return false;
-		if (!Arrays.equals(data, other.data)) return false;
+		if (!dataEquals(other)) return false;
 		if (url == null) {
 			if (other.url != null) return false;
 		} else if (!url.equals(other.url)) return false;
 		return true;
 	}
+
+	/**
+	 * <p>
+	 * Compares the binary data of this property with the binary data of
+	 * another property.
+	 * </p>
+	 * <p>
+	 * Data that is stored in a {@link Blob} is compared by content, but only
+	 * to other blobs. A property whose data is stored in a blob is never equal
+	 * to a property whose data is stored in a byte array, even if the bytes
+	 * are the same. This lets {@link #hashCode} hash the contents of byte
+	 * arrays without having to read entire blobs into memory.
+	 * </p>
+	 * @param other the other property
+	 * @return true if the data is the same, false if not
+	 * @throws RuntimeException if there is a problem reading a blob
+	 */
+	private boolean dataEquals(BinaryProperty<?> other) {
+		if (blob == null || other.blob == null) {
+			return blob == other.blob && Arrays.equals(data, other.data);
+		}
+		if (blob == other.blob) {
+			return true;
+		}
+		if (blob.getSize() != other.blob.getSize()) {
+			return false;
+		}
+
+		InputStream in1 = null, in2 = null;
+		try {
+			in1 = new BufferedInputStream(blob.openStream());
+			in2 = new BufferedInputStream(other.blob.openStream());
+			int b;
+			while ((b = in1.read()) != -1) {
+				if (b != in2.read()) {
+					return false;
+				}
+			}
+			return in2.read() == -1;
+		} catch (IOException e) {
+			throw new RuntimeException(e);
+		} finally {
+			IOUtils.closeQuietly(in1);
+			IOUtils.closeQuietly(in2);
+		}
+	}
 }
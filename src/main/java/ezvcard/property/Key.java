@@ -10,6 +10,7 @@ import ezvcard.VCard;
 import ezvcard.VCardVersion;
 import ezvcard.Warning;
 import ezvcard.parameter.KeyType;
+import ezvcard.util.Blob;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -172,6 +173,7 @@ public class Key extends BinaryProperty<KeyType> {
 	public void setText(String text, KeyType type) {
 		this.text = text;
 		data = null;
+		blob = null;
 		url = null;
 		setContentType(type);
 	}
@@ -196,9 +198,15 @@ public class Key extends BinaryProperty<KeyType> {
 		text = null;
 	}
 
+	@Override
+	public void setBlob(Blob blob, KeyType type) {
+		super.setBlob(blob, type);
+		text = null;
+	}
+
 	@Override
 	protected void _validate(List<Warning> warnings, VCardVersion version, VCard vcard) {
-		if (url == null && data == null && text == null) {
+		if (url == null && !hasData() && text == null) {
 			warnings.add(new Warning(8));
 		}
 
@@ -0,0 +1,73 @@
+package ezvcard.property;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Implemented by property objects that hold a property whose value has not
+ * been parsed yet. Readers that parse properties lazily add these objects to
+ * the {@link VCard}, which parses them the first time their class is
+ * accessed.
+ * </p>
+ * <p>
+ * Parsing changes the state of the object, so these objects are not
+ * thread-safe.
+ * </p>
+ * @author Michael Angstadt
+ */
+public interface LazilyParsed {
+	/**
+	 * Gets the class of the property once it is parsed.
+	 * @return the property class
+	 */
+	Class<? extends VCardProperty> getPropertyClass();
+
+	/**
+	 * Gets the version of the vCard that the property was read from.
+	 * @return the version
+	 */
+	VCardVersion getVersion();
+
+	/**
+	 * Determines if {@link #parse} has been called.
+	 * @return true if the property has been parsed, false if not
+	 */
+	boolean isParsed();
+
+	/**
+	 * Parses the property. The result is cached, so the property is only
+	 * parsed once.
+	 * @return the parsed property or null if the property should be discarded
+	 */
+	VCardProperty parse();
+}
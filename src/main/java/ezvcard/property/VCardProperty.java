@@ -18,6 +18,7 @@ import ezvcard.VCardVersion;
 import ezvcard.Warning;
 import ezvcard.parameter.Pid;
 import ezvcard.parameter.VCardParameters;
+import ezvcard.util.SupportedVersionsIndex;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -90,8 +91,7 @@ public abstract class VCardProperty implements Comparable<VCardProperty> {
 	 * @return the vCard versions that support this property.
 	 */
 	public final VCardVersion[] getSupportedVersions() {
-		SupportedVersions supportedVersionsAnnotation = getClass().getAnnotation(SupportedVersions.class);
-		return (supportedVersionsAnnotation == null) ? VCardVersion.values() : supportedVersionsAnnotation.value();
+		return SupportedVersionsIndex.getVersions(getClass());
 	}
 
 	/**
@@ -108,13 +108,7 @@ public abstract class VCardProperty implements Comparable<VCardProperty> {
 	 * @return true if it is supported, false if not
 	 */
 	public final boolean isSupportedBy(VCardVersion version) {
-		VCardVersion supportedVersions[] = getSupportedVersions();
-		for (VCardVersion supportedVersion : supportedVersions) {
-			if (supportedVersion == version) {
-				return true;
-			}
-		}
-		return false;
+		return SupportedVersionsIndex.supports(SupportedVersionsIndex.getMask(getClass()), version);
 	}
 
 	/**
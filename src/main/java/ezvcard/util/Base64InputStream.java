@@ -0,0 +1,174 @@
+package ezvcard.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+
+import ezvcard.util.org.apache.commons.codec.binary.Base64;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Decodes base64-encoded text as it is read. This allows large base64 values to
+ * be decoded without having to hold the entire decoded value in memory.
+ * Characters that are not part of the base64 alphabet (such as whitespace) are
+ * ignored.
+ * @author Michael Angstadt
+ */
+public class Base64InputStream extends InputStream {
+	private final CharSequence base64;
+	private final Reader reader;
+	private final char readBuffer[];
+	private int end;
+	private int pos;
+
+	/*
+	 * The buffer size must be a multiple of 4 so that every chunk (except the
+	 * last) contains complete base64 groups.
+	 */
+	private final char chunk[] = new char[4096];
+	private byte decoded[] = new byte[0];
+	private int decodedPos;
+
+	/*
+	 * Set when a padding character is reached. Like the non-streaming decoder,
+	 * anything after the padding is ignored.
+	 */
+	private boolean padded = false;
+
+	/**
+	 * @param base64 the base64 text
+	 */
+	public Base64InputStream(CharSequence base64) {
+		this(base64, 0, base64.length());
+	}
+
+	/**
+	 * @param base64 the text containing the base64 value
+	 * @param start the index of the first character of the base64 value
+	 * @param end the index after the last character of the base64 value
+	 */
+	public Base64InputStream(CharSequence base64, int start, int end) {
+		this.base64 = base64;
+		this.reader = null;
+		this.readBuffer = null;
+		this.pos = start;
+		this.end = end;
+	}
+
+	/**
+	 * @param reader the base64 text (closed when this stream is closed)
+	 */
+	public Base64InputStream(Reader reader) {
+		this.base64 = null;
+		this.reader = reader;
+		this.readBuffer = new char[4096];
+		this.pos = 0;
+		this.end = 0;
+	}
+
+	@Override
+	public int read() throws IOException {
+		if (decodedPos >= decoded.length && !fill()) {
+			return -1;
+		}
+		return decoded[decodedPos++] & 0xff;
+	}
+
+	@Override
+	public int read(byte b[], int off, int len) throws IOException {
+		if (len == 0) {
+			return 0;
+		}
+
+		if (decodedPos >= decoded.length && !fill()) {
+			return -1;
+		}
+
+		int read = Math.min(len, decoded.length - decodedPos);
+		System.arraycopy(decoded, decodedPos, b, off, read);
+		decodedPos += read;
+		return read;
+	}
+
+	@Override
+	public int available() {
+		return decoded.length - decodedPos;
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (reader != null) {
+			reader.close();
+		}
+	}
+
+	private boolean fill() throws IOException {
+		while (!padded) {
+			int count = 0;
+			int c;
+			while (count < chunk.length && (c = next()) >= 0) {
+				if (c < 128 && Base64.isBase64((byte) c)) {
+					chunk[count++] = (char) c;
+					if (c == '=') {
+						padded = true;
+					}
+				}
+			}
+			if (count == 0) {
+				return false;
+			}
+
+			decoded = Base64.decodeBase64(new String(chunk, 0, count));
+			decodedPos = 0;
+			if (decoded.length > 0) {
+				return true;
+			}
+		}
+
+		return false;
+	}
+
+	private int next() throws IOException {
+		if (reader == null) {
+			return (pos < end) ? base64.charAt(pos++) : -1;
+		}
+
+		while (pos >= end) {
+			int read = reader.read(readBuffer);
+			if (read < 0) {
+				return -1;
+			}
+			pos = 0;
+			end = read;
+		}
+		return readBuffer[pos++];
+	}
+}
@@ -0,0 +1,71 @@
+package ezvcard.util;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Binary data that is stored outside of the Java heap (for example, in a
+ * temporary file). Blobs are used to hold large property values, such as
+ * high-resolution photos, that would otherwise have to be held in memory as a
+ * byte array.
+ * </p>
+ * <p>
+ * Whoever holds a blob owns its data. The data is not released by the blob
+ * or by the property it is assigned to, so {@link #delete} must be called
+ * once the data is no longer needed.
+ * </p>
+ * @author Michael Angstadt
+ * @see BlobSink
+ */
+public interface Blob {
+	/**
+	 * Gets the size of the data.
+	 * @return the size in bytes
+	 */
+	long getSize();
+
+	/**
+	 * Opens a stream for reading the data. The caller is responsible for
+	 * closing the stream.
+	 * @return the input stream
+	 * @throws IOException if there is a problem opening the stream
+	 */
+	InputStream openStream() throws IOException;
+
+	/**
+	 * Releases the data (for example, by deleting the temporary file it is
+	 * stored in). The blob cannot be read after this method is called.
+	 * @throws IOException if there is a problem releasing the data
+	 */
+	void delete() throws IOException;
+}
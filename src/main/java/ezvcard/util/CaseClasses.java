@@ -5,6 +5,12 @@ import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -96,15 +102,32 @@ import java.util.Collections;
  *   }
  * }
  * </pre>
+ * <p>
+ * Lookups are done using a linear search of the {@link #matches matches}
+ * method, unless the implementation defines hash keys (see
+ * {@link #objectKey} and {@link #valueKey}), in which case lookups take
+ * constant time. Lookups never block each other. To prevent untrusted input
+ * from using up memory, at most {@link #MAX_RUNTIME_DEFINED} runtime-defined
+ * objects are retained. Once this limit has been reached, a new object is
+ * returned each time an unknown value is requested.
+ * </p>
  * @author Michael Angstadt
  * 
  * @param <T> the case class
  * @param <V> the value that the class holds (e.g. String)
  */
 public abstract class CaseClasses<T, V> {
+	/**
+	 * The maximum number of runtime-defined objects that will be retained.
+	 */
+	public static final int MAX_RUNTIME_DEFINED = 1000;
+
 	protected final Class<T> clazz;
 	private volatile Collection<T> preDefined = null;
-	private Collection<T> runtimeDefined = null;
+	private Map<Object, T> preDefinedIndex = null;
+	private List<T> preDefinedUnindexed = null;
+	private final ConcurrentMap<Object, T> runtimeDefinedIndex = new ConcurrentHashMap<Object, T>();
+	private final List<T> runtimeDefinedUnindexed = new CopyOnWriteArrayList<T>();
 
 	/**
 	 * Creates a new case class collection.
@@ -129,6 +152,71 @@ public abstract class CaseClasses<T, V> {
 	 */
 	protected abstract boolean matches(T object, V value);
 
+	/**
+	 * <p>
+	 * Gets the hash key of a case object. If {@link #matches matches(object,
+	 * value)} returns true, then this key must be equal to the key returned by
+	 * {@link #valueKey valueKey(value)}.
+	 * </p>
+	 * <p>
+	 * By default, this method returns null, which means that the object will
+	 * be searched for linearly.
+	 * </p>
+	 * @param object the case object
+	 * @return the key or null if the object cannot be indexed
+	 */
+	protected Object objectKey(T object) {
+		return null;
+	}
+
+	/**
+	 * <p>
+	 * Gets the hash key of a value. If this key is equal to the key returned
+	 * by {@link #objectKey objectKey(object)}, then {@link #matches
+	 * matches(object, value)} must return true.
+	 * </p>
+	 * <p>
+	 * By default, this method returns null, which means that a linear search
+	 * will be performed.
+	 * </p>
+	 * @param value the value
+	 * @return the key or null to perform a linear search
+	 */
+	protected Object valueKey(V value) {
+		return null;
+	}
+
+	/**
+	 * Converts a string into a key that can be used to perform
+	 * case-insensitive lookups. Two strings produce equal keys if and only if
+	 * {@link String#equalsIgnoreCase} returns true.
+	 * @param value the string
+	 * @return the key or null if the string is null
+	 */
+	protected static String caseInsensitiveKey(String value) {
+		if (value == null) {
+			return null;
+		}
+
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c != foldCase(c)) {
+				//only create a new string if it contains characters that need to be converted
+				char[] chars = value.toCharArray();
+				for (int j = i; j < chars.length; j++) {
+					chars[j] = foldCase(chars[j]);
+				}
+				return new String(chars);
+			}
+		}
+		return value;
+	}
+
+	private static char foldCase(char c) {
+		//mirrors the character comparison done in String.equalsIgnoreCase()
+		return Character.toLowerCase(Character.toUpperCase(c));
+	}
+
 	/**
 	 * Searches for a case object by value, only looking at the case class'
 	 * static constants (does not search runtime-defined constants).
@@ -138,12 +226,13 @@ public abstract class CaseClasses<T, V> {
 	public T find(V value) {
 		checkInit();
 
-		for (T obj : preDefined) {
-			if (matches(obj, value)) {
-				return obj;
-			}
+		Object key = valueKey(value);
+		if (key == null) {
+			return find(preDefined, value);
 		}
-		return null;
+
+		T found = preDefinedIndex.get(key);
+		return (found == null) ? find(preDefinedUnindexed, value) : found;
 	}
 
 	/**
@@ -158,19 +247,51 @@ public abstract class CaseClasses<T, V> {
 			return found;
 		}
 
-		synchronized (runtimeDefined) {
-			for (T obj : runtimeDefined) {
-				if (matches(obj, value)) {
-					return obj;
-				}
+		Object key = valueKey(value);
+		if (key != null) {
+			found = runtimeDefinedIndex.get(key);
+			if (found != null) {
+				return found;
 			}
 
 			T created = create(value);
-			runtimeDefined.add(created);
+			if (runtimeDefinedIndex.size() >= MAX_RUNTIME_DEFINED) {
+				return created;
+			}
+
+			found = runtimeDefinedIndex.putIfAbsent(key, created);
+			return (found == null) ? created : found;
+		}
+
+		found = find(runtimeDefinedUnindexed, value);
+		if (found != null) {
+			return found;
+		}
+
+		synchronized (runtimeDefinedUnindexed) {
+			//check again, in case another thread added it
+			found = find(runtimeDefinedUnindexed, value);
+			if (found != null) {
+				return found;
+			}
+
+			T created = create(value);
+			if (runtimeDefinedUnindexed.size() < MAX_RUNTIME_DEFINED) {
+				runtimeDefinedUnindexed.add(created);
+			}
 			return created;
 		}
 	}
 
+	private T find(Collection<T> objects, V value) {
+		for (T obj : objects) {
+			if (matches(obj, value)) {
+				return obj;
+			}
+		}
+		return null;
+	}
+
 	/**
 	 * Gets all the static constants of the case class (does not include
 	 * runtime-defined constants).
@@ -202,6 +323,8 @@ public abstract class CaseClasses<T, V> {
 	 */
 	private void init() {
 		Collection<T> preDefined = new ArrayList<T>();
+		Map<Object, T> preDefinedIndex = new HashMap<Object, T>();
+		List<T> preDefinedUnindexed = new ArrayList<T>(0);
 		for (Field field : clazz.getFields()) {
 			if (!isPreDefinedField(field)) {
 				continue;
@@ -212,6 +335,14 @@ public abstract class CaseClasses<T, V> {
 				if (obj != null) {
 					T c = clazz.cast(obj);
 					preDefined.add(c);
+
+					Object key = objectKey(c);
+					if (key == null) {
+						preDefinedUnindexed.add(c);
+					} else if (!preDefinedIndex.containsKey(key)) {
+						//if two constants have the same key, the first one wins, like in a linear search
+						preDefinedIndex.put(key, c);
+					}
 				}
 			} catch (Exception e) {
 				//reflection error
@@ -220,7 +351,10 @@ public abstract class CaseClasses<T, V> {
 			}
 		}
 
-		runtimeDefined = new ArrayList<T>(0);
+		this.preDefinedIndex = preDefinedIndex;
+		this.preDefinedUnindexed = preDefinedUnindexed;
+
+		//assign this last, because it is volatile and marks the initialization as complete
 		this.preDefined = Collections.unmodifiableCollection(preDefined);
 	}
 
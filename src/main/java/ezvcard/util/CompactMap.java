@@ -0,0 +1,329 @@
+package ezvcard.util;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * A {@link Map} implementation that is optimized for holding a small number of
+ * entries. Up to {@value #MAX_INLINE_ENTRIES} entries are stored in a single
+ * array and are looked up with a linear search. When more entries are added,
+ * the map switches over to using a {@link LinkedHashMap}.
+ * </p>
+ * <p>
+ * Like {@link LinkedHashMap}, entries are iterated over in insertion order and
+ * null keys and values are allowed. This class is not thread-safe.
+ * </p>
+ * @author Michael Angstadt
+ * @param <K> the key
+ * @param <V> the value
+ */
+public class CompactMap<K, V> extends AbstractMap<K, V> {
+	/**
+	 * The maximum number of entries that are stored in the array before the
+	 * map switches over to a {@link LinkedHashMap}.
+	 */
+	public static final int MAX_INLINE_ENTRIES = 4;
+
+	/**
+	 * The keys and values (even indexes are keys, odd indexes are values), or
+	 * null if no entries have been added yet.
+	 */
+	private Object[] table;
+
+	/**
+	 * The number of entries in {@link #table}.
+	 */
+	private int size;
+
+	/**
+	 * The map that holds the entries once there are too many of them to store
+	 * in {@link #table}, or null if the map has not been inflated.
+	 */
+	private Map<K, V> inflated;
+
+	/**
+	 * The number of times the map has been structurally modified (used to make
+	 * iterators fail-fast).
+	 */
+	private int modCount;
+
+	/**
+	 * Creates an empty map.
+	 */
+	public CompactMap() {
+		//empty
+	}
+
+	/**
+	 * Creates a map that contains the entries of an existing map.
+	 * @param map the map to copy from
+	 */
+	public CompactMap(Map<? extends K, ? extends V> map) {
+		putAll(map);
+	}
+
+	@Override
+	public int size() {
+		return (inflated == null) ? size : inflated.size();
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size() == 0;
+	}
+
+	@Override
+	public boolean containsKey(Object key) {
+		return (inflated == null) ? indexOf(key) >= 0 : inflated.containsKey(key);
+	}
+
+	@Override
+	public V get(Object key) {
+		if (inflated != null) {
+			return inflated.get(key);
+		}
+
+		int index = indexOf(key);
+		return (index < 0) ? null : valueAt(index);
+	}
+
+	@Override
+	public V put(K key, V value) {
+		if (inflated != null) {
+			return inflated.put(key, value);
+		}
+
+		int index = indexOf(key);
+		if (index >= 0) {
+			V old = valueAt(index);
+			table[index * 2 + 1] = value;
+			return old;
+		}
+
+		if (size == MAX_INLINE_ENTRIES) {
+			inflate();
+			return inflated.put(key, value);
+		}
+
+		int capacity = (table == null) ? 0 : table.length / 2;
+		if (size == capacity) {
+			Object[] newTable = new Object[(capacity == 0) ? 2 : capacity * 4];
+			if (table != null) {
+				System.arraycopy(table, 0, newTable, 0, table.length);
+			}
+			table = newTable;
+		}
+
+		table[size * 2] = key;
+		table[size * 2 + 1] = value;
+		size++;
+		modCount++;
+		return null;
+	}
+
+	@Override
+	public V remove(Object key) {
+		if (inflated != null) {
+			return inflated.remove(key);
+		}
+
+		int index = indexOf(key);
+		if (index < 0) {
+			return null;
+		}
+
+		V old = valueAt(index);
+		removeAt(index);
+		return old;
+	}
+
+	@Override
+	public void clear() {
+		table = null;
+		size = 0;
+		inflated = null;
+		modCount++;
+	}
+
+	@Override
+	public Set<Map.Entry<K, V>> entrySet() {
+		return new EntrySet();
+	}
+
+	private int indexOf(Object key) {
+		for (int i = 0; i < size; i++) {
+			Object k = table[i * 2];
+			if (k == key || (key != null && key.equals(k))) {
+				return i;
+			}
+		}
+		return -1;
+	}
+
+	@SuppressWarnings("unchecked")
+	private K keyAt(int index) {
+		return (K) table[index * 2];
+	}
+
+	@SuppressWarnings("unchecked")
+	private V valueAt(int index) {
+		return (V) table[index * 2 + 1];
+	}
+
+	private void removeAt(int index) {
+		int next = (index + 1) * 2;
+		System.arraycopy(table, next, table, index * 2, size * 2 - next);
+		size--;
+		table[size * 2] = null;
+		table[size * 2 + 1] = null;
+		modCount++;
+	}
+
+	private void inflate() {
+		Map<K, V> map = new LinkedHashMap<K, V>();
+		for (int i = 0; i < size; i++) {
+			map.put(keyAt(i), valueAt(i));
+		}
+
+		inflated = map;
+		table = null;
+		size = 0;
+		modCount++;
+	}
+
+	private class EntrySet extends AbstractSet<Map.Entry<K, V>> {
+		@Override
+		public Iterator<Map.Entry<K, V>> iterator() {
+			return (inflated == null) ? new ArrayIterator() : inflated.entrySet().iterator();
+		}
+
+		@Override
+		public int size() {
+			return CompactMap.this.size();
+		}
+
+		@Override
+		public void clear() {
+			CompactMap.this.clear();
+		}
+	}
+
+	private class ArrayIterator implements Iterator<Map.Entry<K, V>> {
+		private int next = 0;
+		private int last = -1;
+		private int expectedModCount = modCount;
+
+		public boolean hasNext() {
+			return next < size;
+		}
+
+		public Map.Entry<K, V> next() {
+			checkForComodification();
+			if (next >= size) {
+				throw new NoSuchElementException();
+			}
+
+			last = next++;
+			return new ArrayEntry(last);
+		}
+
+		public void remove() {
+			if (last < 0) {
+				throw new IllegalStateException();
+			}
+			checkForComodification();
+
+			removeAt(last);
+			next = last;
+			last = -1;
+			expectedModCount = modCount;
+		}
+
+		private void checkForComodification() {
+			if (modCount != expectedModCount) {
+				throw new ConcurrentModificationException();
+			}
+		}
+	}
+
+	private class ArrayEntry implements Map.Entry<K, V> {
+		private final int index;
+
+		public ArrayEntry(int index) {
+			this.index = index;
+		}
+
+		public K getKey() {
+			return keyAt(index);
+		}
+
+		public V getValue() {
+			return valueAt(index);
+		}
+
+		public V setValue(V value) {
+			V old = valueAt(index);
+			table[index * 2 + 1] = value;
+			return old;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (!(obj instanceof Map.Entry)) return false;
+			Map.Entry<?, ?> other = (Map.Entry<?, ?>) obj;
+			return equals(getKey(), other.getKey()) && equals(getValue(), other.getValue());
+		}
+
+		private boolean equals(Object a, Object b) {
+			return (a == null) ? b == null : a.equals(b);
+		}
+
+		@Override
+		public int hashCode() {
+			K key = getKey();
+			V value = getValue();
+			return ((key == null) ? 0 : key.hashCode()) ^ ((value == null) ? 0 : value.hashCode());
+		}
+
+		@Override
+		public String toString() {
+			return getKey() + "=" + getValue();
+		}
+	}
+}
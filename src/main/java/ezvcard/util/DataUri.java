@@ -1,5 +1,10 @@
 package ezvcard.util;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
 import java.io.UnsupportedEncodingException;
 import java.util.Arrays;
 
@@ -45,6 +50,12 @@ import ezvcard.util.org.apache.commons.codec.binary.Base64;
  * @author Michael Angstadt
  */
 public final class DataUri {
+	/**
+	 * The number of bytes to base64-encode at a time. This is a multiple of 3,
+	 * so that every chunk (except the last) can be encoded without padding.
+	 */
+	private static final int BASE64_CHUNK_SIZE = 3 * 1024;
+
 	private final byte[] data;
 	private final String text;
 	private final String contentType;
@@ -99,76 +110,258 @@ public final class DataUri {
 	public static DataUri parse(String uri) {
 		//Syntax: data:[<media type>][;charset=<character set>][;base64],<data>
 
+		int comma = indexOfComma(uri);
+		Header header = Header.parse(uri, comma);
+		if (!header.base64) {
+			return new DataUri(header.contentType, null, uri.substring(comma + 1));
+		}
+
+		byte[] data = Base64.decodeBase64(uri.substring(comma + 1));
+		if (header.charset == null) {
+			return new DataUri(header.contentType, data, null);
+		}
+		return new DataUri(header.contentType, null, header.decodeText(data));
+	}
+
+	/**
+	 * <p>
+	 * Parses a data URI, decoding its binary data directly to an output stream.
+	 * This allows large values (such as embedded photos) to be decoded without
+	 * holding a copy of the base64 text and a copy of the decoded data in
+	 * memory at the same time.
+	 * </p>
+	 * <p>
+	 * If the data URI contains binary data, the data is written to the given
+	 * stream, and the {@link #getData} and {@link #getText} methods of the
+	 * returned object will both return null. If the data URI contains text,
+	 * nothing is written to the stream and the text is returned as normal.
+	 * </p>
+	 * @param uri the URI string (e.g. "data:image/jpeg;base64,[base64 string]")
+	 * @param out the stream to write the binary data to
+	 * @return the parsed data URI
+	 * @throws IllegalArgumentException if the string is not a valid data URI or
+	 * it cannot be parsed
+	 * @throws IOException if there's a problem writing to the output stream
+	 */
+	public static DataUri parse(CharSequence uri, OutputStream out) throws IOException {
+		int comma = indexOfComma(uri);
+		Header header = Header.parse(uri, comma);
+		return header.decode(new Base64InputStream(uri, comma + 1, uri.length()), uri.subSequence(comma + 1, uri.length()), out);
+	}
+
+	/**
+	 * <p>
+	 * Parses a data URI, decoding its binary data directly to an output stream.
+	 * The data URI is read until the end of the reader is reached. The reader
+	 * is not closed.
+	 * </p>
+	 * <p>
+	 * If the data URI contains binary data, the data is written to the given
+	 * stream, and the {@link #getData} and {@link #getText} methods of the
+	 * returned object will both return null. If the data URI contains text,
+	 * nothing is written to the stream and the text is returned as normal.
+	 * </p>
+	 * @param reader the data URI
+	 * @param out the stream to write the binary data to
+	 * @return the parsed data URI
+	 * @throws IllegalArgumentException if the string is not a valid data URI or
+	 * it cannot be parsed
+	 * @throws IOException if there's a problem reading from the reader or
+	 * writing to the output stream
+	 */
+	public static DataUri parse(Reader reader, OutputStream out) throws IOException {
+		//the header is short, so read it into memory
+		StringBuilder sb = new StringBuilder();
+		int c;
+		while ((c = reader.read()) >= 0) {
+			sb.append((char) c);
+			if (c == ',') {
+				break;
+			}
+		}
+
+		int comma = indexOfComma(sb);
+		Header header = Header.parse(sb, comma);
+		if (header.base64) {
+			return header.decode(new Base64InputStream(reader), null, out);
+		}
+
+		char buffer[] = new char[4096];
+		int read;
+		while ((read = reader.read(buffer)) >= 0) {
+			sb.append(buffer, 0, read);
+		}
+		return header.decode(null, sb.subSequence(comma + 1, sb.length()), out);
+	}
+
+	/**
+	 * Writes a data URI whose binary data is read from a stream. The data is
+	 * base64-encoded as it is read, so it is never held in memory all at
+	 * once. The input stream is not closed.
+	 * @param contentType the content type of the data (e.g. "image/png")
+	 * @param in the binary data
+	 * @param out the destination of the data URI
+	 * @throws IOException if there's a problem reading from the input stream or
+	 * writing to the destination
+	 */
+	public static void write(String contentType, InputStream in, Appendable out) throws IOException {
+		out.append("data:");
+		out.append((contentType == null) ? "" : contentType.toLowerCase());
+		out.append(";base64,");
+		writeBase64(in, out);
+	}
+
+	/**
+	 * Base64-encodes the contents of a stream as it is read. The input stream
+	 * is not closed.
+	 * @param in the binary data
+	 * @param out the destination of the base64 text
+	 * @throws IOException if there's a problem reading from the input stream or
+	 * writing to the destination
+	 */
+	private static void writeBase64(InputStream in, Appendable out) throws IOException {
+		byte buffer[] = new byte[BASE64_CHUNK_SIZE];
+		int length;
+		while ((length = fill(in, buffer)) > 0) {
+			byte chunk[] = buffer;
+			if (length < buffer.length) {
+				chunk = new byte[length];
+				System.arraycopy(buffer, 0, chunk, 0, length);
+			}
+			out.append(Base64.encodeBase64String(chunk));
+		}
+	}
+
+	/**
+	 * Reads from a stream until the buffer is full or the end of the stream is
+	 * reached. The buffer size is a multiple of 3, so every full buffer can be
+	 * base64-encoded without padding.
+	 * @param in the stream
+	 * @param buffer the buffer
+	 * @return the number of bytes read
+	 * @throws IOException if there's a problem reading from the stream
+	 */
+	private static int fill(InputStream in, byte buffer[]) throws IOException {
+		int length = 0;
+		while (length < buffer.length) {
+			int read = in.read(buffer, length, buffer.length - length);
+			if (read < 0) {
+				break;
+			}
+			length += read;
+		}
+		return length;
+	}
+
+	/**
+	 * Checks the scheme of a data URI and finds the comma that separates the
+	 * header from the data.
+	 * @param uri the data URI
+	 * @return the index of the comma
+	 * @throws IllegalArgumentException if the string is not a data URI or it
+	 * does not contain a comma
+	 */
+	private static int indexOfComma(CharSequence uri) {
 		String scheme = "data:";
-		if (uri.length() < scheme.length() || !uri.substring(0, scheme.length()).equalsIgnoreCase(scheme)) {
+		if (uri.length() < scheme.length() || !uri.subSequence(0, scheme.length()).toString().equalsIgnoreCase(scheme)) {
 			//not a data URI
 			throw Messages.INSTANCE.getIllegalArgumentException(18, scheme);
 		}
 
-		String contentType = null;
-		String charset = null;
-		boolean base64 = false;
-		String dataStr = null;
-		int tokenStart = scheme.length();
 		for (int i = scheme.length(); i < uri.length(); i++) {
-			char c = uri.charAt(i);
-
-			if (c == ';') {
-				String token = uri.substring(tokenStart, i);
-				if (contentType == null) {
-					contentType = token.toLowerCase();
-				} else {
-					if (token.toLowerCase().startsWith("charset=")) {
-						int equals = token.indexOf('=');
-						charset = token.substring(equals + 1);
-					} else if ("base64".equalsIgnoreCase(token)) {
-						base64 = true;
-					}
-				}
-				tokenStart = i + 1;
-				continue;
+			if (uri.charAt(i) == ',') {
+				return i;
 			}
+		}
 
-			if (c == ',') {
-				String token = uri.substring(tokenStart, i);
-				if (contentType == null) {
-					contentType = token.toLowerCase();
-				} else {
-					if (token.toLowerCase().startsWith("charset=")) {
-						int equals = token.indexOf('=');
-						charset = token.substring(equals + 1);
-					} else if ("base64".equalsIgnoreCase(token)) {
-						base64 = true;
-					}
+		throw Messages.INSTANCE.getIllegalArgumentException(20);
+	}
+
+	/**
+	 * The part of a data URI that comes before the data.
+	 */
+	private static class Header {
+		private String contentType;
+		private String charset;
+		private boolean base64;
+
+		/**
+		 * Parses the header of a data URI.
+		 * @param uri the data URI
+		 * @param comma the index of the comma that separates the header from the
+		 * data
+		 * @return the parsed header
+		 */
+		public static Header parse(CharSequence uri, int comma) {
+			Header header = new Header();
+			int tokenStart = "data:".length();
+			for (int i = tokenStart; i <= comma; i++) {
+				char c = uri.charAt(i);
+				if (c != ';' && c != ',') {
+					continue;
 				}
 
-				dataStr = uri.substring(i + 1);
-				break;
+				String token = uri.subSequence(tokenStart, i).toString();
+				if (header.contentType == null) {
+					header.contentType = token.toLowerCase();
+				} else if (token.toLowerCase().startsWith("charset=")) {
+					int equals = token.indexOf('=');
+					header.charset = token.substring(equals + 1);
+				} else if ("base64".equalsIgnoreCase(token)) {
+					header.base64 = true;
+				}
+				tokenStart = i + 1;
 			}
+			return header;
 		}
 
-		if (dataStr == null) {
-			throw Messages.INSTANCE.getIllegalArgumentException(20);
+		/**
+		 * Decodes the data of a data URI.
+		 * @param base64 the data as a base64 stream (only read if the data is
+		 * base64-encoded)
+		 * @param text the data as text (only read if the data is not
+		 * base64-encoded)
+		 * @param out the stream to write the binary data to
+		 * @return the data URI
+		 * @throws IOException if there's a problem writing to the output stream
+		 */
+		public DataUri decode(InputStream base64, CharSequence text, OutputStream out) throws IOException {
+			if (!this.base64) {
+				return new DataUri(contentType, null, text.toString());
+			}
+
+			if (charset == null) {
+				copy(base64, out);
+				return new DataUri(contentType, null, null);
+			}
+
+			ByteArrayOutputStream bout = new ByteArrayOutputStream();
+			copy(base64, bout);
+			return new DataUri(contentType, null, decodeText(bout.toByteArray()));
 		}
 
-		String text = null;
-		byte[] data = null;
-		if (base64) {
-			dataStr = dataStr.replaceAll("\\s", "");
-			data = Base64.decodeBase64(dataStr);
-			if (charset != null) {
-				try {
-					text = new String(data, charset);
-				} catch (UnsupportedEncodingException e) {
-					throw new IllegalArgumentException(Messages.INSTANCE.getExceptionMessage(43, charset), e);
-				}
-				data = null;
+		/**
+		 * Decodes a text value that was base64-encoded.
+		 * @param data the decoded bytes
+		 * @return the text
+		 * @throws IllegalArgumentException if the character set is not
+		 * supported
+		 */
+		public String decodeText(byte[] data) {
+			try {
+				return new String(data, charset);
+			} catch (UnsupportedEncodingException e) {
+				throw new IllegalArgumentException(Messages.INSTANCE.getExceptionMessage(43, charset), e);
 			}
-		} else {
-			text = dataStr;
 		}
 
-		return new DataUri(contentType, data, text);
+		private static void copy(InputStream in, OutputStream out) throws IOException {
+			byte buffer[] = new byte[4096];
+			int read;
+			while ((read = in.read(buffer)) >= 0) {
+				out.write(buffer, 0, read);
+			}
+		}
 	}
 
 	/**
@@ -214,14 +407,19 @@ public final class DataUri {
 	 * supported by this JVM
 	 */
 	public String toString(String charset) {
+		if (data != null) {
+			StringBuilder sb = new StringBuilder(contentType.length() + 13 + base64Length(data.length));
+			sb.append("data:").append(contentType);
+			sb.append(";base64,");
+			sb.append(Base64.encodeBase64String(data));
+			return sb.toString();
+		}
+
 		StringBuilder sb = new StringBuilder();
 		sb.append("data:");
 		sb.append(contentType);
 
-		if (data != null) {
-			sb.append(";base64,");
-			sb.append(Base64.encodeBase64String(data));
-		} else if (text != null) {
+		if (text != null) {
 			if (charset == null) {
 				sb.append(',').append(text);
 			} else {
@@ -234,6 +432,7 @@ public final class DataUri {
 
 				sb.append(";charset=").append(charset);
 				sb.append(";base64,");
+				sb.ensureCapacity(sb.length() + base64Length(data.length));
 				sb.append(Base64.encodeBase64String(data));
 			}
 		} else {
@@ -243,6 +442,15 @@ public final class DataUri {
 		return sb.toString();
 	}
 
+	/**
+	 * Calculates the length of a base64 value.
+	 * @param dataLength the length of the binary data
+	 * @return the length of the base64 value
+	 */
+	private static int base64Length(int dataLength) {
+		return (int) ((dataLength + 2L) / 3L * 4L);
+	}
+
 	@Override
 	public int hashCode() {
 		final int prime = 31;
@@ -3,9 +3,8 @@ package ezvcard.util;
 import java.net.URI;
 import java.util.Collections;
 import java.util.LinkedHashMap;
+import java.util.Locale;
 import java.util.Map;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import ezvcard.Messages;
 
@@ -71,28 +70,16 @@ public final class GeoUri {
 	 * The characters which are allowed to exist un-encoded inside of a
 	 * parameter value.
 	 */
-	private static final boolean validParameterValueCharacters[] = new boolean[128];
-	static {
-		for (int i = '0'; i <= '9'; i++) {
-			validParameterValueCharacters[i] = true;
-		}
-		for (int i = 'A'; i <= 'Z'; i++) {
-			validParameterValueCharacters[i] = true;
-		}
-		for (int i = 'a'; i <= 'z'; i++) {
-			validParameterValueCharacters[i] = true;
-		}
-		String s = "!$&'()*+-.:[]_~";
-		for (int i = 0; i < s.length(); i++) {
-			char c = s.charAt(i);
-			validParameterValueCharacters[c] = true;
-		}
-	}
+	private static final boolean validParameterValueCharacters[] = UriParameterCodec.validCharacters("!$&'()*+-.:[]_~");
+
+	private static final int DEFAULT_DECIMALS = 6;
 
 	/**
-	 * Finds hex values in a parameter value.
+	 * Formats floating point values when the default number of decimals is
+	 * used. {@link java.text.DecimalFormat} is not thread-safe, so each thread
+	 * gets its own instance.
 	 */
-	private static final Pattern hexPattern = Pattern.compile("(?i)%([0-9a-f]{2})");
+	private static final ThreadLocal<CachedFormatter> defaultFormatter = new ThreadLocal<CachedFormatter>();
 
 	private static final String PARAM_CRS = "crs";
 	private static final String PARAM_UNCERTAINTY = "u";
@@ -129,85 +116,98 @@ public final class GeoUri {
 		}
 
 		Builder builder = new Builder(null, null);
-		ClearableStringBuilder buffer = new ClearableStringBuilder();
-		String paramName = null;
-		boolean coordinatesDone = false;
-		for (int i = scheme.length(); i < uri.length(); i++) {
-			char c = uri.charAt(i);
-
-			if (c == ',' && !coordinatesDone) {
-				handleEndOfCoordinate(buffer, builder);
-				continue;
-			}
+		int length = uri.length();
 
-			if (c == ';') {
-				if (coordinatesDone) {
-					handleEndOfParameter(buffer, paramName, builder);
-					paramName = null;
-				} else {
-					handleEndOfCoordinate(buffer, builder);
-					if (builder.coordB == null) {
-						throw Messages.INSTANCE.getIllegalArgumentException(21);
-					}
-					coordinatesDone = true;
-				}
-				continue;
-			}
+		int semicolon = uri.indexOf(';', scheme.length());
+		if (semicolon < 0) {
+			semicolon = length;
+		}
 
-			if (c == '=' && coordinatesDone && paramName == null) {
-				paramName = buffer.getAndClear();
-				continue;
+		int start = scheme.length();
+		while (true) {
+			int comma = uri.indexOf(',', start);
+			int end = (comma < 0 || comma > semicolon) ? semicolon : comma;
+			parseCoordinate(uri, start, end, builder);
+			if (end == semicolon) {
+				break;
 			}
-
-			buffer.append(c);
+			start = end + 1;
+		}
+		if (builder.coordB == null) {
+			throw Messages.INSTANCE.getIllegalArgumentException(21);
 		}
 
-		if (coordinatesDone) {
-			handleEndOfParameter(buffer, paramName, builder);
-		} else {
-			handleEndOfCoordinate(buffer, builder);
-			if (builder.coordB == null) {
-				throw Messages.INSTANCE.getIllegalArgumentException(21);
+		start = semicolon + 1;
+		while (start <= length) {
+			int end = uri.indexOf(';', start);
+			if (end < 0) {
+				end = length;
 			}
+			parseParameter(uri, start, end, builder);
+			start = end + 1;
 		}
 
 		return builder.build();
 	}
 
-	private static void handleEndOfCoordinate(ClearableStringBuilder buffer, Builder builder) {
-		String s = buffer.getAndClear();
-
+	/**
+	 * Parses one of the coordinates. Coordinates after the third one are
+	 * ignored.
+	 * @param uri the URI string
+	 * @param start the index where the coordinate starts
+	 * @param end the index after the last character of the coordinate
+	 * @param builder the builder to assign the coordinate to
+	 */
+	private static void parseCoordinate(String uri, int start, int end, Builder builder) {
+		String name;
 		if (builder.coordA == null) {
-			try {
-				builder.coordA = Double.parseDouble(s);
-			} catch (NumberFormatException e) {
-				throw new IllegalArgumentException(Messages.INSTANCE.getExceptionMessage(22, "A"), e);
-			}
+			name = "A";
+		} else if (builder.coordB == null) {
+			name = "B";
+		} else if (builder.coordC == null) {
+			name = "C";
+		} else {
 			return;
 		}
 
-		if (builder.coordB == null) {
-			try {
-				builder.coordB = Double.parseDouble(s);
-			} catch (NumberFormatException e) {
-				throw new IllegalArgumentException(Messages.INSTANCE.getExceptionMessage(22, "B"), e);
-			}
-			return;
+		double value;
+		try {
+			value = Double.parseDouble(uri.substring(start, end));
+		} catch (NumberFormatException e) {
+			throw new IllegalArgumentException(Messages.INSTANCE.getExceptionMessage(22, name), e);
 		}
 
-		if (builder.coordC == null) {
-			try {
-				builder.coordC = Double.parseDouble(s);
-			} catch (NumberFormatException e) {
-				throw new IllegalArgumentException(Messages.INSTANCE.getExceptionMessage(22, "C"), e);
+		if (builder.coordA == null) {
+			builder.coordA = value;
+		} else if (builder.coordB == null) {
+			builder.coordB = value;
+		} else {
+			builder.coordC = value;
+		}
+	}
+
+	/**
+	 * Parses a "name=value" parameter.
+	 * @param uri the URI string
+	 * @param start the index where the parameter starts
+	 * @param end the index after the last character of the parameter
+	 * @param builder the builder to add the parameter to
+	 */
+	private static void parseParameter(String uri, int start, int end, Builder builder) {
+		int equals = uri.indexOf('=', start);
+		if (equals < 0 || equals >= end) {
+			if (end > start) {
+				addParameter(uri.substring(start, end), "", builder);
 			}
 			return;
 		}
+
+		String name = uri.substring(start, equals);
+		String value = UriParameterCodec.decode(uri, equals + 1, end);
+		addParameter(name, value, builder);
 	}
 
 	private static void addParameter(String name, String value, Builder builder) {
-		value = decodeParameterValue(value);
-
 		if (PARAM_CRS.equalsIgnoreCase(name)) {
 			builder.crs = value;
 			return;
@@ -225,19 +225,6 @@ public final class GeoUri {
 		builder.parameters.put(name, value);
 	}
 
-	private static void handleEndOfParameter(ClearableStringBuilder buffer, String paramName, Builder builder) {
-		String s = buffer.getAndClear();
-
-		if (paramName == null) {
-			if (s.length() > 0) {
-				addParameter(s, "", builder);
-			}
-			return;
-		}
-
-		addParameter(paramName, s, builder);
-	}
-
 	/**
 	 * Gets the first coordinate (latitude).
 	 * @return the first coordinate or null if there is none
@@ -310,7 +297,7 @@ public final class GeoUri {
 	 */
 	@Override
 	public String toString() {
-		return toString(6);
+		return toString(defaultFormatter());
 	}
 
 	/**
@@ -320,7 +307,27 @@ public final class GeoUri {
 	 * @return the geo URI's string representation
 	 */
 	public String toString(int decimals) {
-		VCardFloatFormatter formatter = new VCardFloatFormatter(decimals);
+		VCardFloatFormatter formatter = (decimals == DEFAULT_DECIMALS) ? defaultFormatter() : new VCardFloatFormatter(decimals);
+		return toString(formatter);
+	}
+
+	/**
+	 * Gets this thread's formatter for the default number of decimals. A new
+	 * formatter is created if the default locale has changed, since the
+	 * formatter's symbols depend on it.
+	 * @return the formatter
+	 */
+	private static VCardFloatFormatter defaultFormatter() {
+		Locale locale = Locale.getDefault();
+		CachedFormatter cached = defaultFormatter.get();
+		if (cached == null || !cached.locale.equals(locale)) {
+			cached = new CachedFormatter(locale, new VCardFloatFormatter(DEFAULT_DECIMALS));
+			defaultFormatter.set(cached);
+		}
+		return cached.formatter;
+	}
+
+	private String toString(VCardFloatFormatter formatter) {
 		StringBuilder sb = new StringBuilder("geo:");
 
 		sb.append(formatter.format(coordA));
@@ -357,58 +364,8 @@ public final class GeoUri {
 	 * @param sb the string to write to
 	 */
 	private void writeParameter(String name, String value, StringBuilder sb) {
-		sb.append(';').append(name).append('=').append(encodeParameterValue(value));
-	}
-
-	/**
-	 * Encodes a string for safe inclusion in a parameter value.
-	 * @param value the string to encode
-	 * @return the encoded value
-	 */
-	private static String encodeParameterValue(String value) {
-		StringBuilder sb = null;
-		for (int i = 0; i < value.length(); i++) {
-			char c = value.charAt(i);
-			if (c < validParameterValueCharacters.length && validParameterValueCharacters[c]) {
-				if (sb != null) {
-					sb.append(c);
-				}
-			} else {
-				if (sb == null) {
-					sb = new StringBuilder(value.length() * 2);
-					sb.append(value.substring(0, i));
-				}
-				String hex = Integer.toString(c, 16);
-				sb.append('%').append(hex);
-			}
-		}
-		return (sb == null) ? value : sb.toString();
-	}
-
-	/**
-	 * Decodes escaped characters in a parameter value.
-	 * @param value the parameter value
-	 * @return the decoded value
-	 */
-	private static String decodeParameterValue(String value) {
-		Matcher m = hexPattern.matcher(value);
-		StringBuffer sb = null;
-
-		while (m.find()) {
-			if (sb == null) {
-				sb = new StringBuffer(value.length());
-			}
-
-			int hex = Integer.parseInt(m.group(1), 16);
-			m.appendReplacement(sb, Character.toString((char) hex));
-		}
-
-		if (sb == null) {
-			return value;
-		}
-
-		m.appendTail(sb);
-		return sb.toString();
+		sb.append(';').append(name).append('=');
+		UriParameterCodec.encode(value, validParameterValueCharacters, sb);
 	}
 
 	@Override
@@ -458,6 +415,16 @@ public final class GeoUri {
 		return true;
 	}
 
+	private static class CachedFormatter {
+		private final Locale locale;
+		private final VCardFloatFormatter formatter;
+
+		public CachedFormatter(Locale locale, VCardFloatFormatter formatter) {
+			this.locale = locale;
+			this.formatter = formatter;
+		}
+	}
+
 	/**
 	 * Builder class for {@link GeoUri}.
 	 * @author Michael Angstadt
@@ -469,7 +436,7 @@ public final class GeoUri {
 		private String crs;
 		private Double uncertainty;
 		private Map<String, String> parameters;
-		private CharacterBitSet validParamChars = new CharacterBitSet("a-zA-Z0-9-");
+		private static final CharacterBitSet validParamChars = new CharacterBitSet("a-zA-Z0-9-");
 
 		/**
 		 * Creates a new {@link GeoUri} builder.
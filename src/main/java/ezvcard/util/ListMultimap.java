@@ -11,6 +11,7 @@ import java.util.List;
 import java.util.ListIterator;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.NoSuchElementException;
 import java.util.Set;
 
 /*
@@ -287,6 +288,25 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 		return Collections.unmodifiableList(list);
 	}
 
+	/**
+	 * <p>
+	 * Gets a live view of all the values in the multimap. Unlike
+	 * {@link #values}, the values are not copied into a new list, so this
+	 * method is suitable for iterating over the values in performance-critical
+	 * code.
+	 * </p>
+	 * <p>
+	 * The values are returned in the same order as {@link #values}. The view
+	 * cannot be used to modify the multimap. If the multimap is modified while
+	 * the view is being iterated over, the iterator will throw a
+	 * {@link ConcurrentModificationException}.
+	 * </p>
+	 * @return the values (this collection is immutable)
+	 */
+	public Collection<V> valuesView() {
+		return new ValuesView();
+	}
+
 	/**
 	 * Determines if the multimap is empty or not.
 	 * @return true if it's empty, false if not
@@ -397,6 +417,51 @@ public class ListMultimap<K, V> implements Iterable<Map.Entry<K, List<V>>> {
 		return map.equals(other.map);
 	}
 
+	/**
+	 * A read-only view of all the values in the multimap.
+	 * @see ListMultimap#valuesView
+	 */
+	private class ValuesView extends AbstractCollection<V> {
+		@Override
+		public Iterator<V> iterator() {
+			final Iterator<List<V>> lists = map.values().iterator();
+			return new Iterator<V>() {
+				private Iterator<V> values;
+
+				public boolean hasNext() {
+					while (values == null || !values.hasNext()) {
+						if (!lists.hasNext()) {
+							return false;
+						}
+						values = lists.next().iterator();
+					}
+					return true;
+				}
+
+				public V next() {
+					if (!hasNext()) {
+						throw new NoSuchElementException();
+					}
+					return values.next();
+				}
+
+				public void remove() {
+					throw new UnsupportedOperationException();
+				}
+			};
+		}
+
+		@Override
+		public int size() {
+			return ListMultimap.this.size();
+		}
+
+		@Override
+		public boolean isEmpty() {
+			return ListMultimap.this.isEmpty();
+		}
+	}
+
 	/**
 	 * Note: This class is a modified version of the
 	 * "AbstractMapBasedMultimap.WrappedList" class from the <a
@@ -2,9 +2,6 @@ package ezvcard.util;
 
 import java.text.DecimalFormat;
 import java.text.NumberFormat;
-import java.util.Arrays;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import ezvcard.Messages;
 
@@ -63,49 +60,32 @@ import ezvcard.Messages;
  * @author Michael Angstadt
  */
 public final class PartialDate {
-	private static final int YEAR = 0;
-	private static final int MONTH = 1;
-	private static final int DATE = 2;
-	private static final int HOUR = 3;
-	private static final int MINUTE = 4;
-	private static final int SECOND = 5;
-	private static final int TIMEZONE_HOUR = 6;
-	private static final int TIMEZONE_MINUTE = 7;
-
-	//@formatter:off
-	private static final Format dateFormats[] = new Format[] {
-		new Format("(\\d{4})", YEAR),
-		new Format("(\\d{4})-(\\d{2})", YEAR, MONTH),
-		new Format("(\\d{4})-?(\\d{2})-?(\\d{2})", YEAR, MONTH, DATE),
-		new Format("--(\\d{2})-?(\\d{2})", MONTH, DATE),
-		new Format("--(\\d{2})", MONTH),
-		new Format("---(\\d{2})", DATE)
-	};
-	//@formatter:on
-
-	private static final String timezoneRegex = "(([-+]\\d{1,2}):?(\\d{2})?)?";
-
-	//@formatter:off
-	private static final Format timeFormats[] = new Format[] {
-		new Format("(\\d{2})" + timezoneRegex, HOUR, null, TIMEZONE_HOUR, TIMEZONE_MINUTE),
-		new Format("(\\d{2}):?(\\d{2})" + timezoneRegex, HOUR, MINUTE, null, TIMEZONE_HOUR, TIMEZONE_MINUTE),
-		new Format("(\\d{2}):?(\\d{2}):?(\\d{2})" + timezoneRegex, HOUR, MINUTE, SECOND, null, TIMEZONE_HOUR, TIMEZONE_MINUTE),
-		new Format("-(\\d{2}):?(\\d{2})" + timezoneRegex, MINUTE, SECOND, null, TIMEZONE_HOUR, TIMEZONE_MINUTE),
-		new Format("-(\\d{2})" + timezoneRegex, MINUTE, null, TIMEZONE_HOUR, TIMEZONE_MINUTE),
-		new Format("--(\\d{2})" + timezoneRegex, SECOND, null, TIMEZONE_HOUR, TIMEZONE_MINUTE)
-	};
-	//@formatter:on
-
-	private final Integer[] components;
+	private static final int YEAR = 1;
+	private static final int MONTH = 1 << 1;
+	private static final int DATE = 1 << 2;
+	private static final int HOUR = 1 << 3;
+	private static final int MINUTE = 1 << 4;
+	private static final int SECOND = 1 << 5;
+
+	/**
+	 * Bit flags that record which of the date/time components are set.
+	 */
+	private final int components;
+	private final int year, month, date, hour, minute, second;
 	private final UtcOffset offset;
 
 	/**
-	 * @param components the date/time components array
-	 * @param offset the UTC offset or null if not set
+	 * @param builder the builder to copy the components from
 	 */
-	private PartialDate(Integer[] components, UtcOffset offset) {
-		this.components = components;
-		this.offset = offset;
+	private PartialDate(Builder builder) {
+		components = builder.components;
+		year = builder.year;
+		month = builder.month;
+		date = builder.date;
+		hour = builder.hour;
+		minute = builder.minute;
+		second = builder.second;
+		offset = builder.offset;
 	}
 
 	/**
@@ -133,27 +113,21 @@ public final class PartialDate {
 	 * string
 	 */
 	public static PartialDate parse(String string) {
+		int length = string.length();
 		int t = string.indexOf('T');
-		String beforeT, afterT;
-		if (t < 0) {
-			beforeT = string;
-			afterT = null;
-		} else {
-			beforeT = string.substring(0, t);
-			afterT = (t < string.length() - 1) ? string.substring(t + 1) : null;
-		}
 
 		Builder builder = new Builder();
 		boolean success;
-		if (afterT == null) {
+		if (t < 0 || t == length - 1) {
 			//date or time
-			success = parseDate(beforeT, builder) || parseTime(beforeT, builder);
-		} else if (beforeT.length() == 0) {
+			int end = (t < 0) ? length : t;
+			success = parseDate(string, 0, end, builder) || parseTime(string, 0, end, builder);
+		} else if (t == 0) {
 			//time
-			success = parseTime(afterT, builder);
+			success = parseTime(string, 1, length, builder);
 		} else {
 			//date and time
-			success = parseDate(beforeT, builder) && parseTime(afterT, builder);
+			success = parseDate(string, 0, t, builder) && parseTime(string, t + 1, length, builder);
 		}
 
 		if (!success) {
@@ -162,21 +136,326 @@ public final class PartialDate {
 		return builder.build();
 	}
 
-	private static boolean parseDate(String value, Builder builder) {
-		return parseFormats(value, builder, dateFormats);
-	}
+	/**
+	 * Parses the date portion of a partial date string. The builder is only
+	 * modified if parsing succeeds.
+	 * @param s the string
+	 * @param start the index of the first character of the date portion
+	 * @param end the index after the last character of the date portion
+	 * @param builder the builder to populate
+	 * @return true if the string is one of the supported date formats, false
+	 * if not
+	 */
+	private static boolean parseDate(String s, int start, int end, Builder builder) {
+		end = trimLineTerminator(s, start, end);
+
+		if (isDigit(s, start, end) && isDigit(s, start + 1, end)) {
+			//"YYYY", "YYYY-MM", "YYYYMMDD", "YYYY-MM-DD"
+			int year = digits(s, start, end, 4);
+			if (year < 0) {
+				return false;
+			}
+
+			int i = start + 4;
+			if (i == end) {
+				builder.set(YEAR, year);
+				return true;
+			}
+
+			boolean dash = (s.charAt(i) == '-');
+			if (dash) {
+				i++;
+			}
+
+			int month = digits(s, i, end, 2);
+			if (month < 0) {
+				return false;
+			}
+			i += 2;
+
+			if (i == end) {
+				if (!dash) {
+					return false;
+				}
+				builder.set(YEAR, year).set(MONTH, month);
+				return true;
+			}
+
+			if (s.charAt(i) == '-') {
+				i++;
+			}
+
+			int date = digits(s, i, end, 2);
+			if (date < 0 || i + 2 != end) {
+				return false;
+			}
+
+			builder.set(YEAR, year).set(MONTH, month).set(DATE, date);
+			return true;
+		}
+
+		if (charAt(s, start, end) != '-' || charAt(s, start + 1, end) != '-') {
+			return false;
+		}
+
+		if (charAt(s, start + 2, end) == '-') {
+			//"---DD"
+			int date = digits(s, start + 3, end, 2);
+			if (date < 0 || start + 5 != end) {
+				return false;
+			}
+
+			builder.set(DATE, date);
+			return true;
+		}
+
+		//"--MM", "--MMDD", "--MM-DD"
+		int month = digits(s, start + 2, end, 2);
+		if (month < 0) {
+			return false;
+		}
+
+		int i = start + 4;
+		if (i == end) {
+			builder.set(MONTH, month);
+			return true;
+		}
+
+		if (s.charAt(i) == '-') {
+			i++;
+		}
+
+		int date = digits(s, i, end, 2);
+		if (date < 0 || i + 2 != end) {
+			return false;
+		}
 
-	private static boolean parseTime(String value, Builder builder) {
-		return parseFormats(value, builder, timeFormats);
+		builder.set(MONTH, month).set(DATE, date);
+		return true;
 	}
 
-	private static boolean parseFormats(String value, Builder builder, Format formats[]) {
-		for (Format regex : formats) {
-			if (regex.parse(builder, value)) {
+	/**
+	 * Parses the time portion of a partial date string. The builder is only
+	 * modified if parsing succeeds.
+	 * @param s the string
+	 * @param start the index of the first character of the time portion
+	 * @param end the index after the last character of the time portion
+	 * @param builder the builder to populate
+	 * @return true if the string is one of the supported time formats, false
+	 * if not
+	 */
+	private static boolean parseTime(String s, int start, int end, Builder builder) {
+		end = trimLineTerminator(s, start, end);
+
+		/*
+		 * Since the UTC offset may begin with a dash, the formats are tried in
+		 * a fixed order. The first one whose components and UTC offset account
+		 * for the entire string wins.
+		 */
+		if (charAt(s, start, end) == '-') {
+			if (charAt(s, start + 1, end) == '-') {
+				//"--SS"
+				int second = digits(s, start + 2, end, 2);
+				if (second < 0 || !parseOffset(s, start + 4, end, builder)) {
+					return false;
+				}
+
+				builder.set(SECOND, second);
+				return true;
+			}
+
+			int minute = digits(s, start + 1, end, 2);
+			if (minute < 0) {
+				return false;
+			}
+
+			//"-MMSS", "-MM:SS"
+			int i = start + 3;
+			if (charAt(s, i, end) == ':') {
+				i++;
+			}
+			int second = digits(s, i, end, 2);
+			if (second >= 0 && parseOffset(s, i + 2, end, builder)) {
+				builder.set(MINUTE, minute).set(SECOND, second);
+				return true;
+			}
+
+			//"-MM"
+			if (parseOffset(s, start + 3, end, builder)) {
+				builder.set(MINUTE, minute);
 				return true;
 			}
+
+			return false;
+		}
+
+		//"HH"
+		int hour = digits(s, start, end, 2);
+		if (hour < 0) {
+			return false;
+		}
+
+		int i = start + 2;
+		if (parseOffset(s, i, end, builder)) {
+			builder.set(HOUR, hour);
+			return true;
+		}
+
+		//"HHMM", "HH:MM"
+		if (charAt(s, i, end) == ':') {
+			i++;
+		}
+		int minute = digits(s, i, end, 2);
+		if (minute < 0) {
+			return false;
+		}
+
+		i += 2;
+		if (parseOffset(s, i, end, builder)) {
+			builder.set(HOUR, hour).set(MINUTE, minute);
+			return true;
+		}
+
+		//"HHMMSS", "HH:MM:SS"
+		if (charAt(s, i, end) == ':') {
+			i++;
+		}
+		int second = digits(s, i, end, 2);
+		if (second < 0 || !parseOffset(s, i + 2, end, builder)) {
+			return false;
+		}
+
+		builder.set(HOUR, hour).set(MINUTE, minute).set(SECOND, second);
+		return true;
+	}
+
+	/**
+	 * Parses the optional UTC offset at the end of a time string (e.g.
+	 * "-05", "+0530", "-05:30"). The builder is only modified if a UTC offset
+	 * is present and parsing succeeds.
+	 * @param s the string
+	 * @param start the index where the UTC offset starts
+	 * @param end the index after the last character of the time string
+	 * @param builder the builder to populate
+	 * @return true if the rest of the string is empty or is a valid UTC
+	 * offset, false if not
+	 */
+	private static boolean parseOffset(String s, int start, int end, Builder builder) {
+		if (start == end) {
+			return true;
+		}
+
+		char sign = s.charAt(start);
+		if (sign != '+' && sign != '-') {
+			return false;
+		}
+
+		int i = start + 1;
+		int digitsStart = i;
+		while (isDigit(s, i, end)) {
+			i++;
+		}
+		int digitCount = i - digitsStart;
+
+		int hour, minute;
+		if (i == end) {
+			//the hour is given one or two digits, the minute two digits
+			switch (digitCount) {
+			case 1:
+			case 2:
+				hour = digits(s, digitsStart, end, digitCount);
+				minute = 0;
+				break;
+			case 3:
+			case 4:
+				hour = digits(s, digitsStart, end, digitCount - 2);
+				minute = digits(s, i - 2, end, 2);
+				break;
+			default:
+				return false;
+			}
+		} else {
+			if (digitCount < 1 || digitCount > 2 || s.charAt(i) != ':') {
+				return false;
+			}
+
+			hour = digits(s, digitsStart, end, digitCount);
+			i++;
+			if (i == end) {
+				minute = 0;
+			} else {
+				minute = digits(s, i, end, 2);
+				if (minute < 0 || i + 2 != end) {
+					return false;
+				}
+			}
+		}
+
+		builder.offset = new UtcOffset(sign == '+', hour, minute);
+		return true;
+	}
+
+	/**
+	 * Gets the character at the given index.
+	 * @param s the string
+	 * @param i the index
+	 * @param end the index after the last character that can be read
+	 * @return the character or zero if the index is out of bounds
+	 */
+	private static char charAt(String s, int i, int end) {
+		return (i < end) ? s.charAt(i) : 0;
+	}
+
+	private static boolean isDigit(String s, int i, int end) {
+		char c = charAt(s, i, end);
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Parses a fixed-length run of digits.
+	 * @param s the string
+	 * @param start the index of the first digit
+	 * @param end the index after the last character that can be read
+	 * @param count the number of digits
+	 * @return the parsed number or -1 if the characters are not all digits
+	 */
+	private static int digits(String s, int start, int end, int count) {
+		int value = 0;
+		for (int i = start; i < start + count; i++) {
+			if (!isDigit(s, i, end)) {
+				return -1;
+			}
+			value = value * 10 + (s.charAt(i) - '0');
+		}
+		return value;
+	}
+
+	/**
+	 * Excludes a single trailing line terminator from the given range. This
+	 * preserves the behavior of the regular expressions that were previously
+	 * used to parse partial dates, whose "$" anchor matched before a final
+	 * line terminator.
+	 * @param s the string
+	 * @param start the start of the range
+	 * @param end the end of the range
+	 * @return the new end of the range
+	 */
+	private static int trimLineTerminator(String s, int start, int end) {
+		if (end == start) {
+			return end;
+		}
+
+		switch (s.charAt(end - 1)) {
+		case '\n':
+			return (end - 2 >= start && s.charAt(end - 2) == '\r') ? end - 2 : end - 1;
+		case '\r':
+		case '\u0085':
+		case '\u2028':
+		case '\u2029':
+			return end - 1;
+		default:
+			return end;
 		}
-		return false;
 	}
 
 	/**
@@ -184,7 +463,7 @@ public final class PartialDate {
 	 * @return the year component or null if not set
 	 */
 	public Integer getYear() {
-		return components[YEAR];
+		return hasYear() ? year : null;
 	}
 
 	/**
@@ -192,7 +471,7 @@ public final class PartialDate {
 	 * @return true if the component is set, false if not
 	 */
 	private boolean hasYear() {
-		return getYear() != null;
+		return has(YEAR);
 	}
 
 	/**
@@ -200,7 +479,7 @@ public final class PartialDate {
 	 * @return the month component or null if not set
 	 */
 	public Integer getMonth() {
-		return components[MONTH];
+		return hasMonth() ? month : null;
 	}
 
 	/**
@@ -208,7 +487,7 @@ public final class PartialDate {
 	 * @return true if the component is set, false if not
 	 */
 	private boolean hasMonth() {
-		return getMonth() != null;
+		return has(MONTH);
 	}
 
 	/**
@@ -216,7 +495,7 @@ public final class PartialDate {
 	 * @return the date component or null if not set
 	 */
 	public Integer getDate() {
-		return components[DATE];
+		return hasDate() ? date : null;
 	}
 
 	/**
@@ -224,7 +503,7 @@ public final class PartialDate {
 	 * @return true if the component is set, false if not
 	 */
 	private boolean hasDate() {
-		return getDate() != null;
+		return has(DATE);
 	}
 
 	/**
@@ -232,7 +511,7 @@ public final class PartialDate {
 	 * @return the hour component or null if not set
 	 */
 	public Integer getHour() {
-		return components[HOUR];
+		return hasHour() ? hour : null;
 	}
 
 	/**
@@ -240,7 +519,7 @@ public final class PartialDate {
 	 * @return true if the component is set, false if not
 	 */
 	private boolean hasHour() {
-		return getHour() != null;
+		return has(HOUR);
 	}
 
 	/**
@@ -248,7 +527,7 @@ public final class PartialDate {
 	 * @return the minute component or null if not set
 	 */
 	public Integer getMinute() {
-		return components[MINUTE];
+		return hasMinute() ? minute : null;
 	}
 
 	/**
@@ -256,7 +535,7 @@ public final class PartialDate {
 	 * @return true if the component is set, false if not
 	 */
 	private boolean hasMinute() {
-		return getMinute() != null;
+		return has(MINUTE);
 	}
 
 	/**
@@ -264,7 +543,7 @@ public final class PartialDate {
 	 * @return the second component or null if not set
 	 */
 	public Integer getSecond() {
-		return components[SECOND];
+		return hasSecond() ? second : null;
 	}
 
 	/**
@@ -272,9 +551,15 @@ public final class PartialDate {
 	 * @return true if the component is set, false if not
 	 */
 	private boolean hasSecond() {
-		return getSecond() != null;
+		return has(SECOND);
+	}
+
+	private boolean has(int component) {
+		return (components & component) != 0;
 	}
 
+	
+
 	/**
 	 * Gets the UTC offset.
 	 * @return the UTC offset or null if not set
@@ -377,7 +662,13 @@ public final class PartialDate {
 	public int hashCode() {
 		final int prime = 31;
 		int result = 1;
-		result = prime * result + Arrays.hashCode(components);
+		result = prime * result + components;
+		result = prime * result + year;
+		result = prime * result + month;
+		result = prime * result + date;
+		result = prime * result + hour;
+		result = prime * result + minute;
+		result = prime * result + second;
 		result = prime * result + ((offset == null) ? 0 : offset.hashCode());
 		return result;
 	}
@@ -388,7 +679,13 @@ public final class PartialDate {
 		if (obj == null) return false;
 		if (getClass() != obj.getClass()) return false;
 		PartialDate other = (PartialDate) obj;
-		if (!Arrays.equals(components, other.components)) return false;
+		if (components != other.components) return false;
+		if (year != other.year) return false;
+		if (month != other.month) return false;
+		if (date != other.date) return false;
+		if (hour != other.hour) return false;
+		if (minute != other.minute) return false;
+		if (second != other.second) return false;
 		if (offset == null) {
 			if (other.offset != null) return false;
 		} else if (!offset.equals(other.offset)) return false;
@@ -400,93 +697,30 @@ public final class PartialDate {
 		return toISO8601(true);
 	}
 
-	/**
-	 * Represents a string format that a partial date can be in.
-	 */
-	private static class Format {
-		private Pattern regex;
-		private Integer[] componentIndexes;
-
-		/**
-		 * @param regex the regular expression that describes the format
-		 * @param componentIndexes the indexes of the
-		 * {@link PartialDate#components} array to assign the value of each
-		 * regex group to, or -1 to ignore the group
-		 */
-		public Format(String regex, Integer... componentIndexes) {
-			this.regex = Pattern.compile('^' + regex + '$');
-			this.componentIndexes = componentIndexes;
-		}
-
-		/**
-		 * Tries to parse a given string.
-		 * @param components the date/time components array
-		 * @param value the string
-		 * @return true if the string was successfully parsed, false if not
-		 */
-		public boolean parse(Builder builder, String value) {
-			Matcher m = regex.matcher(value);
-			if (!m.find()) {
-				return false;
-			}
-
-			boolean offsetPositive = false;
-			Integer offsetHour = null, offsetMinute = null;
-			for (int i = 0; i < componentIndexes.length; i++) {
-				Integer index = componentIndexes[i];
-				if (index == null) {
-					continue;
-				}
-
-				int group = i + 1;
-				String groupStr = m.group(group);
-				if (groupStr != null) {
-					boolean startsWithPlus = groupStr.startsWith("+");
-					if (startsWithPlus) {
-						groupStr = groupStr.substring(1);
-					}
-
-					int component = Integer.parseInt(groupStr);
-					if (index == TIMEZONE_HOUR) {
-						offsetHour = component;
-						offsetPositive = startsWithPlus;
-						continue;
-					}
-					if (index == TIMEZONE_MINUTE) {
-						offsetMinute = component;
-						continue;
-					}
-					builder.components[index] = component;
-				}
-			}
-
-			if (offsetHour != null) {
-				if (offsetMinute == null) {
-					offsetMinute = 0;
-				}
-				builder.offset = new UtcOffset(offsetPositive, offsetHour, offsetMinute);
-			}
-			return true;
-		}
-	}
-
 	/**
 	 * Constructs instances of the {@link PartialDate} class.
 	 * @author Michael Angstadt
 	 */
 	public static class Builder {
-		private final Integer[] components;
+		private int components;
+		private int year, month, date, hour, minute, second;
 		private UtcOffset offset;
 
 		public Builder() {
-			components = new Integer[6];
+			//empty
 		}
 
 		/**
 		 * @param original the partial date to copy
 		 */
 		public Builder(PartialDate original) {
-			components = original.components.clone();
+			components = original.components;
+			year = original.year;
+			month = original.month;
+			date = original.date;
+			hour = original.hour;
+			minute = original.minute;
+			second = original.second;
 			offset = original.offset;
 		}
 
@@ -496,8 +730,7 @@ public final class PartialDate {
 		 * @return this
 		 */
 		public Builder year(Integer year) {
-			components[YEAR] = year;
-			return this;
+			return (year == null) ? clear(YEAR) : set(YEAR, year);
 		}
 
 		/**
@@ -512,8 +745,7 @@ public final class PartialDate {
 				throw Messages.INSTANCE.getIllegalArgumentException(37, "Month", 1, 12);
 			}
 
-			components[MONTH] = month;
-			return this;
+			return (month == null) ? clear(MONTH) : set(MONTH, month);
 		}
 
 		/**
@@ -528,8 +760,7 @@ public final class PartialDate {
 				throw Messages.INSTANCE.getIllegalArgumentException(37, "Date", 1, 31);
 			}
 
-			components[DATE] = date;
-			return this;
+			return (date == null) ? clear(DATE) : set(DATE, date);
 		}
 
 		/**
@@ -544,8 +775,7 @@ public final class PartialDate {
 				throw Messages.INSTANCE.getIllegalArgumentException(37, "Hour", 0, 23);
 			}
 
-			components[HOUR] = hour;
-			return this;
+			return (hour == null) ? clear(HOUR) : set(HOUR, hour);
 		}
 
 		/**
@@ -560,8 +790,7 @@ public final class PartialDate {
 				throw Messages.INSTANCE.getIllegalArgumentException(37, "Minute", 0, 59);
 			}
 
-			components[MINUTE] = minute;
-			return this;
+			return (minute == null) ? clear(MINUTE) : set(MINUTE, minute);
 		}
 
 		/**
@@ -576,8 +805,7 @@ public final class PartialDate {
 				throw Messages.INSTANCE.getIllegalArgumentException(37, "Second", 0, 59);
 			}
 
-			components[SECOND] = second;
-			return this;
+			return (second == null) ? clear(SECOND) : set(SECOND, second);
 		}
 
 		/**
@@ -598,14 +826,57 @@ public final class PartialDate {
 		 * minute is not
 		 */
 		public PartialDate build() {
-			if (components[YEAR] != null && components[MONTH] == null && components[DATE] != null) {
+			if ((components & (YEAR | MONTH | DATE)) == (YEAR | DATE)) {
 				throw Messages.INSTANCE.getIllegalArgumentException(38);
 			}
-			if (components[HOUR] != null && components[MINUTE] == null && components[SECOND] != null) {
+			if ((components & (HOUR | MINUTE | SECOND)) == (HOUR | SECOND)) {
 				throw Messages.INSTANCE.getIllegalArgumentException(39);
 			}
 
-			return new PartialDate(components, offset);
+			return new PartialDate(this);
+		}
+
+		/**
+		 * Sets a component without validating its value.
+		 * @param component the component
+		 * @param value the value
+		 * @return this
+		 */
+		private Builder set(int component, int value) {
+			switch (component) {
+			case YEAR:
+				year = value;
+				break;
+			case MONTH:
+				month = value;
+				break;
+			case DATE:
+				date = value;
+				break;
+			case HOUR:
+				hour = value;
+				break;
+			case MINUTE:
+				minute = value;
+				break;
+			case SECOND:
+				second = value;
+				break;
+			}
+
+			components |= component;
+			return this;
+		}
+
+		/**
+		 * Removes a component.
+		 * @param component the component
+		 * @return this
+		 */
+		private Builder clear(int component) {
+			set(component, 0);
+			components &= ~component;
+			return this;
 		}
 	}
 }
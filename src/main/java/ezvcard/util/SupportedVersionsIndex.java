@@ -0,0 +1,261 @@
+package ezvcard.util;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.util.IdentityHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import ezvcard.SupportedVersions;
+import ezvcard.VCardVersion;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Caches the information contained in {@link SupportedVersions} annotations,
+ * so that reflection only has to be used once per class.
+ * </p>
+ * <p>
+ * The supported versions of a class or constant are stored as a bitmask, in
+ * which each bit represents a {@link VCardVersion} (see {@link #mask}).
+ * Classes are added to the index the first time they are queried, so custom
+ * classes do not have to be registered.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ * @author Michael Angstadt
+ */
+public final class SupportedVersionsIndex {
+	/**
+	 * The bitmask that represents all vCard versions.
+	 */
+	public static final int ALL = mask(VCardVersion.values());
+
+	/**
+	 * Used for classes and constants that do not have a
+	 * {@link SupportedVersions} annotation.
+	 */
+	private static final Entry ALL_VERSIONS = new Entry(VCardVersion.values());
+
+	/**
+	 * The supported versions of annotated classes (such as property classes).
+	 */
+	private static final ConcurrentMap<Class<?>, Entry> classEntries = new ConcurrentHashMap<Class<?>, Entry>();
+
+	/**
+	 * The supported versions of the static constants of each class (such as
+	 * the constants in {@link ezvcard.VCardDataType}). The inner maps are
+	 * never modified after they are created.
+	 */
+	private static final ConcurrentMap<Class<?>, Map<Object, Entry>> constantEntries = new ConcurrentHashMap<Class<?>, Map<Object, Entry>>();
+
+	/**
+	 * Gets the supported versions bitmask of a class. Classes without a
+	 * {@link SupportedVersions} annotation are considered to be supported by
+	 * all versions.
+	 * @param clazz the class (e.g. a property class)
+	 * @return the bitmask
+	 */
+	public static int getMask(Class<?> clazz) {
+		return getEntry(clazz).mask;
+	}
+
+	/**
+	 * Gets the supported versions of a class. Classes without a
+	 * {@link SupportedVersions} annotation are considered to be supported by
+	 * all versions.
+	 * @param clazz the class (e.g. a property class)
+	 * @return the versions, in the order in which they are listed in the
+	 * annotation (the returned array is a copy and may be modified)
+	 */
+	public static VCardVersion[] getVersions(Class<?> clazz) {
+		return getEntry(clazz).versions.clone();
+	}
+
+	private static Entry getEntry(Class<?> clazz) {
+		Entry entry = classEntries.get(clazz);
+		if (entry == null) {
+			entry = entry(clazz.getAnnotation(SupportedVersions.class));
+			classEntries.put(clazz, entry);
+		}
+		return entry;
+	}
+
+	/**
+	 * Gets the supported versions bitmask of a static constant. The supported
+	 * versions are defined by assigning a {@link SupportedVersions} annotation
+	 * to the public static field that holds the constant. Objects that are not
+	 * stored in such a field (for example, dynamically-created parameter
+	 * values) are considered to be supported by all versions.
+	 * @param constant the constant (e.g. {@link ezvcard.VCardDataType#TEXT})
+	 * @return the bitmask
+	 */
+	public static int getConstantMask(Object constant) {
+		return getConstantEntry(constant).mask;
+	}
+
+	/**
+	 * Gets the supported versions of a static constant. The supported versions
+	 * are defined by assigning a {@link SupportedVersions} annotation to the
+	 * public static field that holds the constant. Objects that are not stored
+	 * in such a field are considered to be supported by all versions.
+	 * @param constant the constant (e.g. {@link ezvcard.VCardDataType#TEXT})
+	 * @return the versions, in the order in which they are listed in the
+	 * annotation (the returned array is a copy and may be modified)
+	 */
+	public static VCardVersion[] getConstantVersions(Object constant) {
+		return getConstantEntry(constant).versions.clone();
+	}
+
+	private static Entry getConstantEntry(Object constant) {
+		Class<?> clazz = constant.getClass();
+		Map<Object, Entry> entries = constantEntries.get(clazz);
+		if (entries == null) {
+			entries = buildConstantEntries(clazz);
+			constantEntries.put(clazz, entries);
+		}
+
+		Entry entry = entries.get(constant);
+		return (entry == null) ? ALL_VERSIONS : entry;
+	}
+
+	/**
+	 * Determines if a bitmask contains the given version.
+	 * @param mask the bitmask
+	 * @param version the version
+	 * @return true if the bitmask contains the version, false if not
+	 */
+	public static boolean supports(int mask, VCardVersion version) {
+		return (mask & bit(version)) != 0;
+	}
+
+	/**
+	 * Creates a bitmask from a list of versions.
+	 * @param versions the versions
+	 * @return the bitmask
+	 */
+	public static int mask(VCardVersion... versions) {
+		int mask = 0;
+		for (VCardVersion version : versions) {
+			mask |= bit(version);
+		}
+		return mask;
+	}
+
+	/**
+	 * Converts a bitmask back into a list of versions.
+	 * @param mask the bitmask
+	 * @return the versions, in the order in which they are defined in
+	 * {@link VCardVersion}
+	 */
+	public static VCardVersion[] toVersions(int mask) {
+		VCardVersion[] all = VCardVersion.values();
+		VCardVersion[] versions = new VCardVersion[Integer.bitCount(mask & ALL)];
+		int i = 0;
+		for (VCardVersion version : all) {
+			if (supports(mask, version)) {
+				versions[i++] = version;
+			}
+		}
+		return versions;
+	}
+
+	private static int bit(VCardVersion version) {
+		return 1 << version.ordinal();
+	}
+
+	private static Map<Object, Entry> buildConstantEntries(Class<?> clazz) {
+		Map<Object, Entry> entries = new IdentityHashMap<Object, Entry>();
+		for (Field field : clazz.getFields()) {
+			if (!Modifier.isStatic(field.getModifiers())) {
+				continue;
+			}
+
+			Object fieldValue = getStaticValue(field);
+
+			if (fieldValue == null || entries.containsKey(fieldValue)) {
+				//if the same object is stored in more than one field, use the first field, like a linear search would
+				continue;
+			}
+
+			entries.put(fieldValue, entry(field.getAnnotation(SupportedVersions.class)));
+		}
+		return entries;
+	}
+
+	/**
+	 * Gets the value of a public static field. If the field's class is not
+	 * public (for example, a private nested class), the field is made
+	 * accessible first.
+	 * @param field the field
+	 * @return the value or null if it cannot be read
+	 */
+	private static Object getStaticValue(Field field) {
+		try {
+			return field.get(null);
+		} catch (IllegalAccessException e) {
+			//the class is not public, fall through
+		}
+
+		try {
+			field.setAccessible(true);
+			return field.get(null);
+		} catch (RuntimeException e) {
+			//SecurityException, or InaccessibleObjectException on Java 9+
+			return null;
+		} catch (IllegalAccessException e) {
+			return null;
+		}
+	}
+
+	private static Entry entry(SupportedVersions annotation) {
+		return (annotation == null) ? ALL_VERSIONS : new Entry(annotation.value());
+	}
+
+	/**
+	 * The supported versions of a class or constant.
+	 */
+	private static class Entry {
+		private final int mask;
+		private final VCardVersion[] versions;
+
+		public Entry(VCardVersion[] versions) {
+			this.mask = mask(versions);
+			this.versions = versions;
+		}
+	}
+
+	private SupportedVersionsIndex() {
+		//hide
+	}
+}
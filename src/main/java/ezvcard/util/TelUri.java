@@ -3,8 +3,6 @@ package ezvcard.util;
 import java.util.Collections;
 import java.util.Map;
 import java.util.TreeMap;
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
 
 import ezvcard.Messages;
 
@@ -65,28 +63,7 @@ public final class TelUri {
 	 * The characters which are allowed to exist unencoded inside of a parameter
 	 * value.
 	 */
-	private static final boolean validParameterValueCharacters[] = new boolean[128];
-	static {
-		for (int i = '0'; i <= '9'; i++) {
-			validParameterValueCharacters[i] = true;
-		}
-		for (int i = 'A'; i <= 'Z'; i++) {
-			validParameterValueCharacters[i] = true;
-		}
-		for (int i = 'a'; i <= 'z'; i++) {
-			validParameterValueCharacters[i] = true;
-		}
-		String s = "!$&'()*+-.:[]_~/";
-		for (int i = 0; i < s.length(); i++) {
-			char c = s.charAt(i);
-			validParameterValueCharacters[c] = true;
-		}
-	}
-
-	/**
-	 * Finds hex values in an encoded parameter value.
-	 */
-	private static final Pattern hexPattern = Pattern.compile("(?i)%([0-9a-f]{2})");
+	private static final boolean validParameterValueCharacters[] = UriParameterCodec.validCharacters("!$&'()*+-.:[]_~/");
 
 	private static final String PARAM_EXTENSION = "ext";
 	private static final String PARAM_ISDN_SUBADDRESS = "isub";
@@ -122,33 +99,49 @@ public final class TelUri {
 		}
 
 		Builder builder = new Builder();
-		ClearableStringBuilder buffer = new ClearableStringBuilder();
-		String paramName = null;
-		for (int i = scheme.length(); i < uri.length(); i++) {
-			char c = uri.charAt(i);
-
-			if (c == '=' && builder.number != null && paramName == null) {
-				paramName = buffer.getAndClear();
-				continue;
-			}
-
-			if (c == ';') {
-				handleEndOfParameter(buffer, paramName, builder);
-				paramName = null;
-				continue;
-			}
+		int length = uri.length();
 
-			buffer.append(c);
+		int semicolon = uri.indexOf(';', scheme.length());
+		if (semicolon < 0) {
+			semicolon = length;
 		}
+		builder.number = uri.substring(scheme.length(), semicolon);
 
-		handleEndOfParameter(buffer, paramName, builder);
+		int start = semicolon + 1;
+		while (start <= length) {
+			int end = uri.indexOf(';', start);
+			if (end < 0) {
+				end = length;
+			}
+			parseParameter(uri, start, end, builder);
+			start = end + 1;
+		}
 
 		return builder.build();
 	}
 
-	private static void addParameter(String name, String value, Builder builder) {
-		value = decodeParameterValue(value);
+	/**
+	 * Parses a "name=value" parameter.
+	 * @param uri the URI string
+	 * @param start the index where the parameter starts
+	 * @param end the index after the last character of the parameter
+	 * @param builder the builder to add the parameter to
+	 */
+	private static void parseParameter(String uri, int start, int end, Builder builder) {
+		int equals = uri.indexOf('=', start);
+		if (equals < 0 || equals >= end) {
+			if (end > start) {
+				addParameter(uri.substring(start, end), "", builder);
+			}
+			return;
+		}
+
+		String name = uri.substring(start, equals);
+		String value = UriParameterCodec.decode(uri, equals + 1, end);
+		addParameter(name, value, builder);
+	}
 
+	private static void addParameter(String name, String value, Builder builder) {
 		if (PARAM_EXTENSION.equalsIgnoreCase(name)) {
 			builder.extension = value;
 			return;
@@ -167,24 +160,6 @@ public final class TelUri {
 		builder.parameters.put(name, value);
 	}
 
-	private static void handleEndOfParameter(ClearableStringBuilder buffer, String paramName, Builder builder) {
-		String s = buffer.getAndClear();
-
-		if (builder.number == null) {
-			builder.number = s;
-			return;
-		}
-
-		if (paramName == null) {
-			if (s.length() > 0) {
-				addParameter(s, "", builder);
-			}
-			return;
-		}
-
-		addParameter(paramName, s, builder);
-	}
-
 	/**
 	 * Gets the phone number.
 	 * @return the phone number
@@ -270,7 +245,8 @@ public final class TelUri {
 	 * @param sb the string to write to
 	 */
 	private static void writeParameter(String name, String value, StringBuilder sb) {
-		sb.append(';').append(name).append('=').append(encodeParameterValue(value));
+		sb.append(';').append(name).append('=');
+		UriParameterCodec.encode(value, validParameterValueCharacters, sb);
 	}
 
 	@Override
@@ -316,64 +292,13 @@ public final class TelUri {
 		return true;
 	}
 
-	/**
-	 * Encodes a string for safe inclusion in a parameter value.
-	 * @param value the string to encode
-	 * @return the encoded value
-	 */
-	private static String encodeParameterValue(String value) {
-		StringBuilder sb = null;
-		for (int i = 0; i < value.length(); i++) {
-			char c = value.charAt(i);
-			if (c < validParameterValueCharacters.length && validParameterValueCharacters[c]) {
-				if (sb != null) {
-					sb.append(c);
-				}
-			} else {
-				if (sb == null) {
-					sb = new StringBuilder(value.length() * 2);
-					sb.append(value.substring(0, i));
-				}
-				String hex = Integer.toString(c, 16);
-				sb.append('%').append(hex);
-			}
-		}
-		return (sb == null) ? value : sb.toString();
-	}
-
-	/**
-	 * Decodes escaped characters in a parameter value.
-	 * @param value the parameter value
-	 * @return the decoded value
-	 */
-	private static String decodeParameterValue(String value) {
-		Matcher m = hexPattern.matcher(value);
-		StringBuffer sb = null;
-
-		while (m.find()) {
-			if (sb == null) {
-				sb = new StringBuffer(value.length());
-			}
-
-			int hex = Integer.parseInt(m.group(1), 16);
-			m.appendReplacement(sb, Character.toString((char) hex));
-		}
-
-		if (sb == null) {
-			return value;
-		}
-
-		m.appendTail(sb);
-		return sb.toString();
-	}
-
 	public static class Builder {
 		private String number;
 		private String extension;
 		private String isdnSubaddress;
 		private String phoneContext;
 		private Map<String, String> parameters;
-		private CharacterBitSet validParamNameChars = new CharacterBitSet("a-zA-Z0-9-");
+		private static final CharacterBitSet validParamNameChars = new CharacterBitSet("a-zA-Z0-9-");
 
 		private Builder() {
 			/*
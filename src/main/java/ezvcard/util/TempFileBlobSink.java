@@ -0,0 +1,100 @@
+package ezvcard.util;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Stores binary data in temporary files.
+ * </p>
+ * <p>
+ * The files are not deleted automatically. They are owned by whoever holds the
+ * returned {@link Blob} objects (typically the properties of the vCards that
+ * were read), and must be deleted by calling {@link Blob#delete} once the data
+ * is no longer needed. Using a dedicated directory makes it easy to clean up
+ * any files that are left behind.
+ * </p>
+ * @author Michael Angstadt
+ */
+public class TempFileBlobSink implements BlobSink {
+	private final File directory;
+
+	/**
+	 * Creates a sink that stores its files in the system's default temporary
+	 * directory.
+	 */
+	public TempFileBlobSink() {
+		this(null);
+	}
+
+	/**
+	 * @param directory the directory to store the files in or null to use the
+	 * system's default temporary directory
+	 */
+	public TempFileBlobSink(File directory) {
+		this.directory = directory;
+	}
+
+	/**
+	 * Gets the directory the files are stored in.
+	 * @return the directory or null if the system's default temporary
+	 * directory is used
+	 */
+	public File getDirectory() {
+		return directory;
+	}
+
+	public Blob store(InputStream in) throws IOException {
+		File file = File.createTempFile("ez-vcard", ".bin", directory);
+
+		OutputStream out = new FileOutputStream(file);
+		boolean success = false;
+		try {
+			byte buffer[] = new byte[8192];
+			int read;
+			while ((read = in.read(buffer)) != -1) {
+				out.write(buffer, 0, read);
+			}
+			success = true;
+		} finally {
+			IOUtils.closeQuietly(out);
+			if (!success) {
+				file.delete();
+			}
+		}
+
+		return new FileBlob(file);
+	}
+}
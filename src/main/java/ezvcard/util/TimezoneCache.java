@@ -0,0 +1,172 @@
+package ezvcard.util;
+
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Caches the results of resolving the text of TZ properties into
+ * {@link TimeZone} and {@link UtcOffset} objects, keyed by the raw text.
+ * </p>
+ * <p>
+ * {@link TimeZone#getTimeZone(String)} is synchronized and returns a new clone
+ * every time it is called, which makes it a point of contention when many
+ * vCards are parsed or written in parallel. Invalid UTC offsets are costly to
+ * detect because {@link UtcOffset#parse(String)} throws an exception. This
+ * class remembers both the successful and the unsuccessful lookups.
+ * </p>
+ * <p>
+ * Each cache holds at most {@link #MAX_SIZE} entries. It is emptied when it
+ * becomes full, so text that is never repeated cannot make it grow without
+ * limit.
+ * </p>
+ * <p>
+ * This class is thread-safe.
+ * </p>
+ * @author Michael Angstadt
+ */
+public final class TimezoneCache {
+	/**
+	 * The maximum number of entries each cache will hold.
+	 */
+	public static final int MAX_SIZE = 512;
+
+	/**
+	 * Stands in for lookups that failed, since {@link ConcurrentHashMap} does
+	 * not allow null values.
+	 */
+	private static final Object NOT_FOUND = new Object();
+
+	private static final ConcurrentMap<String, Object> timezones = new ConcurrentHashMap<String, Object>();
+	private static final ConcurrentMap<String, Object> offsets = new ConcurrentHashMap<String, Object>();
+
+	private static final AtomicLong hits = new AtomicLong();
+	private static final AtomicLong misses = new AtomicLong();
+
+	/**
+	 * <p>
+	 * Gets the {@link TimeZone} object that corresponds to the given ID.
+	 * </p>
+	 * <p>
+	 * The returned object is shared and must not be modified. Clone it first if
+	 * it is going to be handed to code that might modify it.
+	 * </p>
+	 * @param timezoneId the timezone ID (e.g. "America/New_York")
+	 * @return the timezone object or null if not found
+	 */
+	public static TimeZone getTimeZone(String timezoneId) {
+		Object value = timezones.get(timezoneId);
+		if (value == null) {
+			misses.incrementAndGet();
+
+			TimeZone timezone = TimeZone.getTimeZone(timezoneId);
+			value = "GMT".equals(timezone.getID()) ? NOT_FOUND : timezone;
+			put(timezones, timezoneId, value);
+		} else {
+			hits.incrementAndGet();
+		}
+
+		return (value == NOT_FOUND) ? null : (TimeZone) value;
+	}
+
+	/**
+	 * Parses a UTC offset from a string.
+	 * @param text the text to parse (e.g. "-0500")
+	 * @return the parsed UTC offset or null if the text is not a UTC offset
+	 * @see UtcOffset#parse(String)
+	 */
+	public static UtcOffset getUtcOffset(String text) {
+		Object value = offsets.get(text);
+		if (value == null) {
+			misses.incrementAndGet();
+
+			try {
+				value = UtcOffset.parse(text);
+			} catch (IllegalArgumentException e) {
+				value = NOT_FOUND;
+			}
+			put(offsets, text, value);
+		} else {
+			hits.incrementAndGet();
+		}
+
+		return (value == NOT_FOUND) ? null : (UtcOffset) value;
+	}
+
+	/**
+	 * Gets the number of lookups that were answered from the cache.
+	 * @return the number of cache hits
+	 */
+	public static long getHits() {
+		return hits.get();
+	}
+
+	/**
+	 * Gets the number of lookups that had to be resolved because they were not
+	 * in the cache.
+	 * @return the number of cache misses
+	 */
+	public static long getMisses() {
+		return misses.get();
+	}
+
+	/**
+	 * Empties the caches and resets the hit and miss counters.
+	 */
+	public static void clear() {
+		timezones.clear();
+		offsets.clear();
+		hits.set(0);
+		misses.set(0);
+	}
+
+	/**
+	 * Gets the total number of entries in the caches.
+	 * @return the number of entries
+	 */
+	static int size() {
+		return timezones.size() + offsets.size();
+	}
+
+	private static void put(ConcurrentMap<String, Object> cache, String key, Object value) {
+		if (cache.size() >= MAX_SIZE) {
+			cache.clear();
+		}
+		cache.put(key, value);
+	}
+
+	private TimezoneCache() {
+		//hide
+	}
+}
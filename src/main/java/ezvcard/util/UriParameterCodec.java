@@ -0,0 +1,140 @@
+package ezvcard.util;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * Percent-encodes and decodes the parameter values of {@link TelUri} and
+ * {@link GeoUri} objects.
+ * @author Michael Angstadt
+ */
+final class UriParameterCodec {
+	private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+	/**
+	 * Builds a lookup table of the characters which are allowed to exist
+	 * unencoded inside of a parameter value.
+	 * @param symbols the non-alphanumeric characters that are allowed
+	 * @return the lookup table, indexed by character
+	 */
+	static boolean[] validCharacters(String symbols) {
+		boolean[] valid = new boolean[128];
+		for (int i = '0'; i <= '9'; i++) {
+			valid[i] = true;
+		}
+		for (int i = 'A'; i <= 'Z'; i++) {
+			valid[i] = true;
+		}
+		for (int i = 'a'; i <= 'z'; i++) {
+			valid[i] = true;
+		}
+		for (int i = 0; i < symbols.length(); i++) {
+			valid[symbols.charAt(i)] = true;
+		}
+		return valid;
+	}
+
+	/**
+	 * Encodes a parameter value and appends it to a buffer. Characters that
+	 * are not allowed are written as a percent sign followed by their
+	 * hexadecimal value in lower case, without leading zeros (e.g. "%20",
+	 * "%a").
+	 * @param value the value to encode
+	 * @param valid the characters that do not have to be encoded (see
+	 * {@link #validCharacters})
+	 * @param sb the buffer to append to
+	 */
+	static void encode(String value, boolean[] valid, StringBuilder sb) {
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < valid.length && valid[c]) {
+				sb.append(c);
+				continue;
+			}
+
+			sb.append('%');
+			int shift = 12;
+			while (shift > 0 && (c >> shift) == 0) {
+				shift -= 4;
+			}
+			for (; shift >= 0; shift -= 4) {
+				sb.append(HEX_DIGITS[(c >> shift) & 0xf]);
+			}
+		}
+	}
+
+	/**
+	 * Decodes the escape sequences (e.g. "%20") in a parameter value. Percent
+	 * signs that are not followed by two hexadecimal digits are left as-is.
+	 * @param uri the string that contains the parameter value
+	 * @param start the index where the value starts
+	 * @param end the index after the last character of the value
+	 * @return the decoded value
+	 */
+	static String decode(String uri, int start, int end) {
+		int percent = uri.indexOf('%', start);
+		if (percent < 0 || percent >= end) {
+			return uri.substring(start, end);
+		}
+
+		StringBuilder sb = new StringBuilder(end - start);
+		sb.append(uri, start, percent);
+		for (int i = percent; i < end; i++) {
+			char c = uri.charAt(i);
+			if (c == '%' && i + 2 < end) {
+				int high = hexValue(uri.charAt(i + 1));
+				int low = hexValue(uri.charAt(i + 2));
+				if (high >= 0 && low >= 0) {
+					sb.append((char) ((high << 4) | low));
+					i += 2;
+					continue;
+				}
+			}
+			sb.append(c);
+		}
+		return sb.toString();
+	}
+
+	private static int hexValue(char c) {
+		if (c >= '0' && c <= '9') {
+			return c - '0';
+		}
+		if (c >= 'a' && c <= 'f') {
+			return c - 'a' + 10;
+		}
+		if (c >= 'A' && c <= 'F') {
+			return c - 'A' + 10;
+		}
+		return -1;
+	}
+
+	private UriParameterCodec() {
+		//hide
+	}
+}
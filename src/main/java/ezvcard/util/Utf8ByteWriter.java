@@ -0,0 +1,256 @@
+package ezvcard.util;
+
+import java.io.File;
+import java.io.FileNotFoundException;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.WritableByteChannel;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * <p>
+ * Encodes characters as UTF-8 directly into a reusable byte buffer, which is
+ * written to an output stream or channel when it fills up.
+ * </p>
+ * <p>
+ * This produces the same bytes as an {@link java.io.OutputStreamWriter} that
+ * uses UTF-8, but avoids the overhead of a
+ * {@link java.nio.charset.CharsetEncoder} and its intermediate character
+ * buffers. Unpaired surrogate characters are
+ * written as "?", just like {@link java.io.OutputStreamWriter}. This class is
+ * not thread-safe.
+ * </p>
+ * @author Michael Angstadt
+ */
+public class Utf8ByteWriter extends Writer {
+	private final OutputStream out;
+	private final WritableByteChannel channel;
+	private final byte buffer[];
+	private int count = 0;
+
+	/**
+	 * A high surrogate that was the last character of the previous write
+	 * operation, or 0 if there is none.
+	 */
+	private char highSurrogate = 0;
+
+	/**
+	 * Creates a new UTF-8 writer.
+	 * @param out the output stream to write to
+	 */
+	public Utf8ByteWriter(OutputStream out) {
+		this(out, null);
+	}
+
+	/**
+	 * Creates a new UTF-8 writer.
+	 * @param channel the channel to write to
+	 */
+	public Utf8ByteWriter(WritableByteChannel channel) {
+		this(null, channel);
+	}
+
+	/**
+	 * Creates a new UTF-8 writer.
+	 * @param file the file to write to
+	 * @param append true to append to the file, false to overwrite it (this
+	 * parameter has no effect if the file does not exist)
+	 * @throws FileNotFoundException if the file cannot be written to
+	 */
+	public Utf8ByteWriter(File file, boolean append) throws FileNotFoundException {
+		this(new FileOutputStream(file, append));
+	}
+
+	private Utf8ByteWriter(OutputStream out, WritableByteChannel channel) {
+		this.out = out;
+		this.channel = channel;
+		buffer = new byte[8192];
+	}
+
+	@Override
+	public void write(int c) throws IOException {
+		writeChar((char) c);
+	}
+
+	@Override
+	public void write(char cbuf[], int off, int len) throws IOException {
+		int i = off, end = off + len;
+		while (i < end) {
+			if (highSurrogate == 0) {
+				//fast path for runs of ASCII characters
+				int pos = count;
+				int limit = Math.min(end, i + buffer.length - pos);
+				char c;
+				while (i < limit && (c = cbuf[i]) < 0x80) {
+					buffer[pos++] = (byte) c;
+					i++;
+				}
+				count = pos;
+
+				if (i == end) {
+					break;
+				}
+				if (i == limit) {
+					flushBuffer();
+					continue;
+				}
+			}
+			writeChar(cbuf[i++]);
+		}
+	}
+
+	@Override
+	public void write(String str, int off, int len) throws IOException {
+		int i = off, end = off + len;
+		while (i < end) {
+			if (highSurrogate == 0) {
+				//fast path for runs of ASCII characters
+				int pos = count;
+				int limit = Math.min(end, i + buffer.length - pos);
+				char c;
+				while (i < limit && (c = str.charAt(i)) < 0x80) {
+					buffer[pos++] = (byte) c;
+					i++;
+				}
+				count = pos;
+
+				if (i == end) {
+					break;
+				}
+				if (i == limit) {
+					flushBuffer();
+					continue;
+				}
+			}
+			writeChar(str.charAt(i++));
+		}
+	}
+
+	private void writeChar(char c) throws IOException {
+		if (highSurrogate != 0) {
+			char high = highSurrogate;
+			highSurrogate = 0;
+
+			if (Character.isLowSurrogate(c)) {
+				encode(Character.toCodePoint(high, c));
+				return;
+			}
+
+			//unpaired high surrogate
+			encode('?');
+		}
+
+		if (Character.isHighSurrogate(c)) {
+			highSurrogate = c;
+			return;
+		}
+
+		if (Character.isLowSurrogate(c)) {
+			//unpaired low surrogate
+			encode('?');
+			return;
+		}
+
+		encode(c);
+	}
+
+	private void encode(int codePoint) throws IOException {
+		if (count + 4 > buffer.length) {
+			flushBuffer();
+		}
+
+		if (codePoint < 0x80) {
+			buffer[count++] = (byte) codePoint;
+		} else if (codePoint < 0x800) {
+			buffer[count++] = (byte) (0xc0 | (codePoint >> 6));
+			buffer[count++] = (byte) (0x80 | (codePoint & 0x3f));
+		} else if (codePoint < 0x10000) {
+			buffer[count++] = (byte) (0xe0 | (codePoint >> 12));
+			buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+			buffer[count++] = (byte) (0x80 | (codePoint & 0x3f));
+		} else {
+			buffer[count++] = (byte) (0xf0 | (codePoint >> 18));
+			buffer[count++] = (byte) (0x80 | ((codePoint >> 12) & 0x3f));
+			buffer[count++] = (byte) (0x80 | ((codePoint >> 6) & 0x3f));
+			buffer[count++] = (byte) (0x80 | (codePoint & 0x3f));
+		}
+	}
+
+	private void flushBuffer() throws IOException {
+		if (count == 0) {
+			return;
+		}
+
+		if (out != null) {
+			out.write(buffer, 0, count);
+		} else {
+			ByteBuffer bb = ByteBuffer.wrap(buffer, 0, count);
+			while (bb.hasRemaining()) {
+				channel.write(bb);
+			}
+		}
+		count = 0;
+	}
+
+	/**
+	 * Writes the buffered bytes to the underlying stream or channel. A high
+	 * surrogate character that is waiting for its low surrogate stays
+	 * buffered.
+	 */
+	@Override
+	public void flush() throws IOException {
+		flushBuffer();
+		if (out != null) {
+			out.flush();
+		}
+	}
+
+	@Override
+	public void close() throws IOException {
+		if (highSurrogate != 0) {
+			highSurrogate = 0;
+			encode('?');
+		}
+
+		try {
+			flushBuffer();
+		} finally {
+			if (out != null) {
+				out.close();
+			} else {
+				channel.close();
+			}
+		}
+	}
+}
@@ -4,9 +4,10 @@ import java.text.DateFormat;
 import java.text.FieldPosition;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.Calendar;
 import java.util.Date;
+import java.util.GregorianCalendar;
 import java.util.TimeZone;
-import java.util.regex.Pattern;
 
 import ezvcard.Messages;
 
@@ -43,6 +44,11 @@ import ezvcard.Messages;
  * Defines all of the date formats that are used in vCards, and also
  * parses/formats vCard dates. These date formats are defined in the ISO8601
  * specification.
+ * <p>
+ * Dates are parsed and formatted by a hand-written scanner instead of
+ * {@link SimpleDateFormat}, so all of the methods in this class are
+ * thread-safe.
+ * </p>
  * @author Michael Angstadt
  */
 public enum VCardDateFormat {
@@ -51,29 +57,29 @@ public enum VCardDateFormat {
 	 * Example: 20120701
 	 */
 	DATE_BASIC(
-	"\\d{8}",
-	"yyyyMMdd"),
+	"yyyyMMdd",
+	false, false, DateComponents.NONE),
 	
 	/**
 	 * Example: 2012-07-01
 	 */
 	DATE_EXTENDED(
-	"\\d{4}-\\d{2}-\\d{2}",
-	"yyyy-MM-dd"),
+	"yyyy-MM-dd",
+	true, false, DateComponents.NONE),
 	
 	/**
 	 * Example: 20120701T142110-0500
 	 */
 	DATE_TIME_BASIC(
-	"\\d{8}T\\d{6}[-\\+]\\d{4}",
-	"yyyyMMdd'T'HHmmssZ"),
+	"yyyyMMdd'T'HHmmssZ",
+	false, true, DateComponents.OFFSET),
 	
 	/**
 	 * Example: 2012-07-01T14:21:10-05:00
 	 */
 	DATE_TIME_EXTENDED(
-	"\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}[-\\+]\\d{2}:\\d{2}",
-	"yyyy-MM-dd'T'HH:mm:ssZ"){
+	"yyyy-MM-dd'T'HH:mm:ssZ",
+	true, true, DateComponents.OFFSET_COLON){
 		@SuppressWarnings("serial")
 		@Override
 		public DateFormat getDateFormat(TimeZone timezone) {
@@ -111,13 +117,12 @@ public enum VCardDateFormat {
 	 * Example: 20120701T192110Z
 	 */
 	UTC_DATE_TIME_BASIC(
-	"\\d{8}T\\d{6}Z",
-	"yyyyMMdd'T'HHmmss'Z'"){
+	"yyyyMMdd'T'HHmmss'Z'",
+	false, true, DateComponents.UTC){
 		@Override
 		public DateFormat getDateFormat(TimeZone timezone) {
 			//always use the UTC timezone
-			TimeZone utc = TimeZone.getTimeZone("UTC");
-			return super.getDateFormat(utc);
+			return super.getDateFormat(utc());
 		}
 	},
 	
@@ -125,13 +130,12 @@ public enum VCardDateFormat {
 	 * Example: 2012-07-01T19:21:10Z
 	 */
 	UTC_DATE_TIME_EXTENDED(
-	"\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}Z",
-	"yyyy-MM-dd'T'HH:mm:ss'Z'"){
+	"yyyy-MM-dd'T'HH:mm:ss'Z'",
+	true, true, DateComponents.UTC){
 		@Override
 		public DateFormat getDateFormat(TimeZone timezone) {
 			//always use the UTC timezone
-			TimeZone utc = TimeZone.getTimeZone("UTC");
-			return super.getDateFormat(utc);
+			return super.getDateFormat(utc());
 		}
 	},
 	
@@ -139,8 +143,8 @@ public enum VCardDateFormat {
 	 * Example: 2012-07-01T14:21:10-0500
 	 */
 	HCARD_DATE_TIME(
-	"\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}:\\d{2}[-\\+]\\d{2}:?\\d{2}",
-	"yyyy-MM-dd'T'HH:mm:ssZ"){
+	"yyyy-MM-dd'T'HH:mm:ssZ",
+	true, true, DateComponents.OFFSET | DateComponents.OFFSET_COLON){
 		@SuppressWarnings("serial")
 		@Override
 		public DateFormat getDateFormat(TimeZone timezone) {
@@ -165,23 +169,40 @@ public enum VCardDateFormat {
 	//@formatter:on
 
 	/**
-	 * The regular expression pattern for the date format.
+	 * The {@link SimpleDateFormat} format string used for parsing dates.
 	 */
-	private final Pattern pattern;
+	protected final String formatStr;
 
 	/**
-	 * The {@link SimpleDateFormat} format string used for parsing dates.
+	 * True if the date and time components are separated by dashes and colons,
+	 * false if not.
 	 */
-	protected final String formatStr;
+	private final boolean extended;
+
+	/**
+	 * True if the format has a time component, false if not.
+	 */
+	private final boolean time;
+
+	/**
+	 * The kinds of timezone designators the format accepts (a bit mask of the
+	 * constants defined in {@link DateComponents}).
+	 */
+	private final int zones;
 
 	/**
-	 * @param regex the regular expression for the date format
 	 * @param formatStr the {@link SimpleDateFormat} format string used for
 	 * parsing dates.
+	 * @param extended true if the format is in the "extended" style (with
+	 * dashes and colons), false if not
+	 * @param time true if the format has a time component, false if not
+	 * @param zones the kinds of timezone designators the format accepts
 	 */
-	private VCardDateFormat(String regex, String formatStr) {
-		pattern = Pattern.compile(regex);
+	private VCardDateFormat(String formatStr, boolean extended, boolean time, int zones) {
 		this.formatStr = formatStr;
+		this.extended = extended;
+		this.time = time;
+		this.zones = zones;
 	}
 
 	/**
@@ -190,12 +211,17 @@ public enum VCardDateFormat {
 	 * @return true if it matches the date format, false if not
 	 */
 	public boolean matches(String dateStr) {
-		return pattern.matcher(dateStr).matches();
+		return matches(DateComponents.scan(dateStr));
+	}
+
+	private boolean matches(DateComponents components) {
+		return components != null && components.extended == extended && components.hasTime == time && (components.zone & zones) != 0;
 	}
 
 	/**
 	 * Builds a {@link DateFormat} object for parsing and formating dates in
-	 * this format.
+	 * this format. Note that {@link #format} and {@link #parse} do not use
+	 * this method.
 	 * @return the {@link DateFormat} object
 	 */
 	public DateFormat getDateFormat() {
@@ -204,7 +230,8 @@ public enum VCardDateFormat {
 
 	/**
 	 * Builds a {@link DateFormat} object for parsing and formating dates in
-	 * this format.
+	 * this format. Note that {@link #format} and {@link #parse} do not use
+	 * this method.
 	 * @param timezone the timezone the date is in or null for the default
 	 * timezone
 	 * @return the {@link DateFormat} object
@@ -234,8 +261,60 @@ public enum VCardDateFormat {
 	 * @return the date string
 	 */
 	public String format(Date date, TimeZone timezone) {
-		DateFormat df = getDateFormat(timezone);
-		return df.format(date);
+		if (zones == DateComponents.UTC) {
+			timezone = utc();
+		} else if (timezone == null) {
+			timezone = TimeZone.getDefault();
+		}
+
+		Calendar c = new GregorianCalendar(timezone);
+		c.setTime(date);
+
+		StringBuilder sb = new StringBuilder(25);
+		appendPadded(sb, c.get(Calendar.YEAR), 4);
+		if (extended) {
+			sb.append('-');
+		}
+		appendPadded(sb, c.get(Calendar.MONTH) + 1, 2);
+		if (extended) {
+			sb.append('-');
+		}
+		appendPadded(sb, c.get(Calendar.DAY_OF_MONTH), 2);
+
+		if (!time) {
+			return sb.toString();
+		}
+
+		sb.append('T');
+		appendPadded(sb, c.get(Calendar.HOUR_OF_DAY), 2);
+		if (extended) {
+			sb.append(':');
+		}
+		appendPadded(sb, c.get(Calendar.MINUTE), 2);
+		if (extended) {
+			sb.append(':');
+		}
+		appendPadded(sb, c.get(Calendar.SECOND), 2);
+
+		if (zones == DateComponents.UTC) {
+			sb.append('Z');
+			return sb.toString();
+		}
+
+		int offsetMinutes = (c.get(Calendar.ZONE_OFFSET) + c.get(Calendar.DST_OFFSET)) / (60 * 1000);
+		if (offsetMinutes < 0) {
+			sb.append('-');
+			offsetMinutes = -offsetMinutes;
+		} else {
+			sb.append('+');
+		}
+		appendPadded(sb, offsetMinutes / 60, 2);
+		if (zones == DateComponents.OFFSET_COLON) {
+			sb.append(':');
+		}
+		appendPadded(sb, offsetMinutes % 60, 2);
+
+		return sb.toString();
 	}
 
 	/**
@@ -244,8 +323,16 @@ public enum VCardDateFormat {
 	 * @return the ISO format (e.g. DATETIME_BASIC) or null if not found
 	 */
 	public static VCardDateFormat find(String dateStr) {
+		return find(DateComponents.scan(dateStr));
+	}
+
+	private static VCardDateFormat find(DateComponents components) {
+		if (components == null) {
+			return null;
+		}
+
 		for (VCardDateFormat format : values()) {
-			if (format.matches(dateStr)) {
+			if (format.matches(components)) {
 				return format;
 			}
 		}
@@ -261,19 +348,18 @@ public enum VCardDateFormat {
 	 */
 	public static Date parse(String dateStr) {
 		//determine which ISOFormat the date is in
-		VCardDateFormat format = find(dateStr);
+		DateComponents components = DateComponents.scan(dateStr);
+		VCardDateFormat format = find(components);
 		if (format == null) {
 			throw Messages.INSTANCE.getIllegalArgumentException(41, dateStr);
 		}
 
 		//parse the date
-		DateFormat df = format.getDateFormat();
-		try {
-			return df.parse(dateStr);
-		} catch (ParseException e) {
-			//should never be thrown because the string is checked against a regex before being parsed
+		Date date = components.toDate();
+		if (date == null) {
 			throw Messages.INSTANCE.getIllegalArgumentException(41, dateStr);
 		}
+		return date;
 	}
 
 	/**
@@ -282,7 +368,7 @@ public enum VCardDateFormat {
 	 * @return true if it has a time component, false if not
 	 */
 	public static boolean dateHasTime(String dateStr) {
-		return dateStr.contains("T");
+		return dateStr.indexOf('T') >= 0;
 	}
 
 	/**
@@ -292,16 +378,221 @@ public enum VCardDateFormat {
 	 * @return true if it has a timezone, false if not
 	 */
 	public static boolean dateHasTimezone(String dateStr) {
-		return dateStr.endsWith("Z") || dateStr.matches(".*?[-+]\\d\\d:?\\d\\d");
+		if (dateStr.endsWith("Z")) {
+			return true;
+		}
+
+		//look for "[-+]\d\d:?\d\d" at the end of the string
+		int i = dateStr.length() - 1;
+		if (i < 4 || !isDigit(dateStr.charAt(i)) || !isDigit(dateStr.charAt(i - 1))) {
+			return false;
+		}
+		i -= 2;
+		if (dateStr.charAt(i) == ':') {
+			i--;
+		}
+		if (i < 2 || !isDigit(dateStr.charAt(i)) || !isDigit(dateStr.charAt(i - 1))) {
+			return false;
+		}
+		char sign = dateStr.charAt(i - 2);
+		return sign == '-' || sign == '+';
 	}
 
 	/**
 	 * Gets the {@link TimeZone} object that corresponds to the given ID.
+	 * Lookups are cached (see {@link TimezoneCache}).
 	 * @param timezoneId the timezone ID (e.g. "America/New_York")
 	 * @return the timezone object or null if not found
 	 */
 	public static TimeZone parseTimeZoneId(String timezoneId) {
-		TimeZone timezone = TimeZone.getTimeZone(timezoneId);
-		return "GMT".equals(timezone.getID()) ? null : timezone;
+		TimeZone timezone = TimezoneCache.getTimeZone(timezoneId);
+		return (timezone == null) ? null : (TimeZone) timezone.clone();
+	}
+
+	private static TimeZone utc() {
+		return DateComponents.UTC_TIMEZONE;
+	}
+
+	private static void appendPadded(StringBuilder sb, int value, int width) {
+		String str = Integer.toString(value);
+		for (int i = str.length(); i < width; i++) {
+			sb.append('0');
+		}
+		sb.append(str);
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	/**
+	 * Holds the raw values of a date string, as read by a single pass over its
+	 * characters.
+	 */
+	private static class DateComponents {
+		/*
+		 * Timezone designators.
+		 */
+		static final int NONE = 1;
+		static final int UTC = 2;
+		static final int OFFSET = 4;
+		static final int OFFSET_COLON = 8;
+
+		/**
+		 * Shared UTC timezone instance (only ever read from).
+		 */
+		static final TimeZone UTC_TIMEZONE = TimeZone.getTimeZone("UTC");
+
+		private final String str;
+		private int pos;
+
+		boolean extended, hasTime;
+		int zone = NONE;
+		int year, month, date, hour, minute, second;
+		int offsetSign, offsetHour, offsetMinute;
+
+		private DateComponents(String str) {
+			this.str = str;
+		}
+
+		/**
+		 * Scans a date string.
+		 * @param str the date string
+		 * @return the components or null if the string is not in any of the
+		 * vCard date formats
+		 */
+		static DateComponents scan(String str) {
+			DateComponents c = new DateComponents(str);
+			return c.scan() ? c : null;
+		}
+
+		private boolean scan() {
+			extended = str.length() > 4 && str.charAt(4) == '-';
+
+			year = digits(4);
+			if (year < 0 || !separator('-')) {
+				return false;
+			}
+			month = digits(2);
+			if (month < 0 || !separator('-')) {
+				return false;
+			}
+			date = digits(2);
+			if (date < 0) {
+				return false;
+			}
+
+			if (pos == str.length()) {
+				return true;
+			}
+			if (str.charAt(pos++) != 'T') {
+				return false;
+			}
+
+			hasTime = true;
+			hour = digits(2);
+			if (hour < 0 || !separator(':')) {
+				return false;
+			}
+			minute = digits(2);
+			if (minute < 0 || !separator(':')) {
+				return false;
+			}
+			second = digits(2);
+			if (second < 0 || pos == str.length()) {
+				return false;
+			}
+
+			char c = str.charAt(pos++);
+			switch (c) {
+			case 'Z':
+				zone = UTC;
+				return pos == str.length();
+			case '+':
+			case '-':
+				offsetSign = (c == '-') ? -1 : 1;
+				offsetHour = digits(2);
+				if (offsetHour < 0) {
+					return false;
+				}
+				zone = OFFSET;
+				if (pos < str.length() && str.charAt(pos) == ':') {
+					zone = OFFSET_COLON;
+					pos++;
+				}
+				offsetMinute = digits(2);
+				return offsetMinute >= 0 && pos == str.length();
+			default:
+				return false;
+			}
+		}
+
+		/**
+		 * Reads the given number of ASCII digits.
+		 * @param count the number of digits
+		 * @return the numeric value or -1 if there aren't enough digits
+		 */
+		private int digits(int count) {
+			int end = pos + count;
+			if (end > str.length()) {
+				return -1;
+			}
+
+			int value = 0;
+			for (; pos < end; pos++) {
+				char c = str.charAt(pos);
+				if (!isDigit(c)) {
+					return -1;
+				}
+				value = value * 10 + (c - '0');
+			}
+			return value;
+		}
+
+		/**
+		 * Consumes a separator character if the string is in extended format.
+		 * @param separator the separator
+		 * @return false if the separator is missing, true otherwise
+		 */
+		private boolean separator(char separator) {
+			if (!extended) {
+				return true;
+			}
+			if (pos < str.length() && str.charAt(pos) == separator) {
+				pos++;
+				return true;
+			}
+			return false;
+		}
+
+		/**
+		 * Converts the components to a {@link Date}. Out-of-range field values
+		 * roll over the same way a lenient {@link SimpleDateFormat} does.
+		 * @return the date or null if the timezone offset is out of range
+		 */
+		Date toDate() {
+			TimeZone timezone = (zone == UTC) ? UTC_TIMEZONE : TimeZone.getDefault();
+			Calendar c = new GregorianCalendar(timezone);
+			c.clear();
+			c.set(Calendar.YEAR, year);
+			c.set(Calendar.MONTH, month - 1);
+			c.set(Calendar.DAY_OF_MONTH, date);
+			if (hasTime) {
+				c.set(Calendar.HOUR_OF_DAY, hour);
+				c.set(Calendar.MINUTE, minute);
+				c.set(Calendar.SECOND, second);
+			}
+
+			if (zone == OFFSET || zone == OFFSET_COLON) {
+				if (offsetHour > 23 || offsetMinute > 59) {
+					return null;
+				}
+				int offsetMillis = offsetSign * (offsetHour * 60 + offsetMinute) * 60 * 1000;
+				c.set(Calendar.ZONE_OFFSET, offsetMillis);
+				c.set(Calendar.DST_OFFSET, 0);
+			}
+
+			return c.getTime();
+		}
 	}
 }
@@ -18,13 +18,20 @@ import javax.xml.namespace.QName;
 import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.transform.Source;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.TransformerFactory;
-import javax.xml.transform.TransformerFactoryConfigurationError;
 import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.sax.SAXTransformerFactory;
+import javax.xml.transform.sax.TransformerHandler;
 import javax.xml.transform.stream.StreamResult;
+import javax.xml.xpath.XPath;
+import javax.xml.xpath.XPathFactory;
 
 import org.w3c.dom.Document;
 import org.w3c.dom.Element;
@@ -67,18 +74,150 @@ import org.xml.sax.SAXException;
  * @author Michael Angstadt
  */
 public final class XmlUtils {
+	/*
+	 * Looking up a JAXP factory implementation is slow (it may involve
+	 * scanning the classpath for service provider files), and the factories,
+	 * builders, and transformers are not thread-safe. So each thread gets its
+	 * own copy of each object, which is created the first time the thread
+	 * needs it.
+	 */
+
+	private static final ThreadLocal<DocumentBuilderFactory> documentBuilderFactory = new ThreadLocal<DocumentBuilderFactory>() {
+		@Override
+		protected DocumentBuilderFactory initialValue() {
+			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
+			factory.setNamespaceAware(true);
+			factory.setIgnoringComments(true);
+			applyXXEProtection(factory);
+			return factory;
+		}
+	};
+
+	private static final ThreadLocal<TransformerFactory> transformerFactory = new ThreadLocal<TransformerFactory>() {
+		@Override
+		protected TransformerFactory initialValue() {
+			TransformerFactory factory = TransformerFactory.newInstance();
+			applyXXEProtection(factory);
+			return factory;
+		}
+	};
+
+	private static final ThreadLocal<XMLInputFactory> xmlInputFactory = new ThreadLocal<XMLInputFactory>() {
+		@Override
+		protected XMLInputFactory initialValue() {
+			XMLInputFactory factory = XMLInputFactory.newInstance();
+			applyXXEProtection(factory);
+			return factory;
+		}
+	};
+
+	private static final ThreadLocal<XPathFactory> xpathFactory = new ThreadLocal<XPathFactory>() {
+		@Override
+		protected XPathFactory initialValue() {
+			return XPathFactory.newInstance();
+		}
+	};
+
+	/*
+	 * The builder and transformer are removed from these variables while they
+	 * are in use. This way, a re-entrant call (for example, a SAX handler that
+	 * converts a node to a string) gets its own object instead of clobbering
+	 * the one that is already in use.
+	 */
+	private static final ThreadLocal<DocumentBuilder> documentBuilder = new ThreadLocal<DocumentBuilder>();
+	private static final ThreadLocal<Transformer> transformer = new ThreadLocal<Transformer>();
+
+	/**
+	 * Creates a new identity {@link Transformer}. The transformer is protected
+	 * against XML External Entity attacks.
+	 * @return the transformer
+	 */
+	public static Transformer newTransformer() {
+		try {
+			return transformerFactory.get().newTransformer();
+		} catch (TransformerConfigurationException e) {
+			//should never be thrown because we're not doing anything fancy with the configuration
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Creates a new identity {@link TransformerHandler}. The handler is
+	 * protected against XML External Entity attacks.
+	 * @return the transformer handler
+	 */
+	public static TransformerHandler newTransformerHandler() {
+		try {
+			return ((SAXTransformerFactory) transformerFactory.get()).newTransformerHandler();
+		} catch (TransformerConfigurationException e) {
+			//should never be thrown because we're not doing anything fancy with the configuration
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Creates a new StAX {@link XMLStreamReader}. The reader is protected
+	 * against XML External Entity attacks.
+	 * @param source the XML source
+	 * @return the stream reader
+	 * @throws XMLStreamException if the reader could not be created
+	 */
+	public static XMLStreamReader newXMLStreamReader(Source source) throws XMLStreamException {
+		return xmlInputFactory.get().createXMLStreamReader(source);
+	}
+
+	/**
+	 * Creates a new {@link XPath} object.
+	 * @return the XPath object
+	 */
+	public static XPath newXPath() {
+		return xpathFactory.get().newXPath();
+	}
+
+	private static DocumentBuilder borrowDocumentBuilder() {
+		DocumentBuilder builder = documentBuilder.get();
+		if (builder != null) {
+			documentBuilder.set(null);
+			return builder;
+		}
+
+		try {
+			return documentBuilderFactory.get().newDocumentBuilder();
+		} catch (ParserConfigurationException e) {
+			//should never be thrown because we're not doing anything fancy with the configuration
+			throw new RuntimeException(e);
+		}
+	}
+
+	private static void returnDocumentBuilder(DocumentBuilder builder) {
+		builder.reset();
+		documentBuilder.set(builder);
+	}
+
+	private static Transformer borrowTransformer() {
+		Transformer t = transformer.get();
+		if (t != null) {
+			transformer.set(null);
+			return t;
+		}
+		return newTransformer();
+	}
+
+	private static void returnTransformer(Transformer t) {
+		t.reset();
+		transformer.set(t);
+	}
+
 	/**
 	 * Creates a new XML document.
 	 * @return the XML document
 	 */
 	public static Document createDocument() {
+		DocumentBuilder builder = borrowDocumentBuilder();
 		try {
-			DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-			DocumentBuilder builder = factory.newDocumentBuilder();
 			return builder.newDocument();
-		} catch (ParserConfigurationException e) {
-			//should never be thrown because we're not doing anything fancy with the configuration
-			throw new RuntimeException(e);
+		} finally {
+			returnDocumentBuilder(builder);
 		}
 	}
 
@@ -148,20 +287,12 @@ public final class XmlUtils {
 	}
 
 	private static Document toDocument(InputSource in) throws SAXException, IOException {
-		DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-		factory.setNamespaceAware(true);
-		factory.setIgnoringComments(true);
-		applyXXEProtection(factory);
-
-		DocumentBuilder builder;
+		DocumentBuilder builder = borrowDocumentBuilder();
 		try {
-			builder = factory.newDocumentBuilder();
-		} catch (ParserConfigurationException e) {
-			//should never be thrown because we're not doing anything fancy with the configuration
-			throw new RuntimeException(e);
+			return builder.parse(in);
+		} finally {
+			returnDocumentBuilder(builder);
 		}
-
-		return builder.parse(in);
 	}
 
 	/**
@@ -221,6 +352,31 @@ public final class XmlUtils {
 		}
 	}
 
+	/**
+	 * Configures a {@link XMLInputFactory} to protect it against XML External
+	 * Entity attacks.
+	 * @param factory the factory
+	 * @see <a href=
+	 * "https://www.owasp.org/index.php/XML_External_Entity_%28XXE%29_Prevention_Cheat_Sheet#Java">
+	 * XXE Cheat Sheet</a>
+	 */
+	public static void applyXXEProtection(XMLInputFactory factory) {
+		//@formatter:off
+		String[] properties = {
+			XMLInputFactory.SUPPORT_DTD,
+			XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES
+		};
+		//@formatter:on
+
+		for (String property : properties) {
+			try {
+				factory.setProperty(property, false);
+			} catch (IllegalArgumentException e) {
+				//property is not supported by the local XML engine, skip it
+			}
+		}
+	}
+
 	/**
 	 * Converts an XML node to a string.
 	 * @param node the XML node
@@ -265,22 +421,16 @@ public final class XmlUtils {
 	 * @throws TransformerException if there's a problem writing to the writer
 	 */
 	public static void toWriter(Node node, Writer writer, Map<String, String> outputProperties) throws TransformerException {
-		Transformer transformer;
+		Transformer transformer = borrowTransformer();
 		try {
-			transformer = TransformerFactory.newInstance().newTransformer();
-		} catch (TransformerConfigurationException e) {
-			//should never be thrown because we're not doing anything fancy with the configuration
-			throw new RuntimeException(e);
-		} catch (TransformerFactoryConfigurationError e) {
-			//should never be thrown because we're not doing anything fancy with the configuration
-			throw new RuntimeException(e);
-		}
-
-		assignOutputProperties(transformer, outputProperties);
+			assignOutputProperties(transformer, outputProperties);
 
-		DOMSource source = new DOMSource(node);
-		StreamResult result = new StreamResult(writer);
-		transformer.transform(source, result);
+			DOMSource source = new DOMSource(node);
+			StreamResult result = new StreamResult(writer);
+			transformer.transform(source, result);
+		} finally {
+			returnTransformer(transformer);
+		}
 	}
 
 	/**
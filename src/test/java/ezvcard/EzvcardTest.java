@@ -28,6 +28,7 @@ import org.w3c.dom.NodeList;
 
 import ezvcard.io.LuckyNumProperty;
 import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
+import ezvcard.io.VCardIterator;
 import ezvcard.io.text.TargetApplication;
 import ezvcard.io.xml.XCardNamespaceContext;
 import ezvcard.parameter.ImageType;
@@ -142,6 +143,104 @@ public class EzvcardTest {
 		assertEquals(22, ext.get(0).luckyNum);
 	}
 
+	@Test
+	public void parse_register_all() throws Exception {
+		//@formatter:off
+		String str = 
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"X-LUCKY-NUM:22\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<VCard> vcards = Ezvcard.parse(str).register(new LuckyNumScribe()).all();
+		assertEquals(1, vcards.size());
+		List<LuckyNumProperty> ext = vcards.get(0).getProperties(LuckyNumProperty.class);
+		assertEquals(1, ext.size());
+		assertEquals(22, ext.get(0).luckyNum);
+	}
+
+	@Test
+	public void parse_keep() throws Exception {
+		//@formatter:off
+		String str = 
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John Doe\r\n" +
+		"EMAIL:jdoe@example.com\r\n" +
+		"PHOTO;ENCODING=b;TYPE=jpeg:aGVsbG8=\r\n" +
+		"X-LUCKY-NUM:22\r\n" +
+		"X-FOO:bar\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<List<String>> warnings = new ArrayList<List<String>>();
+		List<VCard> vcards = Ezvcard.parse(str).register(new LuckyNumScribe()).keep(FormattedName.class).keep(LuckyNumProperty.class).keep("x-foo").warnings(warnings).all();
+		assertEquals(1, vcards.size());
+		VCard vcard = vcards.get(0);
+
+		assertEquals(3, vcard.getProperties().size());
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+		assertEquals(22, vcard.getProperty(LuckyNumProperty.class).luckyNum);
+		assertEquals("bar", vcard.getExtendedProperty("X-FOO").getValue());
+		assertWarningsLists(warnings, 0);
+	}
+
+	@Test
+	public void parse_iterator() throws Exception {
+		//@formatter:off
+		String str = 
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John Doe\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:Jane Doe\r\n" +
+		"BDAY:not a date\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<List<String>> warnings = new ArrayList<List<String>>();
+		VCardIterator it = Ezvcard.parse(str).warnings(warnings).iterator();
+
+		assertTrue(it.hasNext());
+		assertEquals("John Doe", it.next().getFormattedName().getValue());
+		assertEquals(0, it.getWarnings().size());
+		assertWarningsLists(warnings, 0);
+
+		assertTrue(it.hasNext());
+		assertEquals("Jane Doe", it.next().getFormattedName().getValue());
+		assertEquals(1, it.getWarnings().size());
+		assertWarningsLists(warnings, 0, 1);
+
+		assertFalse(it.hasNext());
+	}
+
+	@Test
+	public void parse_iterator_file() throws Exception {
+		//@formatter:off
+		String str = 
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John Doe\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		File file = folder.newFile();
+		FileWriter writer = new FileWriter(file);
+		writer.write(str);
+		writer.close();
+
+		VCardIterator it = Ezvcard.parse(file).iterator();
+		try {
+			assertEquals("John Doe", it.next().getFormattedName().getValue());
+			assertFalse(it.hasNext());
+		} finally {
+			it.close();
+		}
+	}
+
 	@Test
 	public void parse_caretDecoding() throws Exception {
 		//@formatter:off
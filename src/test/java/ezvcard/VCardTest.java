@@ -13,8 +13,11 @@ import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
 import java.util.List;
 
 import org.junit.Test;
@@ -81,6 +84,46 @@ public class VCardTest {
 
 	}
 
+	@Test
+	public void getProperties_modify_while_iterating() {
+		VCard vcard = new VCard();
+		Note note = vcard.addNote("note");
+		vcard.addExtendedProperty("X-GENDER", "male");
+
+		//the returned collection is a snapshot, so the vCard can be modified
+		for (VCardProperty property : vcard.getProperties()) {
+			vcard.removeProperty(property);
+		}
+		assertCollectionContains(vcard.getProperties());
+
+		vcard.addProperty(note);
+		for (VCardProperty property : vcard) {
+			vcard.removeProperty(property);
+		}
+		assertCollectionContains(vcard.getProperties());
+	}
+
+	@Test
+	public void getPropertiesView() {
+		VCard vcard = new VCard();
+		Collection<VCardProperty> view = vcard.getPropertiesView();
+		assertCollectionContains(view);
+
+		Note property1 = vcard.addNote("note");
+		RawProperty property2 = vcard.addExtendedProperty("X-GENDER", "male");
+		assertCollectionContains(view, property1, property2);
+
+		Iterator<VCardProperty> it = view.iterator();
+		it.next();
+		vcard.removeProperty(property1);
+		try {
+			it.next();
+			fail();
+		} catch (ConcurrentModificationException e) {
+			//expected
+		}
+	}
+
 	@Test
 	public void addProperty() {
 		VCard vcard = new VCard();
@@ -0,0 +1,199 @@
+package ezvcard.io;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+import ezvcard.VCard;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class VCardIteratorTest {
+	@Test
+	public void iterate() throws Throwable {
+		VCard vcard1 = new VCard();
+		VCard vcard2 = new VCard();
+		MockReader reader = new MockReader(vcard1, vcard2);
+		VCardIterator it = new VCardIterator(reader);
+
+		assertTrue(it.hasNext());
+		assertTrue(it.hasNext()); //calling it twice should not read another vCard
+		assertEquals(1, reader.reads);
+
+		assertSame(vcard1, it.next());
+		assertEquals(Arrays.asList("warning 1"), it.getWarnings());
+		assertFalse(reader.closed);
+
+		assertSame(vcard2, it.next()); //hasNext() does not have to be called
+		assertEquals(Arrays.asList("warning 2"), it.getWarnings());
+		assertFalse(reader.closed);
+
+		assertFalse(it.hasNext());
+		assertTrue(reader.closed);
+		assertEquals(Arrays.asList("warning 2"), it.getWarnings());
+
+		try {
+			it.next();
+			fail();
+		} catch (NoSuchElementException e) {
+			//expected
+		}
+	}
+
+	@Test
+	public void reads_lazily() throws Throwable {
+		MockReader reader = new MockReader(new VCard(), new VCard());
+		VCardIterator it = new VCardIterator(reader);
+		assertEquals(0, reader.reads);
+
+		it.next();
+		assertEquals(1, reader.reads);
+
+		it.next();
+		assertEquals(2, reader.reads);
+	}
+
+	@Test
+	public void getWarnings_before_next() throws Throwable {
+		MockReader reader = new MockReader(new VCard());
+		VCardIterator it = new VCardIterator(reader);
+		assertEquals(Collections.emptyList(), it.getWarnings());
+
+		it.hasNext();
+		assertEquals(Collections.emptyList(), it.getWarnings());
+	}
+
+	@Test
+	public void empty() throws Throwable {
+		MockReader reader = new MockReader();
+		VCardIterator it = new VCardIterator(reader);
+		assertFalse(it.hasNext());
+		assertTrue(reader.closed);
+	}
+
+	@Test
+	public void close() throws Throwable {
+		MockReader reader = new MockReader(new VCard(), new VCard());
+		VCardIterator it = new VCardIterator(reader);
+		it.next();
+
+		it.close();
+		assertTrue(reader.closed);
+		assertFalse(it.hasNext());
+		assertEquals(1, reader.reads);
+	}
+
+	@Test
+	public void closeReader_false() throws Throwable {
+		MockReader reader = new MockReader(new VCard());
+		VCardIterator it = new VCardIterator(reader, false);
+		it.next();
+		assertFalse(it.hasNext());
+		assertFalse(reader.closed);
+
+		it.close();
+		assertFalse(reader.closed);
+	}
+
+	@Test
+	public void IOException() throws Throwable {
+		final IOException exception = new IOException();
+		StreamReader reader = new MockReader() {
+			@Override
+			protected VCard _readNext() throws IOException {
+				throw exception;
+			}
+		};
+		VCardIterator it = new VCardIterator(reader);
+
+		try {
+			it.hasNext();
+			fail();
+		} catch (RuntimeException e) {
+			assertSame(exception, e.getCause());
+		}
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void remove() throws Throwable {
+		VCardIterator it = new VCardIterator(new MockReader(new VCard()));
+		it.next();
+		it.remove();
+	}
+
+	@Test
+	public void StreamReader_iterator() throws Throwable {
+		VCard vcard = new VCard();
+		MockReader reader = new MockReader(vcard);
+		VCardIterator it = reader.iterator();
+		assertSame(vcard, it.next());
+		assertFalse(it.hasNext());
+		assertTrue(reader.closed);
+	}
+
+	private static class MockReader extends StreamReader {
+		private final List<VCard> vcards;
+		private int reads = 0;
+		private boolean closed = false;
+
+		public MockReader(VCard... vcards) {
+			this.vcards = new LinkedList<VCard>(Arrays.asList(vcards));
+		}
+
+		@Override
+		protected VCard _readNext() throws IOException {
+			if (vcards.isEmpty()) {
+				return null;
+			}
+
+			reads++;
+			warnings.add(null, null, "warning " + reads);
+			return vcards.remove(0);
+		}
+
+		public void close() {
+			closed = true;
+		}
+	}
+}
@@ -4,13 +4,18 @@ import static ezvcard.util.StringUtils.NEWLINE;
 import static ezvcard.util.TestUtils.date;
 import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
 import java.io.File;
 import java.io.FileWriter;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.Arrays;
 
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
@@ -44,6 +49,7 @@ import ezvcard.property.Uid;
 import ezvcard.property.Url;
 import ezvcard.util.TelUri;
 import ezvcard.util.UtcOffset;
+import freemarker.template.Template;
 import freemarker.template.TemplateException;
 
 /*
@@ -379,6 +385,57 @@ public class HCardPageTest {
 		assertEquals("ez-vcard " + Ezvcard.VERSION, actual.getProductId().getValue());
 	}
 
+	@Test
+	public void streaming() throws Exception {
+		VCard vcard1 = createFullVCard();
+		VCard vcard2 = new VCard();
+		vcard2.setFormattedName("John Doe");
+
+		HCardPage page = new HCardPage();
+		page.add(vcard1);
+		page.add(vcard2);
+		String expected = page.write();
+
+		StringWriter sw = new StringWriter();
+		new HCardPage().write(Arrays.asList(vcard1, vcard2).iterator(), sw);
+		assertEquals(expected, sw.toString());
+	}
+
+	@Test
+	public void default_template_is_shared() {
+		Template template = HCardPage.getTemplate(HCardPage.DEFAULT_TEMPLATE);
+		assertNotNull(template);
+		assertSame(template, HCardPage.getTemplate(HCardPage.DEFAULT_TEMPLATE));
+	}
+
+	@Test
+	public void registered_template() throws Exception {
+		String name = "test-template";
+		Template template = HCardPage.registerTemplate(name, new StringReader("<#list vcards as v>[${v.formattedName.value}]</#list>"));
+		try {
+			assertSame(template, HCardPage.getTemplate(name));
+
+			VCard vcard = new VCard();
+			vcard.setFormattedName("John Doe");
+			HCardPage page = new HCardPage(name);
+			page.add(vcard);
+			assertEquals("[John Doe]", page.write());
+		} finally {
+			HCardPage.unregisterTemplate(name);
+		}
+		assertNull(HCardPage.getTemplate(name));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void registered_template_not_found() {
+		new HCardPage("does-not-exist");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void registerTemplate_default_name() throws Exception {
+		HCardPage.registerTemplate(HCardPage.DEFAULT_TEMPLATE, new StringReader(""));
+	}
+
 	private VCard createFullVCard() throws IOException {
 		VCard vcard = new VCard();
 
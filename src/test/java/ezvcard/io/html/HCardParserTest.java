@@ -16,6 +16,7 @@ import ezvcard.io.LuckyNumProperty;
 import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
 import ezvcard.io.MyFormattedNameProperty;
 import ezvcard.io.MyFormattedNameProperty.MyFormattedNameScribe;
+import ezvcard.io.PropertyFilter;
 import ezvcard.io.scribe.CannotParseScribe;
 import ezvcard.io.scribe.SkipMeScribe;
 import ezvcard.parameter.AddressType;
@@ -308,6 +309,50 @@ public class HCardParserTest {
 		assertNoMoreVCards(parser);
 	}
 
+	@Test
+	public void property_filter() throws Exception {
+		//@formatter:off
+		String html =
+		"<html>" +
+			"<body>" +
+				"<div class=\"vcard\">" +
+					"<div class=\"fn\">John Doe</div>" +
+					"<div class=\"agent vcard\">" +
+						"<span class=\"fn\">Jane Doe</span>" +
+					"</div>" +
+					"<a class=\"url\" href=\"aim:goim?screenname=ShoppingBuddy\">IM with the AIM ShoppingBuddy</a>" +
+					"<a class=\"url\" href=\"http://johndoe.com\">Website</a>" +
+					"<span class=\"geo\">invalid</span>" +
+					"<span class=\"x-foo\">bar</span>" +
+					"<span class=\"x-bar\">foo</span>" +
+				"</div>" +
+			"</body>" +
+		"</html>";
+		//@formatter:on
+
+		HCardParser parser = new HCardParser(html, "http://johndoe.com/vcard.html");
+		parser.setPropertyFilter(new PropertyFilter().keep(FormattedName.class).keep(Url.class).keep("X-FOO"));
+		VCardAsserter asserter = new VCardAsserter(parser);
+
+		asserter.next(V3_0);
+
+		//@formatter:off
+		asserter.simpleProperty(FormattedName.class)
+			.value("John Doe")
+		.noMore();
+
+		asserter.simpleProperty(Url.class)
+			.value("http://johndoe.com")
+		.noMore();
+
+		asserter.rawProperty("X-FOO")
+			.value("bar")
+		.noMore();
+		//@formatter:on
+
+		asserter.done();
+	}
+
 	@Test
 	public void url_of_vcard_specified() throws Exception {
 		//@formatter:off
@@ -7,6 +7,7 @@ import static ezvcard.util.TestUtils.assertVersion;
 import static ezvcard.util.TestUtils.assertWarnings;
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.Writer;
 import java.util.List;
@@ -20,6 +21,7 @@ import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
 import ezvcard.io.MyFormattedNameProperty;
 import ezvcard.io.MyFormattedNameProperty.MyFormattedNameScribe;
+import ezvcard.io.PropertyFilter;
 import ezvcard.io.scribe.CannotParseScribe;
 import ezvcard.io.scribe.SkipMeScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
@@ -102,6 +104,40 @@ public class JCardReaderTest {
 		//@formatter:on
 	}
 
+	@Test
+	public void property_filter() throws Throwable {
+		//@formatter:off
+		JCardReader reader = new JCardReader(
+		"[\"vcard\"," +
+			"[" +
+				"[\"version\", {}, \"text\", \"4.0\"]," +
+				"[\"fn\", {}, \"text\", \"John Doe\"]," +
+				"[\"geo\", {\"type\":[\"work\",\"home\"]}, \"uri\", {\"lat\":[1,2]}]," +
+				"[\"note\", {}, \"text\", [\"one\", [\"two\"]]]," +
+				"[\"x-foo\", {}, \"text\", \"bar\"]" +
+			"]" +
+		"]"
+		);
+		//@formatter:on
+		reader.setPropertyFilter(new PropertyFilter().keep(FormattedName.class).keep("X-FOO"));
+		VCardAsserter asserter = new VCardAsserter(reader);
+
+		asserter.next(V4_0);
+
+		//@formatter:off
+		asserter.simpleProperty(FormattedName.class)
+			.value("John Doe")
+		.noMore();
+
+		asserter.rawProperty("x-foo")
+			.dataType(VCardDataType.TEXT)
+			.value("bar")
+		.noMore();
+		//@formatter:on
+
+		asserter.done();
+	}
+
 	@Test
 	public void read_multiple() throws Throwable {
 		//@formatter:off
@@ -381,6 +417,30 @@ public class JCardReaderTest {
 		//@formatter:on
 	}
 
+	@Test
+	public void inputStream() throws Throwable {
+		//@formatter:off
+		String json =
+		"[\"vcard\"," +
+			"[" +
+				"[\"version\", {}, \"text\", \"4.0\"]," +
+				"[\"note\", {}, \"text\", \"\u019dote \ud83d\ude00\"]" +
+			"]" +
+		"]";
+
+		JCardReader reader = new JCardReader(new ByteArrayInputStream(json.getBytes("UTF-8")));
+		VCardAsserter asserter = new VCardAsserter(reader);
+		
+		asserter.next(V4_0);
+
+		asserter.simpleProperty(Note.class)
+			.value("\u019dote \ud83d\ude00")
+		.noMore();
+
+		asserter.done();
+		//@formatter:on
+	}
+
 	private static class TypeForTesting extends VCardProperty {
 		public JCardValue value;
 
@@ -2,6 +2,8 @@ package ezvcard.io.json;
 
 import static org.junit.Assert.assertEquals;
 
+import java.io.IOException;
+import java.io.StringReader;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -9,6 +11,10 @@ import java.util.Map;
 
 import org.junit.Test;
 
+import ezvcard.VCardDataType;
+import ezvcard.io.json.JCardRawReader.JCardDataStreamListener;
+import ezvcard.parameter.VCardParameters;
+
 /*
  Copyright (c) 2012-2016, Michael Angstadt
  All rights reserved.
@@ -175,4 +181,86 @@ public class JCardValueTest {
 		JCardValue value = new JCardValue(new JsonValue(object));
 		assertEquals(Arrays.asList(), value.asStructured());
 	}
+
+	@Test
+	public void tokens_getValues() throws Exception {
+		JCardValue value = read("\"one\", 2, [true, null, [1.5]], {\"a\": [\"b\"]}");
+
+		Map<String, JsonValue> object = new HashMap<String, JsonValue>();
+		object.put("a", new JsonValue(Arrays.asList(new JsonValue("b"))));
+
+		//@formatter:off
+		List<JsonValue> expected = Arrays.asList(
+			new JsonValue("one"),
+			new JsonValue(2L),
+			new JsonValue(Arrays.asList(
+				new JsonValue(true),
+				new JsonValue((Object)null),
+				new JsonValue(Arrays.asList(
+					new JsonValue(1.5)
+				))
+			)),
+			new JsonValue(object)
+		);
+		//@formatter:on
+		assertEquals(expected, value.getValues());
+		assertEquals(new JCardValue(expected), value);
+	}
+
+	@Test
+	public void tokens_same_as_tree() throws Exception {
+		//@formatter:off
+		String values[] = {
+			"",
+			"\"value\"",
+			"\"\"",
+			"null",
+			"false",
+			"42",
+			"\"one\", \"two\", null, 3",
+			"\"one\", [\"two\"]",
+			"[]",
+			"[\"one\", \"two\"]",
+			"[null, \"one\"]",
+			"[[\"one\"], \"two\"]",
+			"[\"\", [\"\"], [], null, [\"one\", null, [\"x\"], {\"a\": 1}, \"two\"], {\"a\": [1]}, \"three\"]",
+			"{}",
+			"{\"a\": \"one\", \"b\": [1, 2]}",
+			"{\"a\": 1}, \"one\"",
+		};
+		//@formatter:on
+
+		for (String json : values) {
+			JCardValue tokens = read(json);
+			JCardValue tree = new JCardValue(tokens.getValues());
+			tokens = read(json); //reset the lazily-built tree
+
+			assertEquals(json, tree.getValueCount(), tokens.getValueCount());
+			assertEquals(json, tree.isFirstValueArray(), tokens.isFirstValueArray());
+			assertEquals(json, tree.asSingle(), tokens.asSingle());
+			assertEquals(json, tree.asMulti(), tokens.asMulti());
+			assertEquals(json, tree.asStructured(), tokens.asStructured());
+		}
+	}
+
+	/**
+	 * Reads a property value with {@link JCardRawReader}.
+	 * @param json the property value(s)
+	 * @return the parsed value
+	 */
+	private static JCardValue read(String json) throws IOException {
+		JCardRawReader reader = new JCardRawReader(new StringReader("[\"vcard\",[[\"x-foo\",{},\"text\"" + (json.length() == 0 ? "" : "," + json) + "]]]"));
+		final JCardValue[] value = new JCardValue[1];
+		reader.readNext(new JCardDataStreamListener() {
+			public void beginVCard() {
+				//empty
+			}
+
+			public void readProperty(String group, String propertyName, VCardParameters parameters, VCardDataType dataType, JCardValue v) {
+				value[0] = v;
+			}
+		});
+		reader.close();
+		return value[0];
+	}
 }
@@ -3,9 +3,14 @@ package ezvcard.io.json;
 import static ezvcard.util.StringUtils.NEWLINE;
 import static ezvcard.util.TestUtils.assertValidate;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayOutputStream;
 import java.io.File;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
 import java.util.List;
 
@@ -13,6 +18,9 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+
 import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
@@ -21,6 +29,7 @@ import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.io.text.WriteContext;
 import ezvcard.parameter.AddressType;
 import ezvcard.parameter.EmailType;
+import ezvcard.parameter.ImageType;
 import ezvcard.parameter.TelephoneType;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Address;
@@ -29,11 +38,13 @@ import ezvcard.property.Birthday;
 import ezvcard.property.Gender;
 import ezvcard.property.Geo;
 import ezvcard.property.Key;
+import ezvcard.property.Photo;
 import ezvcard.property.SkipMeProperty;
 import ezvcard.property.StructuredName;
 import ezvcard.property.Telephone;
 import ezvcard.property.Timezone;
 import ezvcard.property.VCardProperty;
+import ezvcard.util.Blob;
 import ezvcard.util.PartialDate;
 import ezvcard.util.Gobble;
 import ezvcard.util.TelUri;
@@ -135,6 +146,37 @@ public class JCardWriterTest {
 		assertEquals(expected, sw.toString());
 	}
 
+	@Test
+	public void write_blob_read_error() throws Throwable {
+		final IOException error = new IOException();
+		Blob blob = new Blob() {
+			public long getSize() {
+				return 4;
+			}
+
+			public InputStream openStream() throws IOException {
+				throw error;
+			}
+
+			public void delete() {
+				//empty
+			}
+		};
+
+		VCard vcard = new VCard();
+		Photo photo = new Photo((byte[]) null, ImageType.JPEG);
+		photo.setBlob(blob, ImageType.JPEG);
+		vcard.addPhoto(photo);
+
+		JCardWriter writer = new JCardWriter(new StringWriter());
+		try {
+			writer.write(vcard);
+			fail();
+		} catch (IOException e) {
+			assertSame(error, e);
+		}
+	}
+
 	@Test
 	public void setPrettyPrint() throws Throwable {
 		StringWriter sw = new StringWriter();
@@ -324,6 +366,74 @@ public class JCardWriterTest {
 		assertEquals(expected, actual);
 	}
 
+	@Test
+	public void outputStream() throws Throwable {
+		VCard vcard1 = new VCard();
+		vcard1.setFormattedName("John Doe");
+		vcard1.addNote("\u019dote");
+		VCard vcard2 = new VCard();
+		vcard2.setFormattedName("Jane Doe");
+
+		StringWriter sw = new StringWriter();
+		JCardWriter writer = new JCardWriter(sw, true);
+		writer.setAddProdId(false);
+		writer.setPrettyPrint(true);
+		writer.write(vcard1);
+		writer.write(vcard2);
+		writer.close();
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		writer = new JCardWriter(out, true);
+		writer.setAddProdId(false);
+		writer.setPrettyPrint(true);
+		writer.write(vcard1);
+		writer.write(vcard2);
+		writer.close();
+
+		assertEquals(sw.toString(), new String(out.toByteArray(), "UTF-8"));
+	}
+
+	@Test
+	public void generator_wrapInArray() throws Throwable {
+		StringWriter sw = new StringWriter();
+		JsonGenerator generator = new JsonFactory().createGenerator(sw);
+
+		for (String name : new String[] { "John Doe", "Jane Doe" }) {
+			JCardWriter writer = new JCardWriter(generator, true);
+			writer.setAddProdId(false);
+
+			VCard vcard = new VCard();
+			vcard.setFormattedName(name);
+			writer.write(vcard);
+
+			writer.close();
+		}
+
+		assertFalse(generator.isClosed());
+		generator.close();
+
+		//@formatter:off
+		String expected =
+		"[" +
+			"[\"vcard\"," +
+				"[" +
+					"[\"version\",{},\"text\",\"4.0\"]," +
+					"[\"fn\",{},\"text\",\"John Doe\"]" +
+				"]" +
+			"]" +
+		"] " + //root value separator
+		"[" +
+			"[\"vcard\"," +
+				"[" +
+					"[\"version\",{},\"text\",\"4.0\"]," +
+					"[\"fn\",{},\"text\",\"Jane Doe\"]" +
+				"]" +
+			"]" +
+		"]";
+		//@formatter:on
+		assertEquals(expected, sw.toString());
+	}
+
 	@Test
 	public void jcard_example() throws Throwable {
 		VCard vcard = createExample();
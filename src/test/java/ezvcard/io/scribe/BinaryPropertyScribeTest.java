@@ -9,6 +9,9 @@ import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+
 import org.junit.Test;
 
 import ezvcard.VCardVersion;
@@ -16,6 +19,7 @@ import ezvcard.io.scribe.Sensei.Check;
 import ezvcard.parameter.Encoding;
 import ezvcard.parameter.ImageType;
 import ezvcard.property.BinaryProperty;
+import ezvcard.util.Blob;
 import ezvcard.util.DataUri;
 import ezvcard.util.org.apache.commons.codec.binary.Base64;
 
@@ -79,6 +83,22 @@ public class BinaryPropertyScribeTest {
 		withData.getParameters().setEncoding(Encoding._8BIT); //ENCODING parameter (if one exists) should be removed/overwritten when written
 		withData.getParameters().setMediaType("foo"); //MEDIATYPE parameter (if one exists) should be removed when written
 	}
+	private final BinaryTypeImpl withBlob = new BinaryTypeImpl();
+	{
+		withBlob.setBlob(new Blob() {
+			public long getSize() {
+				return data.length;
+			}
+
+			public InputStream openStream() {
+				return new ByteArrayInputStream(data);
+			}
+
+			public void delete() {
+				//empty
+			}
+		}, ImageType.JPEG);
+	}
 	private final BinaryTypeImpl empty = new BinaryTypeImpl();
 
 	@Test
@@ -139,6 +159,14 @@ public class BinaryPropertyScribeTest {
 		sensei.assertWriteJson(empty).run("");
 	}
 
+	@Test
+	public void write_blob() {
+		sensei.assertWriteText(withBlob).versions(V2_1, V3_0).run(base64Data);
+		sensei.assertWriteText(withBlob).versions(V4_0).run(dataUri);
+		sensei.assertWriteXml(withBlob).run("<uri>" + dataUri + "</uri>");
+		sensei.assertWriteJson(withBlob).run(dataUri);
+	}
+
 	@Test
 	public void parseText_url() {
 		{
@@ -170,6 +170,21 @@ public class ImppScribeTest {
 			"theuser",
 			"aim:invalid?screenname=theuser"
 		);
+
+		//case-insensitive
+		assertParseHtmlLink("aim:theuser",
+			"AIM:GoIm?ScreenName=theuser",
+			"Aim:addbuddy?foo=bar&SCREENNAME=theuser"
+		);
+		assertParseHtmlLink("icq:123456789",
+			"ICQ:Message?UIN=123456789"
+		);
+
+		//the parameter name must start a word
+		assertParseHtmlLink(null,
+			"aim:goim?myscreenname=theuser",
+			"icq:message?uin=abc"
+		);
 		//@formatter:on
 	}
 
@@ -193,6 +208,7 @@ public class ImppScribeTest {
 		assertWriteHtmlLink(Impp.sip("theuser"), "sip:theuser");
 		assertWriteHtmlLink(Impp.xmpp("theuser"), "xmpp:theuser?message");
 		assertWriteHtmlLink(new Impp("foo", "bar"), "foo:bar");
+		assertWriteHtmlLink(new Impp("theuser"), "theuser");
 	}
 
 	private void assertWriteHtmlLink(Impp property, String expectedUri) {
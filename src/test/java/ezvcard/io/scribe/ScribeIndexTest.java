@@ -0,0 +1,159 @@
+package ezvcard.io.scribe;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.Test;
+
+import ezvcard.io.LuckyNumProperty;
+import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
+import ezvcard.io.MyFormattedNameProperty;
+import ezvcard.io.MyFormattedNameProperty.MyFormattedNameScribe;
+import ezvcard.property.FormattedName;
+import ezvcard.property.VCardProperty;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class ScribeIndexTest {
+	@Test
+	public void getPropertyScribe_name_case_insensitive() {
+		ScribeIndex index = new ScribeIndex();
+		for (VCardPropertyScribe<? extends VCardProperty> scribe : standardScribes(index)) {
+			String name = scribe.getPropertyName();
+			assertSame(name, scribe, index.getPropertyScribe(name));
+			assertSame(name, scribe, index.getPropertyScribe(name.toLowerCase()));
+			assertSame(name, scribe, index.getPropertyScribe(mixedCase(name)));
+		}
+
+		assertNull(index.getPropertyScribe("X-DOES-NOT-EXIST"));
+		assertNull(index.getPropertyScribe(""));
+	}
+
+	@Test
+	public void register() {
+		ScribeIndex index = new ScribeIndex();
+		LuckyNumScribe luckyNum = new LuckyNumScribe();
+		index.register(luckyNum);
+		assertSame(luckyNum, index.getPropertyScribe("x-lucky-num"));
+		assertSame(luckyNum, index.getPropertyScribe(LuckyNumProperty.class));
+
+		//override a standard scribe
+		MyFormattedNameScribe fn = new MyFormattedNameScribe();
+		index.register(fn);
+		assertSame(fn, index.getPropertyScribe("fn"));
+		assertSame(fn, index.getPropertyScribe(MyFormattedNameProperty.class));
+
+		index.unregister(fn);
+		assertTrue(index.getPropertyScribe("fn") instanceof FormattedNameScribe);
+		assertSame(luckyNum, index.getPropertyScribe("X-LUCKY-NUM"));
+
+		index.unregister(luckyNum);
+		assertNull(index.getPropertyScribe("X-LUCKY-NUM"));
+	}
+
+	@Test
+	public void builder() {
+		LuckyNumScribe luckyNum = new LuckyNumScribe();
+		ScribeIndex index = new ScribeIndex.Builder().register(luckyNum).build();
+
+		assertTrue(index.isImmutable());
+		assertSame(luckyNum, index.getPropertyScribe("x-Lucky-Num"));
+		assertSame(luckyNum, index.getPropertyScribe(LuckyNumProperty.class));
+		assertSame(luckyNum, index.getPropertyScribe(luckyNum.getQName()));
+		assertTrue(index.getPropertyScribe(FormattedName.class) instanceof FormattedNameScribe);
+
+		try {
+			index.register(new MyFormattedNameScribe());
+			fail();
+		} catch (UnsupportedOperationException e) {
+			//expected
+		}
+		try {
+			index.unregister(luckyNum);
+			fail();
+		} catch (UnsupportedOperationException e) {
+			//expected
+		}
+	}
+
+	@Test
+	public void builder_copy() {
+		LuckyNumScribe luckyNum = new LuckyNumScribe();
+		ScribeIndex mutable = new ScribeIndex();
+		mutable.register(luckyNum);
+
+		ScribeIndex index = new ScribeIndex.Builder(mutable).build();
+		assertSame(luckyNum, index.getPropertyScribe("X-LUCKY-NUM"));
+
+		//changes to the original do not affect the copy
+		mutable.unregister(luckyNum);
+		assertSame(luckyNum, index.getPropertyScribe("X-LUCKY-NUM"));
+	}
+
+	@Test
+	public void standard() {
+		ScribeIndex index = ScribeIndex.standard();
+		assertSame(index, ScribeIndex.standard());
+		assertTrue(index.isImmutable());
+		assertFalse(new ScribeIndex().isImmutable());
+		assertTrue(index.getPropertyScribe("fn") instanceof FormattedNameScribe);
+	}
+
+	private static List<VCardPropertyScribe<? extends VCardProperty>> standardScribes(ScribeIndex index) {
+		String names[] = { "ADR", "AGENT", "ANNIVERSARY", "BDAY", "CALADRURI", "CALURI", "CATEGORIES", "CLASS", "CLIENTPIDMAP", "EMAIL", "FBURL", "FN", "GENDER", "GEO", "IMPP", "KEY", "KIND", "LABEL", "LANG", "LOGO", "MAILER", "MEMBER", "NICKNAME", "NOTE", "ORG", "PHOTO", "PRODID", "PROFILE", "RELATED", "REV", "ROLE", "SORT-STRING", "SOUND", "NAME", "SOURCE", "N", "TEL", "TZ", "TITLE", "UID", "URL", "XML", "BIRTHPLACE", "DEATHDATE", "DEATHPLACE", "EXPERTISE", "ORG-DIRECTORY", "INTEREST", "HOBBY" };
+		List<VCardPropertyScribe<? extends VCardProperty>> scribes = new ArrayList<VCardPropertyScribe<? extends VCardProperty>>();
+		for (String name : names) {
+			VCardPropertyScribe<? extends VCardProperty> scribe = index.getPropertyScribe(name);
+			if (scribe == null) {
+				fail(name);
+			}
+			scribes.add(scribe);
+		}
+		return scribes;
+	}
+
+	private static String mixedCase(String name) {
+		StringBuilder sb = new StringBuilder(name.length());
+		for (int i = 0; i < name.length(); i++) {
+			char c = name.charAt(i);
+			sb.append((i % 2 == 0) ? Character.toLowerCase(c) : Character.toUpperCase(c));
+		}
+		return sb.toString();
+	}
+}
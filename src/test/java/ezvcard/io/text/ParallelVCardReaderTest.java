@@ -0,0 +1,327 @@
+package ezvcard.io.text;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+import ezvcard.VCard;
+import ezvcard.io.PropertyFilter;
+import ezvcard.property.Agent;
+import ezvcard.property.FormattedName;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class ParallelVCardReaderTest {
+	@Test
+	public void same_as_sequential() throws Throwable {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 500; i++) {
+			String nl = (i % 3 == 0) ? "\r\n" : (i % 3 == 1) ? "\n" : "\r";
+			sb.append("BEGIN:VCARD").append(nl);
+			sb.append("VERSION:").append((i % 2 == 0) ? "2.1" : "3.0").append(nl);
+			sb.append("FN:Person ").append(i).append(nl);
+			sb.append("NOTE:folded").append(nl).append(" line ").append(i).append(nl);
+			if (i % 7 == 0) {
+				sb.append("BDAY:not a date").append(nl);
+			}
+			if (i % 11 == 0) {
+				sb.append("invalid line").append(nl);
+			}
+			sb.append("END:VCARD").append(nl);
+			if (i % 13 == 0) {
+				sb.append(nl).append("junk between vCards").append(nl);
+			}
+		}
+		String str = sb.toString();
+
+		for (int chunkSize : new int[] { 0, 100, 1000, 100000 }) {
+			VCardReader expectedReader = new VCardReader(str);
+			ParallelVCardReader reader = new ParallelVCardReader(new StringReader(str));
+			reader.setThreads(4);
+			reader.setChunkSize(chunkSize);
+
+			int count = 0;
+			VCard expected;
+			while ((expected = expectedReader.readNext()) != null) {
+				VCard actual = reader.readNext();
+				assertEquals(expected, actual);
+				assertEquals(expectedReader.getWarnings(), reader.getWarnings());
+				count++;
+			}
+			assertEquals(500, count);
+			assertNull(reader.readNext());
+
+			expectedReader.close();
+			reader.close();
+		}
+	}
+
+	@Test
+	public void warning_line_numbers() throws Throwable {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:Jane\r\n" +
+		"BDAY:not a date\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		ParallelVCardReader reader = new ParallelVCardReader(new StringReader(str));
+		reader.setChunkSize(0);
+
+		assertEquals("John", reader.readNext().getFormattedName().getValue());
+		assertEquals(0, reader.getWarnings().size());
+
+		assertEquals("Jane", reader.readNext().getFormattedName().getValue());
+		List<String> warnings = reader.getWarnings();
+		assertEquals(1, warnings.size());
+		assertTrue(warnings.get(0), warnings.get(0).contains("Line 8"));
+
+		assertNull(reader.readNext());
+		reader.close();
+	}
+
+	@Test
+	public void quoted_printable_soft_break() throws Throwable {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"NOTE;ENCODING=QUOTED-PRINTABLE:one=\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"FN:Jane\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		ParallelVCardReader reader = new ParallelVCardReader(new StringReader(str));
+		reader.setChunkSize(0);
+
+		VCard vcard = reader.readNext();
+		assertEquals("oneBEGIN:VCARD", vcard.getNotes().get(0).getValue());
+
+		vcard = reader.readNext();
+		assertEquals("Jane", vcard.getFormattedName().getValue());
+
+		assertNull(reader.readNext());
+		reader.close();
+	}
+
+	@Test
+	public void nested_vcard() throws Throwable {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"FN:John\r\n" +
+		"AGENT:\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"FN:Agent\r\n" +
+		"END:VCARD\r\n" +
+		"NOTE:after agent\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:2.1\r\n" +
+		"FN:Jane\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		ParallelVCardReader reader = new ParallelVCardReader(new StringReader(str));
+		reader.setChunkSize(0);
+
+		VCard vcard = reader.readNext();
+		assertEquals("John", vcard.getFormattedName().getValue());
+		assertEquals("after agent", vcard.getNotes().get(0).getValue());
+		Agent agent = vcard.getAgent();
+		assertEquals("Agent", agent.getVCard().getFormattedName().getValue());
+
+		vcard = reader.readNext();
+		assertEquals("Jane", vcard.getFormattedName().getValue());
+
+		assertNull(reader.readNext());
+		reader.close();
+	}
+
+	@Test
+	public void no_trailing_newline() throws Throwable {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:Jane\r\n" +
+		"END:VCARD";
+		//@formatter:on
+
+		ParallelVCardReader reader = new ParallelVCardReader(new StringReader(str));
+		reader.setChunkSize(0);
+		List<VCard> vcards = reader.readAll();
+		assertEquals(2, vcards.size());
+		assertEquals("Jane", vcards.get(1).getFormattedName().getValue());
+		reader.close();
+	}
+
+	@Test
+	public void empty() throws Throwable {
+		ParallelVCardReader reader = new ParallelVCardReader(new StringReader(""));
+		assertNull(reader.readNext());
+		reader.close();
+	}
+
+	@Test
+	public void property_filter() throws Throwable {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+		"VERSION:3.0\r\n" +
+		"FN:John\r\n" +
+		"NOTE:note\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		ParallelVCardReader reader = new ParallelVCardReader(new StringReader(str));
+		reader.setPropertyFilter(new PropertyFilter().keep(FormattedName.class));
+
+		VCard vcard = reader.readNext();
+		assertEquals(1, vcard.getProperties().size());
+		assertEquals("John", vcard.getFormattedName().getValue());
+		reader.close();
+	}
+
+	@Test
+	public void executor_not_shutdown() throws Throwable {
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			ParallelVCardReader reader = new ParallelVCardReader(new StringReader("BEGIN:VCARD\r\nFN:John\r\nEND:VCARD\r\n"));
+			reader.setExecutorService(executor);
+			assertEquals("John", reader.readNext().getFormattedName().getValue());
+			reader.close();
+			assertFalse(executor.isShutdown());
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void read_ahead() throws Throwable {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 10; i++) {
+			sb.append("BEGIN:VCARD\r\nFN:John ").append(i).append("\r\nEND:VCARD\r\n");
+		}
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+		try {
+			ParallelVCardReader reader = new ParallelVCardReader(new StringReader(sb.toString()));
+			reader.setExecutorService(executor);
+			reader.setChunkSize(1);
+			reader.setReadAhead(3);
+			assertEquals("John 0", reader.readNext().getFormattedName().getValue());
+
+			//the first chunk was taken off the pipeline, the rest are still queued or parsed
+			assertEquals(3, executor.getTaskCount());
+
+			for (int i = 1; i < 10; i++) {
+				assertEquals("John " + i, reader.readNext().getFormattedName().getValue());
+			}
+			assertNull(reader.readNext());
+			reader.close();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	public void read_ahead_derived_from_executor() throws Throwable {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 10; i++) {
+			sb.append("BEGIN:VCARD\r\nFN:John ").append(i).append("\r\nEND:VCARD\r\n");
+		}
+
+		ThreadPoolExecutor executor = new ThreadPoolExecutor(2, 2, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>());
+		try {
+			ParallelVCardReader reader = new ParallelVCardReader(new StringReader(sb.toString()));
+			reader.setExecutorService(executor);
+			reader.setChunkSize(1);
+			reader.readNext();
+
+			//twice the core pool size
+			assertEquals(4, executor.getTaskCount());
+			reader.close();
+		} finally {
+			executor.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setReadAhead_invalid() throws IOException {
+		ParallelVCardReader reader = new ParallelVCardReader(new StringReader(""));
+		try {
+			reader.setReadAhead(0);
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void setThreads_invalid() throws IOException {
+		ParallelVCardReader reader = new ParallelVCardReader(new StringReader(""));
+		try {
+			reader.setThreads(0);
+		} finally {
+			reader.close();
+		}
+	}
+}
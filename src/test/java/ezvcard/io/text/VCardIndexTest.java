@@ -0,0 +1,326 @@
+package ezvcard.io.text;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.charset.Charset;
+import java.util.List;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import ezvcard.VCard;
+import ezvcard.VCardVersion;
+import ezvcard.io.text.VCardIndex.Entry;
+import ezvcard.property.Uid;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class VCardIndexTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	private final Charset utf8 = Charset.forName("UTF-8");
+
+	//@formatter:off
+	private final String vcard1 =
+	"BEGIN:VCARD\r\n" +
+	"VERSION:3.0\r\n" +
+	"UID:one\r\n" +
+	"REV:20160101T000000Z\r\n" +
+	"FN:John\r\n" +
+	"END:VCARD";
+
+	private final String vcard2 =
+	"BEGIN:VCARD\n" +
+	"VERSION:2.1\n" +
+	"FN:Jane\n" +
+	"AGENT:\n" +
+	"BEGIN:VCARD\n" +
+	"UID:agent\n" +
+	"END:VCARD\n" +
+	"item1.UID:tw\n" +
+	" o\n" +
+	"BDAY:not a date\n" +
+	"END:VCARD";
+
+	private final String vcard3 =
+	"BEGIN:VCARD\r\n" +
+	"VERSION:4.0\r\n" +
+	"UID;VALUE=uri:urn:uuid:éè\r\n" +
+	"END:VCARD";
+	//@formatter:on
+
+	@Test
+	public void build() throws Throwable {
+		String str = vcard1 + "\r\n" + "junk\r\n" + vcard2 + "\n" + vcard3;
+		File file = write(str);
+
+		VCardIndex index = VCardIndex.build(file, utf8);
+		List<Entry> entries = index.getEntries();
+		assertEquals(3, entries.size());
+
+		assertEntry(file, entries.get(0), vcard1, 1, "one", "20160101T000000Z");
+		assertEntry(file, entries.get(1), vcard2, 8, "two", null);
+		assertEntry(file, entries.get(2), vcard3, 19, "urn:uuid:éè", null);
+
+		assertEquals(file.length(), index.getIndexedLength());
+		assertEquals(entries.get(1), index.getEntry("two"));
+		assertNull(index.getEntry("agent"));
+	}
+
+	@Test
+	public void build_empty() throws Throwable {
+		File file = write("");
+		VCardIndex index = VCardIndex.build(file, utf8);
+		assertEquals(0, index.getEntries().size());
+		assertEquals(0, index.getIndexedLength());
+	}
+
+	@Test
+	public void build_incomplete_vcard() throws Throwable {
+		File file = write(vcard1 + "\r\nBEGIN:VCARD\r\nFN:Incomplete\r\n");
+		VCardIndex index = VCardIndex.build(file, utf8);
+		assertEquals(1, index.getEntries().size());
+		assertEquals(vcard1.length() + 2, index.getIndexedLength());
+	}
+
+	@Test
+	public void read() throws Throwable {
+		String str = vcard1 + "\r\n" + "junk\r\n" + vcard2 + "\n" + vcard3;
+		File file = write(str);
+		VCardIndex index = VCardIndex.build(file, utf8);
+
+		IndexedVCardReader reader = new IndexedVCardReader(file, index);
+		try {
+			VCard vcard = reader.read("two");
+			assertEquals("Jane", vcard.getFormattedName().getValue());
+			assertEquals(VCardVersion.V2_1, vcard.getVersion());
+			List<String> warnings = reader.getWarnings();
+			assertEquals(1, warnings.size());
+			assertTrue(warnings.get(0), warnings.get(0).contains("Line 17"));
+
+			vcard = reader.read("urn:uuid:éè");
+			assertEquals("urn:uuid:éè", vcard.getUid().getValue());
+			assertEquals(0, reader.getWarnings().size());
+
+			assertNull(reader.read("does-not-exist"));
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void write_read() throws Throwable {
+		File file = write(vcard1 + "\r\n" + vcard2 + "\r");
+		VCardIndex index = VCardIndex.build(file, utf8);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		index.write(out);
+		VCardIndex copy = VCardIndex.read(new ByteArrayInputStream(out.toByteArray()));
+
+		assertEquals(utf8, copy.getCharset());
+		assertEquals(index.getIndexedLength(), copy.getIndexedLength());
+		assertEquals(index.getEntries().size(), copy.getEntries().size());
+		for (int i = 0; i < index.getEntries().size(); i++) {
+			Entry expected = index.getEntries().get(i);
+			Entry actual = copy.getEntries().get(i);
+			assertEquals(expected.toString(), actual.toString());
+		}
+		assertEquals(copy.getEntries().get(1), copy.getEntry("two"));
+
+		//should resume where the original index left off ("\r\n" is split between the two writes)
+		append(file, "\n" + vcard3 + "\r\n");
+		copy.update(file);
+		assertEntry(file, copy.getEntries().get(2), vcard3, 18, "urn:uuid:éè", null);
+	}
+
+	@Test
+	public void read_invalid() throws Throwable {
+		try {
+			VCardIndex.read(new ByteArrayInputStream("not an index".getBytes()));
+			fail();
+		} catch (IOException e) {
+			//expected
+		}
+	}
+
+	@Test
+	public void update_append() throws Throwable {
+		File file = folder.newFile();
+		VCard vcard = new VCard();
+		vcard.setUid(new Uid("one"));
+		vcard.setFormattedName("John");
+
+		VCardWriter writer = new VCardWriter(file, true, VCardVersion.V3_0);
+		writer.write(vcard);
+		writer.close();
+
+		VCardIndex index = VCardIndex.build(file, utf8);
+		assertEquals(1, index.getEntries().size());
+		long length = file.length();
+		assertEquals(length, index.getIndexedLength());
+
+		vcard.setUid(new Uid("two"));
+		vcard.setFormattedName("Jane");
+		writer = new VCardWriter(file, true, VCardVersion.V3_0);
+		writer.write(vcard);
+		writer.close();
+
+		index.update(file);
+		assertEquals(2, index.getEntries().size());
+		assertEquals(length, index.getEntry("two").getOffset());
+		assertEquals(file.length(), index.getIndexedLength());
+
+		IndexedVCardReader reader = new IndexedVCardReader(file, index);
+		try {
+			assertEquals("John", reader.read("one").getFormattedName().getValue());
+			assertEquals("Jane", reader.read("two").getFormattedName().getValue());
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void update_shrunk() throws Throwable {
+		File file = write(vcard1 + "\r\n" + vcard3 + "\r\n");
+		VCardIndex index = VCardIndex.build(file, utf8);
+		assertEquals(2, index.getEntries().size());
+
+		RandomAccessFile raf = new RandomAccessFile(file, "rw");
+		raf.setLength(vcard1.length() + 2);
+		raf.close();
+
+		index.update(file);
+		assertEquals(1, index.getEntries().size());
+		assertNull(index.getEntry("urn:uuid:éè"));
+	}
+
+	@Test
+	public void update_modified_same_length() throws Throwable {
+		File file = write(vcard1);
+		VCardIndex index = VCardIndex.build(file, utf8);
+		assertFalse(index.isStale(file));
+
+		FileOutputStream out = new FileOutputStream(file);
+		try {
+			out.write(vcard1.replace("UID:one", "UID:eno").getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+		file.setLastModified(file.lastModified() + 2000);
+		assertTrue(index.isStale(file));
+
+		index.update(file);
+		assertFalse(index.isStale(file));
+		assertEquals(1, index.getEntries().size());
+		assertNull(index.getEntry("one"));
+		assertEntry(file, index.getEntry("eno"), vcard1.replace("UID:one", "UID:eno"), 1, "eno", "20160101T000000Z");
+	}
+
+	@Test
+	public void reader_updates_stale_index() throws Throwable {
+		File file = write(vcard1 + "\r\n");
+		VCardIndex index = VCardIndex.build(file, utf8);
+
+		append(file, vcard3 + "\r\n");
+		assertTrue(index.isStale(file));
+
+		IndexedVCardReader reader = new IndexedVCardReader(file, index);
+		try {
+			assertFalse(index.isStale(file));
+			assertEquals(2, index.getEntries().size());
+			assertEquals("urn:uuid:éè", reader.read("urn:uuid:éè").getUid().getValue());
+		} finally {
+			reader.close();
+		}
+	}
+
+	@Test
+	public void reader_caret_decoding() throws Throwable {
+		File file = write("BEGIN:VCARD\r\nVERSION:4.0\r\nUID:one\r\nFN;X-TEST=a^'b:John\r\nEND:VCARD\r\n");
+		VCardIndex index = VCardIndex.build(file, utf8);
+
+		IndexedVCardReader reader = new IndexedVCardReader(file, index);
+		try {
+			assertTrue(reader.isCaretDecodingEnabled());
+			assertEquals("a\"b", reader.read("one").getFormattedName().getParameter("X-TEST"));
+
+			reader.setCaretDecodingEnabled(false);
+			assertEquals("a^'b", reader.read("one").getFormattedName().getParameter("X-TEST"));
+		} finally {
+			reader.close();
+		}
+	}
+
+	private File write(String str) throws IOException {
+		File file = folder.newFile();
+		append(file, str);
+		return file;
+	}
+
+	private void append(File file, String str) throws IOException {
+		FileOutputStream out = new FileOutputStream(file, true);
+		try {
+			out.write(str.getBytes("UTF-8"));
+		} finally {
+			out.close();
+		}
+	}
+
+	private void assertEntry(File file, Entry entry, String expectedText, int line, String uid, String rev) throws IOException {
+		byte bytes[] = new byte[entry.getLength()];
+		RandomAccessFile raf = new RandomAccessFile(file, "r");
+		try {
+			raf.seek(entry.getOffset());
+			raf.readFully(bytes);
+		} finally {
+			raf.close();
+		}
+
+		assertEquals(expectedText, new String(bytes, "UTF-8"));
+		assertEquals(line, entry.getLine());
+		assertEquals(uid, entry.getUid());
+		assertEquals(rev, entry.getRev());
+	}
+}
@@ -11,11 +11,20 @@ import static ezvcard.util.TestUtils.assertPropertyCount;
 import static ezvcard.util.TestUtils.assertVersion;
 import static ezvcard.util.TestUtils.assertWarnings;
 import static ezvcard.util.TestUtils.each;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
 import java.nio.charset.Charset;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
@@ -32,17 +41,25 @@ import ezvcard.io.LuckyNumProperty;
 import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
 import ezvcard.io.MyFormattedNameProperty;
 import ezvcard.io.MyFormattedNameProperty.MyFormattedNameScribe;
+import ezvcard.io.PropertyFilter;
 import ezvcard.io.scribe.CannotParseScribe;
+import ezvcard.io.scribe.ScribeIndex;
 import ezvcard.io.scribe.SkipMeScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
 import ezvcard.parameter.AddressType;
+import ezvcard.parameter.ImageType;
 import ezvcard.parameter.VCardParameters;
 import ezvcard.property.Address;
 import ezvcard.property.FormattedName;
 import ezvcard.property.Label;
+import ezvcard.property.Photo;
 import ezvcard.property.RawProperty;
 import ezvcard.property.VCardProperty;
 import ezvcard.property.asserter.VCardAsserter;
+import ezvcard.util.Blob;
+import ezvcard.util.BlobSink;
+import ezvcard.util.Gobble;
+import ezvcard.util.org.apache.commons.codec.binary.Base64;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -129,6 +146,40 @@ public class VCardReaderTest {
 	/**
 	 * All nameless parameters should be assigned a name.
 	 */
+	@Test
+	public void property_filter() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"FN:John Doe\r\n" +
+			"GEO:invalid\r\n" +
+			"NOTE;ENCODING=QUOTED-PRINTABLE:=ZZ\r\n" +
+			"PHOTO;ENCODING=b;TYPE=jpeg:aGVsbG8=\r\n" +
+			"X-FOO:bar\r\n" +
+			"x-bar:foo\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.setPropertyFilter(new PropertyFilter().keep(FormattedName.class).keep("x-foo"));
+		VCardAsserter asserter = new VCardAsserter(reader);
+
+		asserter.next(V4_0);
+
+		//@formatter:off
+		asserter.simpleProperty(FormattedName.class)
+			.value("John Doe")
+		.noMore();
+
+		asserter.rawProperty("X-FOO")
+			.value("bar")
+		.noMore();
+		//@formatter:on
+
+		asserter.done();
+	}
+
 	@Test
 	public void nameless_parameters() throws Exception {
 		for (VCardVersion version : VCardVersion.values()) {
@@ -278,6 +329,32 @@ public class VCardReaderTest {
 		}
 	}
 
+	@Test
+	public void registerScribe_does_not_modify_shared_index() throws Exception {
+		VCardReader reader = new VCardReader("");
+		reader.registerScribe(new LuckyNumScribe());
+		assertNotSame(ScribeIndex.standard(), reader.getScribeIndex());
+		assertNotNull(reader.getScribeIndex().getPropertyScribe("X-LUCKY-NUM"));
+		assertNull(ScribeIndex.standard().getPropertyScribe("X-LUCKY-NUM"));
+
+		//the getter has no side effects
+		VCardReader reader2 = new VCardReader("");
+		assertSame(ScribeIndex.standard(), reader2.getScribeIndex());
+		assertSame(reader2.getScribeIndex(), reader2.getScribeIndex());
+
+		//immutable indexes set by the caller are copied, not modified
+		ScribeIndex built = new ScribeIndex.Builder().register(new MyFormattedNameScribe()).build();
+		reader2.setScribeIndex(built);
+		reader2.registerScribe(new LuckyNumScribe());
+		assertNotSame(built, reader2.getScribeIndex());
+		assertNull(built.getPropertyScribe("X-LUCKY-NUM"));
+		assertNotNull(reader2.getScribeIndex().getPropertyScribe("X-LUCKY-NUM"));
+		assertTrue(reader2.getScribeIndex().getPropertyScribe("FN") instanceof MyFormattedNameScribe);
+
+		reader.close();
+		reader2.close();
+	}
+
 	@Test
 	public void extended_properties_override_standard_property_scribes() throws Exception {
 		for (VCardVersion version : VCardVersion.values()) {
@@ -716,6 +793,225 @@ public class VCardReaderTest {
 		}
 	}
 
+	@Test
+	public void blobSink() throws Exception {
+		byte large[] = new byte[1000];
+		for (int i = 0; i < large.length; i++) {
+			large[i] = (byte) i;
+		}
+		String largeBase64 = Base64.encodeBase64String(large);
+
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"PHOTO;ENCODING=b;TYPE=jpeg:" + largeBase64 + "\r\n" +
+			"PHOTO;ENCODING=b;TYPE=jpeg:ZGF0YQ==\r\n" +
+		"END:VCARD\r\n" +
+		"BEGIN:VCARD\r\n" +
+			"VERSION:4.0\r\n" +
+			"PHOTO:data:image/png;base64," + largeBase64 + "\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		MemoryBlobSink sink = new MemoryBlobSink();
+		VCardReader reader = new VCardReader(str);
+		reader.setBlobSink(sink);
+		reader.setBlobThreshold(500);
+
+		{
+			VCard vcard = reader.readNext();
+			List<Photo> photos = vcard.getPhotos();
+
+			Photo photo = photos.get(0);
+			assertEquals(ImageType.JPEG, photo.getContentType());
+			assertEquals(large.length, photo.getDataSize());
+			assertArrayEquals(large, new Gobble(photo.openDataStream()).asByteArray());
+			assertTrue(photo.getBlob() != null);
+
+			//below the threshold
+			photo = photos.get(1);
+			assertEquals(ImageType.JPEG, photo.getContentType());
+			assertNull(photo.getBlob());
+			assertEquals("data", new String(photo.getData()));
+
+			assertWarnings(0, reader);
+		}
+
+		{
+			VCard vcard = reader.readNext();
+			Photo photo = vcard.getPhotos().get(0);
+			assertEquals(ImageType.PNG, photo.getContentType());
+			assertTrue(photo.getBlob() != null);
+			assertArrayEquals(large, new Gobble(photo.openDataStream()).asByteArray());
+
+			assertWarnings(0, reader);
+		}
+
+		assertNoMoreVCards(reader);
+		assertEquals(2, sink.blobs.size());
+	}
+
+	@Test
+	public void blobSink_error() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"PHOTO;ENCODING=b;TYPE=jpeg:ZGF0YQ==\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.setBlobSink(new BlobSink() {
+			public Blob store(InputStream in) throws IOException {
+				throw new IOException("disk full");
+			}
+		});
+		reader.setBlobThreshold(0);
+
+		VCard vcard = reader.readNext();
+		Photo photo = vcard.getPhotos().get(0);
+		assertNull(photo.getBlob());
+		assertEquals("data", new String(photo.getData()));
+
+		assertWarnings(1, reader);
+		assertNoMoreVCards(reader);
+	}
+
+	private static class MemoryBlobSink implements BlobSink {
+		private final List<byte[]> blobs = new ArrayList<byte[]>();
+
+		public Blob store(InputStream in) throws IOException {
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			int read;
+			while ((read = in.read()) != -1) {
+				out.write(read);
+			}
+
+			final byte data[] = out.toByteArray();
+			blobs.add(data);
+			return new Blob() {
+				public long getSize() {
+					return data.length;
+				}
+
+				public InputStream openStream() {
+					return new ByteArrayInputStream(data);
+				}
+
+				public void delete() {
+					//empty
+				}
+			};
+		}
+	}
+
+	@Test
+	public void lazyParsing() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"FN:John Doe\r\n" +
+			"item1.BDAY:not a date\r\n" +
+			"ADR;TYPE=home;LABEL=one\\ntwo:;;123 Main St;Austin;TX;12345;USA\r\n" +
+			"X-FOO:bar\r\n" +
+			"WARNINGS:foo\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.setLazyParsing(true);
+		reader.registerScribe(new WarningsScribe());
+		VCard vcard = reader.readNext();
+		List<String> warnings = reader.getWarnings();
+		assertEquals(0, warnings.size());
+
+		Iterator<VCardProperty> it = vcard.lazyIterator();
+		int lazy = 0;
+		while (it.hasNext()) {
+			if (it.next() instanceof LazyProperty) {
+				lazy++;
+			}
+		}
+		assertEquals(4, lazy); //X-FOO is not parsed lazily
+
+		assertEquals("John Doe", vcard.getFormattedName().getValue());
+		assertEquals(0, warnings.size());
+
+		assertEquals("one" + NEWLINE + "two", vcard.getAddresses().get(0).getLabel());
+		assertEquals("Austin", vcard.getAddresses().get(0).getLocality());
+
+		//BDAY becomes a raw property when accessed
+		assertNull(vcard.getBirthday());
+		assertEquals(1, warnings.size());
+		assertTrue(warnings.get(0), warnings.get(0).startsWith("Line 4 (BDAY property)"));
+		RawProperty bday = vcard.getExtendedProperty("BDAY");
+		assertEquals("not a date", bday.getValue());
+		assertEquals("item1", bday.getGroup());
+
+		//accessing the raw properties parses all the remaining properties
+		assertEquals(2, vcard.getExtendedProperties().size());
+		assertEquals(2, warnings.size());
+		assertEquals("Line 7 (WARNINGS property): one", warnings.get(1));
+		assertPropertyCount(5, vcard);
+
+		assertNoMoreVCards(reader);
+	}
+
+	@Test
+	public void lazyParsing_keeps_order() throws Exception {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"FN:John Doe\r\n" +
+			"BDAY:not a date\r\n" +
+			"NOTE:note\r\n" +
+			"X-A:a\r\n" +
+			"BDAY:2000-01-01\r\n" +
+			"X-B:b\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		List<VCardProperty> expected = new ArrayList<VCardProperty>(new VCardReader(str).readNext().getProperties());
+
+		//parse everything at once
+		VCardReader reader = new VCardReader(str);
+		reader.setLazyParsing(true);
+		VCard vcard = reader.readNext();
+		assertEquals(expected, new ArrayList<VCardProperty>(vcard.getProperties()));
+
+		//parse the property that becomes a raw property first
+		reader = new VCardReader(str);
+		reader.setLazyParsing(true);
+		vcard = reader.readNext();
+		assertNotNull(vcard.getBirthday());
+		assertEquals(expected, new ArrayList<VCardProperty>(vcard.getProperties()));
+	}
+
+	@Test
+	public void lazyParsing_same_as_eager() throws Exception {
+		String files[] = { "John_Doe_ANDROID.vcf", "John_Doe_BLACK_BERRY.vcf", "John_Doe_EVOLUTION.vcf", "John_Doe_GMAIL.vcf", "John_Doe_IPHONE.vcf", "John_Doe_LOTUS_NOTES.vcf", "John_Doe_MAC_ADDRESS_BOOK.vcf", "John_Doe_MS_OUTLOOK.vcf", "fullcontact.vcf", "gmail-list.vcf", "gmail-single.vcf", "gmail-single2.vcf", "outlook-2003.vcf", "outlook-2007.vcf", "rfc2426-example.vcf", "rfc6350-example.vcf", "thunderbird-MoreFunctionsForAddressBook-extension.vcf" };
+		for (String file : files) {
+			VCardReader eager = new VCardReader(getClass().getResourceAsStream(file));
+			VCardReader lazy = new VCardReader(getClass().getResourceAsStream(file));
+			lazy.setLazyParsing(true);
+
+			VCard expected;
+			while ((expected = eager.readNext()) != null) {
+				VCard actual = lazy.readNext();
+				assertEquals(file, expected, actual);
+				assertEquals(file, eager.getWarnings().size(), lazy.getWarnings().size());
+			}
+			assertNoMoreVCards(lazy);
+
+			eager.close();
+			lazy.close();
+		}
+	}
+
 	@Test
 	public void warnings_list_cleared() throws Exception {
 		for (VCardVersion version : VCardVersion.values()) {
@@ -1,10 +1,16 @@
 package ezvcard.io.text;
 
 import static ezvcard.util.TestUtils.assertValidate;
+import static org.junit.Assert.assertArrayEquals;
 import static org.junit.Assert.assertEquals;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
 import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
 import java.io.StringWriter;
+import java.nio.channels.Channels;
 import java.nio.charset.Charset;
 import java.util.List;
 
@@ -12,6 +18,7 @@ import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
 
+import ezvcard.Ezvcard;
 import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
@@ -33,11 +40,13 @@ import ezvcard.property.Key;
 import ezvcard.property.Logo;
 import ezvcard.property.Note;
 import ezvcard.property.Photo;
+import ezvcard.property.RawProperty;
 import ezvcard.property.SkipMeProperty;
 import ezvcard.property.StructuredName;
 import ezvcard.property.Telephone;
 import ezvcard.property.Timezone;
 import ezvcard.property.VCardProperty;
+import ezvcard.util.Blob;
 import ezvcard.util.PartialDate;
 import ezvcard.util.Gobble;
 import ezvcard.util.TelUri;
@@ -104,6 +113,203 @@ public class VCardWriterTest {
 		assertEquals(actual, expected);
 	}
 
+	@Test
+	public void lazy_properties() throws Throwable {
+		//@formatter:off
+		String str =
+		"BEGIN:VCARD\r\n" +
+			"VERSION:3.0\r\n" +
+			"PRODID:ez-vcard\r\n" +
+			"grp.N;LANGUAGE=en:Doe;John;;;\r\n" +
+			"BDAY;VALUE=text:sometime\r\n" +
+			"FN:John Doe\r\n" +
+			"NOTE:one\\ntwo\r\n" +
+		"END:VCARD\r\n";
+		//@formatter:on
+
+		VCardReader reader = new VCardReader(str);
+		reader.setLazyParsing(true);
+		VCard vcard = reader.readNext();
+		reader.close();
+
+		//accessed properties are parsed and written normally
+		vcard.getFormattedName().setValue("Jane Doe");
+
+		{
+			StringWriter sw = new StringWriter();
+			VCardWriter vcw = new VCardWriter(sw, VCardVersion.V3_0);
+			vcw.setAddProdId(false);
+			vcw.write(vcard);
+			String actual = sw.toString();
+
+			//untouched properties are written verbatim (e.g. the trailing semicolons in N)
+			//@formatter:off
+			String expected =
+			"BEGIN:VCARD\r\n" +
+				"VERSION:3.0\r\n" +
+				"PRODID:ez-vcard\r\n" +
+				"grp.N;LANGUAGE=en:Doe;John;;;\r\n" +
+				"BDAY;VALUE=text:sometime\r\n" +
+				"FN:Jane Doe\r\n" +
+				"NOTE:one\\ntwo\r\n" +
+			"END:VCARD\r\n";
+			//@formatter:on
+
+			assertEquals(expected, actual);
+		}
+
+		{
+			//properties are parsed if the vCard is written in a different version
+			StringWriter sw = new StringWriter();
+			VCardWriter vcw = new VCardWriter(sw, VCardVersion.V4_0);
+			vcw.setAddProdId(false);
+			vcw.write(vcard);
+			String actual = sw.toString();
+
+			//@formatter:off
+			String expected =
+			"BEGIN:VCARD\r\n" +
+				"VERSION:4.0\r\n" +
+				"PRODID:ez-vcard\r\n" +
+				"grp.N;LANGUAGE=en:Doe;John;;;\r\n" +
+				"BDAY;VALUE=text:sometime\r\n" +
+				"FN:Jane Doe\r\n" +
+				"NOTE:one\\ntwo\r\n" +
+			"END:VCARD\r\n";
+			//@formatter:on
+
+			assertEquals(expected, actual);
+		}
+	}
+
+	@Test
+	public void blob() throws Throwable {
+		final byte data[] = new byte[1000];
+		for (int i = 0; i < data.length; i++) {
+			data[i] = (byte) i;
+		}
+		Blob blob = new Blob() {
+			public long getSize() {
+				return data.length;
+			}
+
+			public InputStream openStream() {
+				return new ByteArrayInputStream(data);
+			}
+
+			public void delete() {
+				//empty
+			}
+		};
+
+		VCard inMemory = new VCard();
+		Photo photo = new Photo(data, ImageType.JPEG);
+		photo.setGroup("group");
+		inMemory.addPhoto(photo);
+
+		VCard inBlob = new VCard();
+		photo = new Photo((byte[]) null, null);
+		photo.setBlob(blob, ImageType.JPEG);
+		photo.setGroup("group");
+		inBlob.addPhoto(photo);
+
+		//blobs are written exactly the same way as byte arrays
+		for (VCardVersion version : VCardVersion.values()) {
+			for (TargetApplication targetApplication : new TargetApplication[] { null, TargetApplication.OUTLOOK }) {
+				StringWriter expected = new StringWriter();
+				VCardWriter writer = new VCardWriter(expected, version);
+				writer.setTargetApplication(targetApplication);
+				writer.write(inMemory);
+
+				StringWriter actual = new StringWriter();
+				writer = new VCardWriter(actual, version);
+				writer.setTargetApplication(targetApplication);
+				writer.write(inBlob);
+
+				assertEquals(expected.toString(), actual.toString());
+			}
+		}
+	}
+
+	@Test
+	public void golden_files() throws Throwable {
+		VCard vcard = new VCard();
+		vcard.setFormattedName("J\u00f6hn Doe");
+
+		StructuredName n = new StructuredName();
+		n.setFamily("Doe");
+		n.setGiven("J\u00f6hn");
+		n.getAdditionalNames().add("Q.");
+		n.getSuffixes().add("Jr.; Esq.");
+		vcard.setStructuredName(n);
+
+		vcard.addTelephoneNumber("+1 555 555 1234", TelephoneType.CELL, TelephoneType.VOICE);
+
+		Address adr = new Address();
+		adr.setStreetAddress("123 Main St, Apt. 4");
+		adr.setLocality("Anytown");
+		adr.getTypes().add(AddressType.HOME);
+		adr.setLabel("123 Main St, Apt. 4\nAnytown");
+		vcard.addAddress(adr);
+
+		vcard.addNote("Line one\nLine two; with, punctuation \\ and a backslash");
+		vcard.addNote("This note is long enough that it has to be folded onto more than one line when it is written out.");
+		vcard.addNote("\u00dcn\u00efc\u00f6d\u00e9 t\u00eaxt \u00fcs\u00ebs m\u00f6r\u00eb th\u00e1n \u00f6n\u00eb \u00f6ct\u00e9t p\u00earch\u00e1r\u00e1ct\u00e9r, \u3042\u3044\u3046 \ud83d\ude00 \u00e0nd \u00ecs f\u00f6ld\u00e9d t\u00f6\u00f6.");
+
+		vcard.setCategories("friends", "work, mostly");
+
+		RawProperty raw = vcard.addExtendedProperty("X-CUSTOM", "value");
+		raw.setGroup("item1");
+		raw.getParameters().put("X-PARAM", "a, b;c");
+
+		File file = tempFolder.newFile();
+		for (VCardVersion version : VCardVersion.values()) {
+			String goldenFile = "golden-" + version.getVersion() + ".vcf";
+			byte golden[] = new Gobble(getClass().getResourceAsStream(goldenFile)).asByteArray();
+
+			StringWriter sw = new StringWriter();
+			write(new VCardWriter(sw, version), vcard);
+			assertArrayEquals(goldenFile, golden, sw.toString().getBytes("UTF-8"));
+
+			//versions 2.1 and 3.0 are written in the platform's default encoding
+			byte expected[] = new String(golden, "UTF-8").getBytes(outputCharset(version));
+
+			ByteArrayOutputStream out = new ByteArrayOutputStream();
+			write(new VCardWriter(out, version), vcard);
+			assertArrayEquals(goldenFile, expected, out.toByteArray());
+
+			out = new ByteArrayOutputStream();
+			write(new VCardWriter(Channels.newChannel(out), version), vcard);
+			assertArrayEquals(goldenFile, expected, out.toByteArray());
+
+			write(new VCardWriter(file, version), vcard);
+			assertArrayEquals(goldenFile, expected, new Gobble(file).asByteArray());
+		}
+	}
+
+	@Test
+	public void output_stream_same_as_writer() throws Throwable {
+		String files[] = { "John_Doe_ANDROID.vcf", "John_Doe_EVOLUTION.vcf", "John_Doe_IPHONE.vcf", "John_Doe_MAC_ADDRESS_BOOK.vcf", "John_Doe_MS_OUTLOOK.vcf", "fullcontact.vcf", "outlook-2007.vcf", "rfc2426-example.vcf", "rfc6350-example.vcf" };
+		for (String file : files) {
+			VCard vcards[] = Ezvcard.parse(getClass().getResourceAsStream(file)).all().toArray(new VCard[0]);
+			for (VCardVersion version : VCardVersion.values()) {
+				String message = file + " " + version;
+
+				StringWriter sw = new StringWriter();
+				write(new VCardWriter(sw, version), vcards);
+				byte expected[] = sw.toString().getBytes(outputCharset(version));
+
+				ByteArrayOutputStream out = new ByteArrayOutputStream();
+				write(new VCardWriter(out, version), vcards);
+				assertArrayEquals(message, expected, out.toByteArray());
+
+				out = new ByteArrayOutputStream();
+				write(new VCardWriter(Channels.newChannel(out), version), vcards);
+				assertArrayEquals(message, expected, out.toByteArray());
+			}
+		}
+	}
+
 	@Test
 	public void nestedVCard() throws Throwable {
 		VCard vcard = new VCard();
@@ -817,4 +1023,16 @@ public class VCardWriterTest {
 
 		assertEquals(expected, actual);
 	}
+
+	private static void write(VCardWriter writer, VCard... vcards) throws IOException {
+		writer.setAddProdId(false);
+		for (VCard vcard : vcards) {
+			writer.write(vcard);
+		}
+		writer.close();
+	}
+
+	private static String outputCharset(VCardVersion version) {
+		return (version == VCardVersion.V4_0) ? "UTF-8" : Charset.defaultCharset().name();
+	}
 }
@@ -31,6 +31,7 @@ import ezvcard.io.LuckyNumProperty;
 import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
 import ezvcard.io.SalaryProperty;
 import ezvcard.io.SalaryProperty.SalaryScribe;
+import ezvcard.io.PropertyFilter;
 import ezvcard.io.StreamReader;
 import ezvcard.io.scribe.SkipMeScribe;
 import ezvcard.io.scribe.VCardPropertyScribe;
@@ -158,6 +159,34 @@ public class XCardDocumentTest {
 		//@formatter:on
 	}
 
+	@Test
+	public void reader_property_filter() throws Throwable {
+		//@formatter:off
+		XCardDocument xcard = new XCardDocument(
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<fn><text>Dr. Gregory House M.D.</text></fn>" +
+				"<geo><uri>invalid</uri></geo>" +
+				"<note><text>note</text></note>" +
+			"</vcard>" +
+		"</vcards>"
+		);
+		//@formatter:on
+
+		StreamReader reader = xcard.reader();
+		reader.setPropertyFilter(new PropertyFilter().keep(FormattedName.class));
+		VCardAsserter asserter = new VCardAsserter(reader);
+
+		//@formatter:off
+		asserter.next(V4_0);
+		asserter.simpleProperty(FormattedName.class)
+			.value("Dr. Gregory House M.D.")
+		.noMore();
+		//@formatter:on
+
+		asserter.done();
+	}
+
 	@Test
 	public void add_basicType() throws Throwable {
 		VCard vcard = new VCard();
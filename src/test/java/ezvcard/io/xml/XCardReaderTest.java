@@ -14,8 +14,11 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.io.IOException;
 import java.io.Writer;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Iterator;
 
+import javax.xml.stream.XMLStreamException;
 import javax.xml.transform.TransformerException;
 
 import org.custommonkey.xmlunit.XMLUnit;
@@ -23,6 +26,9 @@ import org.junit.BeforeClass;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
 import org.xml.sax.SAXException;
 
 import ezvcard.VCard;
@@ -33,6 +39,7 @@ import ezvcard.io.LuckyNumProperty;
 import ezvcard.io.LuckyNumProperty.LuckyNumScribe;
 import ezvcard.io.MyFormattedNameProperty;
 import ezvcard.io.MyFormattedNameProperty.MyFormattedNameScribe;
+import ezvcard.io.PropertyFilter;
 import ezvcard.io.SalaryProperty;
 import ezvcard.io.SalaryProperty.SalaryScribe;
 import ezvcard.io.scribe.CannotParseScribe;
@@ -91,10 +98,26 @@ import ezvcard.util.XmlUtils;
 /**
  * @author Michael Angstadt
  */
+@RunWith(Parameterized.class)
 public class XCardReaderTest {
 	@Rule
 	public TemporaryFolder tempFolder = new TemporaryFolder();
 
+	/**
+	 * Every test is run with and without pull parsing, since both modes must
+	 * produce the same results.
+	 */
+	@Parameters(name = "pullParsing={0}")
+	public static Collection<Object[]> data() {
+		return Arrays.asList(new Object[][] { { false }, { true } });
+	}
+
+	private final boolean pullParsing;
+
+	public XCardReaderTest(boolean pullParsing) {
+		this.pullParsing = pullParsing;
+	}
+
 	@BeforeClass
 	public static void beforeClass() {
 		XMLUnit.setIgnoreWhitespace(true);
@@ -138,6 +161,52 @@ public class XCardReaderTest {
 		//@formatter:on
 	}
 
+	@Test
+	public void property_filter() throws Exception {
+		//@formatter:off
+		XCardReader reader = new XCardReader(
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<fn><text>Dr. Gregory House M.D.</text></fn>" +
+				"<n>" +
+					"<surname>House</surname>" +
+					"<given>Gregory</given>" +
+				"</n>" +
+				"<group name=\"work\">" +
+					"<geo><uri>invalid</uri></geo>" +
+					"<x-foo><text>bar</text></x-foo>" +
+				"</group>" +
+				"<a xmlns=\"http://www.w3.org/1999/xhtml\"><b>ignore</b></a>" +
+				"<note><text>note</text></note>" +
+			"</vcard>" +
+		"</vcards>"
+		);
+		//@formatter:on
+		reader.setPullParsing(pullParsing);
+		reader.setPropertyFilter(new PropertyFilter().keep(FormattedName.class).keep(Note.class).keep("x-foo"));
+		VCardAsserter asserter = new VCardAsserter(reader);
+
+		asserter.next(V4_0);
+
+		//@formatter:off
+		asserter.simpleProperty(FormattedName.class)
+			.value("Dr. Gregory House M.D.")
+		.noMore();
+
+		asserter.simpleProperty(Note.class)
+			.value("note")
+		.noMore();
+
+		asserter.rawProperty("X-FOO")
+			.group("work")
+			.dataType(VCardDataType.TEXT)
+			.value("bar")
+		.noMore();
+		//@formatter:on
+
+		asserter.done();
+	}
+
 	@Test
 	public void read_multiple() throws Exception {
 		//@formatter:off
@@ -357,13 +426,18 @@ public class XCardReaderTest {
 		//@formatter:on
 
 		XCardReader reader = new XCardReader(xml);
+		reader.setPullParsing(pullParsing);
 
 		try {
 			reader.readNext();
 			fail();
 		} catch (IOException e) {
-			assertTrue(e.getCause() instanceof TransformerException);
-			assertTrue(e.getCause().getCause() instanceof SAXException);
+			if (pullParsing) {
+				assertTrue(e.getCause() instanceof XMLStreamException);
+			} else {
+				assertTrue(e.getCause() instanceof TransformerException);
+				assertTrue(e.getCause().getCause() instanceof SAXException);
+			}
 		}
 
 		assertNoMoreVCards(reader);
@@ -557,6 +631,7 @@ public class XCardReaderTest {
 		//@formatter:on
 
 		XCardReader reader = new XCardReader(xml);
+		reader.setPullParsing(pullParsing);
 		reader.registerScribe(new LuckyNumScribe());
 		reader.registerScribe(new SalaryScribe());
 		reader.registerScribe(new AgeScribe());
@@ -646,6 +721,7 @@ public class XCardReaderTest {
 		"</vcards>";
 		
 		XCardReader reader = new XCardReader(xml);
+		reader.setPullParsing(pullParsing);
 		reader.registerScribe(new SkipMeScribe());
 		VCardAsserter asserter = new VCardAsserter(reader);
 
@@ -676,6 +752,7 @@ public class XCardReaderTest {
 		"</vcards>";
 		
 		XCardReader reader = new XCardReader(xml);
+		reader.setPullParsing(pullParsing);
 		reader.registerScribe(new CannotParseScribe());
 		VCardAsserter asserter = new VCardAsserter(reader);
 
@@ -713,6 +790,7 @@ public class XCardReaderTest {
 		//@formatter:on
 
 		XCardReader reader = new XCardReader(xml);
+		reader.setPullParsing(pullParsing);
 
 		VCard vcard = reader.readNext();
 		assertVersion(V4_0, vcard);
@@ -725,6 +803,77 @@ public class XCardReaderTest {
 		assertNoMoreVCards(reader);
 	}
 
+	@Test
+	public void read_cdata_in_group() throws Exception {
+		//@formatter:off
+		String xml =
+		"<!-- ignore -->" +
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<fn><text>Dr. Gregory House M.D.</text></fn>" +
+				"<group name=\"grp\">" +
+					"<note>" +
+						"<parameters><pref><integer>1</integer></pref></parameters>" +
+						"<text>A <![CDATA[<note>]]></text>" +
+					"</note>" +
+				"</group>" +
+			"</vcard>" +
+			"<vcard>" +
+				"<fn><text>Dr. Lisa Cuddy M.D.</text></fn>" +
+			"</vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		XCardReader reader = new XCardReader(xml);
+		reader.setPullParsing(pullParsing);
+		assertCdataInGroup(reader);
+	}
+
+	@Test
+	public void read_dom() throws Exception {
+		//@formatter:off
+		String xml =
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<fn><text>Dr. Gregory House M.D.</text></fn>" +
+				"<group name=\"grp\">" +
+					"<note>" +
+						"<parameters><pref><integer>1</integer></pref></parameters>" +
+						"<text>A <![CDATA[<note>]]></text>" +
+					"</note>" +
+				"</group>" +
+			"</vcard>" +
+			"<vcard>" +
+				"<fn><text>Dr. Lisa Cuddy M.D.</text></fn>" +
+			"</vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		XCardReader reader = new XCardReader(XmlUtils.toDocument(xml));
+		reader.setPullParsing(pullParsing);
+		assertCdataInGroup(reader);
+	}
+
+	private static void assertCdataInGroup(XCardReader reader) throws IOException {
+		VCard vcard = reader.readNext();
+		assertVersion(V4_0, vcard);
+		assertPropertyCount(2, vcard);
+		assertEquals("Dr. Gregory House M.D.", vcard.getFormattedName().getValue());
+		Note note = vcard.getNotes().get(0);
+		assertEquals("grp", note.getGroup());
+		assertEquals("A <note>", note.getValue());
+		assertEquals(Integer.valueOf(1), note.getPref());
+		assertWarnings(0, reader);
+
+		vcard = reader.readNext();
+		assertVersion(V4_0, vcard);
+		assertPropertyCount(1, vcard);
+		assertEquals("Dr. Lisa Cuddy M.D.", vcard.getFormattedName().getValue());
+		assertWarnings(0, reader);
+
+		assertNoMoreVCards(reader);
+	}
+
 	@Test
 	public void read_utf8() throws Exception {
 		//@formatter:off
@@ -742,6 +891,7 @@ public class XCardReaderTest {
 		writer.close();
 
 		XCardReader reader = new XCardReader(file);
+		reader.setPullParsing(pullParsing);
 		VCardAsserter asserter = new VCardAsserter(reader);
 
 		asserter.next(V4_0);
@@ -858,13 +1008,15 @@ public class XCardReaderTest {
 		asserter.done();
 	}
 
-	private static VCardAsserter read(String file) throws SAXException, IOException {
+	private VCardAsserter read(String file) throws SAXException, IOException {
 		XCardReader reader = new XCardReader(XCardReaderTest.class.getResourceAsStream(file));
+		reader.setPullParsing(pullParsing);
 		return new VCardAsserter(reader);
 	}
 
-	private static VCardAsserter readXml(String xml) {
+	private VCardAsserter readXml(String xml) {
 		XCardReader reader = new XCardReader(xml);
+		reader.setPullParsing(pullParsing);
 		return new VCardAsserter(reader);
 	}
 }
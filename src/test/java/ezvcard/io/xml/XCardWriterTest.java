@@ -3,6 +3,7 @@ package ezvcard.io.xml;
 import static ezvcard.VCardVersion.V4_0;
 import static ezvcard.util.TestUtils.assertValidate;
 import static org.custommonkey.xmlunit.XMLAssert.assertXMLEqual;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -10,7 +11,12 @@ import static org.junit.Assert.fail;
 import java.io.File;
 import java.io.IOException;
 import java.io.StringWriter;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+
+import javax.xml.transform.OutputKeys;
 
 import org.custommonkey.xmlunit.XMLUnit;
 import org.junit.Before;
@@ -22,6 +28,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.xml.sax.SAXException;
 
+import ezvcard.Ezvcard;
 import ezvcard.VCard;
 import ezvcard.VCardDataType;
 import ezvcard.VCardVersion;
@@ -762,6 +769,125 @@ public class XCardWriterTest {
 		assertExample(vcard, "rfc6351-example.xml");
 	}
 
+	@Test
+	public void directOutput_same_as_transformer() throws Exception {
+		String files[] = { "John_Doe_ANDROID.vcf", "John_Doe_EVOLUTION.vcf", "John_Doe_IPHONE.vcf", "John_Doe_MAC_ADDRESS_BOOK.vcf", "John_Doe_MS_OUTLOOK.vcf", "fullcontact.vcf", "outlook-2007.vcf", "rfc2426-example.vcf", "rfc6350-example.vcf" };
+		for (String file : files) {
+			List<VCard> vcards = Ezvcard.parse(getClass().getResourceAsStream("/ezvcard/io/text/" + file)).all();
+			for (Integer indent : new Integer[] { null, 0, 2 }) {
+				assertDirectOutput(file, vcards, new XCardOutputProperties(indent, null));
+			}
+		}
+	}
+
+	@Test
+	public void directOutput_special_content() throws Exception {
+		VCard vcard = new VCard();
+		vcard.setFormattedName("<John> & \"Jane\" 'Doe' \u00e9\u4e00\ud83d\ude00 \u0001\u0085\r\n\t");
+		vcard.addNote("");
+		vcard.addNote(" ");
+		Note note = vcard.addNote("note");
+		note.setGroup("a\"b<c>&\td\ne");
+		note.setParameter("X-FOO", "<b&r>\u0085");
+		vcard.addXml(new Xml("<foo xmlns=\"http://example.com\" a=\"1&amp;2\"><bar/><baz>text</baz></foo>"));
+		vcard.addXml(new Xml("<p:foo xmlns:p=\"http://example.com/p\" xmlns:q=\"http://example.com/q\" q:attr=\"value\"><p:bar/><q:baz/></p:foo>"));
+		vcard.addXml(new Xml("<foo xmlns=\"http://example.com\"><bar></bar><inner xmlns=\"urn:ietf:params:xml:ns:vcard-4.0\"/></foo>"));
+
+		List<VCard> vcards = Arrays.asList(vcard, new VCard());
+		for (Integer indent : new Integer[] { null, 2 }) {
+			for (String version : new String[] { null, "1.1" }) {
+				assertDirectOutput(null, vcards, new XCardOutputProperties(indent, version));
+			}
+		}
+
+		XCardOutputProperties properties = new XCardOutputProperties();
+		properties.put(OutputKeys.ENCODING, "ISO-8859-1");
+		properties.put(OutputKeys.STANDALONE, "yes");
+		assertDirectOutput(null, vcards, properties);
+
+		properties.setIndent(4);
+		assertDirectOutput(null, vcards, properties);
+
+		//no indent amount
+		properties = new XCardOutputProperties();
+		properties.put(OutputKeys.INDENT, "yes");
+		assertDirectOutput(null, vcards, properties);
+
+		properties = new XCardOutputProperties();
+		properties.put(OutputKeys.OMIT_XML_DECLARATION, "yes");
+		assertDirectOutput(null, vcards, properties);
+		assertDirectOutput(null, Collections.<VCard> emptyList(), properties);
+	}
+
+	@Test
+	public void directOutput_mixed_content() throws Exception {
+		VCard vcard = new VCard();
+		vcard.addXml(new Xml("<foo xmlns=\"http://example.com\">text<bar/>tail<baz> </baz>\n  <qux>value</qux>\n</foo>"));
+
+		/*
+		 * Only compare the output without indentation. How mixed content is
+		 * indented varies between JDK versions.
+		 */
+		assertDirectOutput(null, Arrays.asList(vcard), new XCardOutputProperties());
+	}
+
+	@Test
+	public void directOutput_xmlVersion_invalid() throws Exception {
+		StringWriter sw = new StringWriter();
+		XCardWriter writer = new XCardWriter(sw, null, "10.17");
+		writer.setDirectOutput(true);
+		writer.write(new VCard());
+		writer.close();
+
+		String xml = sw.toString();
+		assertTrue(xml.matches("(?i)<\\?xml.*?version=\"1.0\".*?\\?>.*"));
+	}
+
+	@Test
+	public void directOutput_dom() throws Exception {
+		Document document = XmlUtils.createDocument();
+		XCardWriter writer = new XCardWriter(document);
+		writer.setDirectOutput(true);
+		writer.setAddProdId(false);
+
+		VCard vcard = new VCard();
+		vcard.setFormattedName("John Doe");
+		writer.write(vcard);
+		writer.close();
+
+		//@formatter:off
+		String expected =
+		"<vcards xmlns=\"" + V4_0.getXmlNamespace() + "\">" +
+			"<vcard>" +
+				"<fn><text>John Doe</text></fn>" +
+			"</vcard>" +
+		"</vcards>";
+		//@formatter:on
+
+		assertXMLEqual(XmlUtils.toDocument(expected), document);
+	}
+
+	private static void assertDirectOutput(String message, List<VCard> vcards, Map<String, String> outputProperties) throws IOException {
+		StringWriter sw = new StringWriter();
+		XCardWriter writer = new XCardWriter(sw, outputProperties);
+		for (VCard vcard : vcards) {
+			writer.write(vcard);
+		}
+		writer.close();
+		String expected = sw.toString();
+
+		sw = new StringWriter();
+		writer = new XCardWriter(sw, outputProperties);
+		writer.setDirectOutput(true);
+		for (VCard vcard : vcards) {
+			writer.write(vcard);
+		}
+		writer.close();
+		String actual = sw.toString();
+
+		assertEquals(message + " " + outputProperties, expected, actual);
+	}
+
 	private void assertOutput(String expected) throws SAXException, IOException {
 		String actual = sw.toString();
 		assertXMLEqual(expected, actual);
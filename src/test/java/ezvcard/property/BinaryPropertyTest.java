@@ -7,6 +7,8 @@ import static ezvcard.property.PropertySensei.assertValidate;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
 
 import java.io.ByteArrayInputStream;
 import java.io.File;
@@ -16,6 +18,8 @@ import java.io.InputStream;
 import org.junit.Test;
 
 import ezvcard.parameter.ImageType;
+import ezvcard.util.Blob;
+import ezvcard.util.Gobble;
 
 /*
  Copyright (c) 2012-2016, Michael Angstadt
@@ -100,6 +104,33 @@ public class BinaryPropertyTest {
 		assertNull(property.getData());
 	}
 
+	@Test
+	public void blob() throws Exception {
+		BinaryPropertyImpl property = new BinaryPropertyImpl();
+		assertFalse(property.hasData());
+		assertEquals(-1, property.getDataSize());
+		assertNull(property.openDataStream());
+
+		Blob blob = new MemoryBlob("data".getBytes());
+		property.setBlob(blob, ImageType.JPEG);
+		assertEquals(ImageType.JPEG, property.getContentType());
+		assertSame(blob, property.getBlob());
+		assertTrue(property.hasData());
+		assertEquals(4, property.getDataSize());
+		assertEquals("data", new Gobble(property.openDataStream()).asString());
+		assertEquals("data", new String(property.getData()));
+
+		property.setUrl("one", ImageType.PNG);
+		assertNull(property.getBlob());
+		assertFalse(property.hasData());
+
+		property.setBlob(blob, ImageType.JPEG);
+		property.setData("data2".getBytes(), ImageType.JPEG);
+		assertNull(property.getBlob());
+		assertEquals(5, property.getDataSize());
+		assertEquals("data2", new Gobble(property.openDataStream()).asString());
+	}
+
 	@Test
 	public void validate() {
 		BinaryPropertyImpl empty = new BinaryPropertyImpl();
@@ -112,6 +143,10 @@ public class BinaryPropertyTest {
 		BinaryPropertyImpl withData = new BinaryPropertyImpl();
 		withData.setData("data".getBytes(), ImageType.JPEG);
 		assertValidate(withData).run();
+
+		BinaryPropertyImpl withBlob = new BinaryPropertyImpl();
+		withBlob.setBlob(new MemoryBlob("data".getBytes()), ImageType.JPEG);
+		assertValidate(withBlob).run();
 	}
 
 	@Test
@@ -156,6 +191,56 @@ public class BinaryPropertyTest {
 		//@formatter:on
 	}
 
+	@Test
+	public void equals_blob() {
+		BinaryPropertyImpl withData = new BinaryPropertyImpl("data".getBytes(), ImageType.PNG);
+		BinaryPropertyImpl withBlob = new BinaryPropertyImpl();
+		withBlob.setBlob(new MemoryBlob("data".getBytes()), ImageType.PNG);
+
+		//blobs are only compared to other blobs
+		assertFalse(withData.equals(withBlob));
+		assertFalse(withBlob.equals(withData));
+
+		//blobs are compared by content
+		BinaryPropertyImpl withSameBlob = new BinaryPropertyImpl();
+		withSameBlob.setBlob(new MemoryBlob("data".getBytes()), ImageType.PNG);
+		assertEquals(withBlob, withSameBlob);
+		assertEquals(withBlob.hashCode(), withSameBlob.hashCode());
+
+		BinaryPropertyImpl withOtherBlob = new BinaryPropertyImpl();
+		withOtherBlob.setBlob(new MemoryBlob("atad".getBytes()), ImageType.PNG);
+		assertFalse(withBlob.equals(withOtherBlob));
+		assertFalse(withData.equals(withOtherBlob));
+
+		BinaryPropertyImpl withLongerBlob = new BinaryPropertyImpl();
+		withLongerBlob.setBlob(new MemoryBlob("data2".getBytes()), ImageType.PNG);
+		assertFalse(withBlob.equals(withLongerBlob));
+
+		BinaryPropertyImpl withUrl = new BinaryPropertyImpl("data", ImageType.PNG);
+		assertFalse(withBlob.equals(withUrl));
+		assertFalse(withUrl.equals(withBlob));
+	}
+
+	private static class MemoryBlob implements Blob {
+		private final byte data[];
+
+		public MemoryBlob(byte data[]) {
+			this.data = data;
+		}
+
+		public long getSize() {
+			return data.length;
+		}
+
+		public InputStream openStream() {
+			return new ByteArrayInputStream(data);
+		}
+
+		public void delete() {
+			//empty
+		}
+	}
+
 	public static class BinaryPropertyImpl extends BinaryProperty<ImageType> {
 		public BinaryPropertyImpl() {
 			super();
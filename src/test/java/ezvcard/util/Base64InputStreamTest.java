@@ -0,0 +1,121 @@
+package ezvcard.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.InputStream;
+import java.io.StringReader;
+import java.util.Random;
+
+import org.junit.Test;
+
+import ezvcard.util.org.apache.commons.codec.binary.Base64;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class Base64InputStreamTest {
+	@Test
+	public void read() throws Exception {
+		byte data[] = new byte[10000];
+		new Random(1).nextBytes(data);
+		String base64 = Base64.encodeBase64String(data);
+
+		InputStream in = new Base64InputStream(base64);
+		assertArrayEquals(data, new Gobble(in).asByteArray());
+	}
+
+	@Test
+	public void read_single_bytes() throws Exception {
+		InputStream in = new Base64InputStream("ZGF0YQ==");
+		assertEquals('d', in.read());
+		assertEquals('a', in.read());
+		assertEquals('t', in.read());
+		assertEquals('a', in.read());
+		assertEquals(-1, in.read());
+		assertEquals(-1, in.read());
+	}
+
+	@Test
+	public void whitespace() throws Exception {
+		byte data[] = new byte[10000];
+		new Random(2).nextBytes(data);
+		String base64 = Base64.encodeBase64String(data);
+
+		//insert whitespace so that it falls in the middle of base64 groups
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < base64.length(); i += 75) {
+			sb.append(base64, i, Math.min(i + 75, base64.length()));
+			sb.append("\r\n ");
+		}
+
+		InputStream in = new Base64InputStream(sb);
+		assertArrayEquals(data, new Gobble(in).asByteArray());
+	}
+
+	@Test
+	public void range() throws Exception {
+		String str = "data:text/plain;base64,ZGF0YQ==";
+		int start = str.indexOf(',') + 1;
+
+		InputStream in = new Base64InputStream(str, start, str.length());
+		assertEquals("data", new Gobble(in).asString());
+	}
+
+	@Test
+	public void reader() throws Exception {
+		byte data[] = new byte[10000];
+		new Random(3).nextBytes(data);
+		String base64 = Base64.encodeBase64String(data);
+
+		InputStream in = new Base64InputStream(new StringReader(base64));
+		assertArrayEquals(data, new Gobble(in).asByteArray());
+	}
+
+	@Test
+	public void ignore_data_after_padding() throws Exception {
+		//the data after the padding spans multiple chunks
+		StringBuilder sb = new StringBuilder("ZGF0YQ==");
+		for (int i = 0; i < 1500; i++) {
+			sb.append("ZGF0");
+		}
+
+		InputStream in = new Base64InputStream(sb);
+		assertEquals("data", new Gobble(in).asString());
+	}
+
+	@Test
+	public void empty() throws Exception {
+		InputStream in = new Base64InputStream("");
+		assertEquals(-1, in.read());
+	}
+}
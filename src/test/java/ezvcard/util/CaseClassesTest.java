@@ -2,10 +2,12 @@ package ezvcard.util;
 
 import static ezvcard.util.TestUtils.assertIntEquals;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
 
+import java.util.Arrays;
 import java.util.Collection;
 
 import org.junit.Before;
@@ -96,6 +98,54 @@ public class CaseClassesTest {
 		assertTrue(dataTypes.contains(PrimeNumber.SEVEN));
 	}
 
+	@Test
+	public void get_indexed() {
+		IndexedCaseClassesImpl cc = new IndexedCaseClassesImpl();
+
+		assertSame(PrimeNumber.THREE, cc.find(3));
+		assertNull(cc.find(4));
+		assertSame(PrimeNumber.THREE, cc.get(3));
+
+		PrimeNumber eleven1 = cc.get(11);
+		assertIntEquals(11, eleven1.value);
+		PrimeNumber eleven2 = cc.get(11);
+		assertSame(eleven1, eleven2);
+	}
+
+	@Test
+	public void get_runtime_defined_limit() {
+		IndexedCaseClassesImpl indexed = new IndexedCaseClassesImpl();
+		for (CaseClasses<PrimeNumber, Integer> cc : Arrays.<CaseClasses<PrimeNumber, Integer>> asList(this.cc, indexed)) {
+			for (int i = 0; i < CaseClasses.MAX_RUNTIME_DEFINED; i++) {
+				int value = 100 + i;
+				assertSame(cc.get(value), cc.get(value));
+			}
+
+			//limit reached, new objects are no longer retained
+			int value = 100 + CaseClasses.MAX_RUNTIME_DEFINED;
+			PrimeNumber object1 = cc.get(value);
+			PrimeNumber object2 = cc.get(value);
+			assertIntEquals(value, object1.value);
+			assertIntEquals(value, object2.value);
+			assertNotSame(object1, object2);
+
+			//previously retained objects are still returned
+			assertSame(cc.get(100), cc.get(100));
+		}
+	}
+
+	@Test
+	public void caseInsensitiveKey() {
+		assertNull(CaseClasses.caseInsensitiveKey(null));
+		assertEquals("", CaseClasses.caseInsensitiveKey(""));
+
+		String value = "value";
+		assertSame(value, CaseClasses.caseInsensitiveKey(value));
+
+		assertEquals("value", CaseClasses.caseInsensitiveKey("VaLuE"));
+		assertEquals(CaseClasses.caseInsensitiveKey("\u00e9T\u00e9"), CaseClasses.caseInsensitiveKey("\u00c9t\u00c9"));
+	}
+
 	private class CaseClassesImpl extends CaseClasses<PrimeNumber, Integer> {
 		public CaseClassesImpl() {
 			super(PrimeNumber.class);
@@ -112,6 +162,18 @@ public class CaseClassesTest {
 		}
 	}
 
+	private class IndexedCaseClassesImpl extends CaseClassesImpl {
+		@Override
+		protected Object objectKey(PrimeNumber object) {
+			return object.value;
+		}
+
+		@Override
+		protected Object valueKey(Integer value) {
+			return value;
+		}
+	}
+
 	@SuppressWarnings("unused")
 	private static class PrimeNumber {
 		public static final PrimeNumber ONE = new PrimeNumber(1);
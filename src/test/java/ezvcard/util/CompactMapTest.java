@@ -0,0 +1,173 @@
+package ezvcard.util;
+
+import static ezvcard.util.TestUtils.assertEqualsAndHash;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import org.junit.Test;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class CompactMapTest {
+	@Test
+	public void put_get() {
+		CompactMap<String, String> map = new CompactMap<String, String>();
+		assertTrue(map.isEmpty());
+		assertNull(map.get("one"));
+
+		assertNull(map.put("one", "1"));
+		assertNull(map.put(null, "null"));
+		assertEquals("1", map.put("one", "11"));
+
+		assertEquals(2, map.size());
+		assertEquals("11", map.get("one"));
+		assertEquals("null", map.get(null));
+		assertTrue(map.containsKey("one"));
+		assertTrue(map.containsKey(null));
+		assertFalse(map.containsKey("two"));
+	}
+
+	@Test
+	public void inflate() {
+		CompactMap<String, Integer> map = new CompactMap<String, Integer>();
+		Map<String, Integer> expected = new LinkedHashMap<String, Integer>();
+		for (int i = 0; i < CompactMap.MAX_INLINE_ENTRIES * 3; i++) {
+			String key = "key" + i;
+			map.put(key, i);
+			expected.put(key, i);
+
+			assertEquals(expected.size(), map.size());
+			assertEqualsAndHash(expected, map);
+			assertEquals(new ArrayList<String>(expected.keySet()), new ArrayList<String>(map.keySet()));
+		}
+
+		assertEquals(Integer.valueOf(5), map.remove("key5"));
+		expected.remove("key5");
+		assertEqualsAndHash(expected, map);
+
+		map.clear();
+		assertTrue(map.isEmpty());
+		map.put("one", 1);
+		assertEquals(Integer.valueOf(1), map.get("one"));
+	}
+
+	@Test
+	public void remove() {
+		CompactMap<String, String> map = new CompactMap<String, String>();
+		map.put("one", "1");
+		map.put("two", "2");
+		map.put("three", "3");
+
+		assertNull(map.remove("four"));
+		assertEquals("2", map.remove("two"));
+		assertEquals(Arrays.asList("one", "three"), new ArrayList<String>(map.keySet()));
+		assertEquals("1", map.remove("one"));
+		assertEquals("3", map.remove("three"));
+		assertTrue(map.isEmpty());
+	}
+
+	@Test
+	public void iterator() {
+		CompactMap<String, String> map = new CompactMap<String, String>();
+		map.put("one", "1");
+		map.put("two", "2");
+		map.put("three", "3");
+
+		Iterator<Map.Entry<String, String>> it = map.entrySet().iterator();
+		Map.Entry<String, String> entry = it.next();
+		assertEquals("one", entry.getKey());
+		assertEquals("1", entry.setValue("11"));
+		assertEquals("11", map.get("one"));
+
+		entry = it.next();
+		assertEquals("two", entry.getKey());
+		it.remove();
+
+		entry = it.next();
+		assertEquals("three", entry.getKey());
+		assertFalse(it.hasNext());
+
+		Map<String, String> expected = new LinkedHashMap<String, String>();
+		expected.put("one", "11");
+		expected.put("three", "3");
+		assertEqualsAndHash(expected, map);
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void iterator_concurrent_modification() {
+		CompactMap<String, String> map = new CompactMap<String, String>();
+		map.put("one", "1");
+		map.put("two", "2");
+
+		Iterator<String> it = map.keySet().iterator();
+		it.next();
+		map.put("three", "3");
+		it.next();
+	}
+
+	@Test
+	public void copy_constructor() {
+		Map<String, List<String>> orig = new LinkedHashMap<String, List<String>>();
+		orig.put("TYPE", Arrays.asList("home"));
+		orig.put("PREF", Arrays.asList("1"));
+
+		CompactMap<String, List<String>> map = new CompactMap<String, List<String>>(orig);
+		assertEqualsAndHash(orig, map);
+		assertEquals("{TYPE=[home], PREF=[1]}", map.toString());
+	}
+
+	@Test
+	public void iterator_end() {
+		CompactMap<String, String> map = new CompactMap<String, String>();
+		Iterator<Map.Entry<String, String>> it = map.entrySet().iterator();
+		assertFalse(it.hasNext());
+		try {
+			it.next();
+			fail();
+		} catch (NoSuchElementException e) {
+			//expected
+		}
+	}
+}
@@ -8,7 +8,11 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringReader;
 import java.io.UnsupportedEncodingException;
+import java.util.Random;
 
 import org.junit.Test;
 
@@ -169,6 +173,81 @@ public class DataUriTest {
 		DataUri.parse("data:text/plain;charset=foobar;base64," + dataBase64);
 	}
 
+	@Test
+	public void parse_whitespace() {
+		DataUri expected = new DataUri("image/png", dataBytes);
+		DataUri actual = DataUri.parse("data:image/png;base64," + dataBase64.substring(0, 5) + "\r\n " + dataBase64.substring(5));
+		assertEquals(expected, actual);
+	}
+
+	@Test
+	public void parse_stream() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataUri actual = DataUri.parse((CharSequence) ("data:IMAGE/png;base64," + dataBase64), out);
+		assertEquals(new DataUri("image/png", (String) null), actual);
+		assertArrayEquals(dataBytes, out.toByteArray());
+
+		out = new ByteArrayOutputStream();
+		actual = DataUri.parse(new StringReader("data:IMAGE/png;base64," + dataBase64), out);
+		assertEquals(new DataUri("image/png", (String) null), actual);
+		assertArrayEquals(dataBytes, out.toByteArray());
+
+		//text values are not written to the stream
+		out = new ByteArrayOutputStream();
+		actual = DataUri.parse(new StringBuilder("data:image/png;charset=UTF-8;base64," + dataBase64), out);
+		assertEquals(new DataUri("image/png", dataString), actual);
+		assertEquals(0, out.size());
+
+		out = new ByteArrayOutputStream();
+		actual = DataUri.parse(new StringReader("data:image/png;charset=UTF-8;base64," + dataBase64), out);
+		assertEquals(new DataUri("image/png", dataString), actual);
+		assertEquals(0, out.size());
+
+		out = new ByteArrayOutputStream();
+		actual = DataUri.parse(new StringReader("data:text/pla,in;base64," + dataBase64), out);
+		assertEquals(new DataUri("text/pla", "in;base64," + dataBase64), actual);
+		assertEquals(0, out.size());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parse_stream_no_comma() throws Exception {
+		DataUri.parse(new StringReader("data:text/plain;base64"), new ByteArrayOutputStream());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void parse_stream_wrong_scheme() throws Exception {
+		DataUri.parse(new StringReader("mailto:johndoe@gmail.com"), new ByteArrayOutputStream());
+	}
+
+	@Test
+	public void write() throws Exception {
+		StringBuilder sb = new StringBuilder();
+		DataUri.write("IMAGE/png", new ByteArrayInputStream(dataBytes), sb);
+		assertEquals("data:image/png;base64," + dataBase64, sb.toString());
+
+		sb = new StringBuilder();
+		DataUri.write(null, new ByteArrayInputStream(new byte[0]), sb);
+		assertEquals("data:;base64,", sb.toString());
+	}
+
+	@Test
+	public void write_large() throws Exception {
+		//larger than the size of the chunks that are encoded at a time
+		byte data[] = new byte[10000];
+		new Random(1).nextBytes(data);
+
+		StringBuilder sb = new StringBuilder();
+		DataUri.write("image/png", new ByteArrayInputStream(data), sb);
+		String expected = "data:image/png;base64," + Base64.encodeBase64String(data);
+		assertEquals(expected, sb.toString());
+		assertEquals(expected, new DataUri("image/png", data).toString());
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		DataUri.parse(new StringReader(expected), out);
+		assertArrayEquals(data, out.toByteArray());
+		assertArrayEquals(data, DataUri.parse(expected).getData());
+	}
+
 	@Test
 	public void toString_() {
 		DataUri uri = new DataUri("text/plain", dataBytes);
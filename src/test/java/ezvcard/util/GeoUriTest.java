@@ -9,6 +9,7 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.Locale;
 import java.util.Map;
+import java.util.Random;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
 
@@ -168,6 +169,52 @@ public class GeoUriTest {
 		assertEquals("with = special & chars", uri.getParameter("param"));
 	}
 
+	@Test
+	public void parse_decode_dollar_and_backslash() {
+		GeoUri uri = GeoUri.parse("geo:12.34,56.78;param=%24100%5cday");
+		assertEquals("$100\\day", uri.getParameter("param"));
+	}
+
+	@Test
+	public void parse_toString_round_trip() {
+		String alphabet = "a1-;=%, $\\\u00e9";
+		Random random = new Random(1);
+		for (int i = 0; i < 1000; i++) {
+			GeoUri.Builder builder = new GeoUri.Builder(randomCoordinate(random), randomCoordinate(random));
+			if (random.nextBoolean()) {
+				builder.coordC(randomCoordinate(random));
+			}
+			if (random.nextBoolean()) {
+				builder.crs("x-crs" + random.nextInt(10));
+			}
+			if (random.nextBoolean()) {
+				builder.uncertainty(random.nextInt(100000) / 1000.0);
+			}
+			int params = random.nextInt(4);
+			for (int j = 0; j < params; j++) {
+				builder.parameter("x-" + j, randomString(random, alphabet));
+			}
+			GeoUri expected = builder.build();
+
+			GeoUri actual = GeoUri.parse(expected.toString());
+			assertEquals(expected.toString(), expected, actual);
+			assertEquals(expected.getParameters(), actual.getParameters());
+		}
+	}
+
+	private static Double randomCoordinate(Random random) {
+		return (random.nextInt(360000000) - 180000000) / 1000000.0;
+	}
+
+	private static String randomString(Random random, String alphabet) {
+		int length = random.nextInt(8);
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return sb.toString();
+	}
+
 	@Test
 	public void builder_crs() {
 		GeoUri uri = new GeoUri.Builder(12.34, 56.78).crs("123-valid").build();
@@ -13,6 +13,7 @@ import static org.junit.Assert.fail;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
 import java.util.List;
 import java.util.ListIterator;
@@ -233,6 +234,49 @@ public class ListMultimapTest {
 		assertTrue(actual.contains("3"));
 	}
 
+	@Test
+	public void valuesView() {
+		ListMultimap<String, String> map = new ListMultimap<String, String>();
+		Collection<String> actual = map.valuesView();
+		assertTrue(actual.isEmpty());
+		assertFalse(actual.iterator().hasNext());
+
+		map.put("one", "1");
+		map.put("one", "111");
+		map.put("two", "2");
+		map.put("one", "11");
+		map.put("three", "3");
+
+		//view is live
+		assertEquals(5, actual.size());
+		assertEquals(Arrays.asList("1", "111", "11", "2", "3"), new ArrayList<String>(actual));
+		assertEquals(map.values(), new ArrayList<String>(actual));
+
+		map.removeAll("two");
+		assertEquals(Arrays.asList("1", "111", "11", "3"), new ArrayList<String>(actual));
+	}
+
+	@Test(expected = UnsupportedOperationException.class)
+	public void valuesView_remove() {
+		ListMultimap<String, String> map = new ListMultimap<String, String>();
+		map.put("one", "1");
+
+		Iterator<String> it = map.valuesView().iterator();
+		it.next();
+		it.remove();
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void valuesView_concurrent_modification() {
+		ListMultimap<String, String> map = new ListMultimap<String, String>();
+		map.put("one", "1");
+		map.put("one", "11");
+
+		for (String value : map.valuesView()) {
+			map.put("one", value);
+		}
+	}
+
 	@Test
 	public void isEmpty() {
 		ListMultimap<String, String> map = new ListMultimap<String, String>();
@@ -186,6 +186,15 @@ public class PartialDateTest {
 		assertEquals(orig, copy);
 	}
 
+	@Test
+	public void builder_clear() {
+		PartialDate date = builder().year(2015).month(3).year(null).build();
+		assertEquals(null, date.getYear());
+		assertEquals(Integer.valueOf(3), date.getMonth());
+		assertEquals(builder().month(3).build(), date);
+		assertEquals(builder().month(3).build().hashCode(), date.hashCode());
+	}
+
 	@Test
 	public void toISO8601() {
 		//date
@@ -258,6 +267,50 @@ public class PartialDateTest {
 		assertParse("--04-20T05-05:00", builder().month(4).date(20).hour(5).offset(new UtcOffset(false, -5, 0)));
 	}
 
+	@Test
+	public void parse_date_or_time() {
+		//no "T", so the date formats are tried first
+		assertParse("1030", builder().year(1030));
+		assertParse("10", builder().hour(10));
+		assertParse("103015", builder().hour(10).minute(30).second(15));
+		assertParse("-30", builder().minute(30));
+		assertParse("--12", builder().month(12));
+		assertParse("1980T", builder().year(1980));
+	}
+
+	@Test
+	public void parse_offset() {
+		assertParse("T10-05", builder().hour(10).offset(new UtcOffset(false, 5, 0)));
+		assertParse("T10+5", builder().hour(10).offset(new UtcOffset(true, 5, 0)));
+		assertParse("T10-530", builder().hour(10).offset(new UtcOffset(false, 5, 30)));
+		assertParse("T10-5:30", builder().hour(10).offset(new UtcOffset(false, 5, 30)));
+		assertParse("T10-05:", builder().hour(10).offset(new UtcOffset(false, 5, 0)));
+		assertParse("T-30-05", builder().minute(30).offset(new UtcOffset(false, 5, 0)));
+		assertParse("T--30+0100", builder().second(30).offset(new UtcOffset(true, 1, 0)));
+	}
+
+	@Test
+	public void parse_invalid_formats() {
+		//@formatter:off
+		String inputs[] = {
+			"T", "198", "19800", "1980-04-", "1980--04", "1980-04-2",
+			"-", "--", "---", "--0", "---2", "---200",
+			"T1", "T105", "T10:", "T10:3", "T10:30:", "T-", "T-3", "T-30:", "T--3", "T---30",
+			"T10-", "T10-12345", "T10-123:45", "T10-05:3", "T10:-05", "T10Z", "T10T10",
+			"1980-04-20T1", "x1980", "1980x"
+		};
+		//@formatter:on
+
+		for (String input : inputs) {
+			try {
+				PartialDate.parse(input);
+				fail(input);
+			} catch (IllegalArgumentException e) {
+				//expected
+			}
+		}
+	}
+
 	@Test
 	public void hasDateComponent() {
 		assertTrue(builder().year(1980).build().hasDateComponent());
@@ -0,0 +1,125 @@
+package ezvcard.util;
+
+import static ezvcard.VCardVersion.V2_1;
+import static ezvcard.VCardVersion.V3_0;
+import static ezvcard.VCardVersion.V4_0;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import ezvcard.SupportedVersions;
+import ezvcard.VCardVersion;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class SupportedVersionsIndexTest {
+	@Test
+	public void mask() {
+		assertEquals(0, SupportedVersionsIndex.mask());
+		assertEquals(SupportedVersionsIndex.ALL, SupportedVersionsIndex.mask(V2_1, V3_0, V4_0));
+
+		int mask = SupportedVersionsIndex.mask(V2_1, V4_0);
+		assertTrue(SupportedVersionsIndex.supports(mask, V2_1));
+		assertFalse(SupportedVersionsIndex.supports(mask, V3_0));
+		assertTrue(SupportedVersionsIndex.supports(mask, V4_0));
+	}
+
+	@Test
+	public void toVersions() {
+		assertArrayEquals(new VCardVersion[0], SupportedVersionsIndex.toVersions(0));
+		assertArrayEquals(new VCardVersion[] { V2_1, V4_0 }, SupportedVersionsIndex.toVersions(SupportedVersionsIndex.mask(V4_0, V2_1)));
+		assertArrayEquals(VCardVersion.values(), SupportedVersionsIndex.toVersions(SupportedVersionsIndex.ALL));
+	}
+
+	@Test
+	public void getMask() {
+		assertEquals(SupportedVersionsIndex.mask(V3_0), SupportedVersionsIndex.getMask(Annotated.class));
+		assertEquals(SupportedVersionsIndex.mask(V3_0), SupportedVersionsIndex.getMask(Annotated.class));
+		assertEquals(SupportedVersionsIndex.ALL, SupportedVersionsIndex.getMask(NotAnnotated.class));
+	}
+
+	@Test
+	public void getConstantMask() {
+		assertEquals(SupportedVersionsIndex.mask(V2_1, V3_0), SupportedVersionsIndex.getConstantMask(Constant.ONE));
+		assertEquals(SupportedVersionsIndex.mask(V2_1, V3_0), SupportedVersionsIndex.getConstantMask(Constant.ONE));
+		assertEquals(SupportedVersionsIndex.ALL, SupportedVersionsIndex.getConstantMask(Constant.TWO));
+		assertEquals(SupportedVersionsIndex.ALL, SupportedVersionsIndex.getConstantMask(new Constant()));
+	}
+
+	@Test
+	public void getVersions() {
+		assertArrayEquals(new VCardVersion[] { V4_0, V2_1 }, SupportedVersionsIndex.getVersions(Unordered.class));
+		assertArrayEquals(VCardVersion.values(), SupportedVersionsIndex.getVersions(NotAnnotated.class));
+
+		//returns a copy
+		SupportedVersionsIndex.getVersions(Unordered.class)[0] = V3_0;
+		assertArrayEquals(new VCardVersion[] { V4_0, V2_1 }, SupportedVersionsIndex.getVersions(Unordered.class));
+	}
+
+	@Test
+	public void getConstantVersions() {
+		assertArrayEquals(new VCardVersion[] { V4_0, V2_1 }, SupportedVersionsIndex.getConstantVersions(Constant.THREE));
+		assertArrayEquals(VCardVersion.values(), SupportedVersionsIndex.getConstantVersions(Constant.TWO));
+		assertArrayEquals(VCardVersion.values(), SupportedVersionsIndex.getConstantVersions(new Constant()));
+	}
+
+	@SupportedVersions(V3_0)
+	private static class Annotated {
+		//empty
+	}
+
+	@SupportedVersions({ V4_0, V2_1 })
+	private static class Unordered {
+		//empty
+	}
+
+	private static class NotAnnotated {
+		//empty
+	}
+
+	public static class Constant {
+		@SupportedVersions({ V2_1, V3_0 })
+		public static final Constant ONE = new Constant();
+
+		public static final Constant TWO = new Constant();
+
+		@SupportedVersions({ V4_0, V2_1 })
+		public static final Constant THREE = new Constant();
+
+		@SuppressWarnings("unused")
+		public final String instanceField = "value";
+	}
+}
@@ -7,6 +7,7 @@ import static org.junit.Assert.assertTrue;
 
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Random;
 
 import nl.jqno.equalsverifier.EqualsVerifier;
 
@@ -142,6 +143,45 @@ public class TelUriTest {
 		assertEquals("with = special & chars", uri.getParameter("param"));
 	}
 
+	@Test
+	public void parse_decode_dollar_and_backslash() {
+		TelUri uri = TelUri.parse("tel:+1-212-555-0101;param=%24100%5cday");
+		assertEquals("$100\\day", uri.getParameter("param"));
+	}
+
+	@Test
+	public void parse_toString_round_trip() {
+		String alphabet = "a1-;=% $\\\u00e9";
+		Random random = new Random(1);
+		for (int i = 0; i < 1000; i++) {
+			TelUri.Builder builder = new TelUri.Builder("+1-" + random.nextInt(1000));
+			if (random.nextBoolean()) {
+				builder.extension(Integer.toString(random.nextInt(1000)));
+			}
+			if (random.nextBoolean()) {
+				builder.isdnSubaddress(randomString(random, alphabet));
+			}
+			int params = random.nextInt(4);
+			for (int j = 0; j < params; j++) {
+				builder.parameter("x-" + j, randomString(random, alphabet));
+			}
+			TelUri expected = builder.build();
+
+			TelUri actual = TelUri.parse(expected.toString());
+			assertEquals(expected.toString(), expected, actual);
+			assertEquals(expected.getParameters(), actual.getParameters());
+		}
+	}
+
+	private static String randomString(Random random, String alphabet) {
+		int length = random.nextInt(8);
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return sb.toString();
+	}
+
 	@Test
 	public void parse_empty() {
 		TelUri uri = TelUri.parse("tel:");
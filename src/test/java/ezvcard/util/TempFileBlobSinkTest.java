@@ -0,0 +1,101 @@
+package ezvcard.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.fail;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class TempFileBlobSinkTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void store() throws Exception {
+		File directory = folder.getRoot();
+		TempFileBlobSink sink = new TempFileBlobSink(directory);
+
+		Blob blob = sink.store(new ByteArrayInputStream("data".getBytes()));
+		assertEquals(4, blob.getSize());
+		assertEquals("data", new Gobble(blob.openStream()).asString());
+
+		File file = ((FileBlob) blob).getFile();
+		assertEquals(directory, file.getParentFile());
+	}
+
+	@Test
+	public void delete() throws Exception {
+		File directory = folder.getRoot();
+		TempFileBlobSink sink = new TempFileBlobSink(directory);
+
+		Blob blob = sink.store(new ByteArrayInputStream("data".getBytes()));
+		assertEquals(1, directory.list().length);
+
+		blob.delete();
+		assertEquals(0, directory.list().length);
+
+		//already deleted
+		blob.delete();
+	}
+
+	@Test
+	public void store_error() throws Exception {
+		File directory = folder.getRoot();
+		TempFileBlobSink sink = new TempFileBlobSink(directory);
+
+		InputStream in = new InputStream() {
+			@Override
+			public int read() throws IOException {
+				throw new IOException();
+			}
+		};
+
+		try {
+			sink.store(in);
+			fail();
+		} catch (IOException e) {
+			//expected
+		}
+
+		//the partially-written file is deleted
+		assertEquals(0, directory.list().length);
+	}
+}
@@ -0,0 +1,106 @@
+package ezvcard.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.TimeZone;
+
+import org.junit.Before;
+import org.junit.Test;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class TimezoneCacheTest {
+	@Before
+	public void before() {
+		TimezoneCache.clear();
+	}
+
+	@Test
+	public void getTimeZone() {
+		TimeZone timezone = TimezoneCache.getTimeZone("America/New_York");
+		assertEquals("America/New_York", timezone.getID());
+		assertSame(timezone, TimezoneCache.getTimeZone("America/New_York"));
+
+		assertNull(TimezoneCache.getTimeZone("Invalid/Timezone"));
+		assertNull(TimezoneCache.getTimeZone("Invalid/Timezone"));
+
+		assertEquals(2, TimezoneCache.getHits());
+		assertEquals(2, TimezoneCache.getMisses());
+	}
+
+	@Test
+	public void getUtcOffset() {
+		UtcOffset offset = TimezoneCache.getUtcOffset("-0500");
+		assertEquals(new UtcOffset(false, 5, 0), offset);
+		assertSame(offset, TimezoneCache.getUtcOffset("-0500"));
+
+		assertNull(TimezoneCache.getUtcOffset("America/New_York"));
+		assertNull(TimezoneCache.getUtcOffset("America/New_York"));
+
+		assertEquals(2, TimezoneCache.getHits());
+		assertEquals(2, TimezoneCache.getMisses());
+	}
+
+	@Test
+	public void parseTimeZoneId_returns_copy() {
+		TimeZone timezone = VCardDateFormat.parseTimeZoneId("America/New_York");
+		assertNotSame(timezone, VCardDateFormat.parseTimeZoneId("America/New_York"));
+
+		timezone.setID("Modified");
+		assertEquals("America/New_York", TimezoneCache.getTimeZone("America/New_York").getID());
+	}
+
+	@Test
+	public void bounded() {
+		for (int i = 0; i < TimezoneCache.MAX_SIZE * 3; i++) {
+			TimezoneCache.getUtcOffset("invalid" + i);
+		}
+		assertTrue(TimezoneCache.size() <= TimezoneCache.MAX_SIZE);
+		assertEquals(TimezoneCache.MAX_SIZE * 3, TimezoneCache.getMisses());
+	}
+
+	@Test
+	public void clear() {
+		TimezoneCache.getUtcOffset("-0500");
+		TimezoneCache.getUtcOffset("-0500");
+		TimezoneCache.clear();
+
+		assertEquals(0, TimezoneCache.size());
+		assertEquals(0, TimezoneCache.getHits());
+		assertEquals(0, TimezoneCache.getMisses());
+	}
+}
@@ -0,0 +1,132 @@
+package ezvcard.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class UriParameterCodecTest {
+	private static final boolean[] valid = UriParameterCodec.validCharacters("!$&'()*+-.:[]_~/");
+
+	@Test
+	public void encode() {
+		assertEquals("abc", encode("abc"));
+		assertEquals("with%20%3d%20special%20&%20chars", encode("with = special & chars"));
+		assertEquals("%a%80%ff%100%ffff", encode("\n\u0080\u00ff\u0100\uffff"));
+		assertEquals("", encode(""));
+	}
+
+	@Test
+	public void decode() {
+		assertEquals("abc", UriParameterCodec.decode("abc", 0, 3));
+		assertEquals("b c", UriParameterCodec.decode("ab%20cd", 1, 6));
+		assertEquals("=", UriParameterCodec.decode("%3D", 0, 3));
+		assertEquals("%2", UriParameterCodec.decode("%2", 0, 2));
+		assertEquals("%2", UriParameterCodec.decode("%20", 0, 2));
+		assertEquals("%zz%", UriParameterCodec.decode("%zz%", 0, 4));
+		assertEquals("$\\", UriParameterCodec.decode("%24%5c", 0, 6));
+	}
+
+	/**
+	 * Compares the codec against the regular expression based implementation
+	 * that it replaced.
+	 */
+	@Test
+	public void equivalent_to_regex_implementation() {
+		String alphabet = "%%%0123456789aAfFgG =;$\\\u00e9";
+		Random random = new Random(1);
+		for (int i = 0; i < 10000; i++) {
+			int length = random.nextInt(12);
+			StringBuilder sb = new StringBuilder(length);
+			for (int j = 0; j < length; j++) {
+				sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			String value = sb.toString();
+
+			assertEquals(value, legacyDecode(value), UriParameterCodec.decode(value, 0, value.length()));
+			assertEquals(value, legacyEncode(value), encode(value));
+		}
+	}
+
+	@Test
+	public void round_trip() {
+		Random random = new Random(2);
+		for (int i = 0; i < 1000; i++) {
+			int length = random.nextInt(12);
+			StringBuilder sb = new StringBuilder(length);
+			for (int j = 0; j < length; j++) {
+				//characters below 0x10 are not padded, so they do not survive a round trip
+				sb.append((char) (0x10 + random.nextInt(0xf0)));
+			}
+			String value = sb.toString();
+
+			String encoded = encode(value);
+			assertEquals(value, UriParameterCodec.decode(encoded, 0, encoded.length()));
+		}
+	}
+
+	private static String encode(String value) {
+		StringBuilder sb = new StringBuilder();
+		UriParameterCodec.encode(value, valid, sb);
+		return sb.toString();
+	}
+
+	private static String legacyEncode(String value) {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < value.length(); i++) {
+			char c = value.charAt(i);
+			if (c < valid.length && valid[c]) {
+				sb.append(c);
+			} else {
+				sb.append('%').append(Integer.toString(c, 16));
+			}
+		}
+		return sb.toString();
+	}
+
+	private static String legacyDecode(String value) {
+		Matcher m = Pattern.compile("(?i)%([0-9a-f]{2})").matcher(value);
+		StringBuffer sb = new StringBuffer();
+		while (m.find()) {
+			int hex = Integer.parseInt(m.group(1), 16);
+			m.appendReplacement(sb, Matcher.quoteReplacement(Character.toString((char) hex)));
+		}
+		m.appendTail(sb);
+		return sb.toString();
+	}
+}
@@ -0,0 +1,175 @@
+package ezvcard.util;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.util.Random;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+/*
+ Copyright (c) 2012-2016, Michael Angstadt
+ All rights reserved.
+
+ Redistribution and use in source and binary forms, with or without
+ modification, are permitted provided that the following conditions are met: 
+
+ 1. Redistributions of source code must retain the above copyright notice, this
+ list of conditions and the following disclaimer. 
+ 2. Redistributions in binary form must reproduce the above copyright notice,
+ this list of conditions and the following disclaimer in the documentation
+ and/or other materials provided with the distribution. 
+
+ THIS SOFTWARE IS PROVIDED BY THE COPYRIGHT HOLDERS AND CONTRIBUTORS "AS IS" AND
+ ANY EXPRESS OR IMPLIED WARRANTIES, INCLUDING, BUT NOT LIMITED TO, THE IMPLIED
+ WARRANTIES OF MERCHANTABILITY AND FITNESS FOR A PARTICULAR PURPOSE ARE
+ DISCLAIMED. IN NO EVENT SHALL THE COPYRIGHT OWNER OR CONTRIBUTORS BE LIABLE FOR
+ ANY DIRECT, INDIRECT, INCIDENTAL, SPECIAL, EXEMPLARY, OR CONSEQUENTIAL DAMAGES
+ (INCLUDING, BUT NOT LIMITED TO, PROCUREMENT OF SUBSTITUTE GOODS OR SERVICES;
+ LOSS OF USE, DATA, OR PROFITS; OR BUSINESS INTERRUPTION) HOWEVER CAUSED AND
+ ON ANY THEORY OF LIABILITY, WHETHER IN CONTRACT, STRICT LIABILITY, OR TORT
+ (INCLUDING NEGLIGENCE OR OTHERWISE) ARISING IN ANY WAY OUT OF THE USE OF THIS
+ SOFTWARE, EVEN IF ADVISED OF THE POSSIBILITY OF SUCH DAMAGE.
+
+ The views and conclusions contained in the software and documentation are those
+ of the authors and should not be interpreted as representing official policies, 
+ either expressed or implied, of the FreeBSD Project.
+ */
+
+/**
+ * @author Michael Angstadt
+ */
+public class Utf8ByteWriterTest {
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void same_as_OutputStreamWriter() throws Exception {
+		Random random = new Random(1);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 50000; i++) {
+			switch (random.nextInt(5)) {
+			case 0:
+				sb.append((char) random.nextInt(0x80));
+				break;
+			case 1:
+				sb.append((char) (0x80 + random.nextInt(0x780)));
+				break;
+			case 2:
+				sb.append((char) (0x800 + random.nextInt(0xd000)));
+				break;
+			case 3:
+				sb.appendCodePoint(0x10000 + random.nextInt(0x100000));
+				break;
+			case 4:
+				//unpaired surrogate
+				sb.append((char) (0xd800 + random.nextInt(0x800)));
+				break;
+			}
+		}
+		String str = sb.toString();
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		Writer writer = new OutputStreamWriter(expected, "UTF-8");
+		writer.write(str);
+		writer.close();
+
+		//write in small pieces so surrogate pairs are split across writes
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		writer = new Utf8ByteWriter(actual);
+		char chars[] = str.toCharArray();
+		int pos = 0;
+		while (pos < chars.length) {
+			int len = Math.min(random.nextInt(20), chars.length - pos);
+			if (random.nextBoolean()) {
+				writer.write(chars, pos, len);
+			} else {
+				writer.write(str, pos, len);
+			}
+			pos += len;
+		}
+		writer.close();
+
+		assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+	}
+
+	@Test
+	public void ascii_runs_across_buffer_boundary() throws Exception {
+		Random random = new Random(1);
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 50000; i++) {
+			sb.append((i % 3001 == 0) ? '\u00e9' : (char) ('a' + random.nextInt(26)));
+		}
+		String str = sb.toString();
+
+		ByteArrayOutputStream expected = new ByteArrayOutputStream();
+		Writer writer = new OutputStreamWriter(expected, "UTF-8");
+		writer.write(str);
+		writer.close();
+
+		ByteArrayOutputStream actual = new ByteArrayOutputStream();
+		writer = new Utf8ByteWriter(actual);
+		char chars[] = str.toCharArray();
+		int pos = 0;
+		while (pos < chars.length) {
+			int len = Math.min(random.nextInt(20000), chars.length - pos);
+			if (random.nextBoolean()) {
+				writer.write(chars, pos, len);
+			} else {
+				writer.write(str, pos, len);
+			}
+			pos += len;
+		}
+		writer.close();
+
+		assertArrayEquals(expected.toByteArray(), actual.toByteArray());
+	}
+
+	@Test
+	public void write_char() throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Writer writer = new Utf8ByteWriter(out);
+		writer.write('a');
+		writer.write(0xe9);
+		writer.write(0xd83d);
+		writer.flush();
+		assertEquals("aé", new String(out.toByteArray(), "UTF-8"));
+
+		writer.write(0xde00);
+		writer.close();
+		assertEquals("aé😀", new String(out.toByteArray(), "UTF-8"));
+	}
+
+	@Test
+	public void channel() throws Exception {
+		String data = "one two three é";
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		Writer writer = new Utf8ByteWriter(Channels.newChannel(out));
+		writer.write(data);
+		writer.close();
+
+		assertEquals(data, new String(out.toByteArray(), "UTF-8"));
+	}
+
+	@Test
+	public void file_append() throws Exception {
+		File file = folder.newFile();
+		Writer writer = new Utf8ByteWriter(file, false);
+		writer.write("two");
+		writer.close();
+
+		writer = new Utf8ByteWriter(file, true);
+		writer.write(" three");
+		writer.close();
+
+		assertEquals("two three", new Gobble(file).asString("UTF-8"));
+	}
+}
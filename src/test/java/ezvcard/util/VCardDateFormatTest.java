@@ -6,6 +6,7 @@ import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.util.Date;
 import java.util.TimeZone;
@@ -96,9 +97,56 @@ public class VCardDateFormatTest {
 		assertEquals(datetime, VCardDateFormat.parse("2012-07-01T10:01:30+0300"));
 	}
 
-	@Test(expected = IllegalArgumentException.class)
+	@Test
+	public void parse_lenient() {
+		//out-of-range values roll over
+		assertEquals(date("2013-01-01"), VCardDateFormat.parse("20121232"));
+		assertEquals(date("2012-07-02 00:00:00"), VCardDateFormat.parse("2012-07-01T23:00:00Z"));
+	}
+
+	@Test
 	public void parse_invalid() {
-		VCardDateFormat.parse("invalid");
+		//@formatter:off
+		String[] inputs = {
+			"invalid",
+			"",
+			"2012070",
+			"201207011",
+			"2012-0701",
+			"20120701T070130",
+			"20120701T07:01:30Z",
+			"2012-07-01T070130Z",
+			"20120701T070130+03:00",
+			"2012-07-01T07:01:30+3:00",
+			"2012-07-01T07:01:30+0300x",
+			"20120701T070130+2400",
+			"20120701T070130+0060"
+		};
+		//@formatter:on
+
+		for (String input : inputs) {
+			try {
+				VCardDateFormat.parse(input);
+				fail("IllegalArgumentException expected for: " + input);
+			} catch (IllegalArgumentException e) {
+				//expected
+			}
+		}
+	}
+
+	@Test
+	public void find() {
+		assertEquals(VCardDateFormat.DATE_BASIC, VCardDateFormat.find("20120701"));
+		assertEquals(VCardDateFormat.DATE_EXTENDED, VCardDateFormat.find("2012-07-01"));
+		assertEquals(VCardDateFormat.DATE_TIME_BASIC, VCardDateFormat.find("20120701T100130+0300"));
+		assertEquals(VCardDateFormat.DATE_TIME_EXTENDED, VCardDateFormat.find("2012-07-01T10:01:30+03:00"));
+		assertEquals(VCardDateFormat.UTC_DATE_TIME_BASIC, VCardDateFormat.find("20120701T070130Z"));
+		assertEquals(VCardDateFormat.UTC_DATE_TIME_EXTENDED, VCardDateFormat.find("2012-07-01T07:01:30Z"));
+		assertEquals(VCardDateFormat.HCARD_DATE_TIME, VCardDateFormat.find("2012-07-01T10:01:30+0300"));
+		assertNull(VCardDateFormat.find("20120701T070130"));
+
+		assertTrue(VCardDateFormat.HCARD_DATE_TIME.matches("2012-07-01T10:01:30+03:00"));
+		assertFalse(VCardDateFormat.DATE_TIME_EXTENDED.matches("2012-07-01T10:01:30+0300"));
 	}
 
 	@Test
@@ -115,6 +163,9 @@ public class VCardDateFormatTest {
 		assertTrue(VCardDateFormat.dateHasTimezone("20130601T120000-0100"));
 		assertTrue(VCardDateFormat.dateHasTimezone("2013-06-01T12:00:00+01:00"));
 		assertTrue(VCardDateFormat.dateHasTimezone("2013-06-01T12:00:00-01:00"));
+		assertFalse(VCardDateFormat.dateHasTimezone("2013-06-01"));
+		assertFalse(VCardDateFormat.dateHasTimezone("+01:0"));
+		assertTrue(VCardDateFormat.dateHasTimezone("+0100"));
 	}
 
 	@Test
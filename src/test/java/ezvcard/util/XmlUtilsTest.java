@@ -2,18 +2,25 @@ package ezvcard.util;
 
 import static org.custommonkey.xmlunit.XMLAssert.assertXMLEqual;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.FileInputStream;
+import java.io.StringReader;
 import java.io.Writer;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamReader;
 import javax.xml.transform.OutputKeys;
+import javax.xml.transform.stream.StreamSource;
 
 import org.junit.Rule;
 import org.junit.Test;
@@ -152,6 +159,68 @@ public class XmlUtilsTest {
 		assertXMLEqual(expected, actual);
 	}
 
+	@Test
+	public void toString_output_properties_not_retained() throws Exception {
+		Document document = XmlUtils.toDocument(xml);
+		Map<String, String> outputProperties = new HashMap<String, String>();
+		outputProperties.put(OutputKeys.OMIT_XML_DECLARATION, "yes");
+		assertFalse(XmlUtils.toString(document, outputProperties).startsWith("<?xml"));
+		assertTrue(XmlUtils.toString(document).startsWith("<?xml"));
+	}
+
+	@Test(expected = SAXException.class)
+	public void toDocument_doctype() throws Exception {
+		//@formatter:off
+		String xml =
+		"<!DOCTYPE root [<!ENTITY xxe SYSTEM \"file:///etc/passwd\">]>" +
+		"<root>&xxe;</root>";
+		//@formatter:on
+		XmlUtils.toDocument(xml);
+	}
+
+	@Test
+	public void toDocument_after_invalid_xml() throws Exception {
+		try {
+			XmlUtils.toDocument("not-xml");
+			fail();
+		} catch (SAXException e) {
+			//expected
+		}
+
+		Document document = XmlUtils.toDocument(xml);
+		assertEquals("root", document.getDocumentElement().getLocalName());
+	}
+
+	@Test
+	public void new_objects_are_not_shared() throws Exception {
+		assertNotSame(XmlUtils.newTransformer(), XmlUtils.newTransformer());
+		assertNotSame(XmlUtils.newTransformerHandler(), XmlUtils.newTransformerHandler());
+		assertNotSame(XmlUtils.newXPath(), XmlUtils.newXPath());
+
+		final Object[] other = new Object[1];
+		Thread thread = new Thread() {
+			@Override
+			public void run() {
+				other[0] = XmlUtils.newXPath();
+			}
+		};
+		thread.start();
+		thread.join();
+
+		assertNotNull(other[0]);
+	}
+
+	@Test
+	public void newXMLStreamReader() throws Exception {
+		XMLStreamReader reader = XmlUtils.newXMLStreamReader(new StreamSource(new StringReader(xml)));
+		try {
+			assertEquals(XMLStreamConstants.START_ELEMENT, reader.nextTag());
+			assertEquals("root", reader.getLocalName());
+		} finally {
+			reader.close();
+		}
+	}
+
 	@Test
 	public void toElementList() throws Exception {
 		Document document = XmlUtils.toDocument(xml);